@@ -0,0 +1,213 @@
+package net.sourceforge.kolmafia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import net.sourceforge.kolmafia.request.GenericRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Replays the URLs of a session through the registration handlers in doRegister, tried one after
+ * another as they used to be and looked up by page in a RegistrationTable as they are now.
+ *
+ * <p>The real handlers log and update state when they match, so each one here is a probe that
+ * does what most of them do before matching: check the page, then run a pattern over the URL.
+ * The handlers have the pages of the two tables in RequestLogger, in the same order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RequestLoggerBenchmark {
+  // The pages each handler accepts, in the order they are consulted. No pages means any page.
+  private static final String[][] HANDLER_PAGES = {
+    {"town_altar.php"},
+    {"bounty.php"},
+    {"inv_use.php", "choice.php"},
+    {"choice.php"},
+    {"heydeze.php"},
+    {"mrstore.php"},
+    {"spaaace.php"},
+    {"volcanomaze.php"},
+    {"afterlife.php"},
+    {"bone_altar.php"},
+    {},
+    {"place.php"},
+    {"managestore.php"},
+    {"sellstuff.php", "sellstuff_ugly.php"},
+    {"inv_use.php"},
+    {"beerpong.php"},
+    {"monkeycastle.php"},
+    {"inv_use.php"},
+    {"cafe.php"},
+    {"arena.php"},
+    {"place.php"},
+    {"place.php"},
+    {"clan_viplounge.php"},
+    {"clan_rumpus.php", "place.php", "gnomes.php"},
+    {"clan_stash.php"},
+    {"closet.php", "fillcloset.php", "inventory.php"},
+    {"crimbo10.php"},
+    {"crimbo07.php"},
+    {"crimbo09.php"},
+    {"crimbo10.php"},
+    {"crimbo11.php"},
+    {"crimbo21tree.php"},
+    {"crimbo09.php"},
+    {"curse.php"},
+    {"dig.php"},
+    {"bigisland.php"},
+    {"managecollection.php"},
+    {"clan_dreadsylvania.php"},
+    {"dwarfcontraption.php"},
+    {"dwarffactory.php"},
+    {"place.php"},
+    {"familiar.php"},
+    {"famteam.php"},
+    {"choice.php"},
+    {"town_fleamarket.php"},
+    {"town_sellflea.php"},
+    {"gamestore.php"},
+    {"friars.php"},
+    {"gamestore.php"},
+    {"town_right.php"},
+    {"monkeycastle.php"},
+    {"guild.php"},
+    {"hermit.php"},
+    {"bigisland.php", "postwarisland.php"},
+    {"place.php"},
+    {"leaflet.php"},
+    {"mallstore.php", "mall.php"},
+    {"backoffice.php"},
+    {},
+    {"monkeycastle.php"},
+    {"questlog.php"},
+    {"knoll_mushrooms.php"},
+    {"cave.php"},
+    {"pandamonium.php"},
+    {"peevpee.php"},
+    {"showplayer.php"},
+    {"craft.php"},
+    {"bigisland.php"},
+    {"raffle.php"},
+    {"choice.php"},
+    {"clan_hobopolis.php"},
+    {"place.php"},
+    {"sea_merkin.php"},
+    {"town_sendgift.php"},
+    {"sendmessage.php"},
+    {"da.php"},
+    {"sea_skatepark.php"},
+    {"standard.php"},
+    {"storage.php"},
+    {"suburbandis.php"},
+    {"peevpee.php"},
+    {"tavern.php"},
+    {"traveler.php"},
+    {"trophy.php"},
+    {"tutorial.php"},
+    {"uneffect.php", "charsheet.php"},
+    {"place.php"},
+    {"volcanoisland.php"},
+    {"place.php"},
+    {"wand.php"},
+    {"mallstore.php", "town_giftshop.php"},
+  };
+
+  // URLs a session spends most of its time on which reach the handlers
+  private static final String[] SESSION_URLS = {
+    "inv_use.php?whichitem=1465&ajax=1",
+    "place.php?whichplace=town_right",
+    "place.php?whichplace=campaway&action=campaway_sky",
+    "choice.php?whichchoice=1060&option=1",
+    "familiar.php?action=newfam&newfam=1",
+    "craft.php?mode=cook&a=304&b=305&qty=1",
+    "clan_viplounge.php?action=swimmingpool",
+    "inventory.php?which=2",
+    "questlog.php?which=1",
+    "charsheet.php",
+    "uneffect.php?using=Yep.&whicheffect=510",
+    "hermit.php?action=trade&whichitem=43&quantity=1",
+    "mall.php?justitems=0&pudnuggler=%22seal+tooth%22",
+    "mallstore.php?whichstore=12345&buying=1&whichitem=2&quantity=1",
+    "shop.php?whichshop=doc",
+    "bigisland.php?action=junkman",
+    "showplayer.php?who=1",
+    "storage.php?action=pull&whichitem1=2&howmany1=1",
+    "sendmessage.php?action=send&towho=1",
+    "campground.php?action=rest",
+  };
+
+  private static final Pattern ACTION_PATTERN = Pattern.compile("action=([^&]*)&nonsense");
+
+  private List<Predicate<String>> handlers;
+  private RequestLogger.RegistrationTable table;
+
+  @Setup
+  public void setup() {
+    this.handlers = new ArrayList<>();
+    this.table = new RequestLogger.RegistrationTable();
+
+    for (String[] pages : HANDLER_PAGES) {
+      Predicate<String> handler = probe(pages);
+      this.handlers.add(handler);
+      this.table.add(GenericRequest.class, handler, pages);
+    }
+  }
+
+  private static Predicate<String> probe(final String[] pages) {
+    return urlString -> {
+      if (pages.length > 0) {
+        boolean onPage = false;
+        for (String page : pages) {
+          onPage |= urlString.startsWith(page);
+        }
+        if (!onPage) {
+          return false;
+        }
+      }
+      return ACTION_PATTERN.matcher(urlString).find();
+    };
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(20)
+  public int sequential() {
+    int registered = 0;
+    for (String urlString : SESSION_URLS) {
+      for (Predicate<String> handler : this.handlers) {
+        if (handler.test(urlString)) {
+          ++registered;
+          break;
+        }
+      }
+    }
+    return registered;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(20)
+  public int byPage() {
+    int registered = 0;
+    for (String urlString : SESSION_URLS) {
+      if (this.table.register(null, true, urlString)) {
+        ++registered;
+      }
+    }
+    return registered;
+  }
+}
@@ -0,0 +1,127 @@
+package net.sourceforge.kolmafia.combat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.MonsterData;
+import net.sourceforge.kolmafia.persistence.MonsterDatabase;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Finding the section of a CCS with 400 monster sections for a round of combat, against a freshly
+ * loaded strategy, which must match every section key as each round used to, and against one
+ * which has already seen the encounters and answers from its memo. Half the encounters have no
+ * section of their own and fall back to the location and its zone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CustomCombatLookupBenchmark {
+  private static final int SECTIONS = 400;
+  private static final int ENCOUNTERS = 64;
+
+  @State(Scope.Benchmark)
+  public static class Strategy {
+    String ccs;
+    final List<String> encounters = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+      KoLCharacter.reset("CustomCombatLookupBenchmark");
+      Preferences.setString("lastAdventure", "The Spooky Forest");
+
+      StringBuilder ccs = new StringBuilder("[ default ]\n1: attack with weapon\n\n");
+      int sections = 0;
+      int monsters = 0;
+      for (MonsterData monster : MonsterDatabase.valueSet()) {
+        String name = monster.getName();
+        if (name.contains("[") || name.contains("]")) {
+          continue;
+        }
+
+        // Every other monster has a section, and one in ten of either is fought
+        if (monsters++ % 2 == 0 && sections < SECTIONS) {
+          ccs.append("[ ").append(name).append(" ]\n");
+          ccs.append("1: skill lunging thrust-smack\n2: attack with weapon\n\n");
+          ++sections;
+        }
+        if (monsters % 10 < 2 && this.encounters.size() < ENCOUNTERS) {
+          this.encounters.add(name);
+        }
+      }
+      this.ccs = ccs.toString();
+    }
+
+    CustomCombatLookup load() {
+      CustomCombatLookup lookup = new CustomCombatLookup();
+      lookup.addEncounterKey("default");
+      try {
+        lookup.load(new BufferedReader(new StringReader(this.ccs)));
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      return lookup;
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Reloaded {
+    CustomCombatLookup lookup;
+
+    @Setup(Level.Invocation)
+    public void setup(final Strategy strategy) {
+      this.lookup = strategy.load();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Loaded {
+    CustomCombatLookup lookup;
+
+    @Setup(Level.Trial)
+    public void setup(final Strategy strategy) {
+      this.lookup = strategy.load();
+      for (String encounter : strategy.encounters) {
+        this.lookup.getBestEncounterKey(encounter);
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ENCOUNTERS)
+  public int firstRound(final Strategy strategy, final Reloaded reloaded) {
+    int length = 0;
+    for (String encounter : strategy.encounters) {
+      length += reloaded.lookup.getBestEncounterKey(encounter).length();
+    }
+    return length;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ENCOUNTERS)
+  public int laterRound(final Strategy strategy, final Loaded loaded) {
+    int length = 0;
+    for (String encounter : strategy.encounters) {
+      length += loaded.lookup.getBestEncounterKey(encounter).length();
+    }
+    return length;
+  }
+}
@@ -0,0 +1,108 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.AscensionClass;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.Modifiers;
+import net.sourceforge.kolmafia.modifiers.DerivedModifier;
+import net.sourceforge.kolmafia.persistence.ItemDatabase;
+import net.sourceforge.kolmafia.persistence.ModifierDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scoring maximizer candidates, each the accumulated modifiers of three pieces of equipment, with
+ * representative expressions. The scoring loop the evaluator had before it was compiled is gone,
+ * so the predictions that loop made for every candidate are also measured, as the map predict()
+ * allocates and as the reused array the evaluator now fills.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EvaluatorBenchmark {
+  private static final int CANDIDATES = 256;
+  private static final int PIECES = 3;
+
+  @Param({"item, meat, -tie", "mainstat, 0.5 hp, +equip seal-clubbing club"})
+  public String expression;
+
+  private Evaluator evaluator;
+  private final List<Modifiers> candidates = new ArrayList<>();
+  private final int[] predicted = new int[DerivedModifier.values().length];
+
+  @Setup
+  public void setup() {
+    KoLCharacter.reset("EvaluatorBenchmark");
+    KoLCharacter.setAscensionClass(AscensionClass.SEAL_CLUBBER);
+
+    List<Modifiers> equipment = new ArrayList<>();
+    int maxItemId = ItemDatabase.maxItemId();
+    for (int itemId = 1; itemId <= maxItemId && equipment.size() < CANDIDATES * PIECES; ++itemId) {
+      if (ItemDatabase.getItemName(itemId) == null || !ItemDatabase.isEquipment(itemId)) {
+        continue;
+      }
+      Modifiers mods = ModifierDatabase.getItemModifiers(itemId);
+      if (mods != null) {
+        equipment.add(mods);
+      }
+    }
+
+    for (int candidate = 0; candidate < CANDIDATES; ++candidate) {
+      Modifiers mods = new Modifiers();
+      for (int piece = 0; piece < PIECES; ++piece) {
+        mods.add(equipment.get((candidate * PIECES + piece) % equipment.size()));
+      }
+      this.candidates.add(mods);
+    }
+
+    this.evaluator = new Evaluator(this.expression);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CANDIDATES)
+  public double score() {
+    double total = 0.0;
+    for (Modifiers mods : this.candidates) {
+      total += this.evaluator.getScore(mods);
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CANDIDATES)
+  public long predictMap() {
+    long total = 0;
+    for (Modifiers mods : this.candidates) {
+      Map<DerivedModifier, Integer> predicted = mods.predict();
+      total += predicted.get(DerivedModifier.BUFFED_HP);
+    }
+    return total;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CANDIDATES)
+  public long predictArray() {
+    long total = 0;
+    for (Modifiers mods : this.candidates) {
+      int[] predicted = mods.predict(this.predicted);
+      total += predicted[DerivedModifier.BUFFED_HP.ordinal()];
+    }
+    return total;
+  }
+}
@@ -0,0 +1,95 @@
+package net.sourceforge.kolmafia.session;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.persistence.ItemDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A million inventory counts, as item_amount used to find them, by building a probe
+ * AdventureResult and searching the sorted list for it, and through the ItemCountIndex. About half
+ * the items looked up are in the inventory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ItemCountIndexBenchmark {
+  private static final int LOOKUPS = 1_000_000;
+
+  // How many different items are in the inventory
+  @Param({"100", "2000"})
+  public int size;
+
+  private int[] itemIds;
+
+  @Setup
+  public void setup() {
+    KoLCharacter.reset("ItemCountIndexBenchmark");
+
+    Random random = new Random(1L);
+    int maxItemId = ItemDatabase.maxItemId();
+    int held = 0;
+    for (int itemId = 1; itemId <= maxItemId && held < this.size; itemId += 2) {
+      if (ItemDatabase.getItemName(itemId) != null) {
+        AdventureResult.addResultToList(
+            KoLConstants.inventory, ItemPool.get(itemId, 1 + random.nextInt(50)));
+        ++held;
+      }
+    }
+
+    // Look up the items held, and as many next to them that are not
+    this.itemIds = new int[2 * held];
+    int next = 0;
+    for (AdventureResult item : KoLConstants.inventory) {
+      this.itemIds[next++] = item.getItemId();
+      this.itemIds[next++] = item.getItemId() + 1;
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    KoLConstants.inventory.clear();
+    ItemCountIndex.INVENTORY.invalidate();
+  }
+
+  @Benchmark
+  public long search() {
+    List<AdventureResult> inventory = KoLConstants.inventory;
+    long total = 0;
+    for (int i = 0; i < LOOKUPS; ++i) {
+      AdventureResult probe = ItemPool.get(this.itemIds[i % this.itemIds.length], 0);
+      int index = inventory.indexOf(probe);
+      total += index == -1 ? 0 : inventory.get(index).getCount();
+    }
+    return total;
+  }
+
+  @Benchmark
+  public long index() {
+    List<AdventureResult> inventory = KoLConstants.inventory;
+    long total = 0;
+    for (int i = 0; i < LOOKUPS; ++i) {
+      total += ItemCountIndex.getCount(this.itemIds[i % this.itemIds.length], inventory);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,126 @@
+package net.sourceforge.kolmafia.session;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.utilities.PhraseMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Breaking every recorded fight and choice page under test/root/request into result tokens and
+ * looking for the familiar weight gain and skill acquisition phrases in them: by replacing tags and
+ * splitting, with contains() for each phrase, as processNormalResults used to, and with a
+ * ResultTokenizer and PhraseMatchers, as it does now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ResultTokenizerBenchmark {
+  private static final String[] WEIGHT_GAIN_PHRASES = {
+    "gains a pound",
+    "gained a pound",
+    "puts on weight",
+    "gaining weight",
+    "just got heavier",
+    "put on some weight",
+  };
+
+  private static final String[] SKILL_PHRASES = {
+    "You acquire a skill",
+    "You learn a skill",
+    "You gain a skill",
+    "You have learned a skill",
+    "You acquire a new skill",
+  };
+
+  private static final PhraseMatcher WEIGHT_GAIN = new PhraseMatcher(WEIGHT_GAIN_PHRASES);
+  private static final PhraseMatcher SKILL = new PhraseMatcher(SKILL_PHRASES);
+
+  private List<String> pages;
+
+  @Setup
+  public void setup() throws IOException {
+    this.pages = new ArrayList<>();
+
+    try (Stream<Path> paths = Files.walk(Path.of("request"))) {
+      for (Path path : paths.toList()) {
+        String name = path.getFileName().toString();
+        if (name.endsWith(".html") && (name.contains("fight") || name.contains("choice"))) {
+          this.pages.add(Files.readString(path, StandardCharsets.UTF_8));
+        }
+      }
+    }
+  }
+
+  private static boolean containsAny(final String text, final String[] phrases) {
+    for (String phrase : phrases) {
+      if (text.contains(phrase)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Benchmark
+  public int replaceAndSplit() {
+    int found = 0;
+
+    for (String page : this.pages) {
+      String plainTextResult =
+          KoLConstants.ANYTAG_BUT_ITALIC_PATTERN.matcher(page).replaceAll(KoLConstants.LINE_BREAK);
+      if (containsAny(plainTextResult, WEIGHT_GAIN_PHRASES)) {
+        ++found;
+      }
+
+      LinkedList<String> parsedResults =
+          new LinkedList<>(Arrays.asList(plainTextResult.split(KoLConstants.LINE_BREAK)));
+      while (parsedResults.size() > 0) {
+        if (containsAny(parsedResults.remove(), SKILL_PHRASES)) {
+          ++found;
+        }
+      }
+    }
+
+    return found;
+  }
+
+  @Benchmark
+  public int tokenize() {
+    int found = 0;
+
+    for (String page : this.pages) {
+      ResultTokenizer parsedResults = new ResultTokenizer(page, KoLConstants.LINE_BREAK);
+      if (parsedResults.anyContains(WEIGHT_GAIN)) {
+        ++found;
+      }
+
+      while (parsedResults.hasNext()) {
+        if (SKILL.find(parsedResults.next())) {
+          ++found;
+        }
+      }
+    }
+
+    return found;
+  }
+}
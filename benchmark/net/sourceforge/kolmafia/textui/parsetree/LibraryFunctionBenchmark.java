@@ -0,0 +1,81 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import java.io.ByteArrayInputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.textui.AshRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Calls to ASH built-in functions: a script looping over cheap built-ins a million times, and a
+ * single built-in called through Method.invoke, as it used to be, and through the MethodHandle
+ * LibraryFunction now binds.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LibraryFunctionBenchmark {
+  private static final String LOOP =
+      """
+      int total = 0;
+      for i from 1 to 1000000 {
+        total += my_level() + my_mp() + item_amount($item[seal tooth]);
+      }
+      total;
+      """;
+
+  private AshRuntime interpreter;
+  private Method method;
+  private MethodHandle handle;
+  private Object[] arguments;
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    this.interpreter = new AshRuntime();
+    this.interpreter.validate(
+        null, new ByteArrayInputStream(LOOP.getBytes(StandardCharsets.UTF_8)));
+
+    this.method = LibraryFunction.findLibraryMethod("my_level", 0);
+    this.handle =
+        MethodHandles.publicLookup()
+            .unreflect(this.method)
+            .asSpreader(Object[].class, 1)
+            .asType(MethodType.methodType(Value.class, Object[].class));
+    this.arguments = new Object[] {this.interpreter};
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Value loop() {
+    return this.interpreter.execute("main", null);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Object methodInvoke() throws ReflectiveOperationException {
+    return this.method.invoke(null, this.arguments);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Value methodHandle() throws Throwable {
+    return (Value) this.handle.invokeExact(this.arguments);
+  }
+}
@@ -0,0 +1,105 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import net.java.dev.spellcast.utilities.DataUtilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Finding a script in a scripts tree of 10,000 files, as 50 installed projects of four
+ * directories of 50 files each, by walking the tree as findScriptFile used to and through a
+ * FileTreeIndex.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FileTreeIndexBenchmark {
+  private static final int PROJECTS = 50;
+  private static final String[] DIRECTORIES = {"data", "lib", "relay", "scripts"};
+  private static final int FILES = 50;
+
+  // A script name, a path relative to a directory in the tree, and a script that is not there
+  @Param({"project31.ash", "project12/lib/file07.ash", "missing.ash"})
+  public String filename;
+
+  private File root;
+  private FileTreeIndex index;
+
+  @Setup
+  public void setup() throws IOException {
+    this.root = Files.createTempDirectory("scripts").toFile();
+
+    for (int project = 0; project < PROJECTS; ++project) {
+      File projectDirectory = new File(this.root, String.format("project%02d", project));
+      for (String name : DIRECTORIES) {
+        File directory = new File(projectDirectory, name);
+        directory.mkdirs();
+        for (int file = 0; file < FILES; ++file) {
+          String fileName =
+              name.equals("scripts") && file == 0
+                  ? projectDirectory.getName() + ".ash"
+                  : String.format("file%02d.ash", file);
+          new File(directory, fileName).createNewFile();
+        }
+      }
+    }
+
+    this.index = FileTreeIndex.of(this.root);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(this.root.toPath())) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Benchmark
+  public List<File> walk() {
+    List<File> matches = new ArrayList<>();
+    walk(this.root, this.filename, matches);
+    return matches;
+  }
+
+  @Benchmark
+  public List<File> index() {
+    List<File> matches = new ArrayList<>();
+    this.index.find(this.filename, matches);
+    return matches;
+  }
+
+  // How KoLmafiaCLI.findScriptFile searched a directory and everything below it
+  private static void walk(final File directory, final String filename, final List<File> matches) {
+    File scriptFile = new File(directory, filename);
+    if (scriptFile.exists() && !scriptFile.isDirectory()) {
+      matches.add(scriptFile);
+    }
+
+    for (File content : DataUtilities.listFiles(directory)) {
+      if (content.isDirectory()) {
+        walk(content, filename, matches);
+      }
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package net.sourceforge.kolmafia.webui;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import net.sourceforge.kolmafia.request.GenericRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A storm of frame refreshes from eight browser tabs at once, each asking for the charpane, main
+ * and topmenu frames in turn, against relay agents listening on a loopback socket the way
+ * RelayServer runs them: pooled agents serving one request per connection, or an agent on a
+ * virtual thread per kept-alive connection. Each request is sampled, so that the p50 and p99
+ * latencies can be read off the distribution JMH reports.
+ *
+ * <p>Each request is a side command which only echoes, so the agent answers it with a redirect
+ * rather than passing it on to KoL, and the time is what it costs to get a request to an agent and
+ * its answer back.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RelayAgentBenchmark {
+  private static final String[] FRAMES = {
+    "/KoLmafia/sideCommand?pwd=xxxx&cmd=echo+charpane",
+    "/KoLmafia/sideCommand?pwd=xxxx&cmd=echo+main",
+    "/KoLmafia/sideCommand?pwd=xxxx&cmd=echo+topmenu",
+  };
+
+  @Param({"false", "true"})
+  public boolean keepAlive;
+
+  private ServerSocket serverSocket;
+  private ExecutorService agents;
+  private Thread acceptor;
+  private int agentCount = 0;
+
+  @Setup
+  public void setup() throws IOException {
+    GenericRequest.setPasswordHash("xxxx");
+    Preferences.setBoolean("relayKeepsConnectionsAlive", this.keepAlive);
+
+    this.serverSocket = new ServerSocket(0, 25, InetAddress.getLoopbackAddress());
+    this.agents = Executors.newFixedThreadPool(4);
+    this.acceptor = new Thread(this::acceptConnections, "RelayAgentBenchmark");
+    this.acceptor.start();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException, InterruptedException {
+    this.serverSocket.close();
+    this.acceptor.join();
+    this.agents.shutdownNow();
+  }
+
+  private void acceptConnections() {
+    // Pooled agents, each of which keeps its reader and request between connections
+    ThreadLocal<RelayAgent> pooled = ThreadLocal.withInitial(this::newAgent);
+
+    while (!this.serverSocket.isClosed()) {
+      Socket socket;
+      try {
+        socket = this.serverSocket.accept();
+      } catch (IOException e) {
+        return;
+      }
+
+      if (this.keepAlive) {
+        RelayAgent agent = this.newAgent();
+        agent.setSocket(socket);
+        Thread.ofVirtual().start(agent::serveConnection);
+      } else {
+        this.agents.execute(
+            () -> {
+              RelayAgent agent = pooled.get();
+              agent.setSocket(socket);
+              agent.serveConnection();
+            });
+      }
+    }
+  }
+
+  private synchronized RelayAgent newAgent() {
+    return new RelayAgent(++this.agentCount);
+  }
+
+  /** One browser tab, with its kept-alive connection if it has one. */
+  @State(Scope.Thread)
+  public static class Browser {
+    private int frame = 0;
+    private Socket socket;
+    private OutputStream ostream;
+    private InputStream istream;
+
+    @Setup
+    public void setup(final RelayAgentBenchmark relay) throws IOException {
+      if (relay.keepAlive) {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), relay.port());
+        this.ostream = this.socket.getOutputStream();
+        this.istream = new BufferedInputStream(this.socket.getInputStream());
+      }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+      if (this.socket != null) {
+        this.socket.close();
+      }
+    }
+
+    String nextFrame() {
+      String path = FRAMES[this.frame];
+      this.frame = (this.frame + 1) % FRAMES.length;
+      return path;
+    }
+  }
+
+  private int port() {
+    return this.serverSocket.getLocalPort();
+  }
+
+  @Benchmark
+  public int refreshFrame(final Browser browser) throws IOException {
+    String frame = browser.nextFrame();
+
+    if (!this.keepAlive) {
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.port())) {
+        send(socket.getOutputStream(), frame);
+        return socket.getInputStream().readAllBytes().length;
+      }
+    }
+
+    send(browser.ostream, frame);
+    return readResponse(browser.istream);
+  }
+
+  private static void send(final OutputStream ostream, final String path) throws IOException {
+    ostream.write(("GET " + path + " HTTP/1.1\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+    ostream.flush();
+  }
+
+  // Reads one response from a kept-alive connection, which always carries a Content-Length
+  private static int readResponse(final InputStream istream) throws IOException {
+    int contentLength = 0;
+    String line;
+    while (!(line = readLine(istream)).isEmpty()) {
+      if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+        contentLength = Integer.parseInt(line.substring(15).trim());
+      }
+    }
+    return istream.readNBytes(contentLength).length;
+  }
+
+  private static String readLine(final InputStream istream) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int ch;
+    while ((ch = istream.read()) != '\n') {
+      if (ch == -1) {
+        throw new IOException("Connection closed");
+      }
+      if (ch != '\r') {
+        line.write(ch);
+      }
+    }
+    return line.toString(StandardCharsets.UTF_8);
+  }
+}
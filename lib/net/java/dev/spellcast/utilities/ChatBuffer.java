@@ -44,11 +44,14 @@ import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Stack;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -57,7 +60,7 @@ import java.util.regex.Matcher;
 import javax.swing.JEditorPane;
 import javax.swing.JScrollPane;
 import javax.swing.ScrollPaneConstants;
-import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.text.Element;
 import javax.swing.text.html.HTMLDocument;
 import javax.swing.text.html.HTMLEditorKit;
@@ -66,6 +69,11 @@ import javax.swing.text.html.HTMLEditorKit;
  * A multi-purpose message buffer which stores all sorts of the messages that can either be displayed or serialized in
  * HTML form. In essence, this shifts the functionality of processing a chat message from the <code>ChatPanel</code> to
  * an object external to it, which allows more object-oriented design and less complications.
+ *
+ * Messages are held in a bounded queue, oldest first. Displays are brought up to date at most once per frame: the
+ * messages appended since the last update are inserted into each display's document together, and the text of the
+ * messages which have since been trimmed from the front of the queue is removed from it, so that neither appending
+ * nor trimming requires the whole document to be parsed again.
  */
 
 public class ChatBuffer
@@ -75,18 +83,24 @@ public class ChatBuffer
 
 	private final String title;
 
-	private final StringBuffer content = new StringBuffer();
-	private final LinkedList<JEditorPane> displayPanes = new LinkedList<>();
+	// Each message as appended, and as balanced HTML to be inserted into a display
+	private final ArrayDeque<String> messages = new ArrayDeque<>();
+	private final ArrayDeque<String> balancedMessages = new ArrayDeque<>();
+	private int contentLength = 0;
+
+	private final LinkedList<Display> displays = new LinkedList<>();
 
 	private final Set<JEditorPane> stickyPanes = new LinkedHashSet<>();
 	private final LinkedList<JEditorPane> addStickyPanes = new LinkedList<>();
 	private final LinkedList<JEditorPane> removeStickyPanes = new LinkedList<>();
 
-	private volatile int resetSequence = 0;
+	// What has changed since the displays were last updated, guarded by this.messages
+	private final List<String> pendingMessages = new ArrayList<>();
+	private int pendingTrimmed = 0;
+	private boolean pendingReset = false;
+	private boolean updateScheduled = false;
 
-	// Every queued update for this ChatBuffer carries the then-current value of resetSequence,
-	// which is incremented only on updates that completely rewrite the display.  Any update
-	// with an outdated sequence number is simply ignored.
+	private final Timer updateTimer;
 
 	private File logFile;
 	private PrintWriter logWriter;
@@ -96,6 +110,9 @@ public class ChatBuffer
 	private static final int MAXIMUM_LENGTH = 50000;
 	private static final int TRIM_TO_LENGTH = 45000;
 
+	// Appends arriving within this many milliseconds of each other reach the display together
+	private static final int FRAME_MILLIS = 16;
+
 	/**
 	 * Constructs a new <code>ChatBuffer</code>. However, note that this does not automatically translate into the
 	 * messages being displayed; until a chat display is set, this buffer merely stores the message content to be
@@ -105,6 +122,11 @@ public class ChatBuffer
 	public ChatBuffer( final String title )
 	{
 		this.title = title;
+
+		this.updateTimer = new Timer( ChatBuffer.FRAME_MILLIS, e -> this.updateDisplays() );
+		this.updateTimer.setRepeats( false );
+		// A restart while an update is running must still lead to another update
+		this.updateTimer.setCoalesce( false );
 	}
 
 	/**
@@ -134,9 +156,13 @@ public class ChatBuffer
 			}
 		});
 
-		displayPane.setText( this.getHTMLContent() );
+		synchronized ( this.messages )
+		{
+			// Filled in with everything in the buffer on the next update
+			this.displays.addLast( new Display( displayPane ) );
+			this.scheduleUpdate();
+		}
 
-		this.displayPanes.addLast( displayPane );
 		this.addStickyPanes.addLast( displayPane );
 
 		JScrollPane scroller =
@@ -198,7 +224,18 @@ public class ChatBuffer
 
 	public void dispose()
 	{
-		this.displayPanes.clear();
+		synchronized ( this.messages )
+		{
+			this.displays.clear();
+			this.messages.clear();
+			this.balancedMessages.clear();
+			this.contentLength = 0;
+			this.pendingMessages.clear();
+			this.pendingTrimmed = 0;
+			this.pendingReset = false;
+		}
+
+		this.updateTimer.stop();
 		this.stickyPanes.clear();
 		this.addStickyPanes.clear();
 		this.removeStickyPanes.clear();
@@ -207,8 +244,6 @@ public class ChatBuffer
 		{
 			this.logWriter.close();
 		}
-
-		this.content.setLength( 0 );
 	}
 
 	private static void printHTML( final HTMLDocument doc )
@@ -232,9 +267,16 @@ public class ChatBuffer
 
 	public void clear()
 	{
-		this.content.setLength( 0 );
-
-		SwingUtilities.invokeLater( new ResetHandler( this.getHTMLContent() ) );
+		synchronized ( this.messages )
+		{
+			this.messages.clear();
+			this.balancedMessages.clear();
+			this.contentLength = 0;
+			this.pendingMessages.clear();
+			this.pendingTrimmed = 0;
+			this.pendingReset = true;
+			this.scheduleUpdate();
+		}
 	}
 
 	public File getLogFile() {
@@ -258,7 +300,11 @@ public class ChatBuffer
 
 		if ( newContents == null )
 		{
-			SwingUtilities.invokeLater( new ResetHandler( this.getHTMLContent() ) );
+			synchronized ( this.messages )
+			{
+				this.pendingReset = true;
+				this.scheduleUpdate();
+			}
 			return;
 		}
 
@@ -269,37 +315,39 @@ public class ChatBuffer
 			return;
 		}
 
-		this.content.append( newContents );
-
 		if ( this.logWriter != null )
 		{
 			this.logWriter.println( newContents );
 		}
 
-		if ( this.content.length() < ChatBuffer.MAXIMUM_LENGTH )
-		{
-			SwingUtilities.invokeLater( new AppendHandler( newContents ) );
-			SwingUtilities.invokeLater( new ScrollHandler() );
-			return;
-		}
+		String balancedContents = ChatBuffer.balanceTags( newContents );
 
-		int lineIndex = this.content.indexOf( "<br", ChatBuffer.MAXIMUM_LENGTH - ChatBuffer.TRIM_TO_LENGTH );
-
-		if ( lineIndex != -1 )
+		synchronized ( this.messages )
 		{
-			lineIndex = this.content.indexOf( ">", lineIndex ) + 1;
-		}
+			this.messages.addLast( newContents );
+			this.balancedMessages.addLast( balancedContents );
+			this.contentLength += newContents.length();
 
-		if ( lineIndex == -1 )
-		{
-			this.clear();
-			return;
-		}
+			if ( this.contentLength >= ChatBuffer.MAXIMUM_LENGTH )
+			{
+				// Drop the oldest messages, always keeping the newest
+				while ( this.contentLength > ChatBuffer.TRIM_TO_LENGTH && this.messages.size() > 1 )
+				{
+					this.contentLength -= this.messages.removeFirst().length();
+					this.balancedMessages.removeFirst();
+					this.pendingTrimmed += 1;
+				}
+			}
 
-		this.content.delete( 0, lineIndex );
+			if ( this.displays.isEmpty() )
+			{
+				this.pendingTrimmed = 0;
+				return;
+			}
 
-		SwingUtilities.invokeLater( new ResetHandler( this.getHTMLContent() ) );
-		SwingUtilities.invokeLater( new ScrollHandler() );
+			this.pendingMessages.add( balancedContents );
+			this.scheduleUpdate();
+		}
 	}
 
 	/**
@@ -317,7 +365,10 @@ public class ChatBuffer
 
 	public String getContent()
 	{
-		return this.content.toString();
+		synchronized ( this.messages )
+		{
+			return String.join( "", this.messages );
+		}
 	}
 
 	/**
@@ -326,13 +377,18 @@ public class ChatBuffer
 
 	public String getHTMLContent()
 	{
-		StringBuffer htmlContent = new StringBuffer();
+		return this.getHTMLContent( this.getContent() );
+	}
+
+	private String getHTMLContent( final String content )
+	{
+		StringBuilder htmlContent = new StringBuilder();
 
 		htmlContent.append( "<html><head><style>" );
 		htmlContent.append( this.getStyle() );
 		htmlContent.append( "</style></head><body><main>" );
 
-		htmlContent.append( this.content.toString() );
+		htmlContent.append( content );
 
 		htmlContent.append( "</main></body></html>" );
 
@@ -356,214 +412,281 @@ public class ChatBuffer
 		}
 	}
 
-	private class ResetHandler
-		implements Runnable
+	// Called holding this.messages
+
+	private void scheduleUpdate()
 	{
-		private final String htmlContent;
-		private final int resetSequence;
+		if ( this.updateScheduled || this.displays.isEmpty() )
+		{
+			return;
+		}
+
+		this.updateScheduled = true;
+		this.updateTimer.restart();
+	}
 
-		public ResetHandler( final String htmlContent )
+	/**
+	 * Brings every display up to date with the messages appended and trimmed since it was last updated. Runs on the
+	 * event dispatch thread.
+	 */
+
+	protected void updateDisplays()
+	{
+		List<Display> displays;
+		String appended;
+		int appendedCount;
+		int trimmed;
+		boolean reset;
+		String shell;
+		String allContent;
+		int allCount;
+
+		synchronized ( this.messages )
 		{
-			this.htmlContent = htmlContent;
-			this.resetSequence = ++ChatBuffer.this.resetSequence;
+			this.updateScheduled = false;
+
+			displays = new ArrayList<>( this.displays );
+
+			// Messages appended and then trimmed since the last update
+			// need not be shown at all.
+			int pending = this.pendingMessages.size();
+			int expired = pending - Math.min( pending, this.messages.size() );
+			appended = String.join( "", this.pendingMessages.subList( expired, pending ) );
+			appendedCount = pending - expired;
+			trimmed = this.pendingTrimmed - expired;
+
+			reset = this.pendingReset;
+			shell = null;
+			allContent = null;
+			allCount = this.messages.size();
+
+			if ( reset || displays.stream().anyMatch( Display::isNew ) )
+			{
+				shell = this.getHTMLContent( "" );
+				allContent = String.join( "", this.balancedMessages );
+			}
+
+			this.pendingMessages.clear();
+			this.pendingTrimmed = 0;
+			this.pendingReset = false;
 		}
 
-		public void run()
+		for ( Display display : displays )
 		{
-			if ( this.resetSequence != ChatBuffer.this.resetSequence )
+			if ( reset || display.isNew() )
 			{
-				return;	// outdated by a subsequent display reset
+				display.reset( shell, allContent, allCount );
+				continue;
 			}
 
-			Iterator<JEditorPane> paneIterator = ChatBuffer.this.displayPanes.iterator();
+			display.insert( appended, appendedCount );
+			display.trim( trimmed );
+		}
+
+		synchronized ( this.stickyPanes )
+		{
+			Iterator<JEditorPane> paneIterator = this.stickyPanes.iterator();
 
 			while ( paneIterator.hasNext() )
 			{
-				JEditorPane displayPane = paneIterator.next();
+				JEditorPane stickyPane = paneIterator.next();
 
-				if ( displayPane == null )
+				if ( stickyPane == null )
 				{
 					paneIterator.remove();
 					continue;
 				}
 
-				displayPane.setText( this.htmlContent );
+				int contentLength = stickyPane.getDocument().getLength();
+
+				int caretPosition = Math.max( contentLength - 1, 0 );
+
+				stickyPane.setCaretPosition( caretPosition );
 			}
 		}
 	}
 
-	private class AppendHandler
-		implements Runnable
-	{
-		private final String newContent;
-		private final int resetSequence;
+	/**
+	 * Closes any tags left open by the given content, and drops any closing tags it has no opening tag for, so that it
+	 * can be inserted into a document by itself.
+	 */
 
-		public AppendHandler( final String newContent )
-		{
-			// Check for imbalanced HTML here
+	private static String balanceTags( final String newContent )
+	{
+		Stack<String> openTags = new Stack<>();
+		Set<String> skippedTags = new HashSet<>();
+		StringBuffer buffer = new StringBuffer();
 
-			Stack<String> openTags = new Stack<>();
-			Set<String> skippedTags = new HashSet<>();
-			StringBuffer buffer = new StringBuffer();
+		String noCommentsContent = COMMENT_PATTERN.matcher( newContent ).replaceAll( "" );
 
-			String noCommentsContent = COMMENT_PATTERN.matcher( newContent ).replaceAll( "" );
+		Matcher tagMatcher = TAG_PATTERN.matcher( noCommentsContent );
 
-			Matcher tagMatcher = TAG_PATTERN.matcher( noCommentsContent );
+		while ( tagMatcher.find() )
+		{
+			String tagName = tagMatcher.group( 1 );
+			StringBuffer replacement = new StringBuffer();
 
-			while ( tagMatcher.find() )
+			if ( tagName.startsWith( "/" ) )
 			{
-				String tagName = tagMatcher.group( 1 );
-				StringBuffer replacement = new StringBuffer();
+				String closeTag = tagName.substring( 1 );
 
-				if ( tagName.startsWith( "/" ) )
+				if ( skippedTags.contains( closeTag ) )
 				{
-					String closeTag = tagName.substring( 1 );
-
-					if ( skippedTags.contains( closeTag ) )
-					{
-						skippedTags.remove( closeTag );
-					}
-					else
+					skippedTags.remove( closeTag );
+				}
+				else
+				{
+					while ( !openTags.isEmpty() )
 					{
-						while ( !openTags.isEmpty() )
+						String openTag = openTags.pop();
+						replacement.append( "</" );
+						replacement.append( openTag );
+						replacement.append( ">" );
+
+						if ( openTag.equalsIgnoreCase( closeTag ) )
+						{
+							break;
+						}
+						else if ( skippedTags.contains( closeTag ) )
 						{
-							String openTag = openTags.pop();
-							replacement.append( "</" );
-							replacement.append( openTag );
-							replacement.append( ">" );
-
-							if ( openTag.equalsIgnoreCase( closeTag ) )
-							{
-								break;
-							}
-							else if ( skippedTags.contains( closeTag ) )
-							{
-								skippedTags.remove( closeTag );
-								break;
-							}
-							else
-							{
-								skippedTags.add( closeTag );
-							}
+							skippedTags.remove( closeTag );
+							break;
+						}
+						else
+						{
+							skippedTags.add( closeTag );
 						}
 					}
 				}
-				else
+			}
+			else
+			{
+				if ( !tagName.equalsIgnoreCase( "br" ) )
 				{
-					if ( !tagName.equalsIgnoreCase( "br" ) )
-					{
-						openTags.push( tagName );
-					}
-
-					replacement.append( "<$1$2>" );
+					openTags.push( tagName );
 				}
 
-				tagMatcher.appendReplacement( buffer, replacement.toString() );
+				replacement.append( "<$1$2>" );
 			}
 
-			tagMatcher.appendTail( buffer );
-
-			while ( !openTags.isEmpty() )
-			{
-				String openTag = openTags.pop();
-				buffer.append( "</" );
-				buffer.append( openTag );
-				buffer.append( ">" );
-			}
+			tagMatcher.appendReplacement( buffer, replacement.toString() );
+		}
 
-			this.newContent = buffer.toString();
+		tagMatcher.appendTail( buffer );
 
-			this.resetSequence = ChatBuffer.this.resetSequence;
+		while ( !openTags.isEmpty() )
+		{
+			String openTag = openTags.pop();
+			buffer.append( "</" );
+			buffer.append( openTag );
+			buffer.append( ">" );
 		}
 
-		public void run()
-		{
-			if ( this.resetSequence != ChatBuffer.this.resetSequence )
-			{
-				return;	// outdated by a subsequent display reset
-			}
+		return buffer.toString();
+	}
 
-			Iterator<JEditorPane> paneIterator = ChatBuffer.this.displayPanes.iterator();
+	/**
+	 * A pane showing this buffer, along with where in its document the text of each group of messages inserted
+	 * together lies. The groups follow one another from the end of the document's empty shell, oldest first.
+	 */
 
-			while ( paneIterator.hasNext() )
-			{
-				JEditorPane displayPane = paneIterator.next();
+	private static class Display
+	{
+		private final JEditorPane pane;
 
-				if ( displayPane == null )
-				{
-					paneIterator.remove();
-					continue;
-				}
+		// Length of the document before any messages were inserted
+		private int start;
 
-				HTMLDocument currentHTML = (HTMLDocument) displayPane.getDocument();
+		// Number of messages and length of text in each group, oldest first
+		private final ArrayDeque<int[]> groups = new ArrayDeque<>();
 
-				Element contentElement = currentHTML.getDefaultRootElement();
+		// Messages trimmed from the buffer but still in the oldest group
+		private int trimmed = 0;
 
-				while ( !contentElement.isLeaf() )
-				{
-					contentElement = contentElement.getElement( contentElement.getElementCount() - 1 );
-				}
+		// Not yet filled in
+		private boolean isNew = true;
+
+		public Display( final JEditorPane pane )
+		{
+			this.pane = pane;
+		}
+
+		public void reset( final String shell, final String content, final int count )
+		{
+			this.pane.setText( shell );
+			this.start = this.pane.getDocument().getLength();
+			this.groups.clear();
+			this.trimmed = 0;
+			this.isNew = false;
+			this.insert( content, count );
+		}
+
+		public boolean isNew()
+		{
+			return this.isNew;
+		}
+
+		public void trim( final int count )
+		{
+			this.trimmed += count;
+
+			HTMLDocument document = (HTMLDocument) this.pane.getDocument();
+			while ( !this.groups.isEmpty() && this.groups.peekFirst()[ 0 ] <= this.trimmed )
+			{
+				int[] group = this.groups.removeFirst();
+				this.trimmed -= group[ 0 ];
 
 				try
 				{
-					currentHTML.insertAfterEnd( contentElement, this.newContent );
-					// If the insertion contained any non-ASCII characters, the "multiByte"
-					// property will be set on the document.  This causes the use of
-					// an alternate layout algorithm that handles bidirectional text
-					// and other Unicode oddities: it's slower, and on some combinations
-					// of platform and JRE version, tremendously slower.
-					currentHTML.putProperty( "multiByte", Boolean.FALSE );
+					document.remove( this.start, group[ 1 ] );
 				}
 				catch ( Exception e )
 				{
-					// If there's an exception, continue onward so that you
-					// still have an updated display. But, print the stack
-					// trace so you know what's going on.
-
 					e.printStackTrace();
 				}
-
-				// ChatBuffer.printHTML( currentHTML );
 			}
 		}
-	}
-
-	private class ScrollHandler
-		implements Runnable
-	{
-		private final int resetSequence;
 
-		public ScrollHandler()
+		public void insert( final String content, final int count )
 		{
-			this.resetSequence = ChatBuffer.this.resetSequence;
-		}
-
-		public void run()
-		{
-			if ( this.resetSequence != ChatBuffer.this.resetSequence )
+			if ( count == 0 || content.length() == 0 )
 			{
-				return;	// outdated by a subsequent display reset
+				return;
 			}
 
-			Iterator<JEditorPane> paneIterator = ChatBuffer.this.stickyPanes.iterator();
+			HTMLDocument currentHTML = (HTMLDocument) this.pane.getDocument();
 
-			while ( paneIterator.hasNext() )
-			{
-				JEditorPane stickyPane = paneIterator.next();
+			Element contentElement = currentHTML.getDefaultRootElement();
 
-				if ( stickyPane == null )
-				{
-					paneIterator.remove();
-					continue;
-				}
+			while ( !contentElement.isLeaf() )
+			{
+				contentElement = contentElement.getElement( contentElement.getElementCount() - 1 );
+			}
 
-				int contentLength = stickyPane.getDocument().getLength();
+			int length = currentHTML.getLength();
 
-				int caretPosition = Math.max( contentLength - 1, 0 );
+			try
+			{
+				currentHTML.insertAfterEnd( contentElement, content );
+				// If the insertion contained any non-ASCII characters, the "multiByte"
+				// property will be set on the document.  This causes the use of
+				// an alternate layout algorithm that handles bidirectional text
+				// and other Unicode oddities: it's slower, and on some combinations
+				// of platform and JRE version, tremendously slower.
+				currentHTML.putProperty( "multiByte", Boolean.FALSE );
+			}
+			catch ( Exception e )
+			{
+				// If there's an exception, continue onward so that you
+				// still have an updated display. But, print the stack
+				// trace so you know what's going on.
 
-				stickyPane.setCaretPosition( caretPosition );
+				e.printStackTrace();
 			}
+
+			this.groups.addLast( new int[] { count, currentHTML.getLength() - length } );
+
+			// ChatBuffer.printHTML( currentHTML );
 		}
 	}
-
 }
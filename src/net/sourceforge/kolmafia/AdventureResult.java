@@ -21,6 +21,7 @@ import net.sourceforge.kolmafia.session.ElVibratoManager;
 import net.sourceforge.kolmafia.session.ElVibratoManager.Punchcard;
 import net.sourceforge.kolmafia.session.GoalManager;
 import net.sourceforge.kolmafia.session.InventoryManager;
+import net.sourceforge.kolmafia.session.ItemCountIndex;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
@@ -964,6 +965,27 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
    */
   public static void addResultToList(
       final List<AdventureResult> sourceList, final AdventureResult result) {
+    ItemCountIndex counts = ItemCountIndex.of(sourceList);
+    if (counts == null) {
+      AdventureResult.addToList(sourceList, result);
+      return;
+    }
+
+    counts.changing(result);
+    boolean changed = AdventureResult.addToList(sourceList, result);
+    counts.changed(result);
+
+    if (changed && sourceList == KoLConstants.inventory) {
+      InventoryManager.fireInventoryChanged(result.getItemId());
+    }
+  }
+
+  /**
+   * Adds the result to the list, returning true if an item in it changed. Listeners on the
+   * inventory are told of the change by the caller, once the list's count index is up to date.
+   */
+  private static boolean addToList(
+      final List<AdventureResult> sourceList, final AdventureResult result) {
     int index = sourceList.indexOf(result);
 
     // First, filter out things where it's a simple addition of an
@@ -973,26 +995,23 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
     if (index == -1) {
       if (!result.isItem()) {
         sourceList.add(result);
-        return;
+        return false;
       }
       int count = result.getCount();
-      if (count == 0) return;
+      if (count == 0) return false;
       if (count < 0
           && (sourceList != KoLConstants.tally || !Preferences.getBoolean("allowNegativeTally"))) {
-        return;
+        return false;
       }
       sourceList.add(result);
-      if (sourceList == KoLConstants.inventory) {
-        InventoryManager.fireInventoryChanged(result.getItemId());
-      }
-      return;
+      return true;
     }
 
     // These don't involve any addition -- ignore this entirely
     // for now.
 
     if (result == GoalManager.GOAL_SUBSTATS) {
-      return;
+      return false;
     }
 
     // Compute the sum of the existing adventure result and the
@@ -1003,7 +1022,7 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
     // Modify substats and fullstats in place
     if (current instanceof AdventureMultiResult c && result instanceof AdventureMultiResult r) {
       c.addResultInPlace(r);
-      return;
+      return false;
     }
 
     AdventureResult sumResult = current.getInstance(current.getLongCount() + result.getLongCount());
@@ -1015,35 +1034,27 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
     if (sumResult.isItem()) {
       if (sumResult.getCount() == 0) {
         sourceList.remove(index);
-        if (sourceList == KoLConstants.inventory) {
-          InventoryManager.fireInventoryChanged(result.getItemId());
-        }
-        return;
+        return true;
       } else if (sumResult.getCount() < 0
           && (sourceList != KoLConstants.tally || !Preferences.getBoolean("allowNegativeTally"))) {
         sourceList.remove(index);
-        if (sourceList == KoLConstants.inventory) {
-          InventoryManager.fireInventoryChanged(result.getItemId());
-        }
-        return;
+        return true;
       }
       sourceList.set(index, sumResult);
-      if (sourceList == KoLConstants.inventory) {
-        InventoryManager.fireInventoryChanged(result.getItemId());
-      }
-      return;
+      return true;
     } else if (sumResult.getCount() == 0
         && (sumResult.isStatusEffect()
             || sumResult.getName().equals(AdventureResult.CHOICE)
             || sumResult.getName().equals(AdventureResult.AUTOSTOP))) {
       sourceList.remove(index);
-      return;
+      return false;
     } else if (sumResult.getCount() < 0 && sumResult.isStatusEffect()) {
       sourceList.remove(index);
-      return;
+      return false;
     }
 
     sourceList.set(index, sumResult);
+    return false;
   }
 
   public static void addOrRemoveResultToList(
@@ -1068,10 +1079,19 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
 
   public static void removeResultFromList(
       final List<AdventureResult> sourceList, final AdventureResult result) {
+    ItemCountIndex counts = ItemCountIndex.of(sourceList);
+    if (counts != null) {
+      counts.changing(result);
+    }
+
     int index = sourceList.indexOf(result);
     if (index != -1) {
       sourceList.remove(index);
     }
+
+    if (counts != null) {
+      counts.changed(result);
+    }
   }
 
   public AdventureResult getNegation() {
@@ -1141,6 +1161,16 @@ public class AdventureResult implements Comparable<AdventureResult>, Cloneable {
    * intent more transparent.
    */
   public int getCount(final List<AdventureResult> list) {
+    if (this.priority == Priority.ITEM) {
+      ItemCountIndex counts = ItemCountIndex.of(list);
+      if (counts != null) {
+        int count = counts.getCount(this.id, this.name);
+        if (count != ItemCountIndex.UNKNOWN) {
+          return count;
+        }
+      }
+    }
+
     int index = list.indexOf(this);
     if (index == -1) return 0;
     AdventureResult item = list.get(index);
@@ -5163,9 +5163,7 @@ public abstract class KoLCharacter {
     // For the sake of easier maintenance, execute a lot of extra
     // string comparisons when looking at status effects.
 
-    for (AdventureResult effect : effects) {
-      newModifiers.add(ModifierDatabase.getEffectModifiers(effect.getEffectId()));
-    }
+    newModifiers.applyEffectModifiers(effects, debug);
 
     // Add modifiers from campground equipment.
     for (AdventureResult item : KoLConstants.campground) {
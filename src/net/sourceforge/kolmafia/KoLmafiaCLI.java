@@ -18,6 +18,7 @@ import net.sourceforge.kolmafia.request.LoginRequest;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 import net.sourceforge.kolmafia.textui.command.*;
 import net.sourceforge.kolmafia.utilities.CharacterEntities;
+import net.sourceforge.kolmafia.utilities.FileTreeIndex;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.PauseObject;
 import net.sourceforge.kolmafia.utilities.PrefixMap.KeyType;
@@ -941,18 +942,31 @@ public class KoLmafiaCLI {
   }
 
   private static List<File> findScriptFile(final String filename, List<File> matches) {
-    KoLmafiaCLI.findScriptFile(KoLConstants.ROOT_LOCATION, filename, matches, false);
+    // The index of the script and relay directories may not have heard
+    // about a file created a moment ago, so if it knows of no match at
+    // all, look again on disk.
+    KoLmafiaCLI.findScriptFile(filename, matches, true);
+    if (matches.isEmpty()) {
+      KoLmafiaCLI.findScriptFile(filename, matches, false);
+    }
+
+    return matches;
+  }
+
+  private static void findScriptFile(
+      final String filename, final List<File> matches, final boolean useIndex) {
+    KoLmafiaCLI.findScriptFile(KoLConstants.ROOT_LOCATION, filename, matches, false, useIndex);
 
     if (KoLConstants.SCRIPT_LOCATION.exists()) {
-      KoLmafiaCLI.findScriptFile(KoLConstants.SCRIPT_LOCATION, filename, matches, true);
+      KoLmafiaCLI.findScriptFile(KoLConstants.SCRIPT_LOCATION, filename, matches, true, useIndex);
     }
 
     if (KoLConstants.PLOTS_LOCATION.exists()) {
-      KoLmafiaCLI.findScriptFile(KoLConstants.PLOTS_LOCATION, filename, matches, false);
+      KoLmafiaCLI.findScriptFile(KoLConstants.PLOTS_LOCATION, filename, matches, false, useIndex);
     }
 
     if (KoLConstants.RELAY_LOCATION.exists()) {
-      KoLmafiaCLI.findScriptFile(KoLConstants.RELAY_LOCATION, filename, matches, true);
+      KoLmafiaCLI.findScriptFile(KoLConstants.RELAY_LOCATION, filename, matches, true, useIndex);
     }
 
     // Only if we get here and there are no matches do we recursively try again, adding some
@@ -960,25 +974,28 @@ public class KoLmafiaCLI {
     // Stop recursion once an extension has been added (alternatively, don't even try if an
     // extension was specified in the first place)
     if (matches.size() == 0 && !filename.contains(".")) {
-      findScriptFile(filename + ".ash", matches);
-      findScriptFile(filename + ".js", matches);
-      findScriptFile(filename + ".cli", matches);
-      findScriptFile(filename + ".txt", matches);
+      findScriptFile(filename + ".ash", matches, useIndex);
+      findScriptFile(filename + ".js", matches, useIndex);
+      findScriptFile(filename + ".cli", matches, useIndex);
+      findScriptFile(filename + ".txt", matches, useIndex);
     }
-
-    return matches;
   }
 
   private static void findScriptFile(
       final File directory,
       final String filename,
       final List<File> matches,
-      final boolean searchSubdirectories) {
+      final boolean searchSubdirectories,
+      final boolean useIndex) {
     // Bail if double dots
     if (filename.contains("..")) {
       return;
     }
 
+    if (searchSubdirectories && useIndex && FileTreeIndex.of(directory).find(filename, matches)) {
+      return;
+    }
+
     File scriptFile = new File(directory, filename);
     if (scriptFile.exists()) {
       if (!scriptFile.isDirectory()) matches.add(scriptFile);
@@ -988,7 +1005,7 @@ public class KoLmafiaCLI {
       File[] contents = DataUtilities.listFiles(directory);
       for (File content : contents) {
         if (content.isDirectory()) {
-          KoLmafiaCLI.findScriptFile(content, filename, matches, true);
+          KoLmafiaCLI.findScriptFile(content, filename, matches, true, false);
         }
       }
     }
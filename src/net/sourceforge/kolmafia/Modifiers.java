@@ -4,6 +4,7 @@ import static net.sourceforge.kolmafia.utilities.Statics.DateTimeManager;
 
 import java.time.DayOfWeek;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
@@ -70,6 +71,46 @@ public class Modifiers {
       new TreeMap<>();
   private static Modifiers cachedPassiveModifiers = null;
 
+  // caching of constant effect modifiers, keyed on the effects and the character
+  // state which decides whether and how they are added
+  private record EffectState(
+      int[] effectIds,
+      AscensionClass ascensionClass,
+      boolean unarmed,
+      boolean gLover,
+      boolean noExperience,
+      boolean stomach,
+      boolean liver,
+      boolean spleen) {
+    static EffectState of(final List<AdventureResult> effects) {
+      return new EffectState(
+          effects.stream().mapToInt(AdventureResult::getEffectId).toArray(),
+          KoLCharacter.getAscensionClass(),
+          Modifiers.unarmed,
+          KoLCharacter.inGLover(),
+          KoLCharacter.noExperience(),
+          KoLCharacter.canExpandStomachCapacity(),
+          KoLCharacter.canExpandLiverCapacity(),
+          KoLCharacter.canExpandSpleenCapacity());
+    }
+
+    boolean matches(final EffectState other) {
+      return other != null
+          && Arrays.equals(this.effectIds, other.effectIds)
+          && this.ascensionClass == other.ascensionClass
+          && this.unarmed == other.unarmed
+          && this.gLover == other.gLover
+          && this.noExperience == other.noExperience
+          && this.stomach == other.stomach
+          && this.liver == other.liver
+          && this.spleen == other.spleen;
+    }
+  }
+
+  private static EffectState cachedEffectState = null;
+  private static Modifiers cachedEffectModifiers = null;
+  private static int[] cachedVariableEffectIds = null;
+
   // fields used in Modifiers objects
 
   private Lookup originalLookup;
@@ -116,8 +157,21 @@ public class Modifiers {
   }
 
   public Map<DerivedModifier, Integer> predict() {
+    int[] predicted = this.predict(new int[DerivedModifier.values().length]);
+
     Map<DerivedModifier, Integer> rv = new EnumMap<>(DerivedModifier.class);
+    for (var modifier : DerivedModifier.values()) {
+      rv.put(modifier, predicted[modifier.ordinal()]);
+    }
+    return rv;
+  }
 
+  /**
+   * Predicts the derived modifiers, as predict() does, into the given array indexed by
+   * DerivedModifier ordinal, and returns it. Nothing is allocated, so the maximizer can call this
+   * for every combination it scores.
+   */
+  public int[] predict(final int[] rv) {
     int mus = KoLCharacter.getBaseMuscle();
     int mys = KoLCharacter.getBaseMysticality();
     int mox = KoLCharacter.getBaseMoxie();
@@ -166,56 +220,53 @@ public class Modifiers {
       mox = mox_limit;
     }
 
-    rv.put(
-        DerivedModifier.BUFFED_MUS,
+    rv[DerivedModifier.BUFFED_MUS.ordinal()] =
         mus
             + (int) this.getDouble(DoubleModifier.MUS)
-            + (int) Math.ceil(this.getDouble(DoubleModifier.MUS_PCT) * mus / 100.0));
-    rv.put(
-        DerivedModifier.BUFFED_MYS,
+            + (int) Math.ceil(this.getDouble(DoubleModifier.MUS_PCT) * mus / 100.0);
+    rv[DerivedModifier.BUFFED_MYS.ordinal()] =
         mys
             + (int) this.getDouble(DoubleModifier.MYS)
-            + (int) Math.ceil(this.getDouble(DoubleModifier.MYS_PCT) * mys / 100.0));
-    rv.put(
-        DerivedModifier.BUFFED_MOX,
+            + (int) Math.ceil(this.getDouble(DoubleModifier.MYS_PCT) * mys / 100.0);
+    rv[DerivedModifier.BUFFED_MOX.ordinal()] =
         mox
             + (int) this.getDouble(DoubleModifier.MOX)
-            + (int) Math.ceil(this.getDouble(DoubleModifier.MOX_PCT) * mox / 100.0));
+            + (int) Math.ceil(this.getDouble(DoubleModifier.MOX_PCT) * mox / 100.0);
 
     String mus_buffed_floor = this.getString(StringModifier.FLOOR_BUFFED_MUSCLE);
     if (mus_buffed_floor.startsWith("Mys")) {
-      var mod = rv.get(DerivedModifier.BUFFED_MYS);
-      if (mod > rv.get(DerivedModifier.BUFFED_MUS)) {
-        rv.put(DerivedModifier.BUFFED_MUS, mod);
+      var mod = rv[DerivedModifier.BUFFED_MYS.ordinal()];
+      if (mod > rv[DerivedModifier.BUFFED_MUS.ordinal()]) {
+        rv[DerivedModifier.BUFFED_MUS.ordinal()] = mod;
       }
     } else if (mus_buffed_floor.startsWith("Mox")) {
-      var mod = rv.get(DerivedModifier.BUFFED_MOX);
-      if (mod > rv.get(DerivedModifier.BUFFED_MUS)) {
-        rv.put(DerivedModifier.BUFFED_MUS, mod);
+      var mod = rv[DerivedModifier.BUFFED_MOX.ordinal()];
+      if (mod > rv[DerivedModifier.BUFFED_MUS.ordinal()]) {
+        rv[DerivedModifier.BUFFED_MUS.ordinal()] = mod;
       }
     }
     String mys_buffed_floor = this.getString(StringModifier.FLOOR_BUFFED_MYST);
     if (mys_buffed_floor.startsWith("Mus")) {
-      var mod = rv.get(DerivedModifier.BUFFED_MUS);
-      if (mod > rv.get(DerivedModifier.BUFFED_MYS)) {
-        rv.put(DerivedModifier.BUFFED_MYS, mod);
+      var mod = rv[DerivedModifier.BUFFED_MUS.ordinal()];
+      if (mod > rv[DerivedModifier.BUFFED_MYS.ordinal()]) {
+        rv[DerivedModifier.BUFFED_MYS.ordinal()] = mod;
       }
     } else if (mys_buffed_floor.startsWith("Mox")) {
-      var mod = rv.get(DerivedModifier.BUFFED_MOX);
-      if (mod > rv.get(DerivedModifier.BUFFED_MYS)) {
-        rv.put(DerivedModifier.BUFFED_MYS, mod);
+      var mod = rv[DerivedModifier.BUFFED_MOX.ordinal()];
+      if (mod > rv[DerivedModifier.BUFFED_MYS.ordinal()]) {
+        rv[DerivedModifier.BUFFED_MYS.ordinal()] = mod;
       }
     }
     String mox_buffed_floor = this.getString(StringModifier.FLOOR_BUFFED_MOXIE);
     if (mox_buffed_floor.startsWith("Mus")) {
-      var mod = rv.get(DerivedModifier.BUFFED_MUS);
-      if (mod > rv.get(DerivedModifier.BUFFED_MOX)) {
-        rv.put(DerivedModifier.BUFFED_MOX, mod);
+      var mod = rv[DerivedModifier.BUFFED_MUS.ordinal()];
+      if (mod > rv[DerivedModifier.BUFFED_MOX.ordinal()]) {
+        rv[DerivedModifier.BUFFED_MOX.ordinal()] = mod;
       }
     } else if (mox_buffed_floor.startsWith("Mys")) {
-      var mod = rv.get(DerivedModifier.BUFFED_MYS);
-      if (mod > rv.get(DerivedModifier.BUFFED_MOX)) {
-        rv.put(DerivedModifier.BUFFED_MOX, mod);
+      var mod = rv[DerivedModifier.BUFFED_MYS.ordinal()];
+      if (mod > rv[DerivedModifier.BUFFED_MOX.ordinal()]) {
+        rv[DerivedModifier.BUFFED_MOX.ordinal()] = mod;
       }
     }
 
@@ -227,7 +278,7 @@ public class Modifiers {
       hp = hpbase + (int) this.getDouble(DoubleModifier.HP);
       buffedHP = Math.max(hp, mus);
     } else if (KoLCharacter.inZootomist()) {
-      hpbase = rv.get(DerivedModifier.BUFFED_MUS) + 3;
+      hpbase = rv[DerivedModifier.BUFFED_MUS.ordinal()] + 3;
       hp = hpbase + (int) this.getDouble(DoubleModifier.HP);
       buffedHP = Math.max(hp, mus);
     } else if (KoLCharacter.inRobocore()) {
@@ -241,7 +292,7 @@ public class Modifiers {
       hp = hpbase + (int) this.getDouble(DoubleModifier.HP);
       buffedHP = hp;
     } else {
-      hpbase = rv.get(DerivedModifier.BUFFED_MUS) + 3;
+      hpbase = rv[DerivedModifier.BUFFED_MUS.ordinal()] + 3;
       double C = KoLCharacter.isMuscleClass() ? 1.5 : 1.0;
       double hpPercent = this.getDouble(DoubleModifier.HP_PCT);
       hp =
@@ -249,7 +300,7 @@ public class Modifiers {
               + (int) this.getDouble(DoubleModifier.HP);
       buffedHP = Math.max(hp, mus);
     }
-    rv.put(DerivedModifier.BUFFED_HP, buffedHP);
+    rv[DerivedModifier.BUFFED_HP.ordinal()] = buffedHP;
 
     int mpbase;
     int mp;
@@ -261,11 +312,11 @@ public class Modifiers {
       mp = mpbase + (int) this.getDouble(DoubleModifier.MP);
       buffedMP = mp;
     } else {
-      mpbase = rv.get(DerivedModifier.BUFFED_MYS);
+      mpbase = rv[DerivedModifier.BUFFED_MYS.ordinal()];
       if (this.getBoolean(BooleanModifier.MOXIE_CONTROLS_MP)
           || (this.getBoolean(BooleanModifier.MOXIE_MAY_CONTROL_MP)
-              && rv.get(DerivedModifier.BUFFED_MOX) > mpbase)) {
-        mpbase = rv.get(DerivedModifier.BUFFED_MOX);
+              && rv[DerivedModifier.BUFFED_MOX.ordinal()] > mpbase)) {
+        mpbase = rv[DerivedModifier.BUFFED_MOX.ordinal()];
       }
       double C = KoLCharacter.isMysticalityClass() ? 1.5 : 1.0;
       double mpPercent = this.getDouble(DoubleModifier.MP_PCT);
@@ -274,7 +325,7 @@ public class Modifiers {
               + (int) this.getDouble(DoubleModifier.MP);
       buffedMP = Math.max(mp, mys);
     }
-    rv.put(DerivedModifier.BUFFED_MP, buffedMP);
+    rv[DerivedModifier.BUFFED_MP.ordinal()] = buffedMP;
 
     return rv;
   }
@@ -383,7 +434,7 @@ public class Modifiers {
   }
 
   public double getDerived(final DerivedModifier modifier) {
-    return this.predict().get(modifier);
+    return this.predict(new int[DerivedModifier.values().length])[modifier.ordinal()];
   }
 
   public boolean getBoolean(final BooleanModifier modifier) {
@@ -975,6 +1026,59 @@ public class Modifiers {
     availablePassiveSkillModifiersByVariable.clear();
   }
 
+  public void applyEffectModifiers(final List<AdventureResult> effects, final boolean debug) {
+    // If we are debugging, add each effect directly so that it is reported individually
+    if (debug) {
+      for (AdventureResult effect : effects) {
+        this.add(ModifierDatabase.getEffectModifiers(effect.getEffectId()));
+      }
+      return;
+    }
+
+    EffectState state = EffectState.of(effects);
+    Modifiers constant;
+    int[] variable;
+
+    synchronized (Modifiers.class) {
+      if (!state.matches(Modifiers.cachedEffectState)) {
+        // Sum the effects whose modifiers never change; the rest are
+        // re-evaluated every time.
+        constant = new Modifiers(new Lookup(ModifierType.EFFECT, new IntOrString("cachedEffects")));
+        List<Integer> variableIds = new ArrayList<>();
+        for (int effectId : state.effectIds()) {
+          Modifiers mods = ModifierDatabase.getEffectModifiers(effectId);
+          if (mods == null) {
+            continue;
+          }
+          if (mods.variable) {
+            variableIds.add(effectId);
+          } else {
+            constant.add(mods);
+          }
+        }
+
+        Modifiers.cachedEffectState = state;
+        Modifiers.cachedEffectModifiers = constant;
+        Modifiers.cachedVariableEffectIds =
+            variableIds.stream().mapToInt(Integer::intValue).toArray();
+      }
+
+      constant = Modifiers.cachedEffectModifiers;
+      variable = Modifiers.cachedVariableEffectIds;
+    }
+
+    this.add(constant);
+    for (int effectId : variable) {
+      this.add(ModifierDatabase.getEffectModifiers(effectId));
+    }
+  }
+
+  public static synchronized void resetEffectModifiers() {
+    Modifiers.cachedEffectState = null;
+    Modifiers.cachedEffectModifiers = null;
+    Modifiers.cachedVariableEffectIds = null;
+  }
+
   public final void applyFloristModifiers() {
     if (!FloristRequest.haveFlorist()) {
       return;
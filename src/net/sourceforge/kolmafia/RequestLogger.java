@@ -1,9 +1,13 @@
 package net.sourceforge.kolmafia;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import net.sourceforge.kolmafia.KoLConstants.MafiaState;
 import net.sourceforge.kolmafia.listener.NamedListenerRegistry;
@@ -400,6 +404,175 @@ public class RequestLogger extends NullStream {
     }
   }
 
+  // Some adventures do not post any form fields, so handle them first.
+  private static final RegistrationTable SIMPLE_VISITS =
+      new RegistrationTable()
+          .add(
+              AltarOfLiteracyRequest.class,
+              AltarOfLiteracyRequest::registerRequest,
+              "town_altar.php")
+          .add(
+              BountyHunterHunterRequest.class,
+              BountyHunterHunterRequest::registerRequest,
+              "bounty.php")
+          .add(
+              FudgeWandRequest.class,
+              FudgeWandRequest::registerRequest,
+              "inv_use.php",
+              "choice.php")
+          .add(
+              SummoningChamberRequest.class,
+              SummoningChamberRequest::registerRequest,
+              "choice.php")
+          .add(HeyDezeRequest.class, HeyDezeRequest::registerRequest, "heydeze.php")
+          .add(MrStoreRequest.class, MrStoreRequest::registerRequest, "mrstore.php")
+          .add(SpaaaceRequest.class, SpaaaceRequest::registerRequest, "spaaace.php")
+          .add(VolcanoMazeRequest.class, VolcanoMazeRequest::registerRequest, "volcanomaze.php");
+
+  // The following lists all the remaining requests in alphabetical order.
+  //
+  // Do PurchaseRequest after all Coinmaster shops so they can register
+  // simple visits, if they so choose.
+  private static final RegistrationTable REMAINING_REQUESTS =
+      new RegistrationTable()
+          .add(AfterLifeRequest.class, AfterLifeRequest::registerRequest, "afterlife.php")
+          .add(AltarOfBonesRequest.class, AltarOfBonesRequest::registerRequest, "bone_altar.php")
+          .add(ArcadeRequest.class, ArcadeRequest::registerRequest)
+          .add(ArtistRequest.class, ArtistRequest::registerRequest, "place.php")
+          .add(AutoMallRequest.class, AutoMallRequest::registerRequest, "managestore.php")
+          .add(
+              AutoSellRequest.class,
+              AutoSellRequest::registerRequest,
+              "sellstuff.php",
+              "sellstuff_ugly.php")
+          .add(
+              AWOLQuartermasterRequest.class,
+              AWOLQuartermasterRequest::registerRequest,
+              "inv_use.php")
+          .add(BeerPongRequest.class, BeerPongRequest::registerRequest, "beerpong.php")
+          .add(BigBrotherRequest.class, BigBrotherRequest::registerRequest, "monkeycastle.php")
+          .add(BURTRequest.class, BURTRequest::registerRequest, "inv_use.php")
+          .add(CafeRequest.class, CafeRequest::registerRequest, "cafe.php")
+          .add(CakeArenaRequest.class, CakeArenaRequest::registerRequest, "arena.php")
+          .add(CampAwayRequest.class, CampAwayRequest::registerRequest, "place.php")
+          .add(ChateauRequest.class, ChateauRequest::registerRequest, "place.php")
+          .add(ClanLoungeRequest.class, ClanLoungeRequest::registerRequest, "clan_viplounge.php")
+          .add(
+              ClanRumpusRequest.class,
+              ClanRumpusRequest::registerRequest,
+              "clan_rumpus.php",
+              "place.php",
+              "gnomes.php")
+          .add(ClanStashRequest.class, ClanStashRequest::registerRequest, "clan_stash.php")
+          .add(
+              ClosetRequest.class,
+              ClosetRequest::registerRequest,
+              "closet.php",
+              "fillcloset.php",
+              "inventory.php")
+          .add(
+              CRIMBCOGiftShopRequest.class,
+              CRIMBCOGiftShopRequest::registerRequest,
+              "crimbo10.php")
+          .add(Crimbo07Request.class, Crimbo07Request::registerRequest, "crimbo07.php")
+          .add(Crimbo09Request.class, Crimbo09Request::registerRequest, "crimbo09.php")
+          .add(Crimbo10Request.class, Crimbo10Request::registerRequest, "crimbo10.php")
+          .add(Crimbo11Request.class, Crimbo11Request::registerRequest, "crimbo11.php")
+          .add(Crimbo21TreeRequest.class, Crimbo21TreeRequest::registerRequest, "crimbo21tree.php")
+          .add(CrimboCartelRequest.class, CrimboCartelRequest::registerRequest, "crimbo09.php")
+          .add(CurseRequest.class, CurseRequest::registerRequest, "curse.php")
+          .add(DigRequest.class, DigRequest::registerRequest, "dig.php")
+          .add(DimemasterRequest.class, DimemasterRequest::registerRequest, "bigisland.php")
+          .add(
+              DisplayCaseRequest.class,
+              DisplayCaseRequest::registerRequest,
+              "managecollection.php")
+          .add(
+              DreadsylvaniaRequest.class,
+              DreadsylvaniaRequest::registerRequest,
+              "clan_dreadsylvania.php")
+          .add(
+              DwarfContraptionRequest.class,
+              DwarfContraptionRequest::registerRequest,
+              "dwarfcontraption.php")
+          .add(DwarfFactoryRequest.class, DwarfFactoryRequest::registerRequest, "dwarffactory.php")
+          .add(EdBaseRequest.class, EdBaseRequest::registerRequest, "place.php")
+          .add(FamiliarRequest.class, FamiliarRequest::registerRequest, "familiar.php")
+          .add(FamTeamRequest.class, FamTeamRequest::registerRequest, "famteam.php")
+          .add(FantasyRealmRequest.class, FantasyRealmRequest::registerRequest, "choice.php")
+          .add(FleaMarketRequest.class, FleaMarketRequest::registerRequest, "town_fleamarket.php")
+          .add(
+              FleaMarketSellRequest.class,
+              FleaMarketSellRequest::registerRequest,
+              "town_sellflea.php")
+          .add(FreeSnackRequest.class, FreeSnackRequest::registerRequest, "gamestore.php")
+          .add(FriarRequest.class, FriarRequest::registerRequest, "friars.php")
+          .add(GameShoppeRequest.class, GameShoppeRequest::registerRequest, "gamestore.php")
+          .add(GourdRequest.class, GourdRequest::registerRequest, "town_right.php")
+          .add(GrandpaRequest.class, GrandpaRequest::registerRequest, "monkeycastle.php")
+          .add(GuildRequest.class, GuildRequest::registerRequest, "guild.php")
+          .add(HermitRequest.class, HermitRequest::registerRequest, "hermit.php")
+          .add(
+              IslandRequest.class,
+              IslandRequest::registerRequest,
+              "bigisland.php",
+              "postwarisland.php")
+          .add(KnollRequest.class, KnollRequest::registerRequest, "place.php")
+          .add(LeafletRequest.class, LeafletRequest::registerRequest, "leaflet.php")
+          .add(
+              MallSearchRequest.class,
+              MallSearchRequest::registerRequest,
+              "mallstore.php",
+              "mall.php")
+          .add(ManageStoreRequest.class, ManageStoreRequest::registerRequest, "backoffice.php")
+          .add(MindControlRequest.class, MindControlRequest::registerRequest)
+          .add(MomRequest.class, MomRequest::registerRequest, "monkeycastle.php")
+          .add(MonsterManuelRequest.class, MonsterManuelRequest::registerRequest, "questlog.php")
+          .add(MushroomRequest.class, MushroomRequest::registerRequest, "knoll_mushrooms.php")
+          .add(NemesisRequest.class, NemesisRequest::registerRequest, "cave.php")
+          .add(PandamoniumRequest.class, PandamoniumRequest::registerRequest, "pandamonium.php")
+          .add(PeeVPeeRequest.class, PeeVPeeRequest::registerRequest, "peevpee.php")
+          .add(ProfileRequest.class, ProfileRequest::registerRequest, "showplayer.php")
+          .add(PulverizeRequest.class, PulverizeRequest::registerRequest, "craft.php")
+          .add(QuartersmasterRequest.class, QuartersmasterRequest::registerRequest, "bigisland.php")
+          .add(RaffleRequest.class, RaffleRequest::registerRequest, "raffle.php")
+          .add(GnomePartRequest.class, GnomePartRequest::registerRequest, "choice.php")
+          .add(RichardRequest.class, RichardRequest::registerRequest, "clan_hobopolis.php")
+          .add(ScrapheapRequest.class, ScrapheapRequest::registerRequest, "place.php")
+          .add(SeaMerkinRequest.class, SeaMerkinRequest::registerRequest, "sea_merkin.php")
+          .add(SendGiftRequest.class, SendGiftRequest::registerRequest, "town_sendgift.php")
+          .add(SendMailRequest.class, SendMailRequest::registerRequest, "sendmessage.php")
+          .add(ShrineRequest.class, ShrineRequest::registerRequest, "da.php")
+          .add(SkateParkRequest.class, SkateParkRequest::registerRequest, "sea_skatepark.php")
+          .add(StandardRequest.class, StandardRequest::registerRequest, "standard.php")
+          .add(StorageRequest.class, StorageRequest::registerRequest, "storage.php")
+          .add(SuburbanDisRequest.class, SuburbanDisRequest::registerRequest, "suburbandis.php")
+          .add(SwaggerShopRequest.class, SwaggerShopRequest::registerRequest, "peevpee.php")
+          .add(TavernRequest.class, TavernRequest::registerRequest, "tavern.php")
+          .add(
+              TravelingTraderRequest.class,
+              TravelingTraderRequest::registerRequest,
+              "traveler.php")
+          .add(TrophyHutRequest.class, TrophyHutRequest::registerRequest, "trophy.php")
+          .add(TutorialRequest.class, TutorialRequest::registerRequest, "tutorial.php")
+          .add(
+              UneffectRequest.class,
+              UneffectRequest::registerRequest,
+              "uneffect.php",
+              "charsheet.php")
+          .add(UntinkerRequest.class, UntinkerRequest::registerRequest, "place.php")
+          .add(
+              VolcanoIslandRequest.class,
+              VolcanoIslandRequest::registerRequest,
+              "volcanoisland.php")
+          .add(WildfireCampRequest.class, WildfireCampRequest::registerRequest, "place.php")
+          .add(ZapRequest.class, ZapRequest::registerRequest, "wand.php")
+          .add(
+              PurchaseRequest.class,
+              PurchaseRequest::registerRequest,
+              "mallstore.php",
+              "town_giftshop.php");
+
   private static void doRegister(final GenericRequest request, final String urlString) {
     // If we are in a fight, don't even look at things which are
     // not fight.php, since they will immediately redirect to
@@ -471,59 +644,7 @@ public class RequestLogger extends NullStream {
     // Some adventures do not post any form fields,
     // so handle them first.
 
-    // We want to register simple visits to the Altar of Literacy
-    if ((isExternal || request instanceof AltarOfLiteracyRequest)
-        && AltarOfLiteracyRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to the Bounty Hunter Hunter
-    if ((isExternal || request instanceof BountyHunterHunterRequest)
-        && BountyHunterHunterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register visits to the You're the Fudge Wizard Now, Dog choice adventure before
-    // ChoiceManager.
-    if ((isExternal || request instanceof FudgeWandRequest)
-        && FudgeWandRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register visits to the Summoning Chamber choice adventure before ChoiceManager.
-    if ((isExternal || request instanceof SummoningChamberRequest)
-        && SummoningChamberRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to HeyDeze
-    if ((isExternal || request instanceof HeyDezeRequest)
-        && HeyDezeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to Mr. Store
-    if ((isExternal || request instanceof MrStoreRequest)
-        && MrStoreRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to Spaaace
-    if ((isExternal || request instanceof SpaaaceRequest)
-        && SpaaaceRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // We want to register simple visits to the Volcano Maze
-    if ((isExternal || request instanceof VolcanoMazeRequest)
-        && VolcanoMazeRequest.registerRequest(urlString)) {
+    if (RequestLogger.SIMPLE_VISITS.register(request, isExternal, urlString)) {
       RequestLogger.wasLastRequestSimple = false;
       return;
     }
@@ -773,498 +894,7 @@ public class RequestLogger extends NullStream {
     // The following lists all the remaining requests in
     // alphabetical order.
 
-    if ((isExternal || request instanceof AfterLifeRequest)
-        && AfterLifeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AltarOfBonesRequest)
-        && AltarOfBonesRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ArcadeRequest)
-        && ArcadeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ArtistRequest)
-        && ArtistRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AutoMallRequest)
-        && AutoMallRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AutoSellRequest)
-        && AutoSellRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof AWOLQuartermasterRequest)
-        && AWOLQuartermasterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BeerPongRequest)
-        && BeerPongRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BigBrotherRequest)
-        && BigBrotherRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof BURTRequest) && BURTRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CafeRequest) && CafeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CakeArenaRequest)
-        && CakeArenaRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CampAwayRequest)
-        && CampAwayRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ChateauRequest)
-        && ChateauRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ClanLoungeRequest)
-        && ClanLoungeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ClanRumpusRequest)
-        && ClanRumpusRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ClanStashRequest)
-        && ClanStashRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ClosetRequest)
-        && ClosetRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CRIMBCOGiftShopRequest)
-        && CRIMBCOGiftShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo07Request)
-        && Crimbo07Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo09Request)
-        && Crimbo09Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo10Request)
-        && Crimbo10Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo11Request)
-        && Crimbo11Request.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof Crimbo21TreeRequest)
-        && Crimbo21TreeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CrimboCartelRequest)
-        && CrimboCartelRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof CurseRequest)
-        && CurseRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DigRequest) && DigRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DimemasterRequest)
-        && DimemasterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DisplayCaseRequest)
-        && DisplayCaseRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DreadsylvaniaRequest)
-        && DreadsylvaniaRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DwarfContraptionRequest)
-        && DwarfContraptionRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof DwarfFactoryRequest)
-        && DwarfFactoryRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof EdBaseRequest)
-        && EdBaseRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FamiliarRequest)
-        && FamiliarRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FamTeamRequest)
-        && FamTeamRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FantasyRealmRequest)
-        && FantasyRealmRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FleaMarketRequest)
-        && FleaMarketRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FleaMarketSellRequest)
-        && FleaMarketSellRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FreeSnackRequest)
-        && FreeSnackRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof FriarRequest)
-        && FriarRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GameShoppeRequest)
-        && GameShoppeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GourdRequest)
-        && GourdRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GrandpaRequest)
-        && GrandpaRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GuildRequest)
-        && GuildRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof HermitRequest)
-        && HermitRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof IslandRequest)
-        && IslandRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof KnollRequest)
-        && KnollRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof LeafletRequest)
-        && LeafletRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MallSearchRequest)
-        && MallSearchRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ManageStoreRequest)
-        && ManageStoreRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MindControlRequest)
-        && MindControlRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MomRequest) && MomRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MonsterManuelRequest)
-        && MonsterManuelRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof MushroomRequest)
-        && MushroomRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof NemesisRequest)
-        && NemesisRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PandamoniumRequest)
-        && PandamoniumRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PeeVPeeRequest)
-        && PeeVPeeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ProfileRequest)
-        && ProfileRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof PulverizeRequest)
-        && PulverizeRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof QuartersmasterRequest)
-        && QuartersmasterRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof RaffleRequest)
-        && RaffleRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof GnomePartRequest)
-        && GnomePartRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof RichardRequest)
-        && RichardRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ScrapheapRequest)
-        && ScrapheapRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SeaMerkinRequest)
-        && SeaMerkinRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SendGiftRequest)
-        && SendGiftRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SendMailRequest)
-        && SendMailRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ShrineRequest)
-        && ShrineRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SkateParkRequest)
-        && SkateParkRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof StandardRequest)
-        && StandardRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof StorageRequest)
-        && StorageRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SuburbanDisRequest)
-        && SuburbanDisRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof SwaggerShopRequest)
-        && SwaggerShopRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TavernRequest)
-        && TavernRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TravelingTraderRequest)
-        && TravelingTraderRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TrophyHutRequest)
-        && TrophyHutRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof TutorialRequest)
-        && TutorialRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof UneffectRequest)
-        && UneffectRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof UntinkerRequest)
-        && UntinkerRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof VolcanoIslandRequest)
-        && VolcanoIslandRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof WildfireCampRequest)
-        && WildfireCampRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    if ((isExternal || request instanceof ZapRequest) && ZapRequest.registerRequest(urlString)) {
-      RequestLogger.wasLastRequestSimple = false;
-      return;
-    }
-
-    // Do PurchaseRequest after all Coinmaster shops so they can
-    // register simple visits, if they so choose.
-
-    if ((isExternal || request instanceof PurchaseRequest)
-        && PurchaseRequest.registerRequest(urlString)) {
+    if (RequestLogger.REMAINING_REQUESTS.register(request, isExternal, urlString)) {
       RequestLogger.wasLastRequestSimple = false;
       return;
     }
@@ -1308,4 +938,61 @@ public class RequestLogger extends NullStream {
 
     RequestLogger.registerLocation(location);
   }
+
+  /**
+   * An ordered list of request registration handlers, indexed by the page each handler claims.
+   * Registering a URL consults only the handlers for its page plus those that may claim any page,
+   * in the order in which they were added.
+   */
+  static final class RegistrationTable {
+    private record Handler(Class<? extends GenericRequest> type, Predicate<String> registrar) {}
+
+    private final List<Handler> anyPage = new ArrayList<>();
+    private final Map<String, List<Handler>> byPage = new HashMap<>();
+
+    /**
+     * Adds a handler which is consulted for any request of the given type, or for any external
+     * request. If no pages are given, it is consulted for every URL.
+     */
+    RegistrationTable add(
+        final Class<? extends GenericRequest> type,
+        final Predicate<String> registrar,
+        final String... pages) {
+      Handler handler = new Handler(type, registrar);
+
+      if (pages.length == 0) {
+        this.anyPage.add(handler);
+        this.byPage.values().forEach(handlers -> handlers.add(handler));
+        return this;
+      }
+
+      for (String page : pages) {
+        this.byPage.computeIfAbsent(page, k -> new ArrayList<>(this.anyPage)).add(handler);
+      }
+      return this;
+    }
+
+    boolean register(
+        final GenericRequest request, final boolean isExternal, final String urlString) {
+      List<Handler> handlers =
+          this.byPage.getOrDefault(RegistrationTable.getPage(urlString), this.anyPage);
+
+      for (Handler handler : handlers) {
+        if ((isExternal || handler.type.isInstance(request))
+            && handler.registrar.test(urlString)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    // Every handler checks urlString.startsWith(page), and ".php" appears
+    // in no page name before its end, so the page is everything up to and
+    // including the first ".php".
+    static String getPage(final String urlString) {
+      int index = urlString.indexOf(".php");
+      return index == -1 ? urlString : urlString.substring(0, index + 4);
+    }
+  }
 }
@@ -203,7 +203,7 @@ public abstract class RequestThread {
     // Make sure there is a URL string in the request
     request.reconstructFields();
 
-    boolean force = RequestThread.threadMap.isEmpty() && request.hasResult();
+    boolean force = !RequestThread.hasOpenRequestSequences() && request.hasResult();
 
     RequestThread.postRequest(force, request);
   }
@@ -228,7 +228,7 @@ public abstract class RequestThread {
       return;
     }
 
-    boolean force = RequestThread.threadMap.isEmpty();
+    boolean force = !RequestThread.hasOpenRequestSequences();
     RequestThread.postRequest(force, request);
   }
 
@@ -8,6 +8,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.tree.DefaultMutableTreeNode;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.MonsterData;
@@ -20,6 +21,14 @@ public class CustomCombatLookup extends DefaultMutableTreeNode {
   private final List<CombatEncounterKey> childKeys = new LinkedList<>();
   private final Map<String, CustomCombatStrategy> childLookup = new TreeMap<>();
 
+  // The best key depends only on the encounter, the monster it is, the last adventure location
+  // and the section keys, so remember it until the keys change rather than matching every key
+  // against the monster every round. MonsterData is compared by identity, so a monster which is
+  // registered or replaced in the monster database is matched afresh.
+  private final Map<EncounterContext, String> bestKeys = new ConcurrentHashMap<>();
+
+  private record EncounterContext(String encounter, MonsterData monster, String location) {}
+
   public CustomCombatLookup() {
     super("", true);
   }
@@ -31,8 +40,15 @@ public class CustomCombatLookup extends DefaultMutableTreeNode {
   public String getBestEncounterKey(final String encounter) {
     String encounterKey = CombatActionManager.encounterKey(encounter);
     MonsterData monsterData = MonsterDatabase.findMonster(encounterKey, false, false);
+    String location = Preferences.getString("lastAdventure");
+    return this.bestKeys.computeIfAbsent(
+        new EncounterContext(encounterKey, monsterData, location), this::findBestEncounterKey);
+  }
+
+  private String findBestEncounterKey(final EncounterContext context) {
+    MonsterData monsterData = context.monster();
 
-    encounterKey = getLongestMatch(encounterKey, monsterData);
+    String encounterKey = getLongestMatch(context.encounter(), monsterData);
 
     if (encounterKey != null) {
       return encounterKey;
@@ -47,7 +63,7 @@ public class CustomCombatLookup extends DefaultMutableTreeNode {
     // * something fundamentally different from the known monsters
     //   in the current zone, so don't try to use a [zone name] match.
 
-    String location = monsterData != null ? Preferences.getString("lastAdventure") : "unrecognized";
+    String location = monsterData != null ? context.location() : "unrecognized";
 
     encounterKey = getLongestMatch(location.toLowerCase(), monsterData);
 
@@ -117,6 +133,7 @@ public class CustomCombatLookup extends DefaultMutableTreeNode {
 
       childKeys.add(combatEncounterKey);
       childLookup.put(encounterKey, strategy);
+      bestKeys.clear();
 
       super.add(strategy);
     }
@@ -141,6 +158,7 @@ public class CustomCombatLookup extends DefaultMutableTreeNode {
   public void removeAllChildren() {
     childKeys.clear();
     childLookup.clear();
+    bestKeys.clear();
 
     super.removeAllChildren();
   }
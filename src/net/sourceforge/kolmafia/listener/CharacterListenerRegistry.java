@@ -8,6 +8,10 @@ public class CharacterListenerRegistry {
 
   private static final List<CharacterListener> listenerList = new ArrayList<>();
 
+  // Status changes come in bursts while a request is processed; the listeners only need to see
+  // the state the burst leaves behind, so every call to updateStatus fires this same listener.
+  private static final Listener updater = CharacterListenerRegistry::updateListeners;
+
   private CharacterListenerRegistry() {}
 
   /**
@@ -35,6 +39,10 @@ public class CharacterListenerRegistry {
   }
 
   public static final void updateStatus() {
+    ListenerScheduler.fire(CharacterListenerRegistry.updater);
+  }
+
+  private static void updateListeners() {
     CharacterListener[] listenerArray =
         new CharacterListener[CharacterListenerRegistry.listenerList.size()];
     CharacterListenerRegistry.listenerList.toArray(listenerArray);
@@ -1,5 +1,6 @@
 package net.sourceforge.kolmafia.listener;
 
+import java.awt.Component;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -211,6 +212,12 @@ public class ListenerRegistry {
           notified.add(listener);
         }
 
+        // Swing listeners only need to repaint once for any number of changes
+        if (listener instanceof Component) {
+          ListenerScheduler.fire(listener);
+          continue;
+        }
+
         try {
           listener.update();
         } catch (Exception e) {
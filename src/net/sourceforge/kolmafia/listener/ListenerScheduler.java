@@ -0,0 +1,94 @@
+package net.sourceforge.kolmafia.listener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import net.sourceforge.kolmafia.StaticEntity;
+
+/**
+ * Delivers updates to Swing listeners. While the GUI is running, a listener fired from any thread
+ * other than the event dispatch thread is marked dirty and updated on the event dispatch thread
+ * with everything else fired in the same frame, however many times it was fired in between.
+ */
+public class ListenerScheduler {
+  // How long fires are collected before they are delivered
+  private static final int FRAME_MILLIS = 50;
+
+  // Listeners waiting to be updated, in the order they were first fired. Guarded by itself.
+  private static final Set<Listener> pending = new LinkedHashSet<>();
+  private static boolean deliveryScheduled = false;
+
+  private static final Timer deliveryTimer;
+
+  static {
+    deliveryTimer = new Timer(FRAME_MILLIS, e -> ListenerScheduler.deliverPending());
+    deliveryTimer.setRepeats(false);
+    // A restart while a delivery is running must still lead to another delivery
+    deliveryTimer.setCoalesce(false);
+  }
+
+  private static final AtomicLong fires = new AtomicLong();
+  private static final AtomicLong deliveries = new AtomicLong();
+
+  private ListenerScheduler() {}
+
+  public static void fire(final Listener listener) {
+    ListenerScheduler.fires.incrementAndGet();
+
+    if (!StaticEntity.isGUIRequired() || SwingUtilities.isEventDispatchThread()) {
+      ListenerScheduler.deliver(listener);
+      return;
+    }
+
+    synchronized (ListenerScheduler.pending) {
+      ListenerScheduler.pending.add(listener);
+
+      if (ListenerScheduler.deliveryScheduled) {
+        return;
+      }
+
+      ListenerScheduler.deliveryScheduled = true;
+    }
+
+    ListenerScheduler.deliveryTimer.restart();
+  }
+
+  private static void deliverPending() {
+    List<Listener> listeners;
+
+    synchronized (ListenerScheduler.pending) {
+      ListenerScheduler.deliveryScheduled = false;
+      listeners = new ArrayList<>(ListenerScheduler.pending);
+      ListenerScheduler.pending.clear();
+    }
+
+    for (Listener listener : listeners) {
+      ListenerScheduler.deliver(listener);
+    }
+  }
+
+  private static void deliver(final Listener listener) {
+    ListenerScheduler.deliveries.incrementAndGet();
+
+    try {
+      listener.update();
+    } catch (Exception e) {
+      // Don't let a botched listener interfere with
+      // the listeners delivered after it.
+
+      StaticEntity.printStackTrace(e);
+    }
+  }
+
+  public static long getFireCount() {
+    return ListenerScheduler.fires.get();
+  }
+
+  public static long getDeliveryCount() {
+    return ListenerScheduler.deliveries.get();
+  }
+}
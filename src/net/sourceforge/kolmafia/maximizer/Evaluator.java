@@ -1,6 +1,7 @@
 package net.sourceforge.kolmafia.maximizer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
@@ -64,8 +65,9 @@ public class Evaluator {
   boolean exceeded;
   private Evaluator tiebreaker;
   private final DoubleModifierCollection weight = new DoubleModifierCollection();
-  private Map<DoubleModifier, Double> min;
-  private Map<DoubleModifier, Double> max;
+  // Indexed by DoubleModifier ordinal
+  private double[] min;
+  private double[] max;
   private double totalMin, totalMax;
   private int dump = 0;
   private int clownosity = 0;
@@ -111,6 +113,14 @@ public class Evaluator {
   private final Map<AdventureResult, Double> bonuses = new HashMap<>();
   private final List<BonusFunction> bonusFunc = new ArrayList<>();
 
+  // Compiled once parsing is done, so that scoring need not look at every modifier: the weights,
+  // indexed by DoubleModifier ordinal, and the modifiers which have a weight or a min.
+  private double[] weights;
+  private DoubleModifier[] scored;
+  // Whether any scored modifier is derived from base stats, and where the derivations go
+  private boolean predicts;
+  private final int[] predicted = new int[DerivedModifier.values().length];
+
   record BonusFunction(Function<AdventureResult, Double> bonusFunction, Double weight) {}
 
   private static final Pattern MUS_EXP_PERC_PATTERN =
@@ -203,17 +213,37 @@ public class Evaluator {
 
     Evaluator tiebreaker = new Evaluator();
     this.tiebreaker = tiebreaker;
-    tiebreaker.min = new EnumMap<>(DoubleModifier.class);
-    tiebreaker.max = new EnumMap<>(DoubleModifier.class);
-    for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
-      tiebreaker.min.put(mod, Double.NEGATIVE_INFINITY);
-      tiebreaker.max.put(mod, Double.POSITIVE_INFINITY);
-    }
+    tiebreaker.min = new double[DoubleModifier.DOUBLE_MODIFIERS.size()];
+    tiebreaker.max = new double[DoubleModifier.DOUBLE_MODIFIERS.size()];
+    Arrays.fill(tiebreaker.min, Double.NEGATIVE_INFINITY);
+    Arrays.fill(tiebreaker.max, Double.POSITIVE_INFINITY);
     tiebreaker.parse(Evaluator.TIEBREAKER);
+    tiebreaker.compile();
 
-    this.min = new EnumMap<>(tiebreaker.min);
-    this.max = new EnumMap<>(tiebreaker.max);
+    this.min = tiebreaker.min.clone();
+    this.max = tiebreaker.max.clone();
     this.parse(expr);
+    this.compile();
+  }
+
+  private void compile() {
+    this.weights = new double[DoubleModifier.DOUBLE_MODIFIERS.size()];
+    List<DoubleModifier> scored = new ArrayList<>();
+    this.predicts = false;
+
+    for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
+      double weight = this.weight.get(mod);
+      double min = this.min[mod.ordinal()];
+      this.weights[mod.ordinal()] = weight;
+      if (weight == 0.0 && min == Double.NEGATIVE_INFINITY) continue;
+
+      scored.add(mod);
+      switch (mod) {
+        case MUS, MYS, MOX, HP, MP -> this.predicts = true;
+      }
+    }
+
+    this.scored = scored.toArray(new DoubleModifier[0]);
   }
 
   private void parse(String expr) {
@@ -243,7 +273,7 @@ public class Evaluator {
       }
       if (keyword.equals("min")) {
         if (index != null) {
-          this.min.put(index, weight);
+          this.min[index.ordinal()] = weight;
         } else {
           this.totalMin = weight;
         }
@@ -252,7 +282,7 @@ public class Evaluator {
 
       if (keyword.equals("max")) {
         if (index != null) {
-          this.max.put(index, weight);
+          this.max[index.ordinal()] = weight;
         } else {
           this.totalMax = weight;
         }
@@ -753,24 +783,26 @@ public class Evaluator {
   public double getScore(Modifiers mods, Map<Slot, AdventureResult> equipment) {
     this.failed = false;
     this.exceeded = false;
-    var predicted = mods.predict();
+    var predicted = this.predicted;
+    if (this.predicts) {
+      mods.predict(predicted);
+    }
 
     double score = 0.0;
-    for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
-      double weight = this.weight.get(mod);
-      double min = this.min.get(mod);
-      if (weight == 0.0 && min == Double.NEGATIVE_INFINITY) continue;
+    for (var mod : this.scored) {
+      double weight = this.weights[mod.ordinal()];
+      double min = this.min[mod.ordinal()];
       double val = mods.getDouble(mod);
-      double max = this.max.get(mod);
+      double max = this.max[mod.ordinal()];
       switch (mod) {
         case MUS:
-          val = predicted.get(DerivedModifier.BUFFED_MUS);
+          val = predicted[DerivedModifier.BUFFED_MUS.ordinal()];
           break;
         case MYS:
-          val = predicted.get(DerivedModifier.BUFFED_MYS);
+          val = predicted[DerivedModifier.BUFFED_MYS.ordinal()];
           break;
         case MOX:
-          val = predicted.get(DerivedModifier.BUFFED_MOX);
+          val = predicted[DerivedModifier.BUFFED_MOX.ordinal()];
           break;
         case FAMILIAR_WEIGHT:
           val += mods.getDouble(DoubleModifier.HIDDEN_FAMILIAR_WEIGHT);
@@ -798,10 +830,10 @@ public class Evaluator {
                   + mods.getDouble(DoubleModifier.SPORADIC_ITEMDROP);
           break;
         case HP:
-          val = predicted.get(DerivedModifier.BUFFED_HP);
+          val = predicted[DerivedModifier.BUFFED_HP.ordinal()];
           break;
         case MP:
-          val = predicted.get(DerivedModifier.BUFFED_MP);
+          val = predicted[DerivedModifier.BUFFED_MP.ordinal()];
           break;
         case WEAPON_DAMAGE:
           // Incorrect - needs to estimate base damage
@@ -39,6 +39,15 @@ public class MaximizerSpeculation extends Speculation
   public boolean failed = false;
   public CheckedItem attachment;
   private boolean foldables = false;
+  private long comboLimit = 0;
+
+  // Counts of equipment with tiebreaking properties, cached between comparisons since the current
+  // best is compared against every combination tried.
+  private int[] equipmentCounts = null;
+  private static final int ROLLOVER_EFFECTS = 0;
+  private static final int BREAKABLES = 1;
+  private static final int DROPS_ITEMS = 2;
+  private static final int DROPS_MEAT = 3;
 
   @Override
   public MaximizerSpeculation clone() {
@@ -62,6 +71,7 @@ public class MaximizerSpeculation extends Speculation
   public void setUnscored() {
     this.scored = false;
     this.calculated = false;
+    this.equipmentCounts = null;
   }
 
   public double getScore() {
@@ -115,36 +125,16 @@ public class MaximizerSpeculation extends Speculation
     rv = other.beeosity - this.beeosity;
     if (rv != 0) return rv;
     // Get other comparisons
-    int countThisEffects = 0;
-    int countOtherEffects = 0;
-    int countThisBreakables = 0;
-    int countOtherBreakables = 0;
-    int countThisDropsItems = 0;
-    int countOtherDropsItems = 0;
-    int countThisDropsMeat = 0;
-    int countOtherDropsMeat = 0;
-    for (var equip : this.equipment.values()) {
-      if (equip == null) continue;
-      int itemId = equip.getItemId();
-      Modifiers mods = ModifierDatabase.getItemModifiers(itemId);
-      if (mods == null) continue;
-      var rolloverEffects = mods.getStrings(MultiStringModifier.ROLLOVER_EFFECT);
-      if (!rolloverEffects.isEmpty()) countThisEffects++;
-      if (mods.getBoolean(BooleanModifier.BREAKABLE)) countThisBreakables++;
-      if (mods.getBoolean(BooleanModifier.DROPS_ITEMS)) countThisDropsItems++;
-      if (mods.getBoolean(BooleanModifier.DROPS_MEAT)) countThisDropsMeat++;
-    }
-    for (var equip : other.equipment.values()) {
-      if (equip == null) continue;
-      int itemId = equip.getItemId();
-      Modifiers mods = ModifierDatabase.getItemModifiers(itemId);
-      if (mods == null) continue;
-      var rolloverEffects = mods.getStrings(MultiStringModifier.ROLLOVER_EFFECT);
-      if (!rolloverEffects.isEmpty()) countOtherEffects++;
-      if (mods.getBoolean(BooleanModifier.BREAKABLE)) countOtherBreakables++;
-      if (mods.getBoolean(BooleanModifier.DROPS_ITEMS)) countOtherDropsItems++;
-      if (mods.getBoolean(BooleanModifier.DROPS_MEAT)) countOtherDropsMeat++;
-    }
+    int[] thisCounts = this.getEquipmentCounts();
+    int[] otherCounts = other.getEquipmentCounts();
+    int countThisEffects = thisCounts[ROLLOVER_EFFECTS];
+    int countOtherEffects = otherCounts[ROLLOVER_EFFECTS];
+    int countThisBreakables = thisCounts[BREAKABLES];
+    int countOtherBreakables = otherCounts[BREAKABLES];
+    int countThisDropsItems = thisCounts[DROPS_ITEMS];
+    int countOtherDropsItems = otherCounts[DROPS_ITEMS];
+    int countThisDropsMeat = thisCounts[DROPS_MEAT];
+    int countOtherDropsMeat = otherCounts[DROPS_MEAT];
     // Prefer item droppers
     if (Maximizer.eval.isUsingTiebreaker() && countThisDropsItems != countOtherDropsItems) {
       return countThisDropsItems > countOtherDropsItems ? 1 : -1;
@@ -190,6 +180,24 @@ public class MaximizerSpeculation extends Speculation
     return rv;
   }
 
+  private int[] getEquipmentCounts() {
+    if (this.equipmentCounts != null) return this.equipmentCounts;
+    int[] counts = new int[4];
+    for (var equip : this.equipment.values()) {
+      if (equip == null) continue;
+      int itemId = equip.getItemId();
+      Modifiers mods = ModifierDatabase.getItemModifiers(itemId);
+      if (mods == null) continue;
+      var rolloverEffects = mods.getStrings(MultiStringModifier.ROLLOVER_EFFECT);
+      if (!rolloverEffects.isEmpty()) counts[ROLLOVER_EFFECTS]++;
+      if (mods.getBoolean(BooleanModifier.BREAKABLE)) counts[BREAKABLES]++;
+      if (mods.getBoolean(BooleanModifier.DROPS_ITEMS)) counts[DROPS_ITEMS]++;
+      if (mods.getBoolean(BooleanModifier.DROPS_MEAT)) counts[DROPS_MEAT]++;
+    }
+    this.equipmentCounts = counts;
+    return counts;
+  }
+
   // Remember which equipment slots were null, so that this
   // state can be restored later.
   public EnumMap<Slot, AdventureResult> mark() {
@@ -211,6 +219,7 @@ public class MaximizerSpeculation extends Speculation
       FamiliarData useBjornFamiliar)
       throws MaximizerInterruptedException {
     this.foldables = Preferences.getBoolean("maximizerFoldables");
+    this.comboLimit = Preferences.getLong("maximizerCombinationLimit");
     this.tryOutfits(
         enthronedFamiliars,
         usefulOutfits,
@@ -795,6 +804,7 @@ public class MaximizerSpeculation extends Speculation
     this.calculated = false;
     this.scored = false;
     this.tiebreakered = false;
+    this.equipmentCounts = null;
     if (Maximizer.best == null) {
       RequestLogger.updateSessionLog(
           "Maximizer about to throw LimitExceeded because of null best.");
@@ -817,8 +827,7 @@ public class MaximizerSpeculation extends Speculation
     if (this.exceeded) {
       throw new MaximizerExceededException();
     }
-    long comboLimit = Preferences.getLong("maximizerCombinationLimit");
-    if (comboLimit != 0 && Maximizer.bestChecked >= comboLimit) {
+    if (this.comboLimit != 0 && Maximizer.bestChecked >= this.comboLimit) {
       throw new MaximizerLimitException();
     }
   }
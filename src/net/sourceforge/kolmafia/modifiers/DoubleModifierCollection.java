@@ -1,6 +1,6 @@
 package net.sourceforge.kolmafia.modifiers;
 
-import java.util.EnumMap;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.function.BiConsumer;
@@ -8,29 +8,54 @@ import java.util.function.BiConsumer;
 public class DoubleModifierCollection {
   public static final int SPARSE_DOUBLES_MAX_SIZE = 32;
 
-  // If only a few values are set in doubles, we instead store all modifiers in a sparse TreeMap.
-  // When that map gets bigger than SPARSE_DOUBLES_MAX_SIZE, we copy it over to the dense EnumMap.
-  private Map<DoubleModifier, Double> doubles = new TreeMap<>();
+  private static final DoubleModifier[] VALUES = DoubleModifier.values();
+
+  // If only a few values are set, we store them in a sparse TreeMap. When that map gets bigger than
+  // SPARSE_DOUBLES_MAX_SIZE, we copy it over to a dense array indexed by ordinal, so that reading a
+  // value neither searches nor unboxes.
+  private Map<DoubleModifier, Double> sparse = new TreeMap<>();
+  private double[] dense = null;
+  // Which values in the dense array are set, perhaps to 0.0 by adding to them
+  private BitSet present = null;
 
   public void reset() {
-    this.doubles = new TreeMap<>();
+    this.sparse = new TreeMap<>();
+    this.dense = null;
+    this.present = null;
   }
 
   public void densify() {
-    if (this.doubles instanceof EnumMap) return;
-    Map<DoubleModifier, Double> newDoubles = new EnumMap<>(DoubleModifier.class);
-    newDoubles.putAll(this.doubles);
-    this.doubles = newDoubles;
+    if (this.dense != null) return;
+    this.dense = new double[VALUES.length];
+    this.present = new BitSet(VALUES.length);
+    this.sparse.forEach(
+        (mod, value) -> {
+          this.dense[mod.ordinal()] = value;
+          this.present.set(mod.ordinal());
+        });
+    this.sparse = null;
   }
 
   public double get(final DoubleModifier mod) {
-    return this.doubles.getOrDefault(mod, 0.0);
+    if (this.dense != null) {
+      return this.dense[mod.ordinal()];
+    }
+    return this.sparse.getOrDefault(mod, 0.0);
   }
 
   public boolean set(final DoubleModifier mod, final double value) {
-    Double oldValue = value == 0.0 ? this.doubles.remove(mod) : this.doubles.put(mod, value);
+    if (this.dense != null) {
+      int index = mod.ordinal();
+      boolean wasPresent = this.present.get(index);
+      double oldValue = this.dense[index];
+      this.dense[index] = value == 0.0 ? 0.0 : value;
+      this.present.set(index, value != 0.0);
+      return !wasPresent || oldValue != value;
+    }
+
+    Double oldValue = value == 0.0 ? this.sparse.remove(mod) : this.sparse.put(mod, value);
 
-    if (this.doubles.size() >= DoubleModifierCollection.SPARSE_DOUBLES_MAX_SIZE) {
+    if (this.sparse.size() >= DoubleModifierCollection.SPARSE_DOUBLES_MAX_SIZE) {
       this.densify();
     }
 
@@ -41,10 +66,26 @@ public class DoubleModifierCollection {
   public double add(final DoubleModifier mod, final double value) {
     // Anything being accumulated onto should be dense.
     this.densify();
-    return this.doubles.merge(mod, value, Double::sum);
+    int index = mod.ordinal();
+    if (this.present.get(index)) {
+      this.dense[index] += value;
+    } else {
+      this.dense[index] = value;
+      this.present.set(index);
+    }
+    return this.dense[index];
   }
 
   public void forEach(BiConsumer<? super DoubleModifier, ? super Double> action) {
-    this.doubles.forEach(action);
+    if (this.dense == null) {
+      this.sparse.forEach(action);
+      return;
+    }
+
+    for (int index = this.present.nextSetBit(0);
+        index >= 0;
+        index = this.present.nextSetBit(index + 1)) {
+      action.accept(VALUES[index], this.dense[index]);
+    }
   }
 }
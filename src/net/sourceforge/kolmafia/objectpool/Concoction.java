@@ -642,6 +642,7 @@ public class Concoction implements Comparable<Concoction> {
 
   public void setPurchaseRequest(final PurchaseRequest purchaseRequest) {
     this.purchaseRequest = purchaseRequest;
+    ConcoctionDatabase.invalidateDependents();
   }
 
   public boolean hasIngredients() {
@@ -845,6 +846,7 @@ public class Concoction implements Comparable<Concoction> {
   public void resetIngredients() {
     this.ingredients.clear();
     this.ingredientArray = new AdventureResult[0];
+    ConcoctionDatabase.invalidateDependents();
   }
 
   public void addIngredient(final AdventureResult ingredient) {
@@ -863,6 +865,7 @@ public class Concoction implements Comparable<Concoction> {
 
     this.ingredientArray = new AdventureResult[this.ingredients.size()];
     this.ingredients.toArray(this.ingredientArray);
+    ConcoctionDatabase.invalidateDependents();
   }
 
   // Allow an arbitrary parameter to be set, to indicate creation details
@@ -881,6 +884,7 @@ public class Concoction implements Comparable<Concoction> {
 
   public void setMixingMethod(final CraftingType mixingMethod) {
     this.mixingMethod = mixingMethod;
+    ConcoctionDatabase.invalidateDependents();
   }
 
   public EnumSet<CraftingRequirements> getRequirements() {
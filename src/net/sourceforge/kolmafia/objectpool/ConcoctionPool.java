@@ -64,6 +64,8 @@ public class ConcoctionPool {
     String name = c.getName();
     int itemId = c.getItemId();
 
+    ConcoctionDatabase.invalidateDependents();
+
     if (itemId > 0) {
       ConcoctionPool.items.put(itemId, c);
     } else {
@@ -84,7 +84,7 @@ public class AscensionSnapshot {
       case CASUAL -> strbuf.append("Casual");
     }
 
-    String clanName = ClanManager.getClanName(true);
+    String clanName = ClanManager.getClanName(false);
 
     strbuf.append(" Ascension Data for ");
     strbuf.append(clanName);
@@ -134,17 +134,19 @@ public class AscensionSnapshot {
     strbuf.append("<td align=center><b>Ascensions</b></td></tr>");
     strbuf.append(KoLConstants.LINE_BREAK);
 
-    // Resort the lists, and print the results to the buffer
-    // so that you have the "most ascensions" leaderboard.
+    // Sort a copy of the list, so that leaderboards for different
+    // types can be rendered at the same time, and print the results
+    // to the buffer so that you have the "most ascensions" leaderboard.
 
-    AscensionHistoryRequest.setComparator(typeFilter);
-    Collections.sort(AscensionSnapshot.ascensionDataList);
+    List<AscensionHistoryRequest> mostAscensions =
+        new ArrayList<>(AscensionSnapshot.ascensionDataList);
+    mostAscensions.sort(AscensionHistoryRequest.comparator(typeFilter));
 
     for (int i = 0;
-        i < AscensionSnapshot.ascensionDataList.size()
+        i < mostAscensions.size()
             && (mostAscensionsBoardSize == 0 ? i < 20 : i < mostAscensionsBoardSize);
         ++i) {
-      String leader = AscensionSnapshot.ascensionDataList.get(i).toString();
+      String leader = mostAscensions.get(i).toString(typeFilter);
 
       if (!localProfileLink) {
         leader = AscensionSnapshot.LINK_PATTERN.matcher(leader).replaceAll("");
@@ -426,7 +428,7 @@ public class AscensionSnapshot {
     return strbuf.toString();
   }
 
-  private static void initializeAscensionData() {
+  public static final synchronized void initializeAscensionData() {
     // If the ascension lists have already been initialized,
     // then return from this method call.
 
@@ -2,18 +2,22 @@ package net.sourceforge.kolmafia.persistence;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import net.java.dev.spellcast.utilities.LockableListModel;
 import net.java.dev.spellcast.utilities.SortedListModel;
@@ -81,6 +85,15 @@ public class ConcoctionDatabase {
 
   private static boolean refreshNeeded = true;
   private static boolean recalculateAdventureRange = false;
+
+  // If only item quantities have changed since the last refresh, these are the items, and only
+  // the concoctions which depend on them need to be recalculated.
+  private static boolean fullRefreshNeeded = true;
+  // Added to by any thread which processes results
+  private static final Set<Integer> changedItemIds = ConcurrentHashMap.newKeySet();
+  private static List<Object> lastRefreshInputs = null;
+  private static Map<Concoction, List<Concoction>> dependents = null;
+  private static List<Concoction> volatileConcoctions = null;
   public static int refreshLevel = 0;
 
   public static int queuedAdventuresUsed = 0;
@@ -136,6 +149,39 @@ public class ConcoctionDatabase {
       new Concoction(null, CraftingType.NOCREATE);
   public static final Concoction meatLimit = new Concoction(null, CraftingType.NOCREATE);
 
+  private static final List<Concoction> LIMITS =
+      List.of(
+          stillsLimit,
+          clipArtLimit,
+          extrudeLimit,
+          adventureLimit,
+          adventureSmithingLimit,
+          cookingLimit,
+          cocktailcraftingLimit,
+          turnFreeLimit,
+          turnFreeCookingLimit,
+          turnFreeCocktailcraftingLimit,
+          turnFreeSmithingLimit,
+          meatLimit);
+
+  // Concoctions whose availability depends on something other than their ingredients
+  private static final EnumSet<CraftingType> VOLATILE_METHODS =
+      EnumSet.of(
+          CraftingType.COINMASTER,
+          CraftingType.FLOUNDRY,
+          CraftingType.BARREL,
+          CraftingType.TERMINAL,
+          CraftingType.SPACEGATE,
+          CraftingType.FANTASY_REALM,
+          CraftingType.STILLSUIT,
+          CraftingType.BURNING_LEAVES,
+          CraftingType.MAYAM,
+          CraftingType.PHOTO_BOOTH,
+          CraftingType.TAKERSPACE,
+          CraftingType.GNOME_PART,
+          CraftingType.JARLS,
+          CraftingType.TINKERING_BENCH);
+
   public static final Map<Integer, Set<AdventureResult>> knownUses = new HashMap<>();
 
   public static final EnumSet<CraftingType> PERMIT_METHOD = EnumSet.noneOf(CraftingType.class);
@@ -1146,7 +1192,7 @@ public class ConcoctionDatabase {
   public static final void setRefreshNeeded(int itemId) {
     switch (ItemDatabase.getConsumptionType(itemId)) {
       case EAT, DRINK, SPLEEN, USE, USE_MULTIPLE, FOOD_HELPER, DRINK_HELPER -> {
-        ConcoctionDatabase.setRefreshNeeded(false);
+        ConcoctionDatabase.setItemRefreshNeeded(itemId);
         return;
       }
     }
@@ -1179,7 +1225,7 @@ public class ConcoctionDatabase {
           ConcoctionDatabase.getRequirements(use.getItemId());
 
       if (ConcoctionDatabase.isPermittedMethod(method, requirements)) {
-        ConcoctionDatabase.setRefreshNeeded(false);
+        ConcoctionDatabase.setItemRefreshNeeded(itemId);
         return;
       }
     }
@@ -1193,8 +1239,14 @@ public class ConcoctionDatabase {
     }
   }
 
+  private static void setItemRefreshNeeded(int itemId) {
+    ConcoctionDatabase.refreshNeeded = true;
+    ConcoctionDatabase.changedItemIds.add(itemId);
+  }
+
   public static final void setRefreshNeeded(boolean recalculateAdventureRange) {
     ConcoctionDatabase.refreshNeeded = true;
+    ConcoctionDatabase.fullRefreshNeeded = true;
 
     if (recalculateAdventureRange) {
       ConcoctionDatabase.recalculateAdventureRange = true;
@@ -1213,6 +1265,7 @@ public class ConcoctionDatabase {
     if (force) {
       // Remember that refresh is forced, even if deferred
       ConcoctionDatabase.refreshNeeded = true;
+      ConcoctionDatabase.fullRefreshNeeded = true;
     }
 
     if (!ConcoctionDatabase.refreshNeeded) {
@@ -1230,24 +1283,29 @@ public class ConcoctionDatabase {
       return;
     }
 
+    ConcoctionDatabase.refreshPendingConcoctions();
+  }
+
+  private static synchronized void refreshPendingConcoctions() {
+    if (!ConcoctionDatabase.fullRefreshNeeded
+        && !ConcoctionDatabase.changedItemIds.isEmpty()
+        && ConcoctionDatabase.lastRefreshInputs != null
+        && ConcoctionDatabase.refreshChangedConcoctions()) {
+      return;
+    }
+
     ConcoctionDatabase.refreshConcoctionsNow();
   }
 
   public static final synchronized void refreshConcoctionsNow() {
     Preferences.increment("_concoctionDatabaseRefreshes");
     ConcoctionDatabase.refreshNeeded = false;
+    ConcoctionDatabase.fullRefreshNeeded = false;
+    ConcoctionDatabase.changedItemIds.clear();
 
     List<AdventureResult> availableIngredientsList = ConcoctionDatabase.getAvailableIngredients();
-
-    // In addition to the list, we create a second data structure here for better performance.
-    // Because we do many lookups to the available ingredients to see how many there are,
-    // having an O(1) lookup helps a lot. Initial size is set at list * 2 with default 0.75 load
-    // factor.
     Map<Integer, AdventureResult> availableIngredients =
-        new HashMap<>(availableIngredientsList.size() * 2);
-    for (AdventureResult item : availableIngredientsList) {
-      availableIngredients.put(item.getItemId(), item);
-    }
+        ConcoctionDatabase.indexIngredients(availableIngredientsList);
 
     // Iterate through the concoction table, Initialize each one
     // appropriately depending on whether it is an NPC item, a Coin
@@ -1257,57 +1315,8 @@ public class ConcoctionDatabase {
     boolean useCoinmasters = InventoryManager.canUseCoinmasters();
 
     for (Concoction item : ConcoctionPool.concoctions()) {
-      // Initialize all the variables
-      item.resetCalculations();
-
-      if (item.speakeasy != null) {
-        // Has an item number, but can't appear in inventory
-        continue;
-      }
-
-      AdventureResult concoction = item.concoction;
-      if (concoction == null) {
-        continue;
-      }
-
-      int itemId = concoction.getItemId();
-
-      if (useNPCStores && NPCStoreDatabase.contains(itemId, true)) {
-        if (itemId != ItemPool.FLAT_DOUGH) {
-          // Don't buy flat dough from Degrassi Knoll Bakery -
-          // buy wads of dough for 20 meat less, instead.
-
-          item.price = NPCStoreDatabase.price(itemId);
-          item.initial = concoction.getCount(availableIngredients);
-          item.creatable = 0;
-          item.total = item.initial;
-          item.visibleTotal = item.total;
-          continue;
-        }
-      }
-
-      PurchaseRequest purchaseRequest = item.getPurchaseRequest();
-      if (purchaseRequest != null) {
-        purchaseRequest.setCanPurchase(useCoinmasters);
-        int acquirable = purchaseRequest.canPurchase() ? purchaseRequest.affordableCount() : 0;
-        item.price = 0;
-        item.initial = concoction.getCount(availableIngredients);
-        item.creatable = acquirable;
-        item.total = item.initial + acquirable;
-        item.visibleTotal = item.total;
-        continue;
-      }
-
-      // Set initial quantity of all remaining items.
-
-      // Switch to the better of any interchangeable ingredients. Only mutates the first argument.
-      ConcoctionDatabase.getIngredients(item, item.getIngredients(), availableIngredientsList);
-
-      item.initial = concoction.getCount(availableIngredients);
-      item.price = 0;
-      item.creatable = 0;
-      item.total = item.initial;
-      item.visibleTotal = item.total;
+      ConcoctionDatabase.initializeConcoction(
+          item, availableIngredientsList, availableIngredients, useNPCStores, useCoinmasters);
     }
 
     // Make assessment of availability of mixing methods.
@@ -1316,6 +1325,7 @@ public class ConcoctionDatabase {
     // is not needed.
 
     ConcoctionDatabase.cachePermitted(availableIngredientsList);
+    ConcoctionDatabase.lastRefreshInputs = ConcoctionDatabase.refreshInputs();
 
     // Finally, increment through all of the things which are
     // created any other way, making sure that it's a permitted
@@ -1326,6 +1336,132 @@ public class ConcoctionDatabase {
       item.calculate3();
     }
 
+    ConcoctionDatabase.updateCreatables(ConcoctionPool.concoctions());
+  }
+
+  /**
+   * Recalculate only the concoctions which can be affected by the items whose quantities changed
+   * since the last refresh: the items themselves, everything made from them (directly or
+   * indirectly), and the concoctions which depend on state other than items.
+   *
+   * @return false if something other than item quantities changed, in which case nothing has been
+   *     published and a full refresh is needed.
+   */
+  private static boolean refreshChangedConcoctions() {
+    List<AdventureResult> availableIngredientsList = ConcoctionDatabase.getAvailableIngredients();
+    Map<Integer, AdventureResult> availableIngredients =
+        ConcoctionDatabase.indexIngredients(availableIngredientsList);
+
+    boolean useNPCStores = InventoryManager.canUseNPCStores();
+    boolean useCoinmasters = InventoryManager.canUseCoinmasters();
+
+    // Items changed from now on are left for the next refresh
+    Set<Integer> changedItemIds = new HashSet<>(ConcoctionDatabase.changedItemIds);
+    Set<Concoction> affected = ConcoctionDatabase.affectedConcoctions(changedItemIds);
+
+    for (Concoction item : affected) {
+      ConcoctionDatabase.initializeConcoction(
+          item, availableIngredientsList, availableIngredients, useNPCStores, useCoinmasters);
+    }
+
+    ConcoctionDatabase.cachePermitted(availableIngredientsList);
+
+    // If mixing methods, limits, or meat changed, every concoction can be affected.
+    List<Object> inputs = ConcoctionDatabase.refreshInputs();
+    if (!inputs.equals(ConcoctionDatabase.lastRefreshInputs)) {
+      return false;
+    }
+
+    Preferences.increment("_concoctionDatabaseRefreshes");
+    ConcoctionDatabase.refreshNeeded = false;
+    ConcoctionDatabase.changedItemIds.removeAll(changedItemIds);
+    if (!ConcoctionDatabase.changedItemIds.isEmpty()) {
+      ConcoctionDatabase.refreshNeeded = true;
+    }
+
+    for (Concoction item : affected) {
+      item.calculate2();
+      item.calculate3();
+    }
+
+    ConcoctionDatabase.updateCreatables(affected);
+    return true;
+  }
+
+  private static Map<Integer, AdventureResult> indexIngredients(
+      final List<AdventureResult> availableIngredientsList) {
+    // In addition to the list, we create a second data structure here for better performance.
+    // Because we do many lookups to the available ingredients to see how many there are,
+    // having an O(1) lookup helps a lot. Initial size is set at list * 2 with default 0.75 load
+    // factor.
+    Map<Integer, AdventureResult> availableIngredients =
+        new HashMap<>(availableIngredientsList.size() * 2);
+    for (AdventureResult item : availableIngredientsList) {
+      availableIngredients.put(item.getItemId(), item);
+    }
+    return availableIngredients;
+  }
+
+  private static void initializeConcoction(
+      final Concoction item,
+      final List<AdventureResult> availableIngredientsList,
+      final Map<Integer, AdventureResult> availableIngredients,
+      final boolean useNPCStores,
+      final boolean useCoinmasters) {
+    // Initialize all the variables
+    item.resetCalculations();
+
+    if (item.speakeasy != null) {
+      // Has an item number, but can't appear in inventory
+      return;
+    }
+
+    AdventureResult concoction = item.concoction;
+    if (concoction == null) {
+      return;
+    }
+
+    int itemId = concoction.getItemId();
+
+    if (useNPCStores && NPCStoreDatabase.contains(itemId, true)) {
+      if (itemId != ItemPool.FLAT_DOUGH) {
+        // Don't buy flat dough from Degrassi Knoll Bakery -
+        // buy wads of dough for 20 meat less, instead.
+
+        item.price = NPCStoreDatabase.price(itemId);
+        item.initial = concoction.getCount(availableIngredients);
+        item.creatable = 0;
+        item.total = item.initial;
+        item.visibleTotal = item.total;
+        return;
+      }
+    }
+
+    PurchaseRequest purchaseRequest = item.getPurchaseRequest();
+    if (purchaseRequest != null) {
+      purchaseRequest.setCanPurchase(useCoinmasters);
+      int acquirable = purchaseRequest.canPurchase() ? purchaseRequest.affordableCount() : 0;
+      item.price = 0;
+      item.initial = concoction.getCount(availableIngredients);
+      item.creatable = acquirable;
+      item.total = item.initial + acquirable;
+      item.visibleTotal = item.total;
+      return;
+    }
+
+    // Set initial quantity of all remaining items.
+
+    // Switch to the better of any interchangeable ingredients. Only mutates the first argument.
+    ConcoctionDatabase.getIngredients(item, item.getIngredients(), availableIngredientsList);
+
+    item.initial = concoction.getCount(availableIngredients);
+    item.price = 0;
+    item.creatable = 0;
+    item.total = item.initial;
+    item.visibleTotal = item.total;
+  }
+
+  private static void updateCreatables(final Collection<Concoction> concoctions) {
     // Now, to update the list of creatables without removing
     // all creatable items.	 We do this by determining the
     // number of items inside of the old list.
@@ -1336,7 +1472,7 @@ public class ConcoctionDatabase {
             && !KoLCharacter.isHardcore()
             && ConcoctionDatabase.getPullsBudgeted() > ConcoctionDatabase.queuedPullsUsed;
 
-    for (Concoction item : ConcoctionPool.concoctions()) {
+    for (Concoction item : concoctions) {
       AdventureResult ar = item.getItem();
       if (ar == null) {
         continue;
@@ -1401,6 +1537,101 @@ public class ConcoctionDatabase {
     ConcoctionDatabase.queuedPotions.updateFilter(changeDetected);
   }
 
+  /**
+   * Everything other than item quantities which a concoction calculation can depend on. If any of
+   * these change between refreshes, an incremental refresh is not possible.
+   */
+  private static List<Object> refreshInputs() {
+    List<Object> inputs = new ArrayList<>();
+    inputs.add(KoLCharacter.getAvailableMeat());
+    for (Concoction limit : ConcoctionDatabase.LIMITS) {
+      inputs.add(limit.initial);
+      inputs.add(limit.total);
+    }
+    inputs.add(ConcoctionDatabase.PERMIT_METHOD.clone());
+    inputs.add(ConcoctionDatabase.REQUIREMENT_MET.clone());
+    inputs.add(new EnumMap<>(ConcoctionDatabase.ADVENTURE_USAGE));
+    inputs.add(new EnumMap<>(ConcoctionDatabase.CREATION_COST));
+    inputs.add(InventoryManager.canUseNPCStores());
+    inputs.add(InventoryManager.canUseCoinmasters());
+    inputs.add(KoLCharacter.canInteract());
+    inputs.add(KoLCharacter.isHardcore());
+    inputs.add(KoLCharacter.getPath());
+    inputs.add(KoLCharacter.knollAvailable());
+    inputs.add(ConcoctionDatabase.getPullsBudgeted());
+    inputs.add(ConcoctionDatabase.queuedPullsUsed);
+    return inputs;
+  }
+
+  public static void invalidateDependents() {
+    ConcoctionDatabase.dependents = null;
+  }
+
+  private static Set<Concoction> affectedConcoctions(final Set<Integer> itemIds) {
+    if (ConcoctionDatabase.dependents == null) {
+      ConcoctionDatabase.buildDependents();
+    }
+
+    Set<Concoction> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<Concoction> pending = new ArrayDeque<>(ConcoctionDatabase.volatileConcoctions);
+    for (int itemId : itemIds) {
+      Concoction c = ConcoctionPool.get(itemId);
+      if (c != null) {
+        pending.add(c);
+      }
+    }
+
+    while (!pending.isEmpty()) {
+      Concoction c = pending.poll();
+      if (affected.add(c)) {
+        pending.addAll(ConcoctionDatabase.dependents.getOrDefault(c, List.of()));
+      }
+    }
+
+    return affected;
+  }
+
+  private static void buildDependents() {
+    Map<Concoction, List<Concoction>> dependents = new IdentityHashMap<>();
+    List<Concoction> volatileConcoctions = new ArrayList<>();
+    Concoction meatPaste = ConcoctionPool.get(ItemPool.MEAT_PASTE);
+
+    for (Concoction c : ConcoctionPool.concoctions()) {
+      for (AdventureResult ingredient : c.getIngredients()) {
+        Concoction source = ConcoctionPool.get(ingredient);
+        if (source != null) {
+          dependents.computeIfAbsent(source, k -> new ArrayList<>()).add(c);
+        }
+
+        // The recipe may be using either of a pair of interchangeable
+        // ingredients right now, so it depends on both.
+        int alternative = ConcoctionDatabase.interchangeableIngredient(ingredient.getItemId());
+        source = alternative == -1 ? null : ConcoctionPool.get(alternative);
+        if (source != null) {
+          dependents.computeIfAbsent(source, k -> new ArrayList<>()).add(c);
+        }
+      }
+
+      // Meat paste is an implicit ingredient
+      CraftingType method = c.getMixingMethod();
+      if (meatPaste != null
+          && (method == CraftingType.COMBINE || method == CraftingType.ACOMBINE)) {
+        dependents.computeIfAbsent(meatPaste, k -> new ArrayList<>()).add(c);
+      }
+
+      if (c.concoction == null
+          || c.speakeasy != null
+          || c.price > 0
+          || c.getPurchaseRequest() != null
+          || ConcoctionDatabase.VOLATILE_METHODS.contains(method)) {
+        volatileConcoctions.add(c);
+      }
+    }
+
+    ConcoctionDatabase.volatileConcoctions = volatileConcoctions;
+    ConcoctionDatabase.dependents = dependents;
+  }
+
   /** Reset concoction stat gains when you've logged in a new character. */
   public static final void resetConcoctionStatGains() {
     for (Concoction item : ConcoctionPool.concoctions()) {
@@ -2654,6 +2885,20 @@ public class ConcoctionDatabase {
     return item == null ? ConcoctionDatabase.NO_INGREDIENTS : item.getIngredients();
   }
 
+  private static int interchangeableIngredient(final int itemId) {
+    return switch (itemId) {
+      case ItemPool.SCHLITZ -> ItemPool.WILLER;
+      case ItemPool.WILLER -> ItemPool.SCHLITZ;
+      case ItemPool.KETCHUP -> ItemPool.CATSUP;
+      case ItemPool.CATSUP -> ItemPool.KETCHUP;
+      case ItemPool.DYSPEPSI_COLA -> ItemPool.CLOACA_COLA;
+      case ItemPool.CLOACA_COLA -> ItemPool.DYSPEPSI_COLA;
+      case ItemPool.TITANIUM_UMBRELLA -> ItemPool.GOATSKIN_UMBRELLA;
+      case ItemPool.GOATSKIN_UMBRELLA -> ItemPool.TITANIUM_UMBRELLA;
+      default -> -1;
+    };
+  }
+
   private static AdventureResult getBetterIngredient(
       final int itemId1, final int itemId2, final List<AdventureResult> availableIngredients) {
     AdventureResult ingredient1 = ItemPool.get(itemId1, 1);
@@ -5,6 +5,7 @@ import com.alibaba.fastjson2.JSONArray;
 import com.alibaba.fastjson2.JSONException;
 import com.alibaba.fastjson2.JSONObject;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
@@ -17,6 +18,10 @@ import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -45,6 +50,7 @@ import net.sourceforge.kolmafia.persistence.ConsumablesDatabase.ConsumableQualit
 import net.sourceforge.kolmafia.persistence.ItemDatabase.Attribute;
 import net.sourceforge.kolmafia.persistence.MonsterDatabase.Element;
 import net.sourceforge.kolmafia.persistence.SkillDatabase.Category;
+import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.ApiRequest;
 import net.sourceforge.kolmafia.request.ClosetRequest;
 import net.sourceforge.kolmafia.request.ClosetRequest.ClosetRequestType;
@@ -156,8 +162,15 @@ public class DebugDatabase {
 
   private static final String ITEM_HTML = "itemhtml.txt";
 
+  // Description pages fetched for the checks, kept between sessions
+  private static final File DESCRIPTION_CACHE =
+      new File(KoLConstants.DATA_LOCATION, "descriptions");
+
   private static final String ITEM_DATA = "itemdata.txt";
-  private static final Map<Integer, String> rawItems = new HashMap<>();
+  private static final Map<Integer, String> rawItems =
+      Collections.synchronizedMap(new HashMap<>());
+  private static final DescriptionCache itemDescriptions =
+      new DescriptionCache("item descriptions", DESCRIPTION_CACHE, "items");
 
   private static class ItemMap {
     private final String tag;
@@ -186,7 +199,7 @@ public class DebugDatabase {
       this.map.clear();
     }
 
-    public void put(String name, String text) {
+    public synchronized void put(String name, String text) {
       this.map.put(name, text);
     }
 
@@ -225,7 +238,7 @@ public class DebugDatabase {
 
   public static void checkItems(final int itemId) {
     RequestLogger.printLine("Loading previous data...");
-    DebugDatabase.loadScrapeData(rawItems, ITEM_HTML);
+    DebugDatabase.loadItemScrapeData();
 
     RequestLogger.printLine("Checking internal data...");
 
@@ -252,24 +265,23 @@ public class DebugDatabase {
 
   private static void checkItems(final PrintStream report) {
     Set<Integer> keys = ItemDatabase.descriptionIdKeySet();
-    int lastId = 0;
-
-    for (Integer id : keys) {
-      if (id < 1) {
-        continue;
-      }
+    DebugDatabase.checkAll(
+        keys, true, DebugDatabase::fetchItemDescription, DebugDatabase::checkItem, report);
+    DebugDatabase.saveScrapeData(keys.iterator(), rawItems, ITEM_HTML);
+  }
 
-      while (++lastId < id) {
-        report.println(lastId);
-      }
+  private static void checkItem(final int itemId, final PrintStream report) {
+    DebugDatabase.checkItem(itemId, DebugDatabase.fetchItemDescription(itemId), report);
+  }
 
-      DebugDatabase.checkItem(id, report);
+  private static String fetchItemDescription(final int itemId) {
+    if (ItemDatabase.getItemDataName(itemId) == null) {
+      return null;
     }
-
-    DebugDatabase.saveScrapeData(keys.iterator(), rawItems, ITEM_HTML);
+    return DebugDatabase.rawItemDescriptionText(itemId);
   }
 
-  private static void checkItem(final int itemId, final PrintStream report) {
+  private static void checkItem(final int itemId, final String rawText, final PrintStream report) {
     Integer id = itemId;
 
     String name = ItemDatabase.getItemDataName(id);
@@ -278,8 +290,6 @@ public class DebugDatabase {
       return;
     }
 
-    String rawText = DebugDatabase.rawItemDescriptionText(itemId);
-
     if (rawText == null) {
       report.println("# *** " + name + " (" + itemId + ") has no description.");
       return;
@@ -467,6 +477,9 @@ public class DebugDatabase {
       itemId = DebugDatabase.parseItemId(request.responseText);
     }
     cacheItemDescriptionText(itemId, request.responseText);
+    if (DebugDatabase.itemDescriptionText(request.responseText) != null) {
+      DebugDatabase.itemDescriptions.put(descId, request.responseText);
+    }
 
     return request.responseText;
   }
@@ -1556,11 +1569,16 @@ public class DebugDatabase {
 
   private static final String OUTFIT_HTML = "outfithtml.txt";
   private static final String OUTFIT_DATA = "outfitdata.txt";
-  private static final Map<Integer, String> rawOutfits = new HashMap<>();
+  private static final Map<Integer, String> rawOutfits =
+      Collections.synchronizedMap(new HashMap<>());
+  private static final DescriptionCache outfitDescriptions =
+      new DescriptionCache("outfit descriptions", DESCRIPTION_CACHE, "outfits");
   private static final ItemMap outfits = new ItemMap("Outfits", ConsumptionType.NONE);
 
   public static void checkOutfits() {
     RequestLogger.printLine("Loading previous data...");
+    DebugDatabase.loadCachedDescriptions(
+        rawOutfits, outfitDescriptions, EquipmentDatabase.normalOutfits.keySet(), String::valueOf);
     DebugDatabase.loadScrapeData(rawOutfits, OUTFIT_HTML);
 
     RequestLogger.printLine("Checking internal data...");
@@ -1576,24 +1594,20 @@ public class DebugDatabase {
 
   private static void checkOutfits(final PrintStream report) {
     Set<Integer> keys = EquipmentDatabase.normalOutfits.keySet();
-    int lastId = 0;
-
-    for (Integer id : keys) {
-      if (id < 1) {
-        continue;
-      }
-
-      while (++lastId < id) {
-        report.println(lastId);
-      }
+    DebugDatabase.checkAll(
+        keys, true, DebugDatabase::fetchOutfitDescription, DebugDatabase::checkOutfit, report);
+    DebugDatabase.saveScrapeData(keys.iterator(), rawOutfits, OUTFIT_HTML);
+  }
 
-      DebugDatabase.checkOutfit(id, report);
+  private static String fetchOutfitDescription(final int outfitId) {
+    if (EquipmentDatabase.normalOutfits.get(outfitId).getName() == null) {
+      return null;
     }
-
-    DebugDatabase.saveScrapeData(keys.iterator(), rawOutfits, OUTFIT_HTML);
+    return DebugDatabase.rawOutfitDescriptionText(outfitId);
   }
 
-  private static void checkOutfit(final int outfitId, final PrintStream report) {
+  private static void checkOutfit(
+      final int outfitId, final String rawText, final PrintStream report) {
     SpecialOutfit outfit = EquipmentDatabase.normalOutfits.get(outfitId);
     String name = outfit.getName();
     if (name == null) {
@@ -1601,8 +1615,6 @@ public class DebugDatabase {
       return;
     }
 
-    String rawText = DebugDatabase.rawOutfitDescriptionText(outfitId);
-
     if (rawText == null) {
       report.println("# *** " + name + " (" + outfitId + ") has no description.");
       return;
@@ -1654,6 +1666,9 @@ public class DebugDatabase {
 
     String text = DebugDatabase.readOutfitDescriptionText(outfitId);
     DebugDatabase.rawOutfits.put(outfitId, text);
+    if (DebugDatabase.outfitDescriptionText(text) != null) {
+      DebugDatabase.outfitDescriptions.put(String.valueOf(outfitId), text);
+    }
 
     return text;
   }
@@ -1732,11 +1747,19 @@ public class DebugDatabase {
 
   private static final String EFFECT_HTML = "effecthtml.txt";
   private static final String EFFECT_DATA = "effectdata.txt";
-  private static final Map<Integer, String> rawEffects = new HashMap<>();
+  private static final Map<Integer, String> rawEffects =
+      Collections.synchronizedMap(new HashMap<>());
+  private static final DescriptionCache effectDescriptions =
+      new DescriptionCache("effect descriptions", DESCRIPTION_CACHE, "effects");
   private static final ItemMap effects = new ItemMap("Status Effects", ConsumptionType.NONE);
 
   public static void checkEffects(final int effectId) {
     RequestLogger.printLine("Loading previous data...");
+    DebugDatabase.loadCachedDescriptions(
+        rawEffects,
+        effectDescriptions,
+        EffectDatabase.descriptionIdKeySet(),
+        EffectDatabase::getDescriptionId);
     DebugDatabase.loadScrapeData(rawEffects, EFFECT_HTML);
 
     RequestLogger.printLine("Checking internal data...");
@@ -1758,27 +1781,29 @@ public class DebugDatabase {
 
   private static void checkEffects(final PrintStream report) {
     Set<Integer> keys = EffectDatabase.descriptionIdKeySet();
+    DebugDatabase.checkAll(
+        keys, false, DebugDatabase::fetchEffectDescription, DebugDatabase::checkEffect, report);
+    DebugDatabase.saveScrapeData(keys.iterator(), rawEffects, EFFECT_HTML);
+  }
 
-    for (Integer key : keys) {
-      int id = key;
-      if (id < 1) {
-        continue;
-      }
+  private static void checkEffect(final int effectId, final PrintStream report) {
+    DebugDatabase.checkEffect(effectId, DebugDatabase.fetchEffectDescription(effectId), report);
+  }
 
-      DebugDatabase.checkEffect(id, report);
+  private static String fetchEffectDescription(final int effectId) {
+    if (EffectDatabase.getEffectName(effectId) == null) {
+      return null;
     }
-
-    DebugDatabase.saveScrapeData(keys.iterator(), rawEffects, EFFECT_HTML);
+    return DebugDatabase.rawEffectDescriptionText(effectId);
   }
 
-  private static void checkEffect(final int effectId, final PrintStream report) {
+  private static void checkEffect(
+      final int effectId, final String rawText, final PrintStream report) {
     String name = EffectDatabase.getEffectName(effectId);
     if (name == null) {
       return;
     }
 
-    String rawText = DebugDatabase.rawEffectDescriptionText(effectId);
-
     if (rawText == null) {
       report.println("# *** " + name + " (" + effectId + ") has no description.");
       return;
@@ -1884,6 +1909,9 @@ public class DebugDatabase {
 
     String text = DebugDatabase.readEffectDescriptionText(descId);
     DebugDatabase.rawEffects.put(effectId, text);
+    if (DebugDatabase.effectDescriptionText(text) != null) {
+      DebugDatabase.effectDescriptions.put(descId, text);
+    }
 
     return text;
   }
@@ -1973,11 +2001,16 @@ public class DebugDatabase {
 
   private static final String SKILL_HTML = "skillhtml.txt";
   private static final String SKILL_DATA = "skilldata.txt";
-  private static final Map<Integer, String> rawSkills = new HashMap<>();
+  private static final Map<Integer, String> rawSkills =
+      Collections.synchronizedMap(new HashMap<>());
+  private static final DescriptionCache skillDescriptions =
+      new DescriptionCache("skill descriptions", DESCRIPTION_CACHE, "skills");
   private static final ItemMap passiveSkills = new ItemMap("Passive Skills", ConsumptionType.NONE);
 
   public static void checkSkills(final int skillId) {
     RequestLogger.printLine("Loading previous data...");
+    DebugDatabase.loadCachedDescriptions(
+        rawSkills, skillDescriptions, SkillDatabase.idKeySet(), String::valueOf);
     DebugDatabase.loadScrapeData(rawSkills, SKILL_HTML);
 
     RequestLogger.printLine("Checking internal data...");
@@ -1999,26 +2032,29 @@ public class DebugDatabase {
 
   private static void checkSkills(final PrintStream report) {
     Set<Integer> keys = SkillDatabase.idKeySet();
-    for (Integer value : keys) {
-      int id = value;
-      if (id < 1) {
-        continue;
-      }
-
-      DebugDatabase.checkSkill(id, report);
-    }
-
+    DebugDatabase.checkAll(
+        keys, false, DebugDatabase::fetchSkillDescription, DebugDatabase::checkSkill, report);
     DebugDatabase.saveScrapeData(keys.iterator(), rawSkills, SKILL_HTML);
   }
 
   private static void checkSkill(final int skillId, final PrintStream report) {
+    DebugDatabase.checkSkill(skillId, DebugDatabase.fetchSkillDescription(skillId), report);
+  }
+
+  private static String fetchSkillDescription(final int skillId) {
+    if (SkillDatabase.getSkillName(skillId) == null) {
+      return null;
+    }
+    return DebugDatabase.rawSkillDescriptionText(skillId);
+  }
+
+  private static void checkSkill(
+      final int skillId, final String rawText, final PrintStream report) {
     String name = SkillDatabase.getSkillName(skillId);
     if (name == null) {
       return;
     }
 
-    String rawText = DebugDatabase.rawSkillDescriptionText(skillId);
-
     if (rawText == null) {
       report.println("# *** " + name + " (" + skillId + ") has no description.");
       return;
@@ -2146,6 +2182,9 @@ public class DebugDatabase {
 
     String text = DebugDatabase.readSkillDescriptionText(skillId);
     DebugDatabase.rawSkills.put(skillId, text);
+    if (DebugDatabase.skillDescriptionText(text) != null) {
+      DebugDatabase.skillDescriptions.put(String.valueOf(skillId), text);
+    }
 
     return text;
   }
@@ -2237,6 +2276,97 @@ public class DebugDatabase {
     return LogStream.openStream(new File(KoLConstants.DATA_LOCATION, fileName), true);
   }
 
+  // for testing
+  interface DescriptionCheck {
+    void check(int id, String rawText, PrintStream report);
+  }
+
+  /**
+   * Checks the description of each id, writing what is found to the report in id order, along
+   * with a bare line for each missing id if listGaps is set.
+   *
+   * <p>Descriptions not already at hand are fetched on this thread, one at a time, so KoL sees no
+   * more traffic than it would from checking them one by one. Each is checked on the common
+   * ForkJoinPool as soon as it is at hand, so with a warm cache checking is limited by the number
+   * of cores rather than by parsing each description in turn.
+   */
+  // for testing
+  static void checkAll(
+      final Set<Integer> keys,
+      final boolean listGaps,
+      final IntFunction<String> fetch,
+      final DescriptionCheck check,
+      final PrintStream report) {
+    List<Integer> ids = new ArrayList<>();
+    List<ForkJoinTask<String>> checks = new ArrayList<>();
+
+    for (Integer key : keys) {
+      int id = key;
+      if (id < 1) {
+        continue;
+      }
+
+      String rawText = fetch.apply(id);
+      ids.add(id);
+      checks.add(ForkJoinPool.commonPool().submit(() -> checkReport(id, rawText, check)));
+    }
+
+    int lastId = 0;
+    for (int i = 0; i < ids.size(); ++i) {
+      int id = ids.get(i);
+      while (listGaps && ++lastId < id) {
+        report.println(lastId);
+      }
+      report.print(checks.get(i).join());
+    }
+  }
+
+  private static String checkReport(
+      final int id, final String rawText, final DescriptionCheck check) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (PrintStream report = new PrintStream(buffer, false, StandardCharsets.UTF_8)) {
+      check.check(id, rawText, report);
+    }
+    return buffer.toString(StandardCharsets.UTF_8);
+  }
+
+  private static void loadItemScrapeData() {
+    DebugDatabase.loadCachedDescriptions(
+        rawItems,
+        itemDescriptions,
+        ItemDatabase.descriptionIdKeySet(),
+        ItemDatabase::getDescriptionId);
+    DebugDatabase.loadScrapeData(rawItems, ITEM_HTML);
+  }
+
+  /**
+   * Fills in descriptions not already known from those fetched in earlier sessions, as long as
+   * they are no older than descriptionCacheDays, so that only the others need be fetched again.
+   */
+  private static void loadCachedDescriptions(
+      final Map<Integer, String> stringMap,
+      final DescriptionCache cache,
+      final Set<Integer> ids,
+      final Function<Integer, String> keyOf) {
+    Map<String, Integer> keys = new HashMap<>();
+    for (Integer id : ids) {
+      if (id < 1 || !stringMap.getOrDefault(id, "").isEmpty()) {
+        continue;
+      }
+      String key = keyOf.apply(id);
+      if (key != null && !key.isEmpty()) {
+        keys.put(key, id);
+      }
+    }
+
+    long maxAge = Preferences.getInteger("descriptionCacheDays") * 86_400_000L;
+    int found =
+        cache.warm(keys.keySet(), maxAge, (key, page) -> stringMap.put(keys.get(key), page));
+    if (found > 0) {
+      RequestLogger.printLine("Loaded " + found + " cached descriptions.");
+    }
+  }
+
   private static void loadScrapeData(final Map<Integer, String> stringMap, final String fileName) {
     try {
       File saveData = new File(KoLConstants.DATA_LOCATION, fileName);
@@ -3014,7 +3144,7 @@ public class DebugDatabase {
 
   public static void checkPotions() {
     RequestLogger.printLine("Loading previous data...");
-    DebugDatabase.loadScrapeData(rawItems, ITEM_HTML);
+    DebugDatabase.loadItemScrapeData();
 
     for (Integer id : ItemDatabase.descriptionIdKeySet()) {
       int itemId = id;
@@ -3040,7 +3170,7 @@ public class DebugDatabase {
 
   public static void checkConsumables() {
     RequestLogger.printLine("Loading previous data...");
-    DebugDatabase.loadScrapeData(rawItems, ITEM_HTML);
+    DebugDatabase.loadItemScrapeData();
     RequestLogger.printLine("Checking internal data...");
     PrintStream report = DebugDatabase.openReport(CONSUMABLE_DATA);
     DebugDatabase.checkConsumables(report);
@@ -0,0 +1,350 @@
+package net.sourceforge.kolmafia.persistence;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import net.sourceforge.kolmafia.utilities.LRUCache;
+
+/**
+ * Keeps description pages (desc_item.php and the like) on disk between sessions, so that checking
+ * data against them need only fetch the pages which are new or have not been fetched lately. Clan
+ * snapshots keep members' profiles and ascension histories the same way.
+ *
+ * <p>Pages are stored gzipped, one file per distinct page named by the SHA-1 of its contents, so
+ * that identical pages are stored once. An index for each kind of page maps a key, such as a
+ * descid, to the page and when it was fetched. The index is only ever appended to, so a session
+ * which stops part way through loses nothing it had already fetched; it is rewritten when it has
+ * grown to twice the number of keys, or when its format version is not the current one. Pages no
+ * index in the directory refers to any more are deleted when an index is compacted.
+ *
+ * <p>Recently used pages are also kept in memory.
+ */
+public class DescriptionCache {
+  private static final String VERSION = "descriptions 1";
+  private static final String OBJECTS = "objects";
+
+  // An object written by a put which has not yet reached its index looks unreferenced, so only
+  // objects which have not been written or reused for this long are swept.
+  private static final long SWEEP_GRACE_MILLIS = 60 * 60 * 1000L;
+
+  private final File directory;
+  private final File indexFile;
+  private final LRUCache<String, String> pages;
+
+  // Loaded on first use
+  private Map<String, Entry> index = null;
+  private int indexLines = 0;
+
+  private record Entry(String hash, long fetched) {}
+
+  // When pages were fetched is told by this clock, so that tests can age them
+  private static final Clock clock = Clock.systemUTC();
+
+  public static Clock getSystemClock() {
+    return DescriptionCache.clock;
+  }
+
+  public DescriptionCache(final String name, final File directory, final String kind) {
+    this.directory = directory;
+    this.indexFile = new File(directory, kind + ".idx");
+    this.pages = new LRUCache<>(name, 1024);
+  }
+
+  /**
+   * Returns the page stored for the given key, or null if there is none or it was fetched more
+   * than maxAge milliseconds ago.
+   */
+  public String get(final String key, final long maxAge) {
+    Entry entry = this.getEntry(key);
+    if (entry == null || DescriptionCache.getSystemClock().millis() - entry.fetched() > maxAge) {
+      return null;
+    }
+
+    String page = this.pages.get(entry.hash());
+    if (page == null) {
+      page = this.readObject(entry.hash());
+      if (page != null) {
+        this.pages.put(entry.hash(), page);
+      }
+    }
+    return page;
+  }
+
+  /**
+   * Passes every page stored for the given keys which is no older than maxAge milliseconds to
+   * found, along with its key. Returns how many were found.
+   */
+  public int warm(
+      final Iterable<String> keys, final long maxAge, final BiConsumer<String, String> found) {
+    int count = 0;
+    for (String key : keys) {
+      String page = this.get(key, maxAge);
+      if (page != null) {
+        found.accept(key, page);
+        count += 1;
+      }
+    }
+    return count;
+  }
+
+  /** Stores a freshly fetched page for the given key. */
+  public void put(final String key, final String page) {
+    if (key == null || key.isEmpty() || page == null || page.isEmpty()) {
+      return;
+    }
+
+    byte[] bytes = page.getBytes(StandardCharsets.UTF_8);
+    String hash = DescriptionCache.hash(bytes);
+    if (!this.writeObject(hash, bytes)) {
+      return;
+    }
+    this.pages.put(hash, page);
+
+    synchronized (this) {
+      this.loadIndex();
+      Entry entry = new Entry(hash, DescriptionCache.getSystemClock().millis());
+      this.index.put(key, entry);
+
+      if (this.indexLines + 1 > 2 * this.index.size()) {
+        this.rewriteIndex();
+        this.sweepObjects();
+        return;
+      }
+
+      try (PrintStream ostream = this.openIndex()) {
+        ostream.println(DescriptionCache.indexLine(key, entry));
+      } catch (IOException e) {
+        return;
+      }
+      this.indexLines += 1;
+    }
+  }
+
+  public synchronized int size() {
+    this.loadIndex();
+    return this.index.size();
+  }
+
+  private synchronized Entry getEntry(final String key) {
+    if (key == null) {
+      return null;
+    }
+
+    this.loadIndex();
+    return this.index.get(key);
+  }
+
+  private void loadIndex() {
+    if (this.index != null) {
+      return;
+    }
+
+    this.index = new HashMap<>();
+    this.indexLines = 0;
+    if (!this.indexFile.exists()) {
+      return;
+    }
+
+    boolean current = true;
+    try (BufferedReader reader =
+        Files.newBufferedReader(this.indexFile.toPath(), StandardCharsets.UTF_8)) {
+      current = DescriptionCache.VERSION.equals(reader.readLine());
+      if (!current) {
+        return;
+      }
+
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] fields = line.split("\t");
+        if (fields.length != 3) {
+          continue;
+        }
+
+        try {
+          this.index.put(fields[0], new Entry(fields[1], Long.parseLong(fields[2])));
+          this.indexLines += 1;
+        } catch (NumberFormatException e) {
+          // Skip it
+        }
+      }
+    } catch (IOException e) {
+      // Whatever was read is good
+    } finally {
+      if (!current) {
+        // Written by some other version; start again
+        this.rewriteIndex();
+      }
+    }
+  }
+
+  private void rewriteIndex() {
+    this.directory.mkdirs();
+    File temp = new File(this.directory, this.indexFile.getName() + ".tmp");
+    try {
+      OutputStream file = Files.newOutputStream(temp.toPath());
+      try (PrintStream ostream = new PrintStream(file, false, StandardCharsets.UTF_8)) {
+        ostream.println(DescriptionCache.VERSION);
+        for (Map.Entry<String, Entry> entry : this.index.entrySet()) {
+          ostream.println(DescriptionCache.indexLine(entry.getKey(), entry.getValue()));
+        }
+      }
+      Files.move(temp.toPath(), this.indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      this.indexLines = this.index.size();
+    } catch (IOException e) {
+      temp.delete();
+    }
+  }
+
+  /**
+   * Deletes the objects which are not referred to by this index or by any other index in the same
+   * directory, and temporary files left behind by interrupted writes.
+   */
+  private void sweepObjects() {
+    Set<String> referenced = new HashSet<>();
+    for (Entry entry : this.index.values()) {
+      referenced.add(entry.hash());
+    }
+
+    String indexName = this.indexFile.getName();
+    File[] others = this.directory.listFiles((dir, name) -> name.endsWith(".idx"));
+    if (others == null) {
+      return;
+    }
+
+    for (File other : others) {
+      if (other.getName().equals(indexName)) {
+        continue;
+      }
+
+      try (BufferedReader reader =
+          Files.newBufferedReader(other.toPath(), StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] fields = line.split("\t");
+          if (fields.length == 3) {
+            referenced.add(fields[1]);
+          }
+        }
+      } catch (IOException e) {
+        // Cannot tell what it refers to, so delete nothing
+        return;
+      }
+    }
+
+    File objects = new File(this.directory, DescriptionCache.OBJECTS);
+    File[] buckets = objects.listFiles(File::isDirectory);
+    if (buckets == null) {
+      return;
+    }
+
+    long cutoff = System.currentTimeMillis() - DescriptionCache.SWEEP_GRACE_MILLIS;
+    for (File bucket : buckets) {
+      File[] files = bucket.listFiles();
+      if (files == null) {
+        continue;
+      }
+
+      for (File file : files) {
+        String name = file.getName();
+        boolean unused =
+            name.endsWith(".tmp")
+                || (name.endsWith(".gz")
+                    && !referenced.contains(
+                        bucket.getName() + name.substring(0, name.length() - 3)));
+        if (unused && file.lastModified() < cutoff) {
+          file.delete();
+        }
+      }
+    }
+  }
+
+  private PrintStream openIndex() throws IOException {
+    if (!this.indexFile.exists()) {
+      this.rewriteIndex();
+    }
+
+    OutputStream ostream =
+        Files.newOutputStream(
+            this.indexFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    return new PrintStream(ostream, false, StandardCharsets.UTF_8);
+  }
+
+  private static String indexLine(final String key, final Entry entry) {
+    return key + "\t" + entry.hash() + "\t" + entry.fetched();
+  }
+
+  private File objectFile(final String hash) {
+    File objects = new File(this.directory, DescriptionCache.OBJECTS);
+    return new File(new File(objects, hash.substring(0, 2)), hash.substring(2) + ".gz");
+  }
+
+  private String readObject(final String hash) {
+    File file = this.objectFile(hash);
+    try (InputStream istream = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+      return new String(istream.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private boolean writeObject(final String hash, final byte[] bytes) {
+    File file = this.objectFile(hash);
+    if (file.exists()) {
+      // Same contents, same name. Keep it from being swept before it is indexed.
+      file.setLastModified(System.currentTimeMillis());
+      return true;
+    }
+
+    // Several threads may be storing the same page, so each writes its own
+    // temporary file, and whichever is moved into place last wins.
+    Path temp = null;
+    try {
+      Path bucket = file.getParentFile().toPath();
+      Files.createDirectories(bucket);
+      temp = Files.createTempFile(bucket, file.getName(), ".tmp");
+      try (OutputStream ostream = new GZIPOutputStream(Files.newOutputStream(temp))) {
+        ostream.write(bytes);
+      }
+      try {
+        Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      return true;
+    } catch (IOException e) {
+      if (temp != null) {
+        temp.toFile().delete();
+      }
+      return false;
+    }
+  }
+
+  private static String hash(final byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java implementation has SHA-1
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -57,7 +57,6 @@ import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.HTMLParserUtils;
 import net.sourceforge.kolmafia.utilities.LogStream;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
-import org.htmlcleaner.HtmlCleaner;
 import org.htmlcleaner.TagNode;
 import org.htmlcleaner.XPatherException;
 
@@ -2395,13 +2394,12 @@ public class ItemDatabase {
     if (!desc.contains("Active Perks")) {
       Preferences.setString("everfullDartPerks", "");
     } else {
-      HtmlCleaner cleaner = HTMLParserUtils.configureDefaultParser();
-      TagNode doc = cleaner.clean(desc);
+      TagNode doc = HTMLParserUtils.clean(desc);
       String xpath = "//ul/li/text()";
 
       Object[] result;
       try {
-        result = doc.evaluateXPath(xpath);
+        result = HTMLParserUtils.evaluateXPath(doc, xpath);
       } catch (XPatherException ex) {
         // do nothing
         return;
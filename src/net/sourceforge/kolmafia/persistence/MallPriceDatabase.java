@@ -37,6 +37,7 @@ public class MallPriceDatabase {
   // If false, blocks saving of mall prices. Do not modify outside of tests.
   public static boolean savePricesToFile = true;
 
+  // Mall searches may record prices on several threads at once. Guarded by itself.
   private static final SortedMap<Integer, Price> prices = new TreeMap<>();
   private static final HashSet<String> updated = new HashSet<>();
   private static final HashSet<String> submitted = new HashSet<>();
@@ -88,15 +89,17 @@ public class MallPriceDatabase {
         }
 
         if (!ItemDatabase.isTradeable(id)) continue;
-        Price p = MallPriceDatabase.prices.get(id);
-        if (p == null) {
-          MallPriceDatabase.prices.put(id, new Price(id, price, timestamp));
-          ++count;
-          ++MallPriceDatabase.modCount;
-        } else if (timestamp > p.timestamp) {
-          p.update(price, timestamp);
-          ++count;
-          ++MallPriceDatabase.modCount;
+        synchronized (MallPriceDatabase.prices) {
+          Price p = MallPriceDatabase.prices.get(id);
+          if (p == null) {
+            MallPriceDatabase.prices.put(id, new Price(id, price, timestamp));
+            ++count;
+            ++MallPriceDatabase.modCount;
+          } else if (timestamp > p.timestamp) {
+            p.update(price, timestamp);
+            ++count;
+            ++MallPriceDatabase.modCount;
+          }
         }
       }
     } catch (IOException e) {
@@ -146,19 +149,21 @@ public class MallPriceDatabase {
 
   public static void recordPrice(int itemId, long price, boolean deferred) {
     long timestamp = MallPriceManager.currentTimeMillis() / 1000L;
-    Price p = MallPriceDatabase.prices.get(itemId);
-    if (p == null) {
-      MallPriceDatabase.prices.put(itemId, new Price(itemId, price, timestamp));
-    } else {
-      p.update(price, timestamp);
+    synchronized (MallPriceDatabase.prices) {
+      Price p = MallPriceDatabase.prices.get(itemId);
+      if (p == null) {
+        MallPriceDatabase.prices.put(itemId, new Price(itemId, price, timestamp));
+      } else {
+        p.update(price, timestamp);
+      }
+      ++MallPriceDatabase.modCount;
     }
-    ++MallPriceDatabase.modCount;
     if (!deferred) {
       MallPriceDatabase.writePrices();
     }
   }
 
-  public static void writePrices() {
+  public static synchronized void writePrices() {
     if (!MallPriceDatabase.savePricesToFile) {
       return;
     }
@@ -173,14 +178,16 @@ public class MallPriceDatabase {
   static void writePrices(PrintStream writer) {
     writer.println(KoLConstants.MALLPRICES_VERSION);
 
-    MallPriceDatabase.prices.entrySet().stream()
-        .forEach(
-            entry -> {
-              Price p = entry.getValue();
-              if (p != null) {
-                writer.writeBytes(p.encoded);
-              }
-            });
+    synchronized (MallPriceDatabase.prices) {
+      MallPriceDatabase.prices.entrySet().stream()
+          .forEach(
+              entry -> {
+                Price p = entry.getValue();
+                if (p != null) {
+                  writer.writeBytes(p.encoded);
+                }
+              });
+    }
   }
 
   public static void submitPrices(String url) {
@@ -255,15 +262,19 @@ public class MallPriceDatabase {
   }
 
   public static long getPrice(int itemId) {
-    Price p = MallPriceDatabase.prices.get(itemId);
-    return p == null ? 0 : p.price;
+    synchronized (MallPriceDatabase.prices) {
+      Price p = MallPriceDatabase.prices.get(itemId);
+      return p == null ? 0 : p.price;
+    }
   }
 
   // Return age of price data, in fractional days
   public static float getAge(int itemId) {
-    Price p = MallPriceDatabase.prices.get(itemId);
     long now = MallPriceManager.currentTimeMillis() / 1000L;
-    return p == null ? Float.POSITIVE_INFINITY : (now - p.timestamp) / 86400.0f;
+    synchronized (MallPriceDatabase.prices) {
+      Price p = MallPriceDatabase.prices.get(itemId);
+      return p == null ? Float.POSITIVE_INFINITY : (now - p.timestamp) / 86400.0f;
+    }
   }
 
   private static class Price {
@@ -1119,6 +1119,9 @@ public class ModifierDatabase {
       modifierStringsByName.put(lookup.type, lookup.getKey(), value.toString());
     }
     modifiersByName.put(lookup.type, lookup.getKey(), value);
+    if (lookup.type == ModifierType.EFFECT) {
+      Modifiers.resetEffectModifiers();
+    }
   }
 
   public static void overrideRemoveModifier(final ModifierType type, final int key) {
@@ -1131,6 +1134,9 @@ public class ModifierDatabase {
 
   private static void overrideRemoveModifierInternal(final Lookup lookup) {
     modifiersByName.remove(lookup.type, lookup.getKey());
+    if (lookup.type == ModifierType.EFFECT) {
+      Modifiers.resetEffectModifiers();
+    }
   }
 
   public static final void updateItem(final int itemId, final String known) {
@@ -1680,6 +1686,7 @@ public class ModifierDatabase {
     // resetModifiers then won't set them back up due to the if() guarding loadAllModifiers.
     modifiersByName.clear();
     Modifiers.resetAvailablePassiveSkills();
+    Modifiers.resetEffectModifiers();
     for (var mod : BitmapModifier.BITMAP_MODIFIERS) {
       bitmapMasks.put(mod, 1);
     }
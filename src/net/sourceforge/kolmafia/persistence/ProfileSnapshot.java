@@ -177,13 +177,17 @@ public class ProfileSnapshot {
     return Integer.compare(compareValue, 0);
   }
 
-  public static final String getStandardData(final boolean localProfileLink) {
-    // First, if you haven't retrieved a detailed
+  public static final void initializeRoster() {
+    // If you haven't retrieved a detailed
     // roster for the clan, do so.
 
     if (ProfileSnapshot.request.responseText == null) {
       RequestThread.postRequest(ProfileSnapshot.request);
     }
+  }
+
+  public static final String getStandardData(final boolean localProfileLink) {
+    ProfileSnapshot.initializeRoster();
 
     String[] members = new String[ProfileSnapshot.profileMap.size()];
     ProfileSnapshot.profileMap.keySet().toArray(members);
@@ -193,7 +197,7 @@ public class ProfileSnapshot {
     strbuf.append("<html><head>");
     strbuf.append("<meta http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\">");
 
-    String clanName = ClanManager.getClanName(true);
+    String clanName = ClanManager.getClanName(false);
 
     strbuf.append("<title>Clan Snapshot for ");
     strbuf.append(clanName);
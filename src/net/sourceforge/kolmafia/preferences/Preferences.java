@@ -2,6 +2,7 @@ package net.sourceforge.kolmafia.preferences;
 
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -9,6 +10,7 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -22,6 +24,10 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 import net.java.dev.spellcast.utilities.DataUtilities;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -60,6 +66,18 @@ public class Preferences {
       Collections.synchronizedSortedMap(new TreeMap<>());
   private static File userPropertiesFile = null;
 
+  // When saveSettingsJournaled is on, changed properties are appended to a journal next to the
+  // properties file and the full file is rewritten ("compacted") at most once per interval, on a
+  // background thread. Anything still in the journal is replayed when the file is next loaded.
+  private static final long JOURNAL_COMPACTION_DELAY_SECONDS = 30;
+  private static final Map<File, Map<String, byte[]>> pendingCompactions =
+      new ConcurrentHashMap<>();
+  private static ScheduledExecutorService journalCompactor = null;
+
+  // Counts of file writes, so that the cost of saving can be measured.
+  private static final AtomicInteger fullFileWrites = new AtomicInteger();
+  private static final AtomicInteger journalWrites = new AtomicInteger();
+
   private static final Set<String> defaultsSet = new HashSet<>();
   private static final Set<String> perUserGlobalSet = new HashSet<>();
   private static final Set<String> onlyResetOnRollover =
@@ -195,6 +213,7 @@ public class Preferences {
     Preferences.globalPropertiesFile = file;
 
     Properties p = Preferences.loadPreferences(file);
+    Preferences.replayJournal(file, p);
     Preferences.globalValues.clear();
     Preferences.globalEncodedValues.clear();
 
@@ -290,6 +309,8 @@ public class Preferences {
         }
       }
 
+      Preferences.replayJournal(userPrefsFile, p);
+
       Preferences.userPropertiesFile = null;
       Preferences.userValues.clear();
       Preferences.userEncodedValues.clear();
@@ -345,6 +366,40 @@ public class Preferences {
     return p;
   }
 
+  private static File journalFile(File file) {
+    String name = file.getName();
+    int dot = name.lastIndexOf('.');
+    return new File(
+        file.getParentFile(), (dot == -1 ? name : name.substring(0, dot)) + ".journal");
+  }
+
+  /**
+   * Apply any properties left in the journal of the given file, which are newer than the file
+   * itself. Properties.load lets later lines override earlier ones, so the most recent value of
+   * each property wins.
+   */
+  private static void replayJournal(File file, Properties p) {
+    File journal = Preferences.journalFile(file);
+    if (!journal.exists()) {
+      return;
+    }
+
+    try {
+      byte[] bytes = Files.readAllBytes(journal.toPath());
+
+      // A crash can leave a partially written last line, which
+      // Properties.load would happily apply. Only replay whole lines.
+      int length = bytes.length;
+      while (length > 0 && bytes[length - 1] != '\n') {
+        --length;
+      }
+
+      p.load(new ByteArrayInputStream(bytes, 0, length));
+    } catch (IOException | IllegalArgumentException e) {
+      System.out.println(e.getMessage() + " trying to replay preferences journal.");
+    }
+  }
+
   private static String encodeProperty(String name, String value) {
     StringBuffer buffer = new StringBuffer();
 
@@ -827,7 +882,10 @@ public class Preferences {
     }
 
     Preferences.put(user, name, object, trackEncoded);
-    Preferences.maybeSaveToFileAfterUpdating(trackEncoded, name);
+    Preferences.maybeSaveToFileAfterUpdating(
+        trackEncoded,
+        name,
+        Preferences.isGlobalProperty(name) ? Preferences.propertyName(user, name) : name);
 
     PreferenceListenerRegistry.firePreferenceChanged(name);
 
@@ -871,24 +929,117 @@ public class Preferences {
   }
 
   private static void maybeSaveToFileAfterUpdating(boolean enable, String updatedProperty) {
-    if (enable) {
-      if (Preferences.isGlobalProperty(updatedProperty)) {
-        Preferences.saveToFile(Preferences.globalPropertiesFile, Preferences.globalEncodedValues);
-      } else if (Preferences.userPropertiesFile != null) {
-        Preferences.saveToFile(Preferences.userPropertiesFile, Preferences.userEncodedValues);
+    Preferences.maybeSaveToFileAfterUpdating(enable, updatedProperty, null);
+  }
+
+  private static void maybeSaveToFileAfterUpdating(
+      boolean enable, String updatedProperty, String encodedKey) {
+    if (!enable) {
+      return;
+    }
+
+    File file;
+    Map<String, byte[]> encodedData;
+    if (Preferences.isGlobalProperty(updatedProperty)) {
+      file = Preferences.globalPropertiesFile;
+      encodedData = Preferences.globalEncodedValues;
+    } else if (Preferences.userPropertiesFile != null) {
+      file = Preferences.userPropertiesFile;
+      encodedData = Preferences.userEncodedValues;
+    } else {
+      return;
+    }
+
+    // A removed property cannot be expressed in the journal, so it
+    // always rewrites the whole file.
+    byte[] encoded = encodedKey == null ? null : encodedData.get(encodedKey);
+    if (encoded != null && Preferences.getBoolean("saveSettingsJournaled")) {
+      Preferences.appendToJournal(file, encodedData, encoded);
+    } else {
+      Preferences.saveToFile(file, encodedData);
+    }
+  }
+
+  private static void appendToJournal(File file, Map<String, byte[]> encodedData, byte[] line) {
+    if (!Preferences.saveSettingsToFile || file == null) {
+      return;
+    }
+
+    synchronized (lock) {
+      try (OutputStream fstream =
+          Files.newOutputStream(
+              Preferences.journalFile(file).toPath(),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.APPEND)) {
+        fstream.write(line);
+        Preferences.journalWrites.incrementAndGet();
+      } catch (IOException e) {
+        System.out.println(e.getMessage() + " trying to append to preferences journal.");
+        Preferences.saveToFile(file, encodedData);
+        return;
+      }
+    }
+
+    Preferences.scheduleCompaction(file, encodedData);
+  }
+
+  private static void scheduleCompaction(File file, Map<String, byte[]> encodedData) {
+    if (Preferences.pendingCompactions.putIfAbsent(file, encodedData) != null) {
+      // Already scheduled; the next compaction will pick up this change.
+      return;
+    }
+
+    synchronized (Preferences.pendingCompactions) {
+      if (Preferences.journalCompactor == null) {
+        Preferences.journalCompactor =
+            Executors.newSingleThreadScheduledExecutor(
+                r -> {
+                  Thread thread = new Thread(r, "PreferencesJournalCompactor");
+                  thread.setDaemon(true);
+                  return thread;
+                });
+      }
+      Preferences.journalCompactor.schedule(
+          Preferences::compactJournals, JOURNAL_COMPACTION_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  /** Rewrite every properties file that has pending journal entries, removing the journals. */
+  public static void compactJournals() {
+    synchronized (lock) {
+      for (File file : Preferences.pendingCompactions.keySet()) {
+        Map<String, byte[]> encodedData = Preferences.pendingCompactions.remove(file);
+        // If the user has changed since this was scheduled, the map now
+        // holds somebody else's properties. reset() already saved them.
+        if (encodedData != null
+            && (file.equals(Preferences.globalPropertiesFile)
+                || file.equals(Preferences.userPropertiesFile))) {
+          Preferences.saveToFile(file, encodedData);
+        }
       }
     }
   }
 
+  static int getFullFileWrites() {
+    return Preferences.fullFileWrites.get();
+  }
+
+  static int getJournalWrites() {
+    return Preferences.journalWrites.get();
+  }
+
   private static String propertyName(final String user, final String name) {
     return user == null ? name : name + "." + Preferences.baseUserName(user);
   }
 
   private static void saveToFile(File file, Map<String, byte[]> encodedData) {
-    if (!Preferences.saveSettingsToFile) {
+    if (!Preferences.saveSettingsToFile || file == null) {
       return;
     }
 
+    // This file is about to be made current; no compaction needed.
+    Preferences.pendingCompactions.remove(file);
+
     // See Collections.synchronizedSortedMap
     //
     // We are essentially iterating over the map. Not exactly - we
@@ -916,6 +1067,15 @@ public class Preferences {
       } catch (IOException e) {
         System.out.println(e.getMessage() + " trying to close preferences stream.");
       }
+
+      Preferences.fullFileWrites.incrementAndGet();
+
+      // Everything in the journal is now in the file itself.
+      try {
+        Files.deleteIfExists(Preferences.journalFile(file).toPath());
+      } catch (IOException e) {
+        System.out.println(e.getMessage() + " trying to delete preferences journal.");
+      }
     }
   }
 
@@ -48,7 +48,6 @@ import net.sourceforge.kolmafia.swingui.RequestSynchFrame;
 import net.sourceforge.kolmafia.utilities.ChoiceUtilities;
 import net.sourceforge.kolmafia.utilities.HTMLParserUtils;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
-import org.htmlcleaner.HtmlCleaner;
 import org.htmlcleaner.TagNode;
 import org.htmlcleaner.XPatherException;
 
@@ -1379,14 +1378,12 @@ public class AdventureRequest extends GenericRequest {
       return monsterName;
     }
 
-    HtmlCleaner cleaner = HTMLParserUtils.configureDefaultParser();
     String xpath = "//script/text()";
-    TagNode doc;
-    doc = cleaner.clean(responseText);
+    TagNode doc = HTMLParserUtils.clean(responseText);
 
     Object[] result;
     try {
-      result = doc.evaluateXPath(xpath);
+      result = HTMLParserUtils.evaluateXPath(doc, xpath);
     } catch (XPatherException ex) {
       return monsterName;
     }
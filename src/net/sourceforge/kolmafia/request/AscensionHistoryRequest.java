@@ -5,6 +5,7 @@ import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -33,8 +34,9 @@ public class AscensionHistoryRequest extends GenericRequest
     implements Comparable<AscensionHistoryRequest> {
   private static AscensionFilter typeComparator = AscensionFilter.NORMAL;
 
-  private static final SimpleDateFormat ASCEND_DATE_FORMAT =
-      new SimpleDateFormat("MM/dd/yy", Locale.US);
+  // Histories may be parsed on several threads at once
+  private static final ThreadLocal<SimpleDateFormat> ASCEND_DATE_FORMAT =
+      ThreadLocal.withInitial(() -> new SimpleDateFormat("MM/dd/yy", Locale.US));
   private static final Pattern FIELD_PATTERN =
       Pattern.compile("</tr><td class=small.*?</tr>", Pattern.DOTALL);
   private static final Pattern NAME_PATTERN =
@@ -61,8 +63,18 @@ public class AscensionHistoryRequest extends GenericRequest
     AscensionHistoryRequest.typeComparator = typeComparator;
   }
 
+  /** Orders histories by how many ascensions of the given type they include, most first. */
+  public static final Comparator<AscensionHistoryRequest> comparator(
+      final AscensionFilter typeComparator) {
+    return (a, b) -> a.compareTo(b, typeComparator);
+  }
+
   @Override
   public String toString() {
+    return this.toString(AscensionHistoryRequest.typeComparator);
+  }
+
+  public String toString(final AscensionFilter typeComparator) {
     StringBuilder stringForm = new StringBuilder();
     stringForm
         .append("<tr><td><a href=\"ascensions/")
@@ -84,6 +96,10 @@ public class AscensionHistoryRequest extends GenericRequest
 
   @Override
   public int compareTo(final AscensionHistoryRequest o) {
+    return this.compareTo(o, AscensionHistoryRequest.typeComparator);
+  }
+
+  private int compareTo(final AscensionHistoryRequest o, final AscensionFilter typeComparator) {
     return o == null
         ? -1
         : typeComparator == AscensionFilter.NORMAL
@@ -372,9 +388,9 @@ public class AscensionHistoryRequest extends GenericRequest
             // both first day and last day, so remember to
             // add it back in.
 
+            SimpleDateFormat format = AscensionHistoryRequest.ASCEND_DATE_FORMAT.get();
             long timeDifference =
-                AscensionHistoryRequest.ASCEND_DATE_FORMAT.parse(columnsNew[1]).getTime()
-                    - AscensionHistoryRequest.ASCEND_DATE_FORMAT.parse(columnsOld[1]).getTime();
+                format.parse(columnsNew[1]).getTime() - format.parse(columnsOld[1]).getTime();
 
             columnsNew[6] = String.valueOf(Math.round(timeDifference / 86400000L) + 1);
           } catch (Exception e) {
@@ -507,7 +523,7 @@ public class AscensionHistoryRequest extends GenericRequest
       // in the third column, or index 2 in the array.
 
       try {
-        this.timestamp = AscensionHistoryRequest.ASCEND_DATE_FORMAT.parse(columns[1]);
+        this.timestamp = AscensionHistoryRequest.ASCEND_DATE_FORMAT.get().parse(columns[1]);
         this.level = StringUtilities.parseInt(columns[2]);
       } catch (Exception e) {
         StaticEntity.printStackTrace(e);
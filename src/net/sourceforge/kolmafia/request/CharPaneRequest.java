@@ -52,7 +52,6 @@ import net.sourceforge.kolmafia.textui.command.SnowsuitCommand;
 import net.sourceforge.kolmafia.utilities.HTMLParserUtils;
 import net.sourceforge.kolmafia.utilities.LockableListFactory;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
-import org.htmlcleaner.HtmlCleaner;
 import org.htmlcleaner.TagNode;
 import org.htmlcleaner.XPatherException;
 
@@ -71,8 +70,6 @@ public class CharPaneRequest extends GenericRequest {
   public static boolean compactCharacterPane = false;
   public static boolean familiarBelowEffects = false;
 
-  private static final HtmlCleaner cleaner = HTMLParserUtils.configureDefaultParser();
-
   public CharPaneRequest() {
     super("charpane.php");
   }
@@ -1372,13 +1369,12 @@ public class CharPaneRequest extends GenericRequest {
       return;
     }
 
-    TagNode doc;
-    doc = cleaner.clean(responseText);
+    TagNode doc = HTMLParserUtils.clean(responseText);
 
     Object[] result;
     String xpath = "//div[@class='gnoob small']/font/text()";
     try {
-      result = doc.evaluateXPath(xpath);
+      result = HTMLParserUtils.evaluateXPath(doc, xpath);
     } catch (XPatherException e) {
       StaticEntity.printStackTrace(e);
       return;
@@ -11,7 +11,6 @@ import java.util.regex.Pattern;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import net.sourceforge.kolmafia.AscensionClass;
 import net.sourceforge.kolmafia.AscensionPath.Path;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -27,8 +26,6 @@ import net.sourceforge.kolmafia.session.ResultProcessor;
 import net.sourceforge.kolmafia.session.YouRobotManager;
 import net.sourceforge.kolmafia.utilities.HTMLParserUtils;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
-import org.htmlcleaner.DomSerializer;
-import org.htmlcleaner.HtmlCleaner;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -36,9 +33,6 @@ import org.w3c.dom.NodeList;
 public class CharSheetRequest extends GenericRequest {
   private static final Pattern BASE_PATTERN = Pattern.compile(" \\(base: ([\\d,]+)\\)");
 
-  private static final HtmlCleaner cleaner = HTMLParserUtils.configureDefaultParser();
-  private static final DomSerializer domSerializer = new DomSerializer(cleaner.getProperties());
-
   /**
    * Constructs a new <code>CharSheetRequest</code>. The data in the KoLCharacter entity will be
    * overridden over the course of this request.
@@ -79,7 +73,7 @@ public class CharSheetRequest extends GenericRequest {
     // Currently, this is used only for parsing the list of skills
     Document doc;
     try {
-      doc = domSerializer.createDOM(cleaner.clean(responseText));
+      doc = HTMLParserUtils.createDOM(responseText);
     } catch (ParserConfigurationException e) {
       e.printStackTrace();
       return;
@@ -586,7 +580,7 @@ public class CharSheetRequest extends GenericRequest {
     try {
       skillNodes =
           (NodeList)
-              XPathFactory.newInstance().newXPath().evaluate(xpath, doc, XPathConstants.NODESET);
+              HTMLParserUtils.compileXPath(xpath).evaluate(doc, XPathConstants.NODESET);
     } catch (XPathExpressionException e) {
       // Our xpath selector is bad; this build shouldn't be released at all
       e.printStackTrace();
@@ -675,7 +669,7 @@ public class CharSheetRequest extends GenericRequest {
       List<UseSkillRequest> permed,
       Set<Integer> hardcore) {
     try {
-      Document doc = domSerializer.createDOM(cleaner.clean(responseText));
+      Document doc = HTMLParserUtils.createDOM(responseText);
       parseAndUpdateSkills(doc, available, permed, hardcore);
     } catch (ParserConfigurationException e) {
       e.printStackTrace();
@@ -684,7 +678,7 @@ public class CharSheetRequest extends GenericRequest {
 
   public static List<ParsedSkillInfo> parseSkills(final String responseText) {
     try {
-      Document doc = domSerializer.createDOM(cleaner.clean(responseText));
+      Document doc = HTMLParserUtils.createDOM(responseText);
       return parseSkills(doc);
     } catch (ParserConfigurationException e) {
       e.printStackTrace();
@@ -694,7 +688,7 @@ public class CharSheetRequest extends GenericRequest {
 
   public static List<ParsedSkillInfo> parseSkills(final String responseText, boolean available) {
     try {
-      Document doc = domSerializer.createDOM(cleaner.clean(responseText));
+      Document doc = HTMLParserUtils.createDOM(responseText);
       return parseSkills(doc, available);
     } catch (ParserConfigurationException e) {
       e.printStackTrace();
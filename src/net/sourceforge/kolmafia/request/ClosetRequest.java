@@ -18,6 +18,7 @@ import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
 import net.sourceforge.kolmafia.persistence.ItemDatabase;
 import net.sourceforge.kolmafia.session.InventoryManager;
+import net.sourceforge.kolmafia.session.ItemCountIndex;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class ClosetRequest extends TransferItemRequest {
@@ -71,6 +72,7 @@ public class ClosetRequest extends TransferItemRequest {
 
     KoLConstants.closet.clear();
     KoLConstants.closet.addAll(items);
+    ItemCountIndex.CLOSET.invalidate();
     if (InventoryManager.canUseCloset()) {
       ConcoctionDatabase.refreshConcoctions();
     }
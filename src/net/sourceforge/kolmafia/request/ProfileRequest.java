@@ -28,8 +28,9 @@ public class ProfileRequest extends GenericRequest implements Comparable<Profile
   private static final Pattern CLAN_ID_PATTERN =
       Pattern.compile(
           "Clan: <b><a class=nounder href=\"showclan\\.php\\?whichclan=(\\d+)\">(.*?)</a>");
-  private static final SimpleDateFormat INPUT_FORMAT =
-      new SimpleDateFormat("MMMM d, yyyy", Locale.US);
+  // Profiles may be parsed on several threads at once
+  private static final ThreadLocal<SimpleDateFormat> INPUT_FORMAT =
+      ThreadLocal.withInitial(() -> new SimpleDateFormat("MMMM d, yyyy", Locale.US));
   public static final SimpleDateFormat OUTPUT_FORMAT = new SimpleDateFormat("MM/dd/yy", Locale.US);
 
   private final String playerName;
@@ -184,7 +185,7 @@ public class ProfileRequest extends GenericRequest implements Comparable<Profile
     while (!st.nextToken().startsWith("Account")) {}
     try {
       dateString = st.nextToken().trim();
-      this.created = ProfileRequest.INPUT_FORMAT.parse(dateString);
+      this.created = ProfileRequest.INPUT_FORMAT.get().parse(dateString);
     } catch (Exception e) {
       StaticEntity.printStackTrace(e, "Could not parse date \"" + dateString + "\"");
       this.created = new Date();
@@ -194,7 +195,7 @@ public class ProfileRequest extends GenericRequest implements Comparable<Profile
 
     try {
       dateString = st.nextToken().trim();
-      this.lastLogin = ProfileRequest.INPUT_FORMAT.parse(dateString);
+      this.lastLogin = ProfileRequest.INPUT_FORMAT.get().parse(dateString);
     } catch (Exception e) {
       StaticEntity.printStackTrace(e, "Could not parse date \"" + dateString + "\"");
       this.lastLogin = this.created;
@@ -9,6 +9,7 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -93,6 +94,8 @@ import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.PauseObject;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 import net.sourceforge.kolmafia.utilities.WikiUtilities;
+import net.sourceforge.kolmafia.webui.RelayFileCache;
+import net.sourceforge.kolmafia.webui.RelayFileCache.CachedFile;
 import net.sourceforge.kolmafia.webui.RelayServer;
 import net.sourceforge.kolmafia.webui.StationaryButtonDecorator;
 
@@ -122,6 +125,7 @@ public class RelayRequest extends PasswordHashRequest {
   public Set<ServerCookie> serverCookies = null;
   public String cookies = null;
   public byte[] rawByteBuffer = null;
+  public byte[] gzippedByteBuffer = null;
   public String contentType = null;
   public long lastModified = 0;
   public String statusLine = "HTTP/1.1 302 Found";
@@ -229,6 +233,7 @@ public class RelayRequest extends PasswordHashRequest {
     super.constructURLString(newURLString, usePostMethod, encoded);
 
     this.rawByteBuffer = null;
+    this.gzippedByteBuffer = null;
     this.headers.clear();
 
     String path = this.getBasePath();
@@ -620,6 +625,7 @@ public class RelayRequest extends PasswordHashRequest {
   private static final String OVERRIDE_DIRECTORY = "images/overrides/";
 
   public static final void loadOverrideImages(final boolean enabled) {
+    RelayFileCache.clear();
     for (String filename : IMAGES) {
       String path = "images/" + filename;
       File cachedFile = new File(KoLConstants.ROOT_LOCATION, path);
@@ -670,6 +676,7 @@ public class RelayRequest extends PasswordHashRequest {
 
   public static void clearImageCache() {
     RelayRequest.clearImageDirectory(KoLConstants.IMAGE_LOCATION, RELAYIMAGES_FILTER);
+    RelayFileCache.clear();
     Preferences.setLong("lastImageCacheClear", (new Date()).getTime());
   }
 
@@ -688,19 +695,39 @@ public class RelayRequest extends PasswordHashRequest {
   }
 
   private void sendLocalImage(final String filename) {
-    File imageFile = FileUtilities.downloadImage(RelayRequest.localImagePath(filename));
+    CachedFile cached = RelayFileCache.get(filename);
 
-    if (imageFile == null) {
-      this.sendNotFound();
-      return;
+    if (cached == null) {
+      long generation = RelayFileCache.generation();
+      File imageFile = FileUtilities.downloadImage(RelayRequest.localImagePath(filename));
+
+      if (imageFile == null) {
+        this.sendNotFound();
+        return;
+      }
+
+      this.lastModified = imageFile.lastModified();
+      this.rawByteBuffer = ByteBufferUtilities.read(imageFile);
+      cached =
+          RelayFileCache.putImage(
+              filename, this.rawByteBuffer, this.contentType, this.lastModified, generation);
+    }
+
+    if (cached != null) {
+      this.lastModified = cached.lastModified();
+      this.useCachedFile(cached);
     }
 
-    this.lastModified = imageFile.lastModified();
-    this.rawByteBuffer = ByteBufferUtilities.read(imageFile);
     this.headers.add("Access-Control-Allow-Origin: *");
     this.pseudoResponse("HTTP/1.1 200 OK", "");
   }
 
+  private void useCachedFile(final CachedFile cached) {
+    this.rawByteBuffer = cached.bytes();
+    this.gzippedByteBuffer = cached.gzipped();
+    this.headers.add("ETag: " + cached.etag());
+  }
+
   public static File findRelayFile(final String filename) {
     if ((filename == null) || (filename.contains(".."))) {
       return null;
@@ -710,7 +737,10 @@ public class RelayRequest extends PasswordHashRequest {
   }
 
   private void setLastModified(final File override) {
-    long lastModified = override.lastModified();
+    this.setLastModified(override.lastModified());
+  }
+
+  private void setLastModified(final long lastModified) {
     long now = (new Date()).getTime();
     long expires = now + (1000L * 60 * 60 * 24 * 30);
     this.headers.add("Last-Modified: " + StringUtilities.formatDate(lastModified));
@@ -718,6 +748,15 @@ public class RelayRequest extends PasswordHashRequest {
   }
 
   private void sendLocalFile(final String filename) {
+    // Only files which passed the checks below are ever cached
+    CachedFile cached = RelayFileCache.get(filename);
+    if (cached != null) {
+      this.sendCachedFile(filename, cached);
+      return;
+    }
+
+    long generation = RelayFileCache.generation();
+
     if (!RelayRequest.overrideMap.containsKey(filename)) {
       RelayRequest.overrideMap.put(filename, RelayRequest.findRelayFile(filename));
     }
@@ -747,6 +786,12 @@ public class RelayRequest extends PasswordHashRequest {
         this.sendNotFound();
         return;
       }
+      cached =
+          RelayFileCache.putRelayFile(
+              filename, this.rawByteBuffer, this.contentType, override.lastModified(), generation);
+      if (cached != null) {
+        this.useCachedFile(cached);
+      }
       this.statusLine = "HTTP/1.1 200 OK";
       this.responseCode = 200;
       this.setLastModified(override);
@@ -766,10 +811,14 @@ public class RelayRequest extends PasswordHashRequest {
       replyBuffer = FileUtilities.downloadFile("https://www.kingdomofloathing.com/" + filename);
     }
 
+    // Files we downloaded, or which depend on the session, are not cached
+    boolean cacheable = override.exists();
+
     // If it is a KoLmafia built-in file, as opposed to the
     // user-supplied relay script, do special things
     if (RelayRequest.builtinRelayFile(filename)) {
       if (replyBuffer.indexOf("MAFIAHIT") != -1) {
+        cacheable = false;
         StringUtilities.globalStringReplace(
             replyBuffer, "MAFIAHIT", "pwd=" + GenericRequest.passwordHash);
       } else if (!filename.endsWith(".html")) {
@@ -783,10 +832,46 @@ public class RelayRequest extends PasswordHashRequest {
 
     if (filename.endsWith("chat.html")) {
       RequestEditorKit.addChatFeatures(replyBuffer);
+      cacheable = false;
+    }
+
+    String replyText = replyBuffer.toString();
+
+    if (cacheable && RelayFileCache.isCacheableText(replyText)) {
+      cached =
+          RelayFileCache.putRelayFile(
+              filename,
+              replyText.getBytes(StandardCharsets.UTF_8),
+              this.contentType,
+              override.lastModified(),
+              generation);
+      if (cached != null) {
+        this.useCachedFile(cached);
+        this.pseudoResponse("HTTP/1.1 200 OK", "");
+        return;
+      }
     }
 
     // Return the reply buffer as the response text to the local request
-    this.pseudoResponse("HTTP/1.1 200 OK", replyBuffer.toString());
+    this.pseudoResponse("HTTP/1.1 200 OK", replyText);
+  }
+
+  private void sendCachedFile(final String filename, final CachedFile cached) {
+    this.useCachedFile(cached);
+
+    // Send the same headers as we did when reading the file
+    if (!this.contentType.startsWith("text/") && !this.contentType.equals("application/json")) {
+      this.statusLine = "HTTP/1.1 200 OK";
+      this.responseCode = 200;
+      this.setLastModified(cached.lastModified());
+      return;
+    }
+
+    if (RelayRequest.builtinRelayFile(filename) && !filename.endsWith(".html")) {
+      this.setLastModified(cached.lastModified());
+    }
+
+    this.pseudoResponse("HTTP/1.1 200 OK", "");
   }
 
   public static boolean builtinRelayFile(final String file) {
@@ -27,6 +27,7 @@ import net.sourceforge.kolmafia.persistence.ModifierDatabase;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.session.EquipmentManager;
 import net.sourceforge.kolmafia.session.InventoryManager;
+import net.sourceforge.kolmafia.session.ItemCountIndex;
 import net.sourceforge.kolmafia.session.ResultProcessor;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
@@ -160,9 +161,11 @@ public class StorageRequest extends TransferItemRequest {
 
     KoLConstants.storage.clear();
     KoLConstants.storage.addAll(items);
+    ItemCountIndex.STORAGE.invalidate();
 
     KoLConstants.freepulls.clear();
     KoLConstants.freepulls.addAll(freepulls);
+    ItemCountIndex.FREEPULLS.invalidate();
 
     KoLConstants.nopulls.clear();
     KoLConstants.nopulls.addAll(nopulls);
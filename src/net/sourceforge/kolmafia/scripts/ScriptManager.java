@@ -34,7 +34,7 @@ public class ScriptManager {
     if ((m = SOURCEFORGE_PATTERN.matcher(path)).find()) {
       // replace awful SVN UUID with nicely-formatted string derived from URL
       return StringUtilities.globalStringReplace(m.group(1) + m.group(2), "/", "-"); //
-    } else if (host.contains("github")) {
+    } else if (host != null && host.contains("github")) {
       // user-repo
       return StringUtilities.globalStringReplace(path.substring(1), "/", "-");
     } else {
@@ -16,8 +16,15 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLConstants.MafiaState;
 import net.sourceforge.kolmafia.KoLmafia;
@@ -31,6 +38,7 @@ import org.eclipse.jgit.api.RebaseCommand.Operation;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.InvalidRemoteException;
 import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.BranchConfig;
 import org.eclipse.jgit.lib.BranchTrackingStatus;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.PersonIdent;
@@ -90,15 +98,78 @@ public class GitManager extends ScriptManager {
     return true;
   }
 
-  /** Update all installed projects. */
+  /**
+   * Update all installed projects.
+   *
+   * <p>Projects are fetched concurrently, on up to gitThreadPoolSize threads, and then updated one
+   * at a time in order, so that files are copied into place exactly as they would be if each
+   * project were updated by itself.
+   */
   public static void updateAll() {
-    for (var project : allFolders()) {
-      update(project);
+    var folders = allFolders();
+    var fetched = fetchAll(folders);
+
+    for (var project : folders) {
+      update(project, fetched.contains(project));
     }
 
     Preferences.setBoolean("_gitUpdated", true);
   }
 
+  /** Fetch the given projects concurrently. Returns the projects which were fetched. */
+  private static Set<String> fetchAll(String[] folders) {
+    Set<String> fetched = new HashSet<>();
+    if (folders.length < 2) {
+      // Nothing to overlap
+      return fetched;
+    }
+
+    int poolSize = Math.max(1, Preferences.getInteger("gitThreadPoolSize"));
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(poolSize, folders.length));
+    CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+
+    RequestLogger.printLine("Fetching " + folders.length + " projects");
+    for (var folder : folders) {
+      completion.submit(() -> fetch(folder) ? folder : null);
+    }
+
+    try {
+      for (int done = 1; done <= folders.length; ++done) {
+        var folder = completion.take().get();
+        if (folder != null) {
+          fetched.add(folder);
+          RequestLogger.printLine(
+              "Fetched project " + folder + " (" + done + "/" + folders.length + ")");
+        }
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      // Whatever was not fetched is fetched again as it is updated
+    } finally {
+      executor.shutdownNow();
+    }
+
+    return fetched;
+  }
+
+  /**
+   * Fetch from the remote the project's branch tracks, without touching the working tree. Returns
+   * false if the project cannot be fetched this way; updating it will try again and report why.
+   */
+  private static boolean fetch(String folder) {
+    Path projectPath = KoLConstants.GIT_LOCATION.toPath().resolve(folder);
+    try (var git = Git.open(projectPath.toFile())) {
+      var repo = git.getRepository();
+      var config = new BranchConfig(repo.getConfig(), repo.getBranch());
+      if (config.getRemote() == null || config.getRemoteTrackingBranch() == null) {
+        return false;
+      }
+      git.fetch().setRemote(config.getRemote()).call();
+      return true;
+    } catch (IOException | GitAPIException e) {
+      return false;
+    }
+  }
+
   /**
    * Given a project substring, update the version in git/ to latest, and update any existing
    * permissible files.
@@ -108,6 +179,10 @@ public class GitManager extends ScriptManager {
    * <p>If any files have been deleted, delete them.
    */
   public static boolean update(String project) {
+    return update(project, false);
+  }
+
+  private static boolean update(String project, boolean fetched) {
     var folderOpt = getRequiredProject(project);
     if (folderOpt.isEmpty()) {
       KoLmafia.updateDisplay(MafiaState.ERROR, "Cannot find unique match for " + project);
@@ -141,7 +216,7 @@ public class GitManager extends ScriptManager {
 
       RequestLogger.printLine("Updating project " + folder);
       try {
-        if (!rebase(folder, git)) {
+        if (!rebase(folder, git, fetched)) {
           KoLmafia.updateDisplay(
               MafiaState.ERROR,
               "Failed to update project "
@@ -222,9 +297,8 @@ public class GitManager extends ScriptManager {
     return true;
   }
 
-  private static boolean rebase(String folder, Git git) throws GitAPIException {
-    var result = git.pull().setProgressMonitor(new MafiaProgressMonitor()).setRebase(true).call();
-    var success = result.getRebaseResult().getStatus().isSuccessful();
+  private static boolean rebase(String folder, Git git, boolean fetched) throws GitAPIException {
+    var success = pull(git, fetched);
     if (!success) {
       // the rebase failed. Does the user have any local changes?
       var hasLocal = !git.diff().call().isEmpty();
@@ -235,8 +309,7 @@ public class GitManager extends ScriptManager {
       // make a commit
       git.commit().setMessage("local changes").setAuthor("KoLMafia", "KoLMafia@localhost").call();
       // try to rebase again
-      result = git.pull().setProgressMonitor(new MafiaProgressMonitor()).setRebase(true).call();
-      success = result.getRebaseResult().getStatus().isSuccessful();
+      success = pull(git, fetched);
     }
     if (git.getRepository().getRepositoryState().isRebasing()) {
       // cleanup
@@ -245,6 +318,31 @@ public class GitManager extends ScriptManager {
     return success;
   }
 
+  /** Rebase onto the remote branch, fetching it first unless that has already been done. */
+  private static boolean pull(Git git, boolean fetched) throws GitAPIException {
+    if (fetched) {
+      String upstream;
+      try {
+        var repo = git.getRepository();
+        upstream = new BranchConfig(repo.getConfig(), repo.getBranch()).getRemoteTrackingBranch();
+      } catch (IOException e) {
+        upstream = null;
+      }
+
+      if (upstream != null) {
+        var result =
+            git.rebase()
+                .setUpstream(upstream)
+                .setProgressMonitor(new MafiaProgressMonitor())
+                .call();
+        return result.getStatus().isSuccessful();
+      }
+    }
+
+    var result = git.pull().setProgressMonitor(new MafiaProgressMonitor()).setRebase(true).call();
+    return result.getRebaseResult().getStatus().isSuccessful();
+  }
+
   /** Delete a newly removed file in the correct permissible folder. */
   private static void deleteOldFile(Path path) {
     if (isPermissibleFile(path)) {
@@ -10,6 +10,9 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.java.dev.spellcast.utilities.DataUtilities;
@@ -31,6 +34,7 @@ import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.persistence.AscensionSnapshot;
 import net.sourceforge.kolmafia.persistence.AscensionSnapshot.AscensionFilter;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
+import net.sourceforge.kolmafia.persistence.DescriptionCache;
 import net.sourceforge.kolmafia.persistence.ProfileSnapshot;
 import net.sourceforge.kolmafia.persistence.ProfileSnapshot.ProfileFilter;
 import net.sourceforge.kolmafia.preferences.Preferences;
@@ -47,6 +51,7 @@ import net.sourceforge.kolmafia.request.GenericRequest;
 import net.sourceforge.kolmafia.request.ProfileRequest;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.LogStream;
+import net.sourceforge.kolmafia.utilities.RateLimitedFetch;
 import net.sourceforge.kolmafia.webui.RelayLoader;
 
 public abstract class ClanManager {
@@ -61,6 +66,13 @@ public abstract class ClanManager {
   private static final ArrayList<String> currentMembers = new ArrayList<>();
   private static final ArrayList<String> whiteListMembers = new ArrayList<>();
 
+  // Member profiles and ascension histories, by player id, kept between snapshots
+  private static final File MEMBER_CACHE = new File(KoLConstants.ROOT_LOCATION, "clan/members");
+  private static final DescriptionCache profileCache =
+      new DescriptionCache("clan member profiles", MEMBER_CACHE, "profiles");
+  private static final DescriptionCache ascensionCache =
+      new DescriptionCache("clan member ascensions", MEMBER_CACHE, "ascensions");
+
   private static final Map<String, String> profileMap = ProfileSnapshot.getProfileMap();
   private static final Map<String, String> ascensionMap = AscensionSnapshot.getAscensionMap();
   private static final Map<String, String> titleMap = new HashMap<>();
@@ -300,16 +312,15 @@ public abstract class ClanManager {
     ClanManager.updateWhiteList();
   }
 
-  private static boolean retrieveMemberData(
+  // for testing
+  static boolean retrieveMemberData(
       final boolean retrieveProfileData, final boolean retrieveAscensionData) {
-    // First, determine how many member profiles need to be retrieved
-    // before this happens.
-
-    int requestsNeeded = 0;
+    // First, load whatever has already been retrieved, either for
+    // this week's snapshot or, if it is recent enough, for another,
+    // and determine which member pages still need to be retrieved.
 
-    String filename;
-    File profile, ascensionData;
-    String currentProfile, currentAscensionData;
+    List<MemberPage> needed = new ArrayList<>();
+    long maxAge = Preferences.getInteger("clanSnapshotCacheHours") * 3_600_000L;
 
     String[] names = new String[ClanManager.profileMap.size()];
     ClanManager.profileMap.keySet().toArray(names);
@@ -318,69 +329,71 @@ public abstract class ClanManager {
       KoLmafia.updateDisplay(
           "Cache data lookup for member " + (i + 1) + " of " + names.length + "...");
 
-      currentProfile = ClanManager.profileMap.get(names[i]);
-      currentAscensionData = ClanManager.ascensionMap.get(names[i]);
-
-      filename = ClanManager.getFileName(names[i]);
-      profile =
-          new File(KoLConstants.ROOT_LOCATION, ClanManager.snapshotFolder + "profiles/" + filename);
-      ascensionData =
-          new File(
-              KoLConstants.ROOT_LOCATION, ClanManager.snapshotFolder + "ascensions/" + filename);
-
-      if (retrieveProfileData) {
-        if (currentProfile.equals("") && !profile.exists()) {
-          ++requestsNeeded;
-        }
-
-        if (currentProfile.equals("") && profile.exists()) {
-          ClanManager.initializeProfile(names[i]);
-        }
+      if (retrieveProfileData
+          && ClanManager.profileMap.get(names[i]).equals("")
+          && !ClanManager.loadProfile(names[i], maxAge)) {
+        needed.add(new MemberPage(names[i], false));
       }
 
-      if (retrieveAscensionData) {
-        if (currentAscensionData.equals("") && !ascensionData.exists()) {
-          ++requestsNeeded;
-        }
-
-        if (currentAscensionData.equals("") && ascensionData.exists()) {
-          ClanManager.initializeAscensionData(names[i]);
-        }
+      if (retrieveAscensionData
+          && ClanManager.ascensionMap.get(names[i]).equals("")
+          && !ClanManager.loadAscensionData(names[i], maxAge)) {
+        needed.add(new MemberPage(names[i], true));
       }
     }
 
     // If all the member profiles have already been retrieved, then
     // you won't need to look up any profiles, so it takes no time.
-    // No need to confirm with the user.  Therefore, return.
 
-    if (requestsNeeded == 0) {
+    if (needed.isEmpty()) {
       return true;
     }
 
-    // Now that it's known what the user wishes to continue,
-    // you begin initializing all the data.
-
-    // Create a special HTML file for each of the
-    // players in the ProfileSnapshot so that it can be
-    // navigated at leisure.
-
-    for (int i = 0; i < names.length && KoLmafia.permitsContinue(); ++i) {
-      KoLmafia.updateDisplay(
-          "Loading profile for member " + (i + 1) + " of " + names.length + "...");
-
-      currentProfile = ClanManager.profileMap.get(names[i]);
-      currentAscensionData = ClanManager.ascensionMap.get(names[i]);
+    ClanManager.fetchMemberPages(needed);
+    return true;
+  }
 
-      if (retrieveProfileData && currentProfile.equals("")) {
-        ClanManager.initializeProfile(names[i]);
-      }
+  private record MemberPage(String name, boolean ascensions) {}
 
-      if (retrieveAscensionData && currentAscensionData.equals("")) {
-        ClanManager.initializeAscensionData(names[i]);
-      }
-    }
+  /**
+   * Fetch the given member pages concurrently, on up to clanSnapshotThreads threads, starting no
+   * more than one request every clanSnapshotRequestDelay milliseconds so as not to hammer the
+   * server. Pages are stored, and written to disk, on this thread as they arrive.
+   */
+  private static void fetchMemberPages(final List<MemberPage> pages) {
+    int[] done = {0};
+
+    RateLimitedFetch.fetchAll(
+        pages,
+        Preferences.getInteger("clanSnapshotThreads"),
+        Math.max(0, Preferences.getInteger("clanSnapshotRequestDelay")),
+        page ->
+            page.ascensions()
+                ? ClanManager.fetchAscensionData(page.name())
+                : ClanManager.fetchProfile(page.name()),
+        (page, data) -> {
+          KoLmafia.updateDisplay(
+              "Loaded member data "
+                  + ++done[0]
+                  + " of "
+                  + pages.size()
+                  + " ("
+                  + page.name()
+                  + ")...");
+
+          if (data == null) {
+            return;
+          }
 
-    return true;
+          String playerId = ContactManager.getPlayerId(page.name());
+          if (page.ascensions()) {
+            ClanManager.storeAscensionData(page.name(), data);
+            ClanManager.ascensionCache.put(playerId, data);
+          } else {
+            ClanManager.storeProfile(page.name(), data);
+            ClanManager.profileCache.put(playerId, data);
+          }
+        });
   }
 
   public static final String getURLName(final String name) {
@@ -395,126 +408,146 @@ public abstract class ClanManager {
     return Preferences.baseUserName(name) + "_(#" + ContactManager.getPlayerId(name) + ")" + ".htm";
   }
 
-  private static void initializeProfile(final String name) {
-    File profile =
-        new File(
-            KoLConstants.ROOT_LOCATION,
-            ClanManager.snapshotFolder + "profiles/" + ClanManager.getFileName(name));
-
-    if (profile.exists()) {
-      try {
-        BufferedReader istream = FileUtilities.getReader(profile);
-        StringBuilder profileString = new StringBuilder();
-        String currentLine;
-
-        while ((currentLine = istream.readLine()) != null) {
-          profileString.append(currentLine);
-          profileString.append(KoLConstants.LINE_BREAK);
-        }
+  private static File getProfileFile(final String name) {
+    return new File(
+        KoLConstants.ROOT_LOCATION,
+        ClanManager.snapshotFolder + "profiles/" + ClanManager.getFileName(name));
+  }
 
-        ClanManager.profileMap.put(name.toLowerCase(), profileString.toString());
-        istream.close();
-      } catch (Exception e) {
-        // This should not happen.  Therefore, print
-        // a stack trace for debug purposes.
+  private static File getAscensionFile(final String name) {
+    return new File(
+        KoLConstants.ROOT_LOCATION,
+        ClanManager.snapshotFolder + "ascensions/" + ClanManager.getFileName(name));
+  }
 
-        StaticEntity.printStackTrace(e, "Failed to load cached profile");
-        return;
+  /**
+   * Loads the profile stored for this week's snapshot or, failing that, one retrieved no more than
+   * maxAge milliseconds ago. Returns false if the profile must be retrieved from the server.
+   */
+  private static boolean loadProfile(final String name, final long maxAge) {
+    File profile = ClanManager.getProfileFile(name);
+    if (profile.exists()) {
+      String data = ClanManager.readMemberFile(profile, "Failed to load cached profile");
+      if (data != null) {
+        ClanManager.profileMap.put(name.toLowerCase(), data);
       }
-    } else {
-      // Otherwise, run the request and pull the data from the
-      // web server.
+      return true;
+    }
 
-      ProfileRequest request = new ProfileRequest(name);
-      request.initialize();
+    String data = ClanManager.profileCache.get(ContactManager.getPlayerId(name), maxAge);
+    if (data == null) {
+      return false;
+    }
+
+    ClanManager.storeProfile(name, data);
+    return true;
+  }
 
+  /**
+   * Loads the ascension history stored for this week's snapshot or, failing that, one retrieved no
+   * more than maxAge milliseconds ago. Returns false if the history must be retrieved from the
+   * server.
+   */
+  private static boolean loadAscensionData(final String name, final long maxAge) {
+    File ascension = ClanManager.getAscensionFile(name);
+    if (ascension.exists()) {
       String data =
-          KoLConstants.LINE_BREAK_PATTERN
-              .matcher(
-                  KoLConstants.COMMENT_PATTERN
-                      .matcher(
-                          KoLConstants.STYLE_PATTERN
-                              .matcher(
-                                  KoLConstants.SCRIPT_PATTERN
-                                      .matcher(request.responseText)
-                                      .replaceAll(""))
-                              .replaceAll(""))
-                      .replaceAll(""))
-              .replaceAll("")
-              .replaceAll(
-                  "ascensionhistory.php\\?back=other&who=" + ContactManager.getPlayerId(name),
-                  "../ascensions/" + ClanManager.getURLName(name));
-
-      ClanManager.profileMap.put(name, data);
-
-      // To avoid retrieving the file again, store the intermediate
-      // result in a local file.
-
-      PrintStream ostream = LogStream.openStream(profile, true);
-      ostream.println(data);
-      ostream.close();
+          ClanManager.readMemberFile(ascension, "Failed to load cached ascension history");
+      if (data != null) {
+        ClanManager.ascensionMap.put(name, data);
+      }
+      return true;
     }
-  }
 
-  private static void initializeAscensionData(final String name) {
-    File ascension =
-        new File(
-            KoLConstants.ROOT_LOCATION,
-            ClanManager.snapshotFolder + "ascensions/" + ClanManager.getFileName(name));
+    String data = ClanManager.ascensionCache.get(ContactManager.getPlayerId(name), maxAge);
+    if (data == null) {
+      return false;
+    }
 
-    if (ascension.exists()) {
-      try {
-        BufferedReader istream = FileUtilities.getReader(ascension);
-        StringBuilder ascensionString = new StringBuilder();
-        String currentLine;
-
-        while ((currentLine = istream.readLine()) != null) {
-          ascensionString.append(currentLine);
-          ascensionString.append(KoLConstants.LINE_BREAK);
-        }
+    ClanManager.storeAscensionData(name, data);
+    return true;
+  }
 
-        ClanManager.ascensionMap.put(name, ascensionString.toString());
-      } catch (Exception e) {
-        // This should not happen.  Therefore, print
-        // a stack trace for debug purposes.
+  private static String readMemberFile(final File file, final String failure) {
+    try (BufferedReader istream = FileUtilities.getReader(file)) {
+      StringBuilder data = new StringBuilder();
+      String currentLine;
 
-        StaticEntity.printStackTrace(e, "Failed to load cached ascension history");
-        return;
+      while ((currentLine = istream.readLine()) != null) {
+        data.append(currentLine);
+        data.append(KoLConstants.LINE_BREAK);
       }
-    } else {
-      // Otherwise, run the request and pull the data from the
-      // web server.
 
-      AscensionHistoryRequest request =
-          new AscensionHistoryRequest(name, ContactManager.getPlayerId(name));
-      request.initialize();
+      return data.toString();
+    } catch (Exception e) {
+      // This should not happen.  Therefore, print
+      // a stack trace for debug purposes.
 
-      String data =
-          KoLConstants.LINE_BREAK_PATTERN
-              .matcher(
-                  KoLConstants.COMMENT_PATTERN
-                      .matcher(
-                          KoLConstants.STYLE_PATTERN
-                              .matcher(
-                                  KoLConstants.SCRIPT_PATTERN
-                                      .matcher(request.responseText)
-                                      .replaceAll(""))
-                              .replaceAll(""))
-                      .replaceAll(""))
-              .replaceAll("")
-              .replaceAll(
-                  "<a href=\"charsheet.php\">",
-                  "<a href=../profiles/" + ClanManager.getURLName(name));
-
-      ClanManager.ascensionMap.put(name, data);
-
-      // To avoid retrieving the file again, store the intermediate
-      // result in a local file.
-
-      PrintStream ostream = LogStream.openStream(ascension, true);
-      ostream.println(data);
-      ostream.close();
+      StaticEntity.printStackTrace(e, failure);
+      return null;
+    }
+  }
+
+  private static String fetchProfile(final String name) {
+    ProfileRequest request = new ProfileRequest(name);
+    request.run();
+
+    if (request.responseText == null) {
+      return null;
     }
+
+    return ClanManager.cleanMemberPage(request.responseText)
+        .replaceAll(
+            "ascensionhistory.php\\?back=other&who=" + ContactManager.getPlayerId(name),
+            "../ascensions/" + ClanManager.getURLName(name));
+  }
+
+  private static String fetchAscensionData(final String name) {
+    AscensionHistoryRequest request =
+        new AscensionHistoryRequest(name, ContactManager.getPlayerId(name));
+    request.run();
+
+    if (request.responseText == null) {
+      return null;
+    }
+
+    return ClanManager.cleanMemberPage(request.responseText)
+        .replaceAll(
+            "<a href=\"charsheet.php\">", "<a href=../profiles/" + ClanManager.getURLName(name));
+  }
+
+  private static String cleanMemberPage(final String responseText) {
+    return KoLConstants.LINE_BREAK_PATTERN
+        .matcher(
+            KoLConstants.COMMENT_PATTERN
+                .matcher(
+                    KoLConstants.STYLE_PATTERN
+                        .matcher(KoLConstants.SCRIPT_PATTERN.matcher(responseText).replaceAll(""))
+                        .replaceAll(""))
+                .replaceAll(""))
+        .replaceAll("");
+  }
+
+  private static void storeProfile(final String name, final String data) {
+    ClanManager.profileMap.put(name, data);
+
+    // To avoid retrieving the file again, store the intermediate
+    // result in a local file.
+
+    PrintStream ostream = LogStream.openStream(ClanManager.getProfileFile(name), true);
+    ostream.println(data);
+    ostream.close();
+  }
+
+  private static void storeAscensionData(final String name, final String data) {
+    ClanManager.ascensionMap.put(name, data);
+
+    // To avoid retrieving the file again, store the intermediate
+    // result in a local file.
+
+    PrintStream ostream = LogStream.openStream(ClanManager.getAscensionFile(name), true);
+    ostream.println(data);
+    ostream.close();
   }
 
   public static String getTitle(final String name) {
@@ -583,6 +616,34 @@ public abstract class ClanManager {
       return;
     }
 
+    // Retrieve everything else the reports are built from. After
+    // that they only read it, so they can be rendered in parallel.
+
+    ClanManager.retrieveClanIdAndName();
+    ProfileSnapshot.initializeRoster();
+    AscensionSnapshot.initializeAscensionData();
+
+    ForkJoinTask<String> standardData =
+        ForkJoinPool.commonPool().submit(() -> ProfileSnapshot.getStandardData(localProfileLink));
+
+    Function<AscensionFilter, ForkJoinTask<String>> ascensionData =
+        filter ->
+            ForkJoinPool.commonPool()
+                .submit(
+                    () ->
+                        AscensionSnapshot.getAscensionData(
+                            filter,
+                            mostAscensionsBoardSize,
+                            mainBoardSize,
+                            classBoardSize,
+                            maxAge,
+                            playerMoreThanOnce,
+                            localProfileLink));
+
+    ForkJoinTask<String> softcoreData = ascensionData.apply(AscensionFilter.NORMAL);
+    ForkJoinTask<String> hardcoreData = ascensionData.apply(AscensionFilter.HARDCORE);
+    ForkJoinTask<String> casualData = ascensionData.apply(AscensionFilter.CASUAL);
+
     // Now, store the clan snapshot into the appropriate
     // data folder.
 
@@ -590,7 +651,7 @@ public abstract class ClanManager {
 
     try {
       PrintStream ostream = LogStream.openStream(standardFile, true);
-      ostream.println(ProfileSnapshot.getStandardData(localProfileLink));
+      ostream.println(standardData.get());
       ostream.close();
 
       String line;
@@ -606,39 +667,15 @@ public abstract class ClanManager {
       KoLmafia.updateDisplay("Storing ascension snapshot...");
 
       ostream = LogStream.openStream(softcoreFile, true);
-      ostream.println(
-          AscensionSnapshot.getAscensionData(
-              AscensionFilter.NORMAL,
-              mostAscensionsBoardSize,
-              mainBoardSize,
-              classBoardSize,
-              maxAge,
-              playerMoreThanOnce,
-              localProfileLink));
+      ostream.println(softcoreData.get());
       ostream.close();
 
       ostream = LogStream.openStream(hardcoreFile, true);
-      ostream.println(
-          AscensionSnapshot.getAscensionData(
-              AscensionFilter.HARDCORE,
-              mostAscensionsBoardSize,
-              mainBoardSize,
-              classBoardSize,
-              maxAge,
-              playerMoreThanOnce,
-              localProfileLink));
+      ostream.println(hardcoreData.get());
       ostream.close();
 
       ostream = LogStream.openStream(casualFile, true);
-      ostream.println(
-          AscensionSnapshot.getAscensionData(
-              AscensionFilter.CASUAL,
-              mostAscensionsBoardSize,
-              mainBoardSize,
-              classBoardSize,
-              maxAge,
-              playerMoreThanOnce,
-              localProfileLink));
+      ostream.println(casualData.get());
       ostream.close();
     } catch (Exception e) {
       StaticEntity.printStackTrace(e);
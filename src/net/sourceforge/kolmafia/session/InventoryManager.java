@@ -132,6 +132,7 @@ public abstract class InventoryManager {
 
     KoLConstants.inventory.clear();
     KoLConstants.inventory.addAll(items);
+    ItemCountIndex.INVENTORY.invalidate();
     KoLConstants.unlimited.clear();
     KoLConstants.unlimited.addAll(unlimited);
     EquipmentManager.updateEquipmentLists();
@@ -140,7 +141,7 @@ public abstract class InventoryManager {
   }
 
   public static final int getCount(final int itemId) {
-    return InventoryManager.getCount(ItemPool.get(itemId, 1));
+    return ItemCountIndex.getCount(itemId, KoLConstants.inventory);
   }
 
   public static final int getCount(final AdventureResult item) {
@@ -0,0 +1,274 @@
+package net.sourceforge.kolmafia.session;
+
+import java.util.List;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.persistence.ItemDatabase;
+
+/**
+ * Counts of the items in the inventory, closet and storage, indexed by item id, so that asking how
+ * many of an item the character has needs neither a probe AdventureResult nor a search of the list
+ * by name. The lists themselves are unchanged; they remain what the GUI displays.
+ *
+ * <p>AdventureResult.addResultToList and removeResultFromList keep the index for a list in step
+ * with it. Anything else which changes a list changes its size, in which case the index rebuilds
+ * itself from the list when next asked, or replaces its contents wholesale after fetching them
+ * from KoL, in which case the caller invalidates the index.
+ *
+ * <p>Counts are found by open addressing in parallel arrays. An item which is in the list under
+ * some other name than the one being asked about is not answered from the index, so that callers
+ * see exactly what searching the list would have told them.
+ */
+public class ItemCountIndex {
+  public static final ItemCountIndex INVENTORY = new ItemCountIndex(KoLConstants.inventory);
+  public static final ItemCountIndex CLOSET = new ItemCountIndex(KoLConstants.closet);
+  public static final ItemCountIndex STORAGE = new ItemCountIndex(KoLConstants.storage);
+  public static final ItemCountIndex FREEPULLS = new ItemCountIndex(KoLConstants.freepulls);
+
+  // Returned when the list must be searched instead
+  public static final int UNKNOWN = -1;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  // Item ids are positive, so 0 marks an empty slot
+  private static final int EMPTY = 0;
+
+  // The item is changing and the list has the final say
+  private static final byte STALE = 1;
+  // The list holds more than one item with this id
+  private static final byte AMBIGUOUS = 2;
+  // The name is the one ItemPool.get would give the item
+  private static final byte CANONICAL = 4;
+
+  private final List<AdventureResult> list;
+
+  private int[] keys;
+  private int[] counts;
+  private String[] names;
+  private byte[] flags;
+  private int used = 0;
+
+  // The size of the list when the index last matched it; -1 to rebuild
+  private int expectedSize = -1;
+
+  private ItemCountIndex(final List<AdventureResult> list) {
+    this.list = list;
+    this.allocate(INITIAL_CAPACITY);
+  }
+
+  /** Returns the index kept for the given list, or null if it has none. */
+  public static ItemCountIndex of(final List<AdventureResult> list) {
+    if (list == KoLConstants.inventory) {
+      return INVENTORY;
+    }
+    if (list == KoLConstants.closet) {
+      return CLOSET;
+    }
+    if (list == KoLConstants.storage) {
+      return STORAGE;
+    }
+    if (list == KoLConstants.freepulls) {
+      return FREEPULLS;
+    }
+    return null;
+  }
+
+  /** Returns how many of the item with the given id are in the list. */
+  public static int getCount(final int itemId, final List<AdventureResult> list) {
+    ItemCountIndex index = ItemCountIndex.of(list);
+    if (index != null) {
+      int count = index.getCount(itemId);
+      if (count != UNKNOWN) {
+        return count;
+      }
+    }
+    return ItemPool.get(itemId, 1).getCount(list);
+  }
+
+  /**
+   * Returns how many of the item with the given id, under the name ItemPool.get would give it, are
+   * in the list, or UNKNOWN if the list must be searched.
+   */
+  public synchronized int getCount(final int itemId) {
+    if (itemId <= 0) {
+      return UNKNOWN;
+    }
+
+    this.sync();
+    int slot = this.find(itemId);
+    if (this.keys[slot] == EMPTY) {
+      return 0;
+    }
+    if ((this.flags[slot] & (STALE | AMBIGUOUS)) != 0) {
+      return UNKNOWN;
+    }
+    if (this.counts[slot] == 0) {
+      return 0;
+    }
+    return this.flags[slot] == CANONICAL ? this.counts[slot] : UNKNOWN;
+  }
+
+  /**
+   * Returns how many of the item with the given id and name are in the list, or UNKNOWN if the list
+   * must be searched.
+   */
+  public synchronized int getCount(final int itemId, final String name) {
+    if (itemId <= 0 || name == null) {
+      return UNKNOWN;
+    }
+
+    this.sync();
+    int slot = this.find(itemId);
+    if (this.keys[slot] == EMPTY) {
+      return 0;
+    }
+    if ((this.flags[slot] & (STALE | AMBIGUOUS)) != 0) {
+      return UNKNOWN;
+    }
+    if (this.counts[slot] == 0) {
+      return 0;
+    }
+    return name.equals(this.names[slot]) ? this.counts[slot] : UNKNOWN;
+  }
+
+  /** Called before the given item changes in the list. */
+  public synchronized void changing(final AdventureResult item) {
+    int itemId = item.getItemId();
+    if (itemId <= 0) {
+      return;
+    }
+
+    this.sync();
+    int slot = this.insert(itemId);
+    this.flags[slot] |= STALE;
+  }
+
+  /** Called after the given item has changed in the list; reads its new count from the list. */
+  public synchronized void changed(final AdventureResult item) {
+    int itemId = item.getItemId();
+    if (itemId <= 0) {
+      return;
+    }
+
+    int index = this.list.indexOf(item);
+    AdventureResult current = index == -1 ? null : this.list.get(index);
+    int count = current == null ? 0 : current.getCount();
+
+    int slot = this.insert(itemId);
+    byte flag = this.flags[slot];
+    if ((flag & AMBIGUOUS) == 0) {
+      String name = item.getName();
+      if (this.counts[slot] != 0 && this.names[slot] != null && !this.names[slot].equals(name)) {
+        // The list also has this item under some other name
+        if (count != 0) {
+          flag |= AMBIGUOUS;
+        }
+      } else {
+        this.names[slot] = name;
+        this.counts[slot] = count;
+        flag = ItemCountIndex.isCanonical(itemId, name) ? CANONICAL : 0;
+      }
+    }
+    this.flags[slot] = (byte) (flag & ~STALE);
+    this.expectedSize = this.list.size();
+  }
+
+  /** Called after the contents of the list have been replaced. */
+  public synchronized void invalidate() {
+    this.expectedSize = -1;
+  }
+
+  private void sync() {
+    if (this.expectedSize != this.list.size()) {
+      this.rebuild();
+    }
+  }
+
+  private void rebuild() {
+    AdventureResult[] items = this.list.toArray(new AdventureResult[0]);
+    this.allocate(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(items.length * 4)));
+
+    for (AdventureResult item : items) {
+      int itemId = item == null ? 0 : item.getItemId();
+      if (itemId <= 0) {
+        continue;
+      }
+
+      int slot = this.insert(itemId);
+      if (this.names[slot] != null) {
+        this.flags[slot] |= AMBIGUOUS;
+        continue;
+      }
+      this.names[slot] = item.getName();
+      this.counts[slot] = item.getCount();
+      if (ItemCountIndex.isCanonical(itemId, item.getName())) {
+        this.flags[slot] = CANONICAL;
+      }
+    }
+
+    this.expectedSize = items.length;
+  }
+
+  private static boolean isCanonical(final int itemId, final String name) {
+    String dataName = ItemDatabase.getItemDataName(itemId);
+    if (dataName == null) {
+      dataName = "(unknown item " + itemId + ")";
+    }
+    return dataName.equals(name);
+  }
+
+  private void allocate(final int capacity) {
+    this.keys = new int[capacity];
+    this.counts = new int[capacity];
+    this.names = new String[capacity];
+    this.flags = new byte[capacity];
+    this.used = 0;
+  }
+
+  private int find(final int itemId) {
+    int mask = this.keys.length - 1;
+    int hash = itemId * 0x9E3779B9;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (this.keys[slot] != EMPTY && this.keys[slot] != itemId) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private int insert(final int itemId) {
+    int slot = this.find(itemId);
+    if (this.keys[slot] != EMPTY) {
+      return slot;
+    }
+
+    if ((this.used + 1) * 2 > this.keys.length) {
+      this.grow();
+      slot = this.find(itemId);
+    }
+
+    this.keys[slot] = itemId;
+    this.used += 1;
+    return slot;
+  }
+
+  private void grow() {
+    int[] oldKeys = this.keys;
+    int[] oldCounts = this.counts;
+    String[] oldNames = this.names;
+    byte[] oldFlags = this.flags;
+
+    this.allocate(oldKeys.length * 2);
+    for (int i = 0; i < oldKeys.length; ++i) {
+      if (oldKeys[i] == EMPTY) {
+        continue;
+      }
+      int slot = this.find(oldKeys[i]);
+      this.keys[slot] = oldKeys[i];
+      this.counts[slot] = oldCounts[i];
+      this.names[slot] = oldNames[i];
+      this.flags[slot] = oldFlags[i];
+      this.used += 1;
+    }
+  }
+}
@@ -4,7 +4,6 @@ import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -12,6 +11,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.KoLConstants;
@@ -28,6 +30,7 @@ import net.sourceforge.kolmafia.request.GenericRequest;
 import net.sourceforge.kolmafia.request.MallPurchaseRequest;
 import net.sourceforge.kolmafia.request.MallSearchRequest;
 import net.sourceforge.kolmafia.request.PurchaseRequest;
+import net.sourceforge.kolmafia.utilities.RateLimitedFetch;
 
 public abstract class MallPriceManager {
 
@@ -132,11 +135,19 @@ public abstract class MallPriceManager {
 
   // The data structures that this package "manages".
 
+  // These are updated by mall searches, which a batch price refresh makes on several threads.
+
   // a Map from itemId -> current mall price (as visible to a scripter.)
-  private static final Map<Integer, Long> mallPrices = new HashMap<>();
+  private static final Map<Integer, Long> mallPrices = new ConcurrentHashMap<>();
 
   // a Map from itemId -> the most resent mall search results.
-  private static final Map<Integer, List<PurchaseRequest>> mallSearches = new HashMap<>();
+  private static final Map<Integer, List<PurchaseRequest>> mallSearches =
+      new ConcurrentHashMap<>();
+
+  // a Map from itemId -> the search a batch price refresh is making for it, so that batches
+  // running at the same time search for each item only once.
+  private static final Map<Integer, CompletableFuture<List<PurchaseRequest>>> pendingSearches =
+      new ConcurrentHashMap<>();
 
   // Constants controlling how we manage those data
 
@@ -626,28 +637,36 @@ public abstract class MallPriceManager {
     return price;
   }
 
+  // When refreshing a batch of prices, save them to mallprices.txt every so
+  // often, rather than only at the end, so that a long refresh which is
+  // interrupted does not lose what it already found.
+  private static final int PRICES_PER_SAVE = 25;
+
   public static int getMallPrices(AdventureResult[] items, float maxAge) {
+    // Find the distinct items whose prices need refreshing
+    List<Integer> needed = new ArrayList<>();
+    Set<Integer> seen = new HashSet<>();
+
+    for (AdventureResult item : items) {
+      int itemId = item.getItemId();
+      if (!seen.add(itemId) || !validMallItem(itemId)) {
+        continue;
+      }
+      long price = MallPriceDatabase.getPrice(itemId);
+      if (price > 0 && MallPriceDatabase.getAge(itemId) <= maxAge) {
+        continue;
+      }
+      if (MallPriceManager.mallPrices.getOrDefault(itemId, 0L) == 0) {
+        needed.add(itemId);
+      }
+    }
+
     // Count how many items we retrieved
     int count = 0;
 
     try {
-      for (AdventureResult item : items) {
-        int itemId = item.getItemId();
-        if (!validMallItem(itemId)) {
-          continue;
-        }
-        long price = MallPriceDatabase.getPrice(itemId);
-        if (price > 0 && MallPriceDatabase.getAge(itemId) <= maxAge) {
-          continue;
-        }
-        if (MallPriceManager.mallPrices.getOrDefault(itemId, 0L) == 0) {
-          AdventureResult search = item.getInstance(NTH_CHEAPEST_COUNT);
-          List<PurchaseRequest> results = MallPriceManager.searchMall(search);
-          MallPriceManager.flushCache(itemId);
-          MallPriceManager.updateMallPrice(itemId, results, true);
-          MallPriceManager.mallSearches.put(itemId, results);
-          ++count;
-        }
+      if (!needed.isEmpty() && !GenericRequest.abortIfInFightOrChoice()) {
+        count = MallPriceManager.searchMallPrices(needed);
       }
     } finally {
       RequestLogger.printLine("Updating mallprices.txt with " + count + " prices.");
@@ -657,6 +676,80 @@ public abstract class MallPriceManager {
     return count;
   }
 
+  private record PriceSearch(MallSearchRequest request, List<PurchaseRequest> results) {}
+
+  /**
+   * Search the mall for the given items concurrently, on up to mallPriceThreads threads, starting
+   * no more than mallPriceRequestsPerSecond searches a second so as not to hammer the server.
+   * Prices are recorded on this thread as they arrive. Returns how many prices were recorded.
+   */
+  private static int searchMallPrices(final List<Integer> itemIds) {
+    // Build each request on this thread, and only run it on the pool
+    Map<Integer, PriceSearch> searches = new TreeMap<>();
+    for (int itemId : itemIds) {
+      String name = ItemDatabase.getItemDataName(itemId);
+      List<PurchaseRequest> results = new ArrayList<>();
+      MallSearchRequest request =
+          newMallSearchRequest(
+              MallSearchRequest.getSearchString("\"" + name + "\""), MALL_SEARCH_RESULTS, results);
+      searches.put(itemId, new PriceSearch(request, results));
+    }
+
+    int threads = Preferences.getInteger("mallPriceThreads");
+    long interval = 1000L / Math.max(1, Preferences.getInteger("mallPriceRequestsPerSecond"));
+    int[] count = {0};
+
+    RateLimitedFetch.fetchAll(
+        itemIds,
+        threads,
+        interval,
+        itemId -> MallPriceManager.searchMallPrice(itemId, searches.get(itemId)),
+        (itemId, results) -> {
+          if (results == null) {
+            return;
+          }
+
+          MallPriceManager.flushCache(itemId);
+          MallPriceManager.updateMallPrice(itemId, results, true);
+          MallPriceManager.mallSearches.put(itemId, results);
+          if (++count[0] % PRICES_PER_SAVE == 0) {
+            MallPriceDatabase.writePrices();
+          }
+        });
+
+    return count[0];
+  }
+
+  /**
+   * Make the given search for an item, unless another batch is already searching for it, in which
+   * case wait for that search instead. Returns null if the search was not made.
+   */
+  private static List<PurchaseRequest> searchMallPrice(final int itemId, final PriceSearch search)
+      throws InterruptedException, ExecutionException {
+    CompletableFuture<List<PurchaseRequest>> pending = new CompletableFuture<>();
+    CompletableFuture<List<PurchaseRequest>> other =
+        MallPriceManager.pendingSearches.putIfAbsent(itemId, pending);
+    if (other != null) {
+      return other.get();
+    }
+
+    try {
+      List<PurchaseRequest> results = search.results();
+      search.request().run();
+
+      results.removeIf(purchaseRequest -> purchaseRequest instanceof CoinMasterPurchaseRequest);
+      Collections.sort(results, PurchaseRequest.nameComparator);
+
+      pending.complete(results);
+      return results;
+    } catch (Throwable e) {
+      pending.completeExceptionally(e);
+      throw e;
+    } finally {
+      MallPriceManager.pendingSearches.remove(itemId, pending);
+    }
+  }
+
   public static int getMallPrices(String category) {
     return getMallPrices(category, "");
   }
@@ -1,7 +1,6 @@
 package net.sourceforge.kolmafia.session;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -55,6 +54,7 @@ import net.sourceforge.kolmafia.request.coinmaster.HermitRequest;
 import net.sourceforge.kolmafia.request.concoction.CreateItemRequest;
 import net.sourceforge.kolmafia.session.TrackManager.Tracker;
 import net.sourceforge.kolmafia.utilities.LockableListFactory;
+import net.sourceforge.kolmafia.utilities.PhraseMatcher;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class ResultProcessor {
@@ -449,18 +449,15 @@ public class ResultProcessor {
       LinkedList<AdventureResult> effects) {
     // Whacky, whacky KoL can insert <head> sections within the <body>
     String body = KoLConstants.HEAD_PATTERN.matcher(results).replaceAll("");
-    String plainTextResult =
-        KoLConstants.ANYTAG_BUT_ITALIC_PATTERN.matcher(body).replaceAll(KoLConstants.LINE_BREAK);
+    ResultTokenizer parsedResults = new ResultTokenizer(body, KoLConstants.LINE_BREAK);
 
-    if (data == null) {
-      ResultProcessor.processFamiliarWeightGain(plainTextResult);
+    if (data == null && parsedResults.anyContains(ResultProcessor.FAMILIAR_WEIGHT_GAIN)) {
+      ResultProcessor.familiarGainedWeight();
     }
 
-    LinkedList<String> parsedResults =
-        new LinkedList<>(Arrays.asList(plainTextResult.split(KoLConstants.LINE_BREAK)));
     boolean shouldRefresh = false;
 
-    while (parsedResults.size() > 0) {
+    while (parsedResults.hasNext()) {
       shouldRefresh |=
           ResultProcessor.processNextResult(adventureResults, parsedResults, data, items, effects);
     }
@@ -468,55 +465,65 @@ public class ResultProcessor {
     return shouldRefresh;
   }
 
+  private static final PhraseMatcher FAMILIAR_WEIGHT_GAIN =
+      new PhraseMatcher(
+          "gains a pound",
+          // The following are Haiku results
+          "gained a pound",
+          "puts on weight",
+          "gaining weight",
+          // The following are Anapest results
+          "just got heavier",
+          "put on some weight");
+
   public static boolean processFamiliarWeightGain(final String results) {
-    if (results.contains("gains a pound")
-        ||
-        // The following are Haiku results
-        results.contains("gained a pound")
-        || results.contains("puts on weight")
-        || results.contains("gaining weight")
-        ||
-        // The following are Anapest results
-        results.contains("just got heavier")
-        || results.contains("put on some weight")) {
-      KoLCharacter.incrementFamiliarWeight();
-
-      FamiliarData familiar = KoLCharacter.getFamiliar();
-      String fam1 =
-          familiar.getName() + ", the " + familiar.getWeight() + " lb. " + familiar.getRace();
-
-      String message = "Your familiar gains a pound: " + fam1;
-      RequestLogger.printLine(message);
-      RequestLogger.updateSessionLog(message);
+    if (ResultProcessor.FAMILIAR_WEIGHT_GAIN.find(results)) {
+      ResultProcessor.familiarGainedWeight();
       return true;
     }
 
     return false;
   }
 
+  private static void familiarGainedWeight() {
+    KoLCharacter.incrementFamiliarWeight();
+
+    FamiliarData familiar = KoLCharacter.getFamiliar();
+    String fam1 =
+        familiar.getName() + ", the " + familiar.getWeight() + " lb. " + familiar.getRace();
+
+    String message = "Your familiar gains a pound: " + fam1;
+    RequestLogger.printLine(message);
+    RequestLogger.updateSessionLog(message);
+  }
+
+  private static final PhraseMatcher SKILL_ACQUISITION =
+      new PhraseMatcher(
+          "You acquire a skill",
+          "You learn a skill",
+          "You gain a skill",
+          "You have learned a skill",
+          "You acquire a new skill");
+
   private static boolean processNextResult(
       boolean adventureResults,
-      LinkedList<String> parsedResults,
+      ResultTokenizer parsedResults,
       List<AdventureResult> data,
       LinkedList<AdventureResult> items,
       LinkedList<AdventureResult> effects) {
-    String lastToken = parsedResults.remove();
+    String lastToken = parsedResults.next();
 
     // Skip bogus lead necklace drops from the Baby Bugged Bugbear
 
     if (lastToken.equals(" Parse error (function not found) in arena.php line 2225")) {
-      parsedResults.remove();
+      parsedResults.next();
       return false;
     }
 
     // Skip skill acquisition - it's followed by a boldface
     // which makes the parser think it's found an item.
 
-    if (lastToken.contains("You acquire a skill")
-        || lastToken.contains("You learn a skill")
-        || lastToken.contains("You gain a skill")
-        || lastToken.contains("You have learned a skill")
-        || lastToken.contains("You acquire a new skill")) {
+    if (ResultProcessor.SKILL_ACQUISITION.find(lastToken)) {
       return false;
     }
 
@@ -567,11 +574,11 @@ public class ResultProcessor {
 
   private static void processItem(
       boolean adventureResults,
-      LinkedList<String> parsedResults,
+      ResultTokenizer parsedResults,
       String acquisition,
       List<AdventureResult> data,
       LinkedList<AdventureResult> items) {
-    String item = parsedResults.remove();
+    String item = parsedResults.next();
 
     if (item.equals("7 Years of Bad Luck")) {
       return;
@@ -607,11 +614,11 @@ public class ResultProcessor {
       }
 
       boolean autoEquip =
-          parsedResults.size() > 0 && parsedResults.getFirst().contains("automatically equipped");
+          parsedResults.hasNext() && parsedResults.peek().contains("automatically equipped");
 
       if (autoEquip) {
         // This happens in Spelunky
-        parsedResults.remove();
+        parsedResults.next();
         acquisition = "You acquire and equip an item:";
       }
 
@@ -713,7 +720,7 @@ public class ResultProcessor {
   }
 
   private static boolean processEffect(
-      LinkedList<String> parsedResults,
+      ResultTokenizer parsedResults,
       String acquisition,
       List<AdventureResult> data,
       LinkedList<AdventureResult> effects) {
@@ -723,18 +730,18 @@ public class ResultProcessor {
 
     AdventureResult effect = effects.size() == 0 ? null : effects.getFirst();
     if (effect != null) {
-      parsedResults.removeFirst();
+      parsedResults.next();
       effects.removeFirst();
       return ResultProcessor.processEffect(false, acquisition, effect, data);
     }
 
     // KoL bug: some Affirmations, at least, are reported with a leading space
-    String effectName = parsedResults.remove().trim();
+    String effectName = parsedResults.next().trim();
     int effectId = EffectDatabase.getEffectId(effectName);
     int duration = 0;
 
-    if (parsedResults.size() > 0 && parsedResults.getFirst().contains("Adventure")) {
-      String lastToken = parsedResults.remove();
+    if (parsedResults.hasNext() && parsedResults.peek().contains("Adventure")) {
+      String lastToken = parsedResults.next();
       Matcher m = DURATION_PATTERN.matcher(lastToken);
       if (m.find()) {
         duration = StringUtilities.parseInt(m.group(1));
@@ -775,7 +782,7 @@ public class ResultProcessor {
   }
 
   private static boolean processIntrinsic(
-      LinkedList<String> parsedResults,
+      ResultTokenizer parsedResults,
       String acquisition,
       List<AdventureResult> data,
       LinkedList<AdventureResult> effects) {
@@ -783,7 +790,7 @@ public class ResultProcessor {
       return false;
     }
 
-    String effectName = parsedResults.remove().trim();
+    String effectName = parsedResults.next().trim();
     AdventureResult effect = effects.size() == 0 ? null : effects.getFirst();
 
     if (effect != null && decodedNamesEqual(effectName, effect.getName())) {
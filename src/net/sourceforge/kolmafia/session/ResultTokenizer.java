@@ -0,0 +1,133 @@
+package net.sourceforge.kolmafia.session;
+
+import java.util.NoSuchElementException;
+import net.sourceforge.kolmafia.utilities.PhraseMatcher;
+
+/**
+ * Splits the text of a page into the pieces ResultProcessor looks at, in a single pass and without
+ * building a copy of the page along the way.
+ *
+ * <p>The pieces are exactly those of replacing every tag other than italics with a line break and
+ * splitting on line breaks: text between tags, broken at line breaks, with empty pieces between
+ * adjacent tags kept but those at the very end dropped.
+ */
+final class ResultTokenizer {
+  private final String text;
+  private final String lineBreak;
+
+  // Where the next piece starts, or -1 if there are none left
+  private int position = 0;
+
+  // Where a later non-empty piece starts, once one has been looked for
+  private int nonEmptyStart = -1;
+
+  // Where the piece starting at scanStart ends, and where the one after it starts (-1 if none)
+  private int scanStart = -1;
+  private int scanEnd;
+  private int scanNext;
+
+  ResultTokenizer(final String text, final String lineBreak) {
+    this.text = text;
+    this.lineBreak = lineBreak;
+  }
+
+  boolean hasNext() {
+    if (this.position < 0) {
+      return false;
+    }
+
+    // Splitting empty text gives a single empty piece
+    if (this.text.isEmpty() || this.nonEmptyStart >= this.position) {
+      return true;
+    }
+
+    for (int start = this.position; start >= 0; start = this.scanNext) {
+      this.scan(start);
+      if (this.scanEnd > start) {
+        this.nonEmptyStart = start;
+        return true;
+      }
+    }
+
+    // Only empty pieces remain, and those at the end are dropped
+    this.position = -1;
+    return false;
+  }
+
+  String peek() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    this.scan(this.position);
+    return this.text.substring(this.position, this.scanEnd);
+  }
+
+  String next() {
+    String token = this.peek();
+    this.position = this.scanNext;
+    return token;
+  }
+
+  /** Returns true if any piece of the text, consumed or not, contains any of the given phrases. */
+  boolean anyContains(final PhraseMatcher phrases) {
+    for (int start = 0; start >= 0; start = this.scanNext) {
+      this.scan(start);
+      if (phrases.find(this.text, start, this.scanEnd)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void scan(final int start) {
+    if (start == this.scanStart) {
+      return;
+    }
+
+    this.scanStart = start;
+
+    String text = this.text;
+    int length = text.length();
+    for (int i = start; i < length; ++i) {
+      if (text.startsWith(this.lineBreak, i)) {
+        this.scanEnd = i;
+        this.scanNext = i + this.lineBreak.length();
+        return;
+      }
+
+      if (text.charAt(i) == '<') {
+        int close = ResultTokenizer.tagEnd(text, i);
+        if (close != -1) {
+          this.scanEnd = i;
+          this.scanNext = close + 1;
+          return;
+        }
+      }
+    }
+
+    this.scanEnd = length;
+    this.scanNext = -1;
+  }
+
+  /**
+   * Returns the index of the '>' closing the tag which opens at start, or -1 if it is an italics
+   * tag or is not closed on the same line, matching KoLConstants.ANYTAG_BUT_ITALIC_PATTERN.
+   */
+  private static int tagEnd(final String text, final int start) {
+    if (text.startsWith("i>", start + 1) || text.startsWith("/i>", start + 1)) {
+      return -1;
+    }
+
+    for (int i = start + 1; i < text.length(); ++i) {
+      switch (text.charAt(i)) {
+        case '>':
+          return i;
+        case '\n', '\r', '\u0085', '\u2028', '\u2029':
+          return -1;
+      }
+    }
+
+    return -1;
+  }
+}
@@ -357,6 +357,7 @@ public class OptionsFrame extends GenericFrame {
           "relayAllowRemoteAccess",
           "Allow network devices to access relay browser (requires restart)"
         },
+        {"relayKeepsConnectionsAlive", "Reuse browser connections for several requests"},
         {"relayOverridesImages", "Override certain KoL images"},
         {"relayAddSounds", "Add sounds to certain events"},
         {
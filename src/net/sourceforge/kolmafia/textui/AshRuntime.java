@@ -6,6 +6,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
@@ -27,6 +28,7 @@ import net.sourceforge.kolmafia.textui.parsetree.Value;
 import net.sourceforge.kolmafia.textui.parsetree.VarArgType;
 import net.sourceforge.kolmafia.textui.parsetree.VariableList;
 import net.sourceforge.kolmafia.textui.parsetree.VariableReference;
+import net.sourceforge.kolmafia.textui.parsetree.VariableSlots;
 import net.sourceforge.kolmafia.utilities.CharacterEntities;
 
 public class AshRuntime extends AbstractRuntime {
@@ -52,6 +54,9 @@ public class AshRuntime extends AbstractRuntime {
 
   // For ASH stack traces.
   private final ArrayList<CallFrame> frameStack;
+
+  // This runtime's values for the variables of libraries shared with other scripts
+  protected final Map<VariableSlots, Value[]> slots = new IdentityHashMap<>();
   // Limit object churn across function calls.
   private final ArrayList<CallFrame> unusedCallFrames;
 
@@ -81,6 +86,10 @@ public class AshRuntime extends AbstractRuntime {
     return this.scope.getFunctions();
   }
 
+  public Value[] getSlots(final VariableSlots variables) {
+    return this.slots.computeIfAbsent(variables, VariableSlots::newValues);
+  }
+
   @Override
   public void setState(final ScriptRuntime.State state) {
     super.setState(state);
@@ -137,6 +146,7 @@ public class AshRuntime extends AbstractRuntime {
     try {
       this.parser = new Parser(scriptFile, stream, null);
       this.scope = parser.parse();
+      this.slots.clear();
     } catch (InterruptedException e) {
       // Unlikely, but just in case.
       return false;
@@ -0,0 +1,276 @@
+package net.sourceforge.kolmafia.textui;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.sourceforge.kolmafia.textui.Parser.AshDiagnostic;
+import net.sourceforge.kolmafia.textui.parsetree.Command;
+import net.sourceforge.kolmafia.textui.parsetree.Function;
+import net.sourceforge.kolmafia.textui.parsetree.Scope;
+import net.sourceforge.kolmafia.textui.parsetree.Type;
+import net.sourceforge.kolmafia.textui.parsetree.UserDefinedFunction;
+import net.sourceforge.kolmafia.textui.parsetree.Variable;
+import net.sourceforge.kolmafia.textui.parsetree.VariableSlots;
+import net.sourceforge.kolmafia.utilities.LRUCache;
+
+/**
+ * Keeps imported ASH files parsed, so that every script which imports one shares a single parse
+ * tree of it rather than parsing it again.
+ *
+ * <p>A library is parsed on its own, into a top-level scope of its own, and its types, variables,
+ * functions and top-level commands are then merged into the top-level scope of each script which
+ * imports it. The tree is not changed once it is shared: each runtime keeps the values of the
+ * library's variables for itself, in the slots numbered by {@link VariableSlots}. A library is used
+ * only while neither it nor any file it imports has been modified since it was parsed.
+ *
+ * <p>Some files are still parsed into each importing script's own scope, as every import used to
+ * be: those with errors, with a top-level return or exit, with a "call" (which looks its function
+ * up in the script's scope when it runs), with a function declared but not defined, or with an
+ * import which could not be shared. So is a library which would clash with what a script has
+ * already imported, or whose calls would find other functions in that script than they did on its
+ * own.
+ */
+public class ImportCache {
+  private static final LRUCache<File, Library> cache = new LRUCache<>("ash libraries", 128);
+
+  // Files this thread is parsing as libraries, to catch files which import each other
+  private static final ThreadLocal<Set<File>> parsing = ThreadLocal.withInitial(HashSet::new);
+
+  private ImportCache() {}
+
+  @FunctionalInterface
+  public interface LibraryParser {
+    Library parse(File file) throws InterruptedException;
+  }
+
+  /**
+   * Returns the shared library parsed from the given file, parsing it if there is none or the file
+   * has changed since, or null if the file cannot be shared.
+   */
+  public static Library get(final File file, final LibraryParser parser)
+      throws InterruptedException {
+    Library library = ImportCache.cache.get(file);
+
+    if (library == null || !library.isCurrent()) {
+      Set<File> parsing = ImportCache.parsing.get();
+      if (!parsing.add(file)) {
+        // The file imports itself by way of another, so it must be parsed into whichever of them
+        // gets there first
+        return null;
+      }
+
+      try {
+        library = parser.parse(file);
+      } finally {
+        parsing.remove(file);
+      }
+
+      ImportCache.cache.put(file, library);
+    }
+
+    return library.isShared() ? library : null;
+  }
+
+  /** Returns the libraries now shared, for "cache stats". */
+  public static List<Library> getLibraries() {
+    return ImportCache.cache.values().stream().filter(Library::isShared).toList();
+  }
+
+  public static void clear() {
+    ImportCache.cache.clear();
+  }
+
+  public static class Library {
+    private final File file;
+    private final boolean shared;
+
+    // When this file and every file it imported had last been modified when they were parsed
+    private final Map<File, Long> modified = new HashMap<>();
+
+    // What follows is only kept for a library which can be shared
+    private final Parser parser;
+    private final Scope scope;
+    private final List<Library> imports;
+    private final Set<String> lookups;
+    private final List<Type> types = new ArrayList<>();
+    private final List<Variable> variables = new ArrayList<>();
+    private final List<Function> functions = new ArrayList<>();
+    private final List<Command> commands = new ArrayList<>();
+    private final List<AshDiagnostic> diagnostics = new ArrayList<>();
+    private final VariableSlots slots;
+    private final long sourceBytes;
+
+    /**
+     * Makes a library of a file parsed into the given scope of its own, which merged the given
+     * libraries as it imported them and looked up functions of the given names.
+     */
+    Library(
+        final File file,
+        final Parser parser,
+        final Scope scope,
+        final List<Library> imports,
+        final Set<String> lookups,
+        final boolean shareable) {
+      this.file = file;
+
+      for (Map.Entry<File, Parser> entry : parser.getImports().entrySet()) {
+        this.modified.put(entry.getKey(), entry.getValue().getModificationTimestamp());
+      }
+
+      // The scope also holds everything of the libraries it imported, which they add themselves
+      Set<Object> imported = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (Library library : imports) {
+        library.scope.getTypes().forEach(imported::add);
+        library.scope.getVariables().forEach(imported::add);
+        library.scope.getFunctions().forEach(imported::add);
+        imported.addAll(library.scope.getCommandList());
+        imported.addAll(library.parser.getDiagnostics());
+      }
+
+      scope.getTypes().forEach(this.types::add);
+      scope.getVariables().forEach(this.variables::add);
+      scope.getFunctions().forEach(this.functions::add);
+      this.commands.addAll(scope.getCommandList());
+      this.diagnostics.addAll(parser.getDiagnostics());
+
+      this.types.removeIf(imported::contains);
+      this.variables.removeIf(imported::contains);
+      this.functions.removeIf(imported::contains);
+      this.commands.removeIf(imported::contains);
+      this.diagnostics.removeIf(imported::contains);
+
+      // A script defining a function declared here would be filling in the shared declaration
+      this.shared =
+          shareable
+              && this.functions.stream()
+                  .noneMatch(f -> f instanceof UserDefinedFunction udf && udf.getScope() == null);
+
+      if (this.shared) {
+        this.parser = parser;
+        this.scope = scope;
+        this.imports = List.copyOf(imports);
+        this.lookups = Set.copyOf(lookups);
+        this.slots = VariableSlots.assign(scope);
+        this.sourceBytes = file.length();
+      } else {
+        this.parser = null;
+        this.scope = null;
+        this.imports = List.of();
+        this.lookups = Set.of();
+        this.slots = null;
+        this.sourceBytes = 0;
+        this.types.clear();
+        this.variables.clear();
+        this.functions.clear();
+        this.commands.clear();
+        this.diagnostics.clear();
+      }
+    }
+
+    public File getFile() {
+      return this.file;
+    }
+
+    public boolean isShared() {
+      return this.shared;
+    }
+
+    /** Returns true if neither this file nor any it imported has changed since it was parsed. */
+    public boolean isCurrent() {
+      for (Map.Entry<File, Long> entry : this.modified.entrySet()) {
+        if (entry.getKey().lastModified() != entry.getValue()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    public Parser getParser() {
+      return this.parser;
+    }
+
+    /** Returns the libraries this one imported, which must be merged before it. */
+    public List<Library> getImports() {
+      return this.imports;
+    }
+
+    /** Returns the warnings from parsing this file, not counting those from what it imported. */
+    public List<AshDiagnostic> getDiagnostics() {
+      return this.diagnostics;
+    }
+
+    public long getSourceBytes() {
+      return this.sourceBytes;
+    }
+
+    public int getVariableCount() {
+      return this.slots.size();
+    }
+
+    /**
+     * Returns true if this library, once what it imports has been merged into the given top-level
+     * scope, can be merged too and mean what it meant when parsed on its own.
+     */
+    public boolean fits(final Scope scope) {
+      // Anything more would be unreachable
+      if (scope.assertBarrier()) {
+        return false;
+      }
+
+      for (Type type : this.types) {
+        if (scope.getTypes().find(type.getName()) != null) {
+          return false;
+        }
+      }
+
+      for (Variable variable : this.variables) {
+        if (scope.getVariables().find(variable.getName()) != null) {
+          return false;
+        }
+      }
+
+      for (Function function : this.functions) {
+        if (scope.getFunctions().findFunctions(function.getName()).length != 0) {
+          return false;
+        }
+      }
+
+      // A call here could resolve to a function of the same name that it never saw
+      for (String name : this.lookups) {
+        Function[] seen = this.scope.getFunctions().findFunctions(name);
+        for (Function function : scope.getFunctions().findFunctions(name)) {
+          if (!ImportCache.contains(seen, function)) {
+            return false;
+          }
+        }
+      }
+
+      return true;
+    }
+
+    /** Adds what this file declares, and its top-level commands, to the given top-level scope. */
+    public void addTo(final Scope scope, final Parser parser) {
+      this.types.forEach(scope::addType);
+      this.variables.forEach(scope::addVariable);
+      this.functions.forEach(scope::addFunction);
+      for (Command command : this.commands) {
+        scope.addCommand(command, parser);
+      }
+    }
+  }
+
+  private static boolean contains(final Function[] functions, final Function function) {
+    for (Function f : functions) {
+      if (f == function) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
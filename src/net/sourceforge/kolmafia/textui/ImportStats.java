@@ -0,0 +1,35 @@
+package net.sourceforge.kolmafia.textui;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many ASH imports have been parsed and how long that took, for "cache stats".
+ *
+ * <p>A file which {@link ImportCache} shares is parsed once until it changes; one which it cannot
+ * share is parsed afresh into each script which imports it.
+ */
+public class ImportStats {
+  private static final LongAdder parses = new LongAdder();
+  private static final LongAdder parseNanos = new LongAdder();
+
+  private ImportStats() {}
+
+  /** Records the time spent parsing one import, not counting the files it imported in turn. */
+  public static void recordParse(final long nanos) {
+    ImportStats.parses.increment();
+    ImportStats.parseNanos.add(nanos);
+  }
+
+  public static long getParses() {
+    return ImportStats.parses.sum();
+  }
+
+  public static long getParseMillis() {
+    return ImportStats.parseNanos.sum() / 1_000_000L;
+  }
+
+  public static void clear() {
+    ImportStats.parses.reset();
+    ImportStats.parseNanos.reset();
+  }
+}
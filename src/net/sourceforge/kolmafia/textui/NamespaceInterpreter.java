@@ -45,6 +45,7 @@ public class NamespaceInterpreter extends AshRuntime {
   private boolean refresh(String importString) {
     this.scope = new Scope(new VariableList(), Parser.getExistingFunctionScope());
     this.parser.getImports().clear();
+    this.slots.clear();
 
     if (importString.length() > 0) {
       String[] importList = importString.split(",");
@@ -124,6 +124,13 @@ public class Parser {
   private final List<AshDiagnostic> diagnostics = new ArrayList<>();
   private Function mainMethod = null;
   private String notifyRecipient = null;
+  private long importNanos = 0L;
+
+  // What a file parsed as a library must know to be shared by the scripts that import it
+  private boolean importsShared = true;
+  private boolean dynamicCalls = false;
+  private final Set<String> functionLookups = new HashSet<>();
+  private final List<ImportCache.Library> libraries = new ArrayList<>();
 
   public Parser() {
     this(null, null, null);
@@ -398,26 +405,105 @@ public class Parser {
       return scope;
     }
 
-    Parser parser = this.makeChild(scriptFile);
-    Scope result = parser.parseFile(scope);
+    long start = System.nanoTime();
+    try {
+      if (this.sharesImports(scope)) {
+        ImportCache.Library library = ImportCache.get(scriptFile, Parser::parseLibrary);
+        if (library != null && this.mergeLibrary(library, scope)) {
+          this.libraries.add(library);
+          return scope;
+        }
+      }
+
+      this.importsShared = false;
+
+      Parser parser = this.makeChild(scriptFile);
+      long parseStart = System.nanoTime();
+      Scope result = parser.parseFile(scope);
+      ImportStats.recordParse(System.nanoTime() - parseStart - parser.importNanos);
 
-    this.diagnostics.addAll(parser.diagnostics);
+      this.diagnostics.addAll(parser.diagnostics);
+      parser.addMainFunction(result);
 
-    if (parser.mainMethod
-        != null) { // Make imported script's main() available under a different name
-      UserDefinedFunction f =
-          new UserDefinedFunction(
-              parser.mainMethod.getName()
-                  + "@"
-                  + parser.getScriptName().replace(".ash", "").replaceAll("[^a-zA-Z0-9]", "_"),
-              parser.mainMethod.getType(),
-              parser.mainMethod.getVariableReferences(),
-              parser.mainMethod.getDefinitionLocation());
-      f.setScope(((UserDefinedFunction) parser.mainMethod).getScope());
-      result.addFunction(f);
+      return result;
+    } finally {
+      this.importNanos += System.nanoTime() - start;
     }
+  }
 
-    return result;
+  /**
+   * Returns true if an import into the given scope may use a shared library. Subclasses read files
+   * their own way, and a library can only be merged into a top-level scope.
+   */
+  private boolean sharesImports(final Scope scope) {
+    return this.getClass() == Parser.class
+        && scope.getParentScope() != null
+        && scope.getParentScope().getParentScope() == null;
+  }
+
+  /** Makes an imported script's main() available under a different name */
+  private void addMainFunction(final Scope scope) {
+    if (this.mainMethod == null) {
+      return;
+    }
+
+    UserDefinedFunction f =
+        new UserDefinedFunction(
+            this.mainMethod.getName()
+                + "@"
+                + this.getScriptName().replace(".ash", "").replaceAll("[^a-zA-Z0-9]", "_"),
+            this.mainMethod.getType(),
+            this.mainMethod.getVariableReferences(),
+            this.mainMethod.getDefinitionLocation());
+    f.setScope(((UserDefinedFunction) this.mainMethod).getScope());
+    scope.addFunction(f);
+  }
+
+  /** Parses a file into a top-level scope of its own, to be shared by the scripts importing it. */
+  private static ImportCache.Library parseLibrary(final File scriptFile)
+      throws InterruptedException {
+    Parser parser = new Parser(scriptFile, null, null);
+
+    long start = System.nanoTime();
+    Scope scope = parser.parseFile(null);
+    ImportStats.recordParse(System.nanoTime() - start - parser.importNanos);
+
+    parser.addMainFunction(scope);
+
+    boolean shareable =
+        parser.importsShared
+            && !parser.dynamicCalls
+            && !scope.assertBarrier()
+            && parser.diagnostics.stream().noneMatch(d -> d.severity == DiagnosticSeverity.Error);
+
+    return new ImportCache.Library(
+        scriptFile, parser, scope, parser.libraries, parser.functionLookups, shareable);
+  }
+
+  /**
+   * Merges a shared library, after the libraries it imported, into the given top-level scope, or
+   * returns false if it does not fit there, leaving the scope to parse the file afresh.
+   */
+  private boolean mergeLibrary(final ImportCache.Library library, final Scope scope) {
+    File file = library.getFile();
+    if (this.imports.containsKey(file)) {
+      return this.imports.get(file) == library.getParser();
+    }
+
+    for (ImportCache.Library imported : library.getImports()) {
+      if (!this.mergeLibrary(imported, scope)) {
+        return false;
+      }
+    }
+
+    if (!library.fits(scope)) {
+      return false;
+    }
+
+    library.addTo(scope, this);
+    this.imports.put(file, library.getParser());
+    this.diagnostics.addAll(library.getDiagnostics());
+    return true;
   }
 
   /**
@@ -1190,14 +1276,14 @@ public class Parser {
 
     // A typedef can overload a coercion function to a basic type or a typedef
     if (ltype instanceof TypeDef || ltype instanceof RecordType) {
-      Function target = scope.findFunction(name, params, MatchType.EXACT);
+      Function target = this.findFunction(scope, name, params, MatchType.EXACT);
       if (target != null && target.getType().equals(ltype)) {
         return new FunctionCall(rhs.getLocation(), target, params, this);
       }
     }
 
     if (ltype.equals(PATH_TYPE)) {
-      Function target = scope.findFunction(name, params, MatchType.COERCE);
+      Function target = this.findFunction(scope, name, params, MatchType.COERCE);
       if (target != null && target.getType().equals(ltype)) {
         return new FunctionCall(rhs.getLocation(), target, params, this);
       }
@@ -1206,7 +1292,7 @@ public class Parser {
     // Only do auto-coercion on assignments; not on function parameters.
     // We COULD do it for return values.
     if (ltype.equals(BUFFER_TYPE) && oper.equals("assign")) {
-      Function target = scope.findFunction(name, params, MatchType.COERCE);
+      Function target = this.findFunction(scope, name, params, MatchType.COERCE);
       if (target != null && target.getType().equals(ltype)) {
         return new FunctionCall(rhs.getLocation(), target, params, this);
       }
@@ -1217,14 +1303,14 @@ public class Parser {
     }
 
     if (rtype instanceof TypeDef || rtype instanceof RecordType) {
-      Function target = scope.findFunction(name, params, MatchType.EXACT);
+      Function target = this.findFunction(scope, name, params, MatchType.EXACT);
       if (target != null && target.getType().equals(ltype)) {
         return new FunctionCall(rhs.getLocation(), target, params, this);
       }
     }
 
     if (rtype.equals(PATH_TYPE)) {
-      Function target = scope.findFunction(name, params, MatchType.COERCE);
+      Function target = this.findFunction(scope, name, params, MatchType.COERCE);
       if (target != null && target.getType().equals(ltype)) {
         return new FunctionCall(rhs.getLocation(), target, params, this);
       }
@@ -1234,6 +1320,16 @@ public class Parser {
     return rhs;
   }
 
+  private Function findFunction(
+      final BasicScope scope,
+      final String name,
+      final List<Evaluable> params,
+      final MatchType matchType) {
+    // A library which made this call can only be shared with scripts which would make it too
+    this.functionLookups.add(name.toLowerCase());
+    return scope.findFunction(name, params, matchType);
+  }
+
   private List<Evaluable> autoCoerceParameters(
       final Function target, final List<Evaluable> params, final BasicScope scope) {
     ListIterator<VariableReference> refIterator = target.getVariableReferences().listIterator();
@@ -3310,7 +3406,7 @@ public class Parser {
     this.readToken(); // name
 
     List<Evaluable> params = this.parseParameters(scope, firstParam);
-    Function target = scope.findFunction(name.content, params);
+    Function target = this.findFunction(scope, name.content, params, MatchType.ANY);
 
     Location functionCallLocation = this.makeLocation(name, this.peekPreviousToken());
     // Include the first parameter, if any, in the FunctionCall's location
@@ -3494,6 +3590,7 @@ public class Parser {
     Location invokeLocation = this.makeLocation(invokeStartToken, this.peekPreviousToken());
     FunctionInvocation call =
         new FunctionInvocation(invokeLocation, scope, type, name, params, this);
+    this.dynamicCalls = true;
 
     return this.parsePostCall(scope, call);
   }
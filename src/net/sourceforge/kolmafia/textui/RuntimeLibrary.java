@@ -161,6 +161,7 @@ import net.sourceforge.kolmafia.session.GreyYouManager;
 import net.sourceforge.kolmafia.session.GuildUnlockManager;
 import net.sourceforge.kolmafia.session.HeistManager;
 import net.sourceforge.kolmafia.session.InventoryManager;
+import net.sourceforge.kolmafia.session.ItemCountIndex;
 import net.sourceforge.kolmafia.session.LocketManager;
 import net.sourceforge.kolmafia.session.MallPriceManager;
 import net.sourceforge.kolmafia.session.MonsterManuelManager;
@@ -211,8 +212,6 @@ import net.sourceforge.kolmafia.utilities.PHPMTRandom;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 import net.sourceforge.kolmafia.utilities.WikiUtilities;
 import net.sourceforge.kolmafia.webui.RelayServer;
-import org.htmlcleaner.HtmlCleaner;
-import org.htmlcleaner.SimpleXmlSerializer;
 import org.htmlcleaner.TagNode;
 import org.htmlcleaner.XPatherException;
 import org.tmatesoft.svn.core.SVNException;
@@ -1416,6 +1415,12 @@ public abstract class RuntimeLibrary {
     params = List.of(namedParam("items", RuntimeLibrary.ItemSetType));
     functions.add(new LibraryFunction("mall_prices", DataTypes.INT_TYPE, params));
 
+    params =
+        List.of(
+            namedParam("items", RuntimeLibrary.ItemSetType),
+            namedParam("maxAge", DataTypes.FLOAT_TYPE));
+    functions.add(new LibraryFunction("mall_prices", DataTypes.INT_TYPE, params));
+
     params = List.of(namedParam("category", DataTypes.STRING_TYPE));
     functions.add(new LibraryFunction("mall_prices", DataTypes.INT_TYPE, params));
 
@@ -4262,14 +4267,11 @@ public abstract class RuntimeLibrary {
   }
 
   public static Value xpath(ScriptRuntime controller, final Value html, final Value xpath) {
-    HtmlCleaner cleaner = HTMLParserUtils.configureDefaultParser();
-
-    TagNode doc;
-    doc = cleaner.clean(html.toString());
+    TagNode doc = HTMLParserUtils.clean(html.toString());
 
     Object[] result;
     try {
-      result = doc.evaluateXPath(xpath.toString());
+      result = HTMLParserUtils.evaluateXPath(doc, xpath.toString());
     } catch (XPatherException e) {
       throw controller.runtimeException("invalid xpath expression");
     }
@@ -4279,13 +4281,11 @@ public abstract class RuntimeLibrary {
 
     // convert Tagnode objects to strings consisting of their inner HTML
 
-    SimpleXmlSerializer serializer = new SimpleXmlSerializer(cleaner.getProperties());
-
     for (int i = 0; i < result.length; i++) {
       Object ob = result[i];
 
       if (ob instanceof TagNode tag) {
-        result[i] = serializer.getAsString(tag);
+        result[i] = HTMLParserUtils.getAsXml(tag);
       }
 
       value.aset(new Value(i), new Value(result[i].toString()));
@@ -6578,7 +6578,19 @@ public abstract class RuntimeLibrary {
     }
 
     // It's a set of items
-    AggregateValue aggregate = (AggregateValue) arg;
+    return RuntimeLibrary.mallPrices((AggregateValue) arg, 0.0f);
+  }
+
+  public static Value mall_prices(ScriptRuntime controller, final Value arg, final Value arg2) {
+    if (arg.getType().equals(DataTypes.STRING_TYPE)) {
+      return new Value(MallPriceManager.getMallPrices(arg.toString(), arg2.toString()));
+    }
+
+    // It's a set of items and the maximum age of a shared price
+    return RuntimeLibrary.mallPrices((AggregateValue) arg, (float) arg2.floatValue());
+  }
+
+  private static Value mallPrices(final AggregateValue aggregate, final float maxAge) {
     int size = aggregate.count();
     Value[] keys = aggregate.keys();
     AdventureResult[] itemIds = new AdventureResult[size];
@@ -6591,16 +6603,11 @@ public abstract class RuntimeLibrary {
 
     // Update the mall prices, one by one,
     // Note that the AdventureResults all have "count" of 1
-    long result = MallPriceManager.getMallPrices(itemIds, 0.0f);
+    long result = MallPriceManager.getMallPrices(itemIds, maxAge);
 
     return DataTypes.makeIntValue(result);
   }
 
-  public static Value mall_prices(
-      ScriptRuntime controller, final Value category, final Value tiers) {
-    return new Value(MallPriceManager.getMallPrices(category.toString(), tiers.toString()));
-  }
-
   public static Value well_stocked(
       ScriptRuntime controller, final Value itemName, final Value quantity, final Value price) {
     // extract parameters
@@ -6758,13 +6765,11 @@ public abstract class RuntimeLibrary {
   }
 
   public static Value item_amount(ScriptRuntime controller, final Value arg) {
-    AdventureResult item = ItemPool.get((int) arg.intValue(), 0);
-    return new Value(item.getCount(KoLConstants.inventory));
+    return new Value(ItemCountIndex.getCount((int) arg.intValue(), KoLConstants.inventory));
   }
 
   public static Value closet_amount(ScriptRuntime controller, final Value arg) {
-    AdventureResult item = ItemPool.get((int) arg.intValue(), 0);
-    return new Value(item.getCount(KoLConstants.closet));
+    return new Value(ItemCountIndex.getCount((int) arg.intValue(), KoLConstants.closet));
   }
 
   public static Value equipped_amount(ScriptRuntime controller, final Value arg) {
@@ -6846,8 +6851,10 @@ public abstract class RuntimeLibrary {
   }
 
   public static Value storage_amount(ScriptRuntime controller, final Value arg) {
-    AdventureResult item = ItemPool.get((int) arg.intValue(), 0);
-    return new Value(item.getCount(KoLConstants.storage) + item.getCount(KoLConstants.freepulls));
+    int itemId = (int) arg.intValue();
+    return new Value(
+        ItemCountIndex.getCount(itemId, KoLConstants.storage)
+            + ItemCountIndex.getCount(itemId, KoLConstants.freepulls));
   }
 
   public static Value display_amount(ScriptRuntime controller, final Value arg) {
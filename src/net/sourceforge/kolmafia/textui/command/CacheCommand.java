@@ -1,13 +1,18 @@
 package net.sourceforge.kolmafia.textui.command;
 
+import java.util.List;
+import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.RelayRequest;
+import net.sourceforge.kolmafia.textui.ImportCache;
+import net.sourceforge.kolmafia.textui.ImportStats;
+import net.sourceforge.kolmafia.utilities.LRUCache;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class CacheCommand extends AbstractCommand {
   public CacheCommand() {
-    this.usage = "[clear] - get image cache status or clear cache.";
+    this.usage = "[clear | stats] - get image cache status, clear cache, or show memory caches.";
   }
 
   @Override
@@ -27,6 +32,45 @@ public class CacheCommand extends AbstractCommand {
 
     if (command.equals("clear")) {
       RelayRequest.clearImageCache();
+      return;
+    }
+
+    if (command.equals("stats")) {
+      for (LRUCache<?, ?> cache : LRUCache.getCaches()) {
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        RequestLogger.printLine(
+            cache.getName()
+                + ": "
+                + KoLConstants.COMMA_FORMAT.format(cache.size())
+                + " / "
+                + KoLConstants.COMMA_FORMAT.format(cache.getCapacity())
+                + " entries, "
+                + KoLConstants.COMMA_FORMAT.format(hits)
+                + " hits, "
+                + KoLConstants.COMMA_FORMAT.format(lookups - hits)
+                + " misses"
+                + (lookups == 0 ? "" : " (" + (hits * 100 / lookups) + "% hit rate)"));
+      }
+
+      List<ImportCache.Library> libraries = ImportCache.getLibraries();
+      RequestLogger.printLine(
+          "ash libraries shared: "
+              + KoLConstants.COMMA_FORMAT.format(libraries.size())
+              + " files, "
+              + KoLConstants.COMMA_FORMAT.format(
+                  libraries.stream().mapToLong(ImportCache.Library::getSourceBytes).sum())
+              + " bytes of source, "
+              + KoLConstants.COMMA_FORMAT.format(
+                  libraries.stream().mapToInt(ImportCache.Library::getVariableCount).sum())
+              + " variables kept per script");
+
+      RequestLogger.printLine(
+          "ash imports: "
+              + KoLConstants.COMMA_FORMAT.format(ImportStats.getParses())
+              + " parsed in "
+              + KoLConstants.COMMA_FORMAT.format(ImportStats.getParseMillis())
+              + " ms");
     }
   }
 }
@@ -18,7 +18,9 @@ import net.sourceforge.kolmafia.textui.parsetree.UserDefinedFunction;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.commonjs.module.ModuleScriptProvider;
 import org.mozilla.javascript.commonjs.module.Require;
+import org.mozilla.javascript.commonjs.module.provider.DefaultUrlConnectionExpiryCalculator;
 import org.mozilla.javascript.commonjs.module.provider.ParsedContentType;
 import org.mozilla.javascript.commonjs.module.provider.SoftCachingModuleScriptProvider;
 import org.mozilla.javascript.commonjs.module.provider.UrlModuleSourceProvider;
@@ -26,16 +28,15 @@ import org.mozilla.javascript.commonjs.module.provider.UrlModuleSourceProvider;
 public class SafeRequire extends Require {
   private static final long serialVersionUID = 1L;
 
+  // Compiled modules are shared by every script run, so a module is only compiled again when its
+  // file has been modified since it was last loaded.
+  private static final ModuleScriptProvider moduleScriptProvider =
+      new SoftCachingModuleScriptProvider(new KoLmafiaUrlModuleSourceProvider());
+
   private final Scriptable stdLib;
 
   public SafeRequire(Context cx, Scriptable nativeScope, Scriptable stdLib) {
-    super(
-        cx,
-        nativeScope,
-        new SoftCachingModuleScriptProvider(new KoLmafiaUrlModuleSourceProvider()),
-        null,
-        new MainWarningScript(),
-        true);
+    super(cx, nativeScope, moduleScriptProvider, null, new MainWarningScript(), true);
     this.stdLib = stdLib;
   }
 
@@ -99,8 +100,11 @@ public class SafeRequire extends Require {
 
   private static class KoLmafiaUrlModuleSourceProvider extends UrlModuleSourceProvider {
     public KoLmafiaUrlModuleSourceProvider() {
+      // Check the modification time of a cached module every time it is required.
       super(
           Arrays.asList(KoLConstants.ROOT_LOCATION.toURI(), KoLConstants.SCRIPT_LOCATION.toURI()),
+          null,
+          new DefaultUrlConnectionExpiryCalculator(0),
           null);
     }
 
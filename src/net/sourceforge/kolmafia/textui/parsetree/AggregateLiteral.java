@@ -3,8 +3,6 @@ package net.sourceforge.kolmafia.textui.parsetree;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 
 public abstract class AggregateLiteral extends AggregateValue {
-  protected AggregateValue aggr = null;
-
   public AggregateLiteral(final AggregateType type) {
     super(type);
   }
@@ -37,7 +37,7 @@ public class ArrayLiteral extends AggregateLiteral {
   public Value execute(final AshRuntime interpreter) {
     AggregateType type = (AggregateType) this.type;
 
-    this.aggr = (AggregateValue) this.type.initialValue();
+    AggregateValue aggr = (AggregateValue) this.type.initialValue();
 
     int index = 0;
     int size = type.getSize();
@@ -47,17 +47,14 @@ public class ArrayLiteral extends AggregateLiteral {
       }
 
       Value key = DataTypes.makeIntValue(index++);
-      this.aggr.aset(key, val.execute(interpreter));
+      aggr.aset(key, val.execute(interpreter));
     }
 
-    return this.aggr;
+    return aggr;
   }
 
   @Override
   public int count() {
-    if (this.aggr != null) {
-      return this.aggr.count();
-    }
     return this.values.size();
   }
 }
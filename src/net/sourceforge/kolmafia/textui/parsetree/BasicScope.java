@@ -28,7 +28,6 @@ public abstract class BasicScope extends Command {
   protected FunctionList functions;
   protected BasicScope parentScope;
   protected List<BasicScope> nestedScopes;
-  boolean executed;
 
   public BasicScope(
       FunctionList functions, VariableList variables, TypeList types, BasicScope parentScope) {
@@ -45,7 +44,6 @@ public abstract class BasicScope extends Command {
       parentScope.nestedScopes.add(this);
       parentScope = parentScope.parentScope;
     }
-    this.executed = false;
   }
 
   public BasicScope(VariableList variables, final BasicScope parentScope) {
@@ -379,6 +377,10 @@ public abstract class BasicScope extends Command {
 
   @Override
   public Value execute(final AshRuntime interpreter) {
+    return this.execute(interpreter, this.getCommands());
+  }
+
+  protected Value execute(final AshRuntime interpreter, final Iterator<Command> it) {
     // Yield control at the top of the scope to
     // allow other tasks to run and keyboard input -
     // especially the Escape key - to be accepted.
@@ -393,38 +395,33 @@ public abstract class BasicScope extends Command {
       this.pauser.pause(1);
     }
 
-    try {
-      Value result = DataTypes.VOID_VALUE;
-      interpreter.traceIndent();
+    Value result = DataTypes.VOID_VALUE;
+    interpreter.traceIndent();
 
-      Iterator<Command> it = this.getCommands();
-      while (it.hasNext()) {
-        Command current = it.next();
-        result = current.execute(interpreter);
-
-        // Abort processing now if command failed
-        if (!KoLmafia.permitsContinue()) {
-          interpreter.setState(ScriptRuntime.State.EXIT);
-        }
+    while (it.hasNext()) {
+      Command current = it.next();
+      result = current.execute(interpreter);
 
-        if (result == null) {
-          result = DataTypes.VOID_VALUE;
-        }
+      // Abort processing now if command failed
+      if (!KoLmafia.permitsContinue()) {
+        interpreter.setState(ScriptRuntime.State.EXIT);
+      }
 
-        if (ScriptRuntime.isTracing()) {
-          interpreter.trace("[" + interpreter.getState() + "] <- " + result.toQuotedString());
-        }
+      if (result == null) {
+        result = DataTypes.VOID_VALUE;
+      }
 
-        if (interpreter.getState() != ScriptRuntime.State.NORMAL) {
-          break;
-        }
+      if (ScriptRuntime.isTracing()) {
+        interpreter.trace("[" + interpreter.getState() + "] <- " + result.toQuotedString());
       }
 
-      interpreter.traceUnindent();
-      return result;
-    } finally {
-      this.executed = true;
+      if (interpreter.getState() != ScriptRuntime.State.NORMAL) {
+        break;
+      }
     }
+
+    interpreter.traceUnindent();
+    return result;
   }
 
   public abstract void addCommand(final Command c, final Parser p);
@@ -14,8 +14,7 @@ public class CompositeReference extends VariableReference {
   private final List<Evaluable> indices;
 
   // Derived from indices: Final slice and index into it
-  private CompositeValue slice;
-  private Value index;
+  private record Slice(CompositeValue slice, Value index) {}
 
   // For runtime error messages
   private final String fileName;
@@ -82,21 +81,21 @@ public class CompositeReference extends VariableReference {
 
   // Evaluate all the indices and step through the slices.
   //
-  // When done, this.slice has the final slice and this.index has
-  // the final evaluated index.
+  // When done, returns the final slice and the final evaluated index,
+  // or null if the script is exiting.
 
-  private boolean getSlice(final AshRuntime interpreter) {
+  private Slice getSlice(final AshRuntime interpreter) {
     if (!KoLmafia.permitsContinue()) {
       interpreter.setState(ScriptRuntime.State.EXIT);
-      return false;
+      return null;
     }
 
-    this.slice = (CompositeValue) Value.asProxy(this.target.getValue(interpreter));
-    this.index = null;
+    CompositeValue slice = (CompositeValue) Value.asProxy(this.target.getValue(interpreter));
+    Value index = null;
 
     interpreter.traceIndent();
     if (ScriptRuntime.isTracing()) {
-      interpreter.trace("AREF: " + this.slice.toString());
+      interpreter.trace("AREF: " + slice.toString());
     }
 
     Iterator<Evaluable> it = this.indices.iterator();
@@ -109,60 +108,60 @@ public class CompositeReference extends VariableReference {
         interpreter.trace("Key #" + (i + 1) + ": " + exp.toQuotedString());
       }
 
-      this.index = exp.execute(interpreter);
-      interpreter.captureValue(this.index);
-      if (this.index == null) {
-        this.index = DataTypes.VOID_VALUE;
+      index = exp.execute(interpreter);
+      interpreter.captureValue(index);
+      if (index == null) {
+        index = DataTypes.VOID_VALUE;
       }
 
       if (ScriptRuntime.isTracing()) {
-        interpreter.trace("[" + interpreter.getState() + "] <- " + this.index.toQuotedString());
+        interpreter.trace("[" + interpreter.getState() + "] <- " + index.toQuotedString());
       }
       interpreter.traceUnindent();
 
       if (interpreter.getState() == ScriptRuntime.State.EXIT) {
         interpreter.traceUnindent();
-        return false;
+        return null;
       }
 
       if (it.hasNext()) {
-        CompositeValue result =
-            (CompositeValue) Value.asProxy(this.slice.aref(this.index, interpreter));
+        CompositeValue result = (CompositeValue) Value.asProxy(slice.aref(index, interpreter));
 
         // Create missing intermediate slices
         if (result == null) { // ...but don't actually save a proxy in the parent object
-          Value temp = this.slice.initialValue(this.index);
-          this.slice.aset(this.index, temp, interpreter);
+          Value temp = slice.initialValue(index);
+          slice.aset(index, temp, interpreter);
           result = (CompositeValue) Value.asProxy(temp);
         }
 
-        this.slice = result;
+        slice = result;
 
         if (ScriptRuntime.isTracing()) {
-          interpreter.trace("AREF <- " + this.slice.toString());
+          interpreter.trace("AREF <- " + slice.toString());
         }
       }
     }
 
     interpreter.traceUnindent();
 
-    return true;
+    return new Slice(slice, index);
   }
 
   @Override
-  public synchronized Value getValue(final AshRuntime interpreter) {
+  public Value getValue(final AshRuntime interpreter) {
     interpreter.setLineAndFile(this.fileName, this.lineNumber);
     // Iterate through indices to final slice
-    if (this.getSlice(interpreter)) {
-      Value result = this.slice.aref(this.index, interpreter);
+    Slice ref = this.getSlice(interpreter);
+    if (ref != null) {
+      Value result = ref.slice().aref(ref.index(), interpreter);
 
       if (result == null) {
-        result = this.slice.initialValue(this.index);
+        result = ref.slice().initialValue(ref.index());
 
         // If the result is a composite value - a mutable object - store it
         // back in the slice so user modifications will be in the map.
         if (result instanceof CompositeValue) {
-          this.slice.aset(this.index, result, interpreter);
+          ref.slice().aset(ref.index(), result, interpreter);
         }
       }
 
@@ -179,21 +178,21 @@ public class CompositeReference extends VariableReference {
   }
 
   @Override
-  public synchronized Value setValue(
-      AshRuntime interpreter, final Value targetValue, final Operator oper) {
+  public Value setValue(AshRuntime interpreter, final Value targetValue, final Operator oper) {
     interpreter.setLineAndFile(this.fileName, this.lineNumber);
     // Iterate through indices to final slice
-    if (this.getSlice(interpreter)) {
+    Slice ref = this.getSlice(interpreter);
+    if (ref != null) {
       Value newValue = targetValue;
 
       interpreter.traceIndent();
 
       if (oper != null) {
-        Value currentValue = this.slice.aref(this.index, interpreter);
+        Value currentValue = ref.slice().aref(ref.index(), interpreter);
 
         if (currentValue == null) {
-          currentValue = this.slice.initialValue(this.index);
-          this.slice.aset(this.index, currentValue, interpreter);
+          currentValue = ref.slice().initialValue(ref.index());
+          ref.slice().aset(ref.index(), currentValue, interpreter);
         }
 
         if (ScriptRuntime.isTracing()) {
@@ -203,7 +202,7 @@ public class CompositeReference extends VariableReference {
         newValue = oper.applyTo(interpreter, currentValue, targetValue);
       }
 
-      this.slice.aset(this.index, newValue, interpreter);
+      ref.slice().aset(ref.index(), newValue, interpreter);
 
       if (ScriptRuntime.isTracing()) {
         interpreter.trace("ASET: " + newValue.toQuotedString());
@@ -217,13 +216,14 @@ public class CompositeReference extends VariableReference {
     return null;
   }
 
-  public synchronized Value removeKey(final AshRuntime interpreter) {
+  public Value removeKey(final AshRuntime interpreter) {
     interpreter.setLineAndFile(this.fileName, this.lineNumber);
     // Iterate through indices to final slice
-    if (this.getSlice(interpreter)) {
-      Value result = this.slice.remove(this.index, interpreter);
+    Slice ref = this.getSlice(interpreter);
+    if (ref != null) {
+      Value result = ref.slice().remove(ref.index(), interpreter);
       if (result == null) {
-        result = this.slice.initialValue(this.index);
+        result = ref.slice().initialValue(ref.index());
       }
       interpreter.traceIndent();
       if (ScriptRuntime.isTracing()) {
@@ -239,8 +239,9 @@ public class CompositeReference extends VariableReference {
     interpreter.setLineAndFile(this.fileName, this.lineNumber);
     boolean result = false;
     // Iterate through indices to final slice
-    if (this.getSlice(interpreter)) {
-      result = this.slice.aref(index, interpreter) != null;
+    Slice ref = this.getSlice(interpreter);
+    if (ref != null) {
+      result = ref.slice().aref(index, interpreter) != null;
     }
     interpreter.traceIndent();
     if (ScriptRuntime.isTracing()) {
@@ -296,10 +296,10 @@ public abstract class Function extends Symbol {
   }
 
   public Object[] bindVariableReferences(AshRuntime interpreter, Object[] values) {
-    List<Object> newValues = new ArrayList<>();
+    Object[] newValues = new Object[this.variableReferences.size() + 1];
 
     // This is the interpreter.
-    newValues.add(values[0]);
+    newValues[0] = values[0];
 
     int paramCount = 1;
     int valueCount = values.length;
@@ -337,12 +337,12 @@ public abstract class Function extends Symbol {
       }
 
       // Add to new values list
-      newValues.add(value);
+      newValues[paramCount - 1] = value;
     }
 
     // If this function has a VarArg parameter, we've collapsed
     // multiple values into an array.
-    return newValues.toArray(new Object[newValues.size()]);
+    return newValues;
   }
 
   @Override
@@ -1,6 +1,8 @@
 package net.sourceforge.kolmafia.textui.parsetree;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
@@ -14,7 +16,11 @@ import net.sourceforge.kolmafia.textui.ScriptException;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 
 public class LibraryFunction extends Function {
-  private final Method method;
+  // The RuntimeLibrary method, adapted to take its arguments as a single Object[]
+  private static final MethodType INVOKER_TYPE =
+      MethodType.methodType(Value.class, Object[].class);
+
+  private final MethodHandle method;
   public final String[] deprecationWarning;
 
   public LibraryFunction(
@@ -38,9 +44,13 @@ public class LibraryFunction extends Function {
     return RuntimeLibrary.findMethod(name, args);
   }
 
-  private static Method findLibraryMethodOrError(String name, int paramCount) {
+  private static MethodHandle findLibraryMethodOrError(String name, int paramCount) {
     try {
-      return LibraryFunction.findLibraryMethod(name, paramCount);
+      Method method = LibraryFunction.findLibraryMethod(name, paramCount);
+      return MethodHandles.publicLookup()
+          .unreflect(method)
+          .asSpreader(Object[].class, paramCount + 1)
+          .asType(INVOKER_TYPE);
     } catch (Exception e) {
       // This should not happen; it denotes a coding
       // error that must be fixed before release.
@@ -72,20 +82,14 @@ public class LibraryFunction extends Function {
       values = this.bindVariableReferences(interpreter, values);
 
       // Invoke the method
-      return (Value) this.method.invoke(this, values);
-    } catch (InvocationTargetException e) {
+      return (Value) this.method.invokeExact(values);
+    } catch (ScriptException e) {
+      // Pass up exceptions intentionally generated by library
+      throw e;
+    } catch (Throwable e) {
       // This is an error in the called method. Pass
       // it on up so that we'll print a stack trace.
-
-      Throwable cause = e.getCause();
-      if (cause instanceof ScriptException) {
-        // Pass up exceptions intentionally generated by library
-        throw (ScriptException) cause;
-      }
-      throw new RuntimeException(cause);
-    } catch (IllegalAccessException e) {
-      // This is not expected, but is an internal error in ASH
-      throw new ScriptException(e);
+      throw new RuntimeException(e);
     }
   }
 
@@ -105,20 +109,14 @@ public class LibraryFunction extends Function {
       values = this.bindVariableReferences(null, values);
 
       // Invoke the method
-      return (Value) this.method.invoke(this, values);
-    } catch (InvocationTargetException e) {
+      return (Value) this.method.invokeExact(values);
+    } catch (ScriptException e) {
+      // Pass up exceptions intentionally generated by library
+      throw e;
+    } catch (Throwable e) {
       // This is an error in the called method. Pass
       // it on up so that we'll print a stack trace.
-
-      Throwable cause = e.getCause();
-      if (cause instanceof ScriptException) {
-        // Pass up exceptions intentionally generated by library
-        throw (ScriptException) cause;
-      }
-      throw new RuntimeException(cause);
-    } catch (IllegalAccessException e) {
-      // This is not expected, but is an internal error in ASH
-      throw new ScriptException(e);
+      throw new RuntimeException(e);
     }
   }
 
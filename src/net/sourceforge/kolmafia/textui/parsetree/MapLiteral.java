@@ -5,7 +5,6 @@ import java.util.List;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 
 public class MapLiteral extends AggregateLiteral {
-  private AggregateValue aggr = null;
   private final List<Evaluable> keys;
   private final List<Evaluable> values;
 
@@ -18,7 +17,7 @@ public class MapLiteral extends AggregateLiteral {
 
   @Override
   public Value execute(final AshRuntime interpreter) {
-    this.aggr = (AggregateValue) this.type.initialValue();
+    AggregateValue aggr = (AggregateValue) this.type.initialValue();
 
     Iterator<Evaluable> keyIterator = this.keys.iterator();
     Iterator<Evaluable> valIterator = this.values.iterator();
@@ -26,17 +25,14 @@ public class MapLiteral extends AggregateLiteral {
     while (keyIterator.hasNext() && valIterator.hasNext()) {
       Value key = keyIterator.next().execute(interpreter);
       Value val = valIterator.next().execute(interpreter);
-      this.aggr.aset(key, val);
+      aggr.aset(key, val);
     }
 
-    return this.aggr;
+    return aggr;
   }
 
   @Override
   public int count() {
-    if (this.aggr != null) {
-      return this.aggr.count();
-    }
     return this.keys.size();
   }
 }
@@ -9,7 +9,8 @@ import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes;
 
 public class PluralValue extends AggregateValue {
-  private TreeSet<Value> lookup;
+  // Built when first needed; a constant in a shared library may be looked up from several threads
+  private volatile TreeSet<Value> lookup;
 
   public PluralValue(final Type type, List<Value> values) {
     super(new PluralValueType(type));
@@ -42,11 +43,12 @@ public class PluralValue extends AggregateValue {
 
   @Override
   public boolean contains(final Value key) {
-    if (this.lookup == null) {
-      this.lookup = new TreeSet<>();
-      this.lookup.addAll(Arrays.asList(keys()));
+    TreeSet<Value> lookup = this.lookup;
+    if (lookup == null) {
+      lookup = new TreeSet<>(Arrays.asList(keys()));
+      this.lookup = lookup;
     }
-    return this.lookup.contains(key);
+    return lookup.contains(key);
   }
 
   @Override
@@ -5,7 +5,6 @@ import java.util.List;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 
 public class RecordLiteral extends RecordValue {
-  private RecordValue rec = null;
   private final List<String> keys;
   private final List<Evaluable> values;
 
@@ -46,7 +45,7 @@ public class RecordLiteral extends RecordValue {
 
   @Override
   public Value execute(final AshRuntime interpreter) {
-    this.rec = (RecordValue) this.type.initialValue();
+    RecordValue rec = (RecordValue) this.type.initialValue();
 
     Iterator<String> keyIterator = this.keys.iterator();
     Iterator<Evaluable> valIterator = this.values.iterator();
@@ -54,9 +53,9 @@ public class RecordLiteral extends RecordValue {
     while (keyIterator.hasNext() && valIterator.hasNext()) {
       Value key = this.getRecordType().getFieldIndex(keyIterator.next());
       Value val = valIterator.next().execute(interpreter);
-      this.rec.aset(key, val);
+      rec.aset(key, val);
     }
 
-    return this.rec;
+    return rec;
   }
 }
@@ -4,14 +4,21 @@ import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes;
 
 public class StaticScope extends Scope {
+  // Whether this has run, held like a variable so that each runtime which shares it keeps its own
+  final Variable executed = new Variable(DataTypes.BOOLEAN_TYPE);
+
   public StaticScope(final BasicScope parentScope) {
     super(parentScope.variables, parentScope);
   }
 
   @Override
   public Value execute(final AshRuntime interpreter) {
-    if (!this.executed) {
-      return super.execute(interpreter);
+    if (this.executed.getValue(interpreter).intValue() == 0) {
+      try {
+        return super.execute(interpreter);
+      } finally {
+        this.executed.forceValue(interpreter, DataTypes.TRUE_VALUE);
+      }
     }
 
     return DataTypes.VOID_VALUE;
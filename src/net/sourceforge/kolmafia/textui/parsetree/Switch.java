@@ -104,8 +104,7 @@ public class Switch extends Command {
     }
 
     if (offset >= 0 && offset < this.scope.commandCount()) {
-      this.scope.setOffset(offset);
-      Value result = this.scope.execute(interpreter);
+      Value result = this.scope.execute(interpreter, offset);
 
       if (interpreter.getState() == ScriptRuntime.State.BREAK) {
         interpreter.setState(ScriptRuntime.State.NORMAL);
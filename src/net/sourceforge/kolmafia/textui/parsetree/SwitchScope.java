@@ -8,7 +8,6 @@ import net.sourceforge.kolmafia.textui.Parser;
 
 public class SwitchScope extends BasicScope {
   private final ArrayList<Command> commands = new ArrayList<>();
-  private int offset = -1;
   private int barrier = BasicScope.BARRIER_SEEN;
   private boolean breakable = false;
 
@@ -37,15 +36,16 @@ public class SwitchScope extends BasicScope {
 
   @Override
   public Iterator<Command> getCommands() {
-    return this.commands.listIterator(this.offset);
+    return this.commands.iterator();
   }
 
-  public int commandCount() {
-    return this.commands.size();
+  /** Executes the commands of this scope from the given one on, as reached by a case. */
+  public Value execute(final AshRuntime interpreter, final int offset) {
+    return this.execute(interpreter, this.commands.listIterator(offset));
   }
 
-  public void setOffset(final int offset) {
-    this.offset = offset;
+  public int commandCount() {
+    return this.commands.size();
   }
 
   @Override
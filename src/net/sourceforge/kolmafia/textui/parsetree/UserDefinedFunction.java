@@ -3,7 +3,6 @@ package net.sourceforge.kolmafia.textui.parsetree;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
 import net.sourceforge.kolmafia.StaticEntity;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.RuntimeLibrary;
@@ -11,7 +10,6 @@ import org.eclipse.lsp4j.Location;
 
 public class UserDefinedFunction extends Function {
   private Scope scope;
-  private final Stack<ArrayList<Value>> callStack;
 
   public UserDefinedFunction(
       final String name,
@@ -21,7 +19,6 @@ public class UserDefinedFunction extends Function {
     super(name, type, variableReferences, location);
 
     this.scope = null;
-    this.callStack = new Stack<>();
   }
 
   public void setScope(final Scope s) {
@@ -32,9 +29,9 @@ public class UserDefinedFunction extends Function {
     return this.scope;
   }
 
-  private void saveBindings(AshRuntime interpreter) {
+  private List<Value> saveBindings(AshRuntime interpreter) {
     if (this.scope == null) {
-      return;
+      return null;
     }
 
     ArrayList<Value> values = new ArrayList<>();
@@ -47,21 +44,20 @@ public class UserDefinedFunction extends Function {
       }
     }
 
-    this.callStack.push(values);
+    return values;
   }
 
-  private void restoreBindings(AshRuntime interpreter) {
+  private void restoreBindings(AshRuntime interpreter, List<Value> values) {
     if (this.scope == null) {
       return;
     }
 
-    ArrayList<Value> values = this.callStack.pop();
     int i = 0;
 
     for (BasicScope next : this.scope.getScopes()) {
       for (Variable current : next.getVariables()) {
         if (!current.isStatic()) {
-          current.forceValue(values.get(i++));
+          current.forceValue(interpreter, values.get(i++));
         }
       }
     }
@@ -79,7 +75,7 @@ public class UserDefinedFunction extends Function {
     }
 
     // Save current variable bindings
-    this.saveBindings(interpreter);
+    List<Value> bindings = this.saveBindings(interpreter);
 
     // Bind values to variable references
     this.bindVariableReferences(interpreter, values);
@@ -87,7 +83,7 @@ public class UserDefinedFunction extends Function {
     Value result = this.scope.execute(interpreter);
 
     // Restore initial variable bindings
-    this.restoreBindings(interpreter);
+    this.restoreBindings(interpreter, bindings);
 
     if (result.getType().equals(this.type.getBaseType())) {
       return result;
@@ -12,6 +12,10 @@ public class Variable extends Symbol {
   Evaluable expression = null;
   boolean isStatic = false;
 
+  // Where each runtime keeps the value, if this belongs to a library shared between scripts
+  VariableSlots slots = null;
+  int slot;
+
   public Variable(final Type type) {
     this(null, type, null);
   }
@@ -40,7 +44,14 @@ public class Variable extends Symbol {
 
   public Value getValue(final AshRuntime interpreter) {
     if (this.expression != null) {
-      this.content = this.expression.execute(interpreter);
+      return this.expression.execute(interpreter);
+    }
+
+    if (this.slots != null) {
+      Value value = interpreter.getSlots(this.slots)[this.slot];
+      if (value != null) {
+        return value;
+      }
     }
 
     return this.content;
@@ -70,7 +81,12 @@ public class Variable extends Symbol {
     this.expression = targetExpression;
   }
 
-  public void forceValue(final Value targetValue) {
+  public void forceValue(final AshRuntime interpreter, final Value targetValue) {
+    if (this.slots != null) {
+      interpreter.getSlots(this.slots)[this.slot] = targetValue;
+      return;
+    }
+
     this.content = targetValue;
     this.expression = null;
   }
@@ -78,20 +94,16 @@ public class Variable extends Symbol {
   public void setValue(AshRuntime interpreter, final Value targetValue) {
     if (this.getBaseType().equals(DataTypes.ANY_TYPE)
         || this.getBaseType().equals(targetValue.getType())) {
-      this.content = targetValue;
-      this.expression = null;
+      this.forceValue(interpreter, targetValue);
     } else if (this.getBaseType().equals(TypeSpec.STRICT_STRING)
         || this.getBaseType().equals(TypeSpec.STRING)) {
-      this.content = targetValue.toStringValue();
-      this.expression = null;
+      this.forceValue(interpreter, targetValue.toStringValue());
     } else if (this.getBaseType().equals(TypeSpec.INT)
         && targetValue.getType().equals(TypeSpec.FLOAT)) {
-      this.content = targetValue.toIntValue();
-      this.expression = null;
+      this.forceValue(interpreter, targetValue.toIntValue());
     } else if (this.getBaseType().equals(TypeSpec.FLOAT)
         && targetValue.getType().equals(TypeSpec.INT)) {
-      this.content = targetValue.toFloatValue();
-      this.expression = null;
+      this.forceValue(interpreter, targetValue.toFloatValue());
     } else {
       throw interpreter.runtimeException(
           "Internal error: Cannot assign " + targetValue.getType() + " to " + this.getType());
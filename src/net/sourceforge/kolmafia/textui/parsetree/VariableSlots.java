@@ -0,0 +1,49 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+/**
+ * Numbers the variables of a library whose parse tree is shared between scripts. The tree is not
+ * changed once it is shared, so each runtime keeps the values of these variables for itself, in an
+ * array indexed by these numbers.
+ */
+public class VariableSlots {
+  private int size = 0;
+
+  private VariableSlots() {}
+
+  /**
+   * Numbers every variable declared in the given top-level scope or any scope within it, along with
+   * whether each static block has run, except for those which were numbered for a library that
+   * this one imported.
+   */
+  public static VariableSlots assign(final BasicScope scope) {
+    VariableSlots slots = new VariableSlots();
+
+    for (BasicScope current : scope.getScopes()) {
+      for (Variable variable : current.getVariables()) {
+        slots.assign(variable);
+      }
+
+      if (current instanceof StaticScope staticScope) {
+        slots.assign(staticScope.executed);
+      }
+    }
+
+    return slots;
+  }
+
+  private void assign(final Variable variable) {
+    if (variable.slots == null) {
+      variable.slots = this;
+      variable.slot = this.size++;
+    }
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  /** Returns a runtime's values for these variables, none of which has been set yet. */
+  public Value[] newValues() {
+    return new Value[this.size];
+  }
+}
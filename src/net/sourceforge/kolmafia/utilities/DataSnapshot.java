@@ -0,0 +1,180 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.java.dev.spellcast.utilities.DataUtilities;
+import net.sourceforge.kolmafia.KoLConstants;
+
+/**
+ * A pre-tokenized image of a versioned data file. The build writes one for each built-in data file
+ * so that startup can skip reading and splitting the text. Field values are stored once in a
+ * string table and shared between rows.
+ *
+ * <p>A file in the user's data directory always takes precedence, in which case the text file is
+ * read as usual.
+ */
+public class DataSnapshot {
+  public static final String SUFFIX = ".snapshot";
+
+  // "KMDS", followed by the version of this format
+  private static final int MAGIC = 0x4B4D4453;
+  private static final int FORMAT = 1;
+
+  private DataSnapshot() {}
+
+  /**
+   * Returns a reader over the snapshot of a built-in data file, or null if there is an override,
+   * no snapshot, or a snapshot of some other version of the file.
+   */
+  public static SnapshotReader getReader(final String filename, final int version) {
+    if (new File(KoLConstants.DATA_LOCATION, filename).exists()) {
+      return null;
+    }
+
+    String resource = KoLConstants.DATA_DIRECTORY + filename + DataSnapshot.SUFFIX;
+    try (InputStream istream = DataSnapshot.class.getClassLoader().getResourceAsStream(resource)) {
+      return istream == null ? null : DataSnapshot.read(istream, version);
+    } catch (IOException e) {
+      // Fall back to the text file
+      return null;
+    }
+  }
+
+  static SnapshotReader read(final InputStream istream, final int version) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(istream));
+
+    if (in.readInt() != MAGIC || in.readInt() != FORMAT || in.readInt() != version) {
+      return null;
+    }
+
+    String[] strings = new String[in.readInt()];
+    for (int i = 0; i < strings.length; ++i) {
+      byte[] bytes = new byte[in.readInt()];
+      in.readFully(bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    String[][] rows = new String[in.readInt()][];
+    for (int i = 0; i < rows.length; ++i) {
+      String[] row = new String[in.readInt()];
+      for (int j = 0; j < row.length; ++j) {
+        row[j] = strings[in.readInt()];
+      }
+      rows[i] = row;
+    }
+
+    return new SnapshotReader(rows);
+  }
+
+  /**
+   * Writes a snapshot of the data rows remaining in the given reader, which should already be
+   * positioned past the version number.
+   */
+  static void write(final BufferedReader reader, final int version, final OutputStream ostream)
+      throws IOException {
+    List<String[]> rows = new ArrayList<>();
+    Map<String, Integer> indices = new HashMap<>();
+    List<String> strings = new ArrayList<>();
+
+    String[] data;
+    while ((data = FileUtilities.readData(reader)) != null) {
+      rows.add(data);
+      for (String field : data) {
+        indices.computeIfAbsent(
+            field,
+            k -> {
+              strings.add(k);
+              return strings.size() - 1;
+            });
+      }
+    }
+
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(ostream));
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT);
+    out.writeInt(version);
+
+    out.writeInt(strings.size());
+    for (String string : strings) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+
+    out.writeInt(rows.size());
+    for (String[] row : rows) {
+      out.writeInt(row.length);
+      for (String field : row) {
+        out.writeInt(indices.get(field));
+      }
+    }
+
+    out.flush();
+  }
+
+  /**
+   * Writes snapshots of the named built-in data files into the directory given as the first
+   * argument. Files which do not start with a version number are skipped.
+   */
+  public static void main(final String[] args) throws IOException {
+    File directory = new File(args[0]);
+    directory.mkdirs();
+
+    for (int i = 1; i < args.length; ++i) {
+      String filename = args[i];
+
+      try (BufferedReader reader =
+          DataUtilities.getReader(KoLConstants.DATA_DIRECTORY, filename, false)) {
+        int version;
+        try {
+          version = Integer.parseInt(FileUtilities.readLine(reader).trim());
+        } catch (NullPointerException | NumberFormatException e) {
+          continue;
+        }
+
+        try (OutputStream ostream =
+            new FileOutputStream(new File(directory, filename + DataSnapshot.SUFFIX))) {
+          DataSnapshot.write(reader, version, ostream);
+        }
+      }
+    }
+  }
+
+  /**
+   * A reader which hands out pre-split rows. It also answers readLine(), rejoining the fields of
+   * the next row, for callers which split lines themselves.
+   */
+  public static class SnapshotReader extends BufferedReader {
+    private final String[][] rows;
+    private int next = 0;
+
+    private SnapshotReader(final String[][] rows) {
+      super(Reader.nullReader());
+      this.rows = rows;
+    }
+
+    public String[] readData() {
+      return this.next < this.rows.length ? this.rows[this.next++] : null;
+    }
+
+    @Override
+    public String readLine() {
+      String[] data = this.readData();
+      return data == null ? null : String.join("\t", data);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.stream.Stream;
+
+/**
+ * Watches a directory and everything below it, including directories created later, and reports
+ * each change to a listener on a daemon thread of its own.
+ *
+ * <p>Notification is prompt on some platforms and can lag by seconds on others, so callers should
+ * treat what they learn here as a hint to refresh, and not as the only way to notice a change.
+ */
+public class DirectoryWatcher {
+  public interface Listener {
+    /**
+     * Called with the path of a file or directory which was created, deleted or modified, or with
+     * a null path if changes were lost and everything should be assumed to have changed.
+     */
+    void changed(Path path, WatchEvent.Kind<?> kind);
+  }
+
+  private final WatchService service;
+  private final Listener listener;
+
+  private DirectoryWatcher(final WatchService service, final Listener listener) {
+    this.service = service;
+    this.listener = listener;
+  }
+
+  /** Starts watching the given directory. Returns null if it cannot be watched. */
+  public static DirectoryWatcher watch(
+      final Path root, final String threadName, final Listener listener) {
+    WatchService service;
+    try {
+      service = FileSystems.getDefault().newWatchService();
+    } catch (IOException | UnsupportedOperationException e) {
+      return null;
+    }
+
+    DirectoryWatcher watcher = new DirectoryWatcher(service, listener);
+    try {
+      watcher.register(root);
+    } catch (IOException e) {
+      watcher.close();
+      return null;
+    }
+
+    Thread thread = new Thread(watcher::processEvents, threadName);
+    thread.setDaemon(true);
+    thread.start();
+    return watcher;
+  }
+
+  public void close() {
+    try {
+      this.service.close();
+    } catch (IOException e) {
+    }
+  }
+
+  private void register(final Path root) throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path directory : paths.filter(Files::isDirectory).toList()) {
+        directory.register(this.service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+      }
+    }
+  }
+
+  private void processEvents() {
+    while (true) {
+      WatchKey key;
+      try {
+        key = this.service.take();
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+
+      Path directory = (Path) key.watchable();
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == OVERFLOW) {
+          this.listener.changed(null, OVERFLOW);
+          continue;
+        }
+
+        Path path = directory.resolve((Path) event.context());
+        if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+          try {
+            this.register(path);
+          } catch (IOException e) {
+            // It is already gone again
+          }
+        }
+
+        this.listener.changed(path, event.kind());
+      }
+
+      key.reset();
+    }
+  }
+}
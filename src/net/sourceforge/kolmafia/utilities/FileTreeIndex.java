@@ -0,0 +1,159 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.io.File;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.java.dev.spellcast.utilities.DataUtilities;
+
+/**
+ * An index of the files below a directory, by name, so that looking for a file anywhere in a large
+ * tree does not mean listing every directory in it. A DirectoryWatcher marks the index stale
+ * whenever something in the tree changes, and it is rebuilt on the next lookup.
+ *
+ * <p>The index only narrows down where to look: every file it suggests is checked on disk exactly
+ * as a walk of the tree would check it, so case sensitivity and the like follow the file system.
+ */
+public class FileTreeIndex {
+  private static final Map<File, FileTreeIndex> indices = new ConcurrentHashMap<>();
+
+  private final File root;
+  private final DirectoryWatcher watcher;
+  private volatile Snapshot snapshot = null;
+  private final AtomicInteger changes = new AtomicInteger();
+
+  // Directories in the order a walk of the tree visits them, and files by lower-case name
+  private record Snapshot(Map<File, Integer> directories, Map<String, List<File>> files) {}
+
+  private FileTreeIndex(final File root) {
+    this.root = root;
+    this.watcher =
+        DirectoryWatcher.watch(
+            root.toPath(), "FileTreeWatcher-" + root.getName(), (path, kind) -> this.invalidate());
+  }
+
+  /** Returns the index of the tree below the given directory, creating it if need be. */
+  public static FileTreeIndex of(final File root) {
+    return FileTreeIndex.indices.computeIfAbsent(root, FileTreeIndex::new);
+  }
+
+  public void invalidate() {
+    this.changes.incrementAndGet();
+    this.snapshot = null;
+  }
+
+  /**
+   * Adds to matches every file named filename, which may include subdirectories, relative to the
+   * root or to any directory below it. Directories are visited in the same order as a walk of the
+   * tree from the root, parents before children and siblings sorted by name.
+   *
+   * <p>Returns false, without looking, if the tree cannot be watched or the filename is of a shape
+   * the index cannot answer; the caller should walk the tree instead.
+   */
+  public boolean find(final String filename, final List<File> matches) {
+    if (this.watcher == null) {
+      return false;
+    }
+
+    Path path;
+    try {
+      path = Path.of(filename);
+    } catch (InvalidPathException e) {
+      return false;
+    }
+
+    int depth = path.getNameCount();
+    if (depth == 0 || path.isAbsolute()) {
+      return false;
+    }
+    for (Path component : path) {
+      String name = component.toString();
+      if (name.equals(".") || name.equals("..")) {
+        return false;
+      }
+    }
+
+    Snapshot snapshot = this.getSnapshot();
+    String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+    List<File> candidates = snapshot.files().get(name);
+    if (candidates == null) {
+      return true;
+    }
+
+    // Find the directories the filename might be relative to, in walk order
+    TreeMap<Integer, File> directories = new TreeMap<>();
+    for (File candidate : candidates) {
+      File directory = candidate;
+      for (int i = 0; i < depth && directory != null; ++i) {
+        directory = directory.getParentFile();
+      }
+
+      Integer order = directory == null ? null : snapshot.directories().get(directory);
+      if (order != null) {
+        directories.put(order, directory);
+      }
+    }
+
+    for (File directory : directories.values()) {
+      File file = new File(directory, filename);
+      if (file.exists() && !file.isDirectory()) {
+        matches.add(file);
+      }
+    }
+
+    return true;
+  }
+
+  private Snapshot getSnapshot() {
+    Snapshot snapshot = this.snapshot;
+    if (snapshot != null) {
+      return snapshot;
+    }
+
+    synchronized (this) {
+      snapshot = this.snapshot;
+      if (snapshot == null) {
+        int changes = this.changes.get();
+        Map<File, Integer> directories = new HashMap<>();
+        Map<String, List<File>> files = new HashMap<>();
+        FileTreeIndex.index(this.root, directories, files);
+        snapshot = new Snapshot(directories, files);
+
+        // If the tree changed while we were looking, use what we found
+        // this time, but look again next time
+        if (this.changes.get() == changes) {
+          this.snapshot = snapshot;
+        }
+      }
+      return snapshot;
+    }
+  }
+
+  private static void index(
+      final File directory,
+      final Map<File, Integer> directories,
+      final Map<String, List<File>> files) {
+    directories.put(directory, directories.size());
+
+    List<File> subdirectories = new ArrayList<>();
+    for (File content : DataUtilities.listFiles(directory)) {
+      if (content.isDirectory()) {
+        subdirectories.add(content);
+      } else {
+        String name = content.getName().toLowerCase(Locale.ROOT);
+        files.computeIfAbsent(name, k -> new ArrayList<>()).add(content);
+      }
+    }
+
+    for (File subdirectory : subdirectories) {
+      FileTreeIndex.index(subdirectory, directories, files);
+    }
+  }
+}
@@ -76,7 +76,13 @@ public class FileUtilities {
   }
 
   public static final BufferedReader getVersionedReader(final String filename, final int version) {
-    BufferedReader reader =
+    // Built-in files are shipped pre-tokenized; use that unless there is an override
+    BufferedReader reader = DataSnapshot.getReader(filename, version);
+    if (reader != null) {
+      return reader;
+    }
+
+    reader =
         FileUtilities.getReader(
             DataUtilities.getReader(KoLConstants.DATA_DIRECTORY, filename, true));
 
@@ -153,6 +159,10 @@ public class FileUtilities {
       return null;
     }
 
+    if (reader instanceof DataSnapshot.SnapshotReader snapshot) {
+      return snapshot.readData();
+    }
+
     String line = readLine(reader);
     return line == null ? null : line.split("\t", -1);
   }
@@ -1,13 +1,30 @@
 package net.sourceforge.kolmafia.utilities;
 
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
 import net.sourceforge.kolmafia.RequestLogger;
 import org.htmlcleaner.CleanerProperties;
+import org.htmlcleaner.DomSerializer;
 import org.htmlcleaner.HtmlCleaner;
+import org.htmlcleaner.SimpleXmlSerializer;
+import org.htmlcleaner.TagNode;
+import org.htmlcleaner.XPather;
+import org.htmlcleaner.XPatherException;
 import org.jsoup.nodes.Attributes;
 import org.jsoup.nodes.Comment;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
 import org.jsoup.nodes.TextNode;
+import org.w3c.dom.Document;
 
 public class HTMLParserUtils {
   private HTMLParserUtils() {}
@@ -23,6 +40,117 @@ public class HTMLParserUtils {
     return cleaner;
   }
 
+  // Cleaning a page is much more work than evaluating an XPath expression against it, so the last
+  // few pages cleaned on each thread are remembered, and several extractors looking at the same
+  // page clean it once. Callers must therefore treat what they are given as read-only. The pages
+  // are only softly reachable, so those remembered by idle threads give way under memory pressure.
+
+  private static final int REMEMBERED_PAGES = 4;
+  private static final int REMEMBERED_EXPRESSIONS = 64;
+
+  private static final class Page {
+    private final String html;
+    private final TagNode node;
+    private Document dom = null;
+
+    private Page(final String html, final TagNode node) {
+      this.html = html;
+      this.node = node;
+    }
+  }
+
+  private static <K, V> Map<K, V> lruMap(final int capacity) {
+    return new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+        return this.size() > capacity;
+      }
+    };
+  }
+
+  // Everything here is confined to one thread. XPather keeps its evaluation state in the
+  // instance, and javax.xml.xpath objects are not thread-safe, so neither is shared.
+  private static final class Parser {
+    private final HtmlCleaner cleaner = HTMLParserUtils.configureDefaultParser();
+    private final DomSerializer domSerializer = new DomSerializer(this.cleaner.getProperties());
+    private final SimpleXmlSerializer xmlSerializer =
+        new SimpleXmlSerializer(this.cleaner.getProperties());
+    private final XPath xpath = XPathFactory.newInstance().newXPath();
+    private final Map<String, XPathExpression> expressions = lruMap(REMEMBERED_EXPRESSIONS);
+    private final Map<String, XPather> xpathers = lruMap(REMEMBERED_EXPRESSIONS);
+
+    // Most recently used first
+    private final List<SoftReference<Page>> pages = new ArrayList<>(REMEMBERED_PAGES);
+
+    private Page getPage(final String html) {
+      Iterator<SoftReference<Page>> it = this.pages.iterator();
+      while (it.hasNext()) {
+        SoftReference<Page> reference = it.next();
+        Page page = reference.get();
+        if (page == null) {
+          it.remove();
+        } else if (page.html == html || page.html.equals(html)) {
+          it.remove();
+          this.pages.add(0, reference);
+          return page;
+        }
+      }
+
+      Page page = new Page(html, this.cleaner.clean(html));
+      if (this.pages.size() == REMEMBERED_PAGES) {
+        this.pages.remove(REMEMBERED_PAGES - 1);
+      }
+      this.pages.add(0, new SoftReference<>(page));
+      return page;
+    }
+  }
+
+  private static final ThreadLocal<Parser> parsers = ThreadLocal.withInitial(Parser::new);
+
+  /** Returns the cleaned form of the given HTML, which must not be modified. */
+  public static TagNode clean(final String html) {
+    return HTMLParserUtils.parsers.get().getPage(html).node;
+  }
+
+  /** Returns the given HTML, cleaned, as a W3C document, which must not be modified. */
+  public static Document createDOM(final String html) throws ParserConfigurationException {
+    Parser parser = HTMLParserUtils.parsers.get();
+    Page page = parser.getPage(html);
+    if (page.dom == null) {
+      page.dom = parser.domSerializer.createDOM(page.node);
+    }
+    return page.dom;
+  }
+
+  /** Evaluates an HtmlCleaner XPath expression, compiling it only the first time it is seen. */
+  public static Object[] evaluateXPath(final TagNode node, final String expression)
+      throws XPatherException {
+    Parser parser = HTMLParserUtils.parsers.get();
+    XPather xpather = parser.xpathers.get(expression);
+    if (xpather == null) {
+      xpather = new XPather(expression);
+      parser.xpathers.put(expression, xpather);
+    }
+    return xpather.evaluateAgainstNode(node);
+  }
+
+  /** Returns a compiled W3C XPath expression, for use on the current thread only. */
+  public static XPathExpression compileXPath(final String expression)
+      throws XPathExpressionException {
+    Parser parser = HTMLParserUtils.parsers.get();
+    XPathExpression compiled = parser.expressions.get(expression);
+    if (compiled == null) {
+      compiled = parser.xpath.compile(expression);
+      parser.expressions.put(expression, compiled);
+    }
+    return compiled;
+  }
+
+  /** Returns the given node as XML, as SimpleXmlSerializer would with the default properties. */
+  public static String getAsXml(final TagNode node) {
+    return HTMLParserUtils.parsers.get().xmlSerializer.getAsString(node);
+  }
+
   // Log cleaned HTML
 
   public static final void logHTML(final Element node) {
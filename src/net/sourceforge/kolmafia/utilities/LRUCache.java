@@ -0,0 +1,150 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache which holds at most a fixed number of entries, discarding the least recently used ones
+ * first. Entries are spread over several independently locked segments so that threads looking up
+ * different keys rarely wait on each other; recency is tracked per segment.
+ *
+ * <p>Every cache is registered by name, along with its hit and miss counts, so that "cache stats"
+ * can show how well each one is sized.
+ */
+public class LRUCache<K, V> {
+  private static final List<LRUCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+  private static final int SEGMENTS = 16;
+
+  private final String name;
+  private final int capacity;
+  private final Segment<K, V>[] segments;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public LRUCache(final String name, final int capacity) {
+    this(name, capacity, LRUCache.SEGMENTS);
+  }
+
+  @SuppressWarnings("unchecked")
+  public LRUCache(final String name, final int capacity, final int segments) {
+    // Round the segment count up to a power of two so a mask picks the segment
+    int count = Integer.highestOneBit(Math.max(1, Math.min(segments, capacity)) * 2 - 1);
+
+    this.name = name;
+    this.capacity = capacity;
+    this.segments = new Segment[count];
+    for (int i = 0; i < count; ++i) {
+      // Share out the capacity so that the segments add up to exactly that
+      this.segments[i] = new Segment<>(capacity / count + (i < capacity % count ? 1 : 0));
+    }
+
+    LRUCache.caches.add(this);
+  }
+
+  public static List<LRUCache<?, ?>> getCaches() {
+    return LRUCache.caches;
+  }
+
+  private Segment<K, V> segmentFor(final Object key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    return this.segments[hash & (this.segments.length - 1)];
+  }
+
+  public V get(final K key) {
+    Segment<K, V> segment = this.segmentFor(key);
+    V value;
+    synchronized (segment) {
+      value = segment.get(key);
+    }
+
+    if (value == null) {
+      this.misses.increment();
+    } else {
+      this.hits.increment();
+    }
+    return value;
+  }
+
+  public void put(final K key, final V value) {
+    Segment<K, V> segment = this.segmentFor(key);
+    synchronized (segment) {
+      segment.put(key, value);
+    }
+  }
+
+  public void remove(final K key) {
+    Segment<K, V> segment = this.segmentFor(key);
+    synchronized (segment) {
+      segment.remove(key);
+    }
+  }
+
+  /** Returns everything the cache holds, without counting as lookups or as recent use. */
+  public List<V> values() {
+    List<V> values = new ArrayList<>();
+    for (Segment<K, V> segment : this.segments) {
+      synchronized (segment) {
+        values.addAll(segment.values());
+      }
+    }
+    return values;
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment<K, V> segment : this.segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  public void clear() {
+    for (Segment<K, V> segment : this.segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+    this.hits.reset();
+    this.misses.reset();
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  private static class Segment<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = 1L;
+    private final int limit;
+
+    Segment(final int limit) {
+      super(16, 0.75f, true);
+      this.limit = limit;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+      return this.size() > this.limit;
+    }
+  }
+}
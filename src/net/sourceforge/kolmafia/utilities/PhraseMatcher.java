@@ -0,0 +1,116 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Looks for any of a fixed set of phrases in a piece of text in a single pass over it, however
+ * many phrases there are, using an Aho-Corasick automaton built once up front.
+ */
+public class PhraseMatcher {
+  // Each state's outgoing transitions, as parallel arrays of characters and target states
+  private final char[][] labels;
+  private final int[][] targets;
+  private final int[] failures;
+  private final boolean[] accepting;
+
+  public PhraseMatcher(final String... phrases) {
+    List<StringBuilder> stateLabels = new ArrayList<>();
+    List<List<Integer>> stateTargets = new ArrayList<>();
+    List<Boolean> stateAccepting = new ArrayList<>();
+
+    stateLabels.add(new StringBuilder());
+    stateTargets.add(new ArrayList<>());
+    stateAccepting.add(false);
+
+    for (String phrase : phrases) {
+      int state = 0;
+      for (int i = 0; i < phrase.length(); ++i) {
+        char c = phrase.charAt(i);
+        int index = stateLabels.get(state).indexOf(String.valueOf(c));
+        if (index != -1) {
+          state = stateTargets.get(state).get(index);
+          continue;
+        }
+
+        int next = stateLabels.size();
+        stateLabels.add(new StringBuilder());
+        stateTargets.add(new ArrayList<>());
+        stateAccepting.add(false);
+        stateLabels.get(state).append(c);
+        stateTargets.get(state).add(next);
+        state = next;
+      }
+      stateAccepting.set(state, true);
+    }
+
+    int count = stateLabels.size();
+    this.labels = new char[count][];
+    this.targets = new int[count][];
+    this.failures = new int[count];
+    this.accepting = new boolean[count];
+    for (int state = 0; state < count; ++state) {
+      this.labels[state] = stateLabels.get(state).toString().toCharArray();
+      this.targets[state] = stateTargets.get(state).stream().mapToInt(Integer::intValue).toArray();
+      this.accepting[state] = stateAccepting.get(state);
+    }
+
+    // Breadth first, so that every state's failure is known before its children need it
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int child : this.targets[0]) {
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.remove();
+      for (int i = 0; i < this.labels[state].length; ++i) {
+        int child = this.targets[state][i];
+        int failure = this.step(this.failures[state], this.labels[state][i]);
+        this.failures[child] = failure;
+        this.accepting[child] |= this.accepting[failure];
+        queue.add(child);
+      }
+    }
+  }
+
+  private int transition(final int state, final char c) {
+    char[] stateLabels = this.labels[state];
+    for (int i = 0; i < stateLabels.length; ++i) {
+      if (stateLabels[i] == c) {
+        return this.targets[state][i];
+      }
+    }
+    return -1;
+  }
+
+  private int step(int state, final char c) {
+    while (true) {
+      int next = this.transition(state, c);
+      if (next != -1) {
+        return next;
+      }
+      if (state == 0) {
+        return 0;
+      }
+      state = this.failures[state];
+    }
+  }
+
+  /** Returns true if any of the phrases occurs in the given text. */
+  public boolean find(final CharSequence text) {
+    return this.find(text, 0, text.length());
+  }
+
+  /** Returns true if any of the phrases occurs wholly between start and end in the given text. */
+  public boolean find(final CharSequence text, final int start, final int end) {
+    int state = 0;
+    for (int i = start; i < end; ++i) {
+      state = this.step(state, text.charAt(i));
+      if (this.accepting[state]) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
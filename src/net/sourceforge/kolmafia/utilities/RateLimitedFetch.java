@@ -0,0 +1,130 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import net.sourceforge.kolmafia.KoLmafia;
+import net.sourceforge.kolmafia.RequestThread;
+import net.sourceforge.kolmafia.StaticEntity;
+
+/**
+ * Fetches a batch of pages from KoL concurrently, on a bounded pool of threads, starting no more
+ * than one request every so many milliseconds so as not to hammer the server.
+ *
+ * <p>The whole batch runs as a single request sequence, opened on the calling thread. Fetches must
+ * run their requests directly, with run(), rather than posting them through RequestThread: posting
+ * opens a sequence of its own, which may force continuation and so clear an abort or error that
+ * another fetch, or the user, has just raised. Once KoLmafia no longer permits continuing, no more
+ * fetches are started; those already made are still received.
+ */
+public class RateLimitedFetch {
+  /** Tells the time and waits for it. Tests pace fetches without waiting. */
+  public interface Pacer {
+    long currentTimeMillis();
+
+    void sleep(long millis) throws InterruptedException;
+  }
+
+  public static final Pacer SYSTEM =
+      new Pacer() {
+        @Override
+        public long currentTimeMillis() {
+          return System.currentTimeMillis();
+        }
+
+        @Override
+        public void sleep(final long millis) throws InterruptedException {
+          Thread.sleep(millis);
+        }
+      };
+
+  private static Pacer pacer = SYSTEM;
+
+  public static void setPacer(final Pacer pacer) {
+    RateLimitedFetch.pacer = pacer;
+  }
+
+  @FunctionalInterface
+  public interface Fetch<T, R> {
+    R fetch(T item) throws Exception;
+  }
+
+  private record Fetched<T, R>(T item, R result, Exception failure) {}
+
+  private RateLimitedFetch() {}
+
+  /**
+   * Fetches every item, on up to the given number of threads and starting a fetch at most every
+   * interval milliseconds, and passes each item and what was fetched for it to receive, on the
+   * calling thread, as they arrive. An item which was not fetched, because the batch stopped or its
+   * fetch failed, is received with a null result; a failure is logged and the batch goes on.
+   */
+  public static <T, R> void fetchAll(
+      final List<T> items,
+      final int threads,
+      final long interval,
+      final Fetch<T, R> fetch,
+      final BiConsumer<T, R> receive) {
+    if (items.isEmpty()) {
+      return;
+    }
+
+    Pacer pacer = RateLimitedFetch.pacer;
+    AtomicLong nextStart = new AtomicLong();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.max(1, Math.min(threads, items.size())));
+    CompletionService<Fetched<T, R>> completion = new ExecutorCompletionService<>(executor);
+    Integer sequence = RequestThread.openRequestSequence();
+
+    try {
+      for (T item : items) {
+        completion.submit(() -> RateLimitedFetch.fetch(item, fetch, pacer, nextStart, interval));
+      }
+
+      for (int done = 0; done < items.size(); ++done) {
+        Fetched<T, R> fetched = completion.take().get();
+        if (fetched.failure() != null) {
+          StaticEntity.printStackTrace(fetched.failure());
+        }
+        receive.accept(fetched.item(), fetched.result());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      StaticEntity.printStackTrace(e);
+    } finally {
+      executor.shutdownNow();
+      RequestThread.closeRequestSequence(sequence);
+    }
+  }
+
+  private static <T, R> Fetched<T, R> fetch(
+      final T item,
+      final Fetch<T, R> fetch,
+      final Pacer pacer,
+      final AtomicLong nextStart,
+      final long interval)
+      throws InterruptedException {
+    // Each fetch takes the earliest start which is at least an interval after the one before it
+    long now = pacer.currentTimeMillis();
+    long start = nextStart.getAndAccumulate(now, (next, time) -> Math.max(next, time) + interval);
+    if (start > now) {
+      pacer.sleep(start - now);
+    }
+
+    if (!KoLmafia.permitsContinue()) {
+      return new Fetched<>(item, null, null);
+    }
+
+    try {
+      return new Fetched<>(item, fetch.fetch(item), null);
+    } catch (Exception e) {
+      return new Fetched<>(item, null, e);
+    }
+  }
+}
@@ -7,6 +7,7 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -21,8 +22,10 @@ import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.RequestLogger;
 
 public class StringUtilities {
-  private static final HashMap<String, String> entityEncodeCache = new HashMap<>();
-  private static final HashMap<String, String> entityDecodeCache = new HashMap<>();
+  private static final LRUCache<String, String> entityEncodeCache =
+      new LRUCache<>("entity encode", 4096);
+  private static final LRUCache<String, String> entityDecodeCache =
+      new LRUCache<>("entity decode", 4096);
 
   private static final HashMap<String, String> urlEncodeCache = new HashMap<>();
   private static final HashMap<String, String> urlDecodeCache = new HashMap<>();
@@ -31,7 +34,10 @@ public class StringUtilities {
   private static final HashMap<String, String> canonicalNameCache = new HashMap<>();
 
   private static final HashMap<String, String> prepositionsMap = new HashMap<>();
-  private static final WeakHashMap<String[], int[]> hashCache = new WeakHashMap<>();
+  // Keyed by the identity of the name arrays, which are long-lived, so that hashes are kept only as
+  // long as their array is
+  private static final Map<String[], int[]> hashCache =
+      Collections.synchronizedMap(new WeakHashMap<>());
 
   private static final Pattern NONINTEGER_PATTERN = Pattern.compile("[^0-9\\-]+");
 
@@ -1,6 +1,8 @@
 package net.sourceforge.kolmafia.webui;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -29,7 +31,7 @@ import net.sourceforge.kolmafia.session.VolcanoMazeManager;
 import net.sourceforge.kolmafia.utilities.PauseObject;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
-public class RelayAgent extends Thread {
+public class RelayAgent implements Runnable {
   private static GenericRequest errorRequest = null;
   private static String errorRequestPath = null;
 
@@ -45,10 +47,17 @@ public class RelayAgent extends Thread {
     RelayAgent.errorRequestPath = null;
   }
 
+  private static final Pattern CONTENT_LENGTH_PATTERN =
+      Pattern.compile("^Content-Length:", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+  // These buffers belong to the connection and are reused for every request
+  // the browser sends over it.
   private final char[] data = new char[8192];
   private final StringBuffer buffer = new StringBuffer();
+  private final ByteArrayOutputStream headerBuffer = new ByteArrayOutputStream();
   private final PauseObject pauser = new PauseObject();
 
+  private final String name;
   private Socket socket = null;
   private BufferedReader reader;
   private PrintStream writer;
@@ -56,19 +65,28 @@ public class RelayAgent extends Thread {
   private String path;
   private String requestMethod;
   private String isCheckingModified;
+  private String isCheckingETag;
+  private boolean acceptsGzip;
+  private boolean keepAlive;
   private final RelayRequest request;
 
   public RelayAgent(final int id) {
-    super("LocalRelayAgent" + id);
+    this.name = "LocalRelayAgent" + id;
     this.request = new RelayRequest(true);
   }
 
+  public String getName() {
+    return this.name;
+  }
+
   public boolean isWaiting() {
     return this.socket == null;
   }
 
   public void setSocket(final Socket socket) {
     this.socket = socket;
+    this.reader = null;
+    this.writer = null;
     this.pauser.unpause();
   }
 
@@ -79,11 +97,40 @@ public class RelayAgent extends Thread {
         this.pauser.pause();
       }
 
-      try {
+      this.serveConnection();
+    }
+  }
+
+  /**
+   * Serves every request the browser sends over the current socket and then closes it. Unless
+   * relayKeepsConnectionsAlive is set, that is exactly one request.
+   */
+  public void serveConnection() {
+    try {
+      do {
         this.performRelay();
-      } finally {
-        this.closeRelay();
+      } while (this.keepAlive && this.hasNextRequest());
+    } finally {
+      this.closeRelay();
+    }
+  }
+
+  private boolean hasNextRequest() {
+    if (this.reader == null) {
+      return false;
+    }
+
+    // Wait for the browser to send another request (which may already be
+    // buffered, if it pipelines them), close the connection, or time out.
+    try {
+      this.reader.mark(1);
+      if (this.reader.read() == -1) {
+        return false;
       }
+      this.reader.reset();
+      return true;
+    } catch (IOException e) {
+      return false;
     }
   }
 
@@ -93,8 +140,7 @@ public class RelayAgent extends Thread {
     }
 
     this.path = null;
-    this.reader = null;
-    this.writer = null;
+    this.keepAlive = false;
 
     try {
       // readBrowserRequest returns true if we should process the request further, and otherwise
@@ -115,9 +161,15 @@ public class RelayAgent extends Thread {
         RequestLogger.isDebugging() && Preferences.getBoolean("logBrowserInteractions");
     boolean tracing = RequestLogger.isTracing();
 
-    this.reader = new BufferedReader(new InputStreamReader(this.socket.getInputStream()));
+    if (this.reader == null) {
+      // Read one char per byte, so that a body is read to exactly its Content-Length and no
+      // further, and decode what was read as UTF-8 afterwards.
+      this.reader =
+          new BufferedReader(
+              new InputStreamReader(this.socket.getInputStream(), StandardCharsets.ISO_8859_1));
+    }
 
-    String requestLine = this.reader.readLine();
+    String requestLine = this.readLine();
 
     if (requestLine == null) {
       this.request.pseudoResponse("HTTP/1.1 400 Bad Request", "");
@@ -155,15 +207,18 @@ public class RelayAgent extends Thread {
     this.request.constructURLString(this.path, usePostMethod);
     this.request.responseText = null;
     this.isCheckingModified = null;
+    this.isCheckingETag = null;
+    this.acceptsGzip = false;
 
     String currentLine;
     int contentLength = 0;
 
     String host = null;
     String referer = null;
+    String connection = null;
 
     this.request.cookies = null;
-    while ((currentLine = this.reader.readLine()) != null && !currentLine.equals("")) {
+    while ((currentLine = this.readLine()) != null && !currentLine.equals("")) {
       if (debugging) {
         RequestLogger.updateDebugLog(currentLine);
       }
@@ -177,7 +232,10 @@ public class RelayAgent extends Thread {
       switch (headerType) {
         case "host" -> host = headerValue;
         case "referer" -> referer = headerValue;
+        case "connection" -> connection = headerValue;
         case "if-modified-since" -> this.isCheckingModified = headerValue;
+        case "if-none-match" -> this.isCheckingETag = headerValue;
+        case "accept-encoding" -> this.acceptsGzip = headerValue.contains("gzip");
         case "content-length" -> contentLength = StringUtilities.parseInt(headerValue);
         case "user-agent" -> GenericRequest.saveUserAgent(headerValue);
         case "cookie" -> {
@@ -213,13 +271,17 @@ public class RelayAgent extends Thread {
     if (requestMethod.equals("POST")) {
       int remaining = contentLength;
 
+      // Read no further than this request's body; the next request may follow it
       while (remaining > 0) {
-        int current = this.reader.read(this.data);
+        int current = this.reader.read(this.data, 0, Math.min(remaining, this.data.length));
+        if (current == -1) {
+          break;
+        }
         this.buffer.append(this.data, 0, current);
         remaining -= current;
       }
 
-      String fields = this.buffer.toString();
+      String fields = RelayAgent.decode(this.buffer.toString());
       this.buffer.setLength(0);
 
       if (debugging) {
@@ -255,9 +317,24 @@ public class RelayAgent extends Thread {
       return false;
     }
 
+    // HTTP/1.1 connections are persistent unless the browser says otherwise. Requests which are
+    // rejected above close the connection instead, since what follows them cannot be trusted.
+    this.keepAlive =
+        Preferences.getBoolean("relayKeepsConnectionsAlive")
+            && !"close".equalsIgnoreCase(connection);
+
     return true;
   }
 
+  private String readLine() throws IOException {
+    String line = this.reader.readLine();
+    return line == null ? null : RelayAgent.decode(line);
+  }
+
+  private static String decode(final String latin1) {
+    return new String(latin1.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+  }
+
   private boolean isValidReferer(String host, String referer) {
     if (host != null) {
       validRefererHosts.add(host);
@@ -357,6 +434,16 @@ public class RelayAgent extends Thread {
   }
 
   private void readServerResponse() throws IOException {
+    // If the browser already has the version of a local file we have in
+    // memory, say so without looking at the file
+    if (this.isCheckingETag != null
+        && RelayFileCache.matches(this.request.getBasePath(), this.isCheckingETag)) {
+      this.request.pseudoResponse("HTTP/1.1 304 Not Modified", "");
+      this.request.responseCode = 304;
+      this.request.rawByteBuffer = this.request.responseText.getBytes(StandardCharsets.UTF_8);
+      return;
+    }
+
     // If sending a local page, check modification date of file
     if (this.isCheckingModified != null) {
       if (this.shouldSendNotModified()) {
@@ -466,7 +553,7 @@ public class RelayAgent extends Thread {
 
   private static final String NOCACHE_IMAGES = "(memes|otherimages/zonefont)?";
 
-  private static final Pattern IMAGE_PATTERN =
+  static final Pattern IMAGE_PATTERN =
       Pattern.compile(
           "("
               + String.join("|", KoLmafia.IMAGE_SERVER_PATHS)
@@ -482,6 +569,7 @@ public class RelayAgent extends Thread {
       if (this.request.responseText == null) {
         // We did not make a request of KoL and did not
         // create a pseudoResponse
+        this.keepAlive = false;
         return;
       }
 
@@ -506,12 +594,35 @@ public class RelayAgent extends Thread {
       this.request.rawByteBuffer = this.request.responseText.getBytes(StandardCharsets.UTF_8);
     }
 
-    this.writer = new PrintStream(this.socket.getOutputStream(), false);
+    if (this.writer == null) {
+      this.writer =
+          new PrintStream(new BufferedOutputStream(this.socket.getOutputStream()), false);
+    }
+
+    // Send text we have compressed already to browsers which can take it
+    byte[] body = this.request.rawByteBuffer;
+    boolean gzipped = this.acceptsGzip && this.request.gzippedByteBuffer != null;
+    if (gzipped) {
+      body = this.request.gzippedByteBuffer;
+    }
+
     this.writer.print(this.request.statusLine);
     this.writer.print("\r\n");
-    this.request.printHeaders(this.writer);
+    if (this.keepAlive) {
+      this.printKeepAliveHeaders(body);
+    } else {
+      this.request.printHeaders(this.writer);
+    }
+    if (this.request.gzippedByteBuffer != null) {
+      this.writer.print("Vary: Accept-Encoding\r\n");
+    }
+    if (gzipped) {
+      this.writer.print("Content-Encoding: gzip\r\n");
+    }
     this.writer.print("\r\n");
-    this.writer.write(this.request.rawByteBuffer);
+    if (!this.keepAlive || this.hasResponseBody()) {
+      this.writer.write(body);
+    }
     this.writer.flush();
 
     if (RequestLogger.isTracing()) {
@@ -555,6 +666,27 @@ public class RelayAgent extends Thread {
     }
   }
 
+  private boolean hasResponseBody() {
+    return this.request.responseCode != 304 && !this.requestMethod.equals("HEAD");
+  }
+
+  private void printKeepAliveHeaders(final byte[] body) throws IOException {
+    // The browser can only find the end of the response, and the start of
+    // the next one, if we tell it how long the body is.
+    this.headerBuffer.reset();
+    PrintStream headers = new PrintStream(this.headerBuffer, false);
+    this.request.printHeaders(headers);
+    headers.flush();
+    this.headerBuffer.writeTo(this.writer);
+
+    if (this.hasResponseBody()
+        && !CONTENT_LENGTH_PATTERN.matcher(this.headerBuffer.toString()).find()) {
+      this.writer.print("Content-Length: ");
+      this.writer.print(body.length);
+      this.writer.print("\r\n");
+    }
+  }
+
   private void closeRelay() {
     try {
       if (this.reader != null) {
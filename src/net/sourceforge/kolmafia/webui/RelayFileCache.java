@@ -0,0 +1,199 @@
+package net.sourceforge.kolmafia.webui;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.utilities.DirectoryWatcher;
+import net.sourceforge.kolmafia.utilities.LRUCache;
+
+/**
+ * Keeps small local files served to the relay browser in memory, along with an ETag and, for text,
+ * a gzipped copy, so that repeated and conditional requests for them need not touch the disk.
+ *
+ * <p>Files from the relay directory are only cached while a watch on that directory is running,
+ * and are dropped as soon as it sees them change. Images do not change once downloaded, and are
+ * dropped when the image cache is cleared.
+ */
+public class RelayFileCache {
+  private static final int MAX_FILE_SIZE = 128 * 1024;
+
+  private static final LRUCache<String, CachedFile> cache = new LRUCache<>("relay files", 256);
+
+  // Bumped whenever anything is invalidated, so that a file read before a change is not cached
+  // after it. Guarded by the cache.
+  private static long generation = 0;
+
+  private static boolean watchStarted = false;
+  private static DirectoryWatcher watcher = null;
+
+  private RelayFileCache() {}
+
+  public record CachedFile(byte[] bytes, byte[] gzipped, String etag, long lastModified) {}
+
+  public static CachedFile get(final String path) {
+    return RelayFileCache.cache.get(path);
+  }
+
+  /** Returns the current generation, to be passed to a put of whatever is read after this. */
+  public static long generation() {
+    synchronized (RelayFileCache.cache) {
+      return RelayFileCache.generation;
+    }
+  }
+
+  /**
+   * Returns true if the given If-None-Match header names the ETag of the cached copy of the file
+   * at the given path.
+   */
+  public static boolean matches(final String path, final String ifNoneMatch) {
+    CachedFile cached = RelayFileCache.cache.get(path);
+    if (cached == null) {
+      return false;
+    }
+
+    for (String etag : ifNoneMatch.split(",")) {
+      etag = etag.trim();
+      if (etag.equals("*") || etag.equals(cached.etag())) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Caches a downloaded image. Returns null if it is too large to keep or the cache has been
+   * cleared since the given generation.
+   */
+  public static CachedFile putImage(
+      final String path,
+      final byte[] bytes,
+      final String contentType,
+      final long lastModified,
+      final long generation) {
+    return RelayFileCache.put(path, bytes, contentType, lastModified, generation);
+  }
+
+  /**
+   * Caches a file from the relay directory, as it is to be sent to the browser. Returns null if it
+   * is too large to keep, the relay directory cannot be watched for changes, or something has
+   * changed since the given generation.
+   */
+  public static CachedFile putRelayFile(
+      final String path,
+      final byte[] bytes,
+      final String contentType,
+      final long lastModified,
+      final long generation) {
+    if (!RelayFileCache.watchRelayDirectory()) {
+      return null;
+    }
+
+    return RelayFileCache.put(path, bytes, contentType, lastModified, generation);
+  }
+
+  /**
+   * Returns true if text from a relay file would reach the browser unchanged, and so can be sent
+   * from the cache as is.
+   */
+  public static boolean isCacheableText(final String text) {
+    return !RelayAgent.IMAGE_PATTERN.matcher(text).find();
+  }
+
+  public static void clear() {
+    synchronized (RelayFileCache.cache) {
+      RelayFileCache.generation++;
+      RelayFileCache.cache.clear();
+    }
+  }
+
+  private static void remove(final String path) {
+    synchronized (RelayFileCache.cache) {
+      RelayFileCache.generation++;
+      RelayFileCache.cache.remove(path);
+    }
+  }
+
+  private static CachedFile put(
+      final String path,
+      final byte[] bytes,
+      final String contentType,
+      final long lastModified,
+      final long generation) {
+    if (bytes.length > RelayFileCache.MAX_FILE_SIZE) {
+      return null;
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    String etag = "\"" + Long.toHexString(crc.getValue()) + "-" + bytes.length + "\"";
+
+    // Images are already compressed
+    byte[] gzipped = null;
+    if (contentType.startsWith("text/") || contentType.equals("application/json")) {
+      gzipped = RelayFileCache.gzip(bytes);
+      if (gzipped.length >= bytes.length) {
+        gzipped = null;
+      }
+    }
+
+    CachedFile cached = new CachedFile(bytes, gzipped, etag, lastModified);
+
+    synchronized (RelayFileCache.cache) {
+      // What was read may predate a change which has since been seen
+      if (generation != RelayFileCache.generation) {
+        return null;
+      }
+      RelayFileCache.cache.put(path, cached);
+    }
+
+    return cached;
+  }
+
+  static byte[] gzip(final byte[] bytes) {
+    ByteArrayOutputStream ostream = new ByteArrayOutputStream(bytes.length / 2);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(ostream)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      // Cannot happen when writing to memory
+    }
+    return ostream.toByteArray();
+  }
+
+  private static synchronized boolean watchRelayDirectory() {
+    if (!RelayFileCache.watchStarted) {
+      RelayFileCache.watchStarted = true;
+      RelayFileCache.watcher =
+          DirectoryWatcher.watch(
+              KoLConstants.RELAY_LOCATION.toPath(),
+              "RelayFileWatcher",
+              RelayFileCache::relayFileChanged);
+    }
+
+    return RelayFileCache.watcher != null;
+  }
+
+  private static void relayFileChanged(final Path path, final WatchEvent.Kind<?> kind) {
+    if (path == null || kind == ENTRY_DELETE) {
+      // Changes were lost, or this may have been a directory full of cached files
+      RelayFileCache.clear();
+      return;
+    }
+
+    if (Files.isDirectory(path)) {
+      return;
+    }
+
+    Path relay = KoLConstants.RELAY_LOCATION.toPath();
+    String name = relay.relativize(path).toString().replace(File.separatorChar, '/');
+    RelayFileCache.remove(name);
+  }
+}
@@ -1,11 +1,15 @@
 package net.sourceforge.kolmafia.webui;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketException;
 import java.net.UnknownHostException;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.StaticEntity;
@@ -14,7 +18,18 @@ import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class RelayServer implements Runnable {
-  public static final Set<RelayAgent> agentThreads = new HashSet<>();
+  // Every thread currently serving the browser, pooled or not
+  public static final Set<Thread> agentThreads = ConcurrentHashMap.newKeySet();
+
+  // Pooled agents, each of which serves one request per connection
+  private static final List<RelayAgent> agents = new ArrayList<>();
+
+  // Sockets of persistent connections, each served by its own virtual thread
+  private static final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+  private static int connectionCount = 0;
+
+  // How long a persistent connection may sit idle before we close it
+  private static final int KEEP_ALIVE_TIMEOUT = 60 * 1000;
 
   private static long lastStatusMessage = 0;
   private static Thread relayThread = null;
@@ -175,14 +190,29 @@ public class RelayServer implements Runnable {
   }
 
   private synchronized void closeAgents() {
-    for (RelayAgent agent : agentThreads) {
+    for (RelayAgent agent : RelayServer.agents) {
       agent.setSocket(null);
     }
-    agentThreads.clear();
+    RelayServer.agents.clear();
+
+    for (Socket socket : RelayServer.connections) {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // The connection's thread will notice and finish
+      }
+    }
+
+    RelayServer.agentThreads.clear();
   }
 
   private synchronized void dispatchAgent(final Socket socket) {
-    for (RelayAgent agent : agentThreads) {
+    if (Preferences.getBoolean("relayKeepsConnectionsAlive")) {
+      this.startConnection(socket);
+      return;
+    }
+
+    for (RelayAgent agent : RelayServer.agents) {
       if (agent.isWaiting()) {
         agent.setSocket(socket);
         return;
@@ -193,11 +223,44 @@ public class RelayServer implements Runnable {
   }
 
   private synchronized void createAgent(final Socket socket) {
-    RelayAgent agent = new RelayAgent(RelayServer.agentThreads.size());
+    RelayAgent agent = new RelayAgent(RelayServer.agents.size());
+    agent.setSocket(socket);
+
+    Thread thread = new Thread(agent, agent.getName());
+    RelayServer.agents.add(agent);
+    RelayServer.agentThreads.add(thread);
+    thread.start();
+  }
+
+  private synchronized void startConnection(final Socket socket) {
+    // A persistent connection spends most of its life waiting for the
+    // browser, so give each one a cheap virtual thread of its own rather
+    // than tying up a pooled agent.
+    try {
+      socket.setSoTimeout(RelayServer.KEEP_ALIVE_TIMEOUT);
+    } catch (SocketException e) {
+      // The socket is already closed; the agent will find that out
+    }
+
+    int id = ++RelayServer.connectionCount;
+    RelayAgent agent = new RelayAgent(id);
     agent.setSocket(socket);
 
-    RelayServer.agentThreads.add(agent);
-    agent.start();
+    Thread thread =
+        Thread.ofVirtual()
+            .name("LocalRelayConnection" + id)
+            .unstarted(
+                () -> {
+                  try {
+                    agent.serveConnection();
+                  } finally {
+                    RelayServer.connections.remove(socket);
+                    RelayServer.agentThreads.remove(Thread.currentThread());
+                  }
+                });
+    RelayServer.connections.add(socket);
+    RelayServer.agentThreads.add(thread);
+    thread.start();
   }
 
   public static final void addStatusMessage(final String message) {
@@ -38,6 +38,7 @@ import net.sourceforge.kolmafia.objectpool.EffectPool;
 import net.sourceforge.kolmafia.objectpool.FamiliarPool;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.objectpool.SkillPool;
+import net.sourceforge.kolmafia.persistence.EffectDatabase;
 import net.sourceforge.kolmafia.persistence.ModifierDatabase;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.EquipmentRequest;
@@ -246,6 +247,57 @@ public class ModifiersTest {
     }
   }
 
+  @Nested
+  class EffectModifiers {
+    @Test
+    void constantEffectsFollowActiveEffects() {
+      KoLCharacter.recalculateAdjustments();
+      double base = KoLCharacter.currentNumericModifier(DoubleModifier.ITEMDROP);
+
+      try (var cleanups = withEffect(EffectPool.SYNTHESIS_COLLECTION)) {
+        assertThat(
+            KoLCharacter.currentNumericModifier(DoubleModifier.ITEMDROP),
+            closeTo(base + 150, 0.001));
+      }
+
+      assertThat(
+          KoLCharacter.currentNumericModifier(DoubleModifier.ITEMDROP), closeTo(base, 0.001));
+    }
+
+    @Test
+    void variableEffectsAreReevaluated() {
+      int aerated = EffectDatabase.getEffectId("Aerated");
+
+      try (var cleanups = withEffect(aerated, 10)) {
+        assertThat(KoLCharacter.currentNumericModifier(DoubleModifier.HP_PCT), closeTo(10, 0.001));
+
+        // Same effects, different duration
+        int index = KoLConstants.activeEffects.indexOf(EffectPool.get(aerated));
+        KoLConstants.activeEffects.set(index, EffectPool.get(aerated, 20));
+        KoLCharacter.recalculateAdjustments();
+
+        assertThat(KoLCharacter.currentNumericModifier(DoubleModifier.HP_PCT), closeTo(20, 0.001));
+      }
+    }
+
+    @Test
+    void overriddenEffectModifiersAreUsed() {
+      try (var cleanups = withEffect(EffectPool.SYNTHESIS_COLLECTION)) {
+        double before = KoLCharacter.currentNumericModifier(DoubleModifier.ITEMDROP);
+
+        try (var override =
+            withOverrideModifiers(
+                ModifierType.EFFECT, EffectPool.SYNTHESIS_COLLECTION, "Item Drop: +10")) {
+          KoLCharacter.recalculateAdjustments();
+
+          assertThat(
+              KoLCharacter.currentNumericModifier(DoubleModifier.ITEMDROP),
+              closeTo(before - 140, 0.001));
+        }
+      }
+    }
+  }
+
   @Nested
   class SquintChampagne {
     @BeforeAll
@@ -721,6 +773,27 @@ public class ModifiersTest {
         assertEquals(476, speculateStats.get(DerivedModifier.BUFFED_HP));
       }
     }
+
+    @Test
+    public void predictsIntoAnArray() {
+      var cleanups =
+          new Cleanups(
+              withClass(AscensionClass.SEAL_CLUBBER),
+              withStats(100, 100, 100),
+              withEquipped(Slot.HAT, ItemPool.VIKING_HELMET));
+      try (cleanups) {
+        Modifiers mods = KoLCharacter.getCurrentModifiers();
+        KoLCharacter.recalculateAdjustments(false);
+        var stats = mods.predict();
+        int[] predicted = mods.predict(new int[DerivedModifier.values().length]);
+
+        for (var modifier : DerivedModifier.values()) {
+          assertEquals((int) stats.get(modifier), predicted[modifier.ordinal()]);
+        }
+        assertEquals(101, predicted[DerivedModifier.BUFFED_MUS.ordinal()]);
+        assertEquals(156, predicted[DerivedModifier.BUFFED_HP.ordinal()]);
+      }
+    }
   }
 
   @Nested
@@ -5,16 +5,22 @@ import static internal.helpers.Player.withLastLocation;
 import static internal.helpers.Player.withMultiFight;
 import static internal.helpers.Player.withProperty;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import internal.helpers.Cleanups;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
 import net.sourceforge.kolmafia.persistence.AdventureDatabase;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.AdventureRequest.ShadowRift;
+import net.sourceforge.kolmafia.request.FamiliarRequest;
 import net.sourceforge.kolmafia.request.GenericRequest;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -143,4 +149,53 @@ class RequestLoggerTest {
       }
     }
   }
+
+  @Nested
+  class RegistrationTables {
+    private Predicate<String> declining(List<String> consulted, String name) {
+      return url -> {
+        consulted.add(name);
+        return false;
+      };
+    }
+
+    @Test
+    public void pageIsEverythingThroughFirstPhp() {
+      assertEquals("place.php", RequestLogger.RegistrationTable.getPage("place.php?whichplace=x"));
+      assertEquals("familiar.php", RequestLogger.RegistrationTable.getPage("familiar.php"));
+      assertEquals("campground", RequestLogger.RegistrationTable.getPage("campground"));
+    }
+
+    @Test
+    public void consultsOnlyHandlersForPageInOrder() {
+      List<String> consulted = new ArrayList<>();
+      var table =
+          new RequestLogger.RegistrationTable()
+              .add(GenericRequest.class, declining(consulted, "a"), "a.php")
+              .add(GenericRequest.class, declining(consulted, "any"))
+              .add(GenericRequest.class, declining(consulted, "b"), "b.php")
+              .add(GenericRequest.class, declining(consulted, "a2"), "a.php");
+
+      var request = new GenericRequest("a.php");
+      assertFalse(table.register(request, true, "a.php?x=1"));
+      assertThat(consulted, contains("a", "any", "a2"));
+
+      consulted.clear();
+      assertFalse(table.register(request, true, "b.php"));
+      assertThat(consulted, contains("any", "b"));
+
+      consulted.clear();
+      assertFalse(table.register(request, true, "c.php"));
+      assertThat(consulted, contains("any"));
+    }
+
+    @Test
+    public void internalRequestsOnlyConsultTheirOwnType() {
+      var table = new RequestLogger.RegistrationTable().add(FamiliarRequest.class, url -> true);
+
+      assertFalse(table.register(new GenericRequest("x.php"), false, "x.php"));
+      assertTrue(table.register(new GenericRequest("x.php"), true, "x.php"));
+      assertTrue(table.register(new FamiliarRequest(), false, "x.php"));
+    }
+  }
 }
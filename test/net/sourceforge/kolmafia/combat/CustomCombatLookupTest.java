@@ -0,0 +1,107 @@
+package net.sourceforge.kolmafia.combat;
+
+import static internal.helpers.Player.withProperty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import internal.helpers.Cleanups;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import net.sourceforge.kolmafia.MonsterData;
+import net.sourceforge.kolmafia.persistence.MonsterDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CustomCombatLookupTest {
+  private CustomCombatLookup lookup;
+
+  @BeforeEach
+  public void beforeEach() throws IOException {
+    lookup = new CustomCombatLookup();
+    lookup.addEncounterKey("default");
+    load(
+        """
+        [ default ]
+        attack
+
+        [ fluffy ]
+        skill lunging thrust-smack
+
+        [ the dire warren ]
+        run away
+
+        [ $phylum[undead] ]
+        skill saucestorm
+        """);
+  }
+
+  private void load(final String ccs) throws IOException {
+    lookup.load(new BufferedReader(new StringReader(ccs)));
+  }
+
+  @Test
+  public void matchesLongestMonsterKey() {
+    var cleanups = new Cleanups(withProperty("lastAdventure", "The Dire Warren"));
+
+    try (cleanups) {
+      assertThat(lookup.getBestEncounterKey("a fluffy bunny"), equalTo("fluffy"));
+      assertThat(lookup.getBestEncounterKey("a fluffy bunny"), equalTo("fluffy"));
+      assertThat(lookup.getBestEncounterKey("a spooky vampire"), equalTo("$phylum[undead]"));
+    }
+  }
+
+  @Test
+  public void fallsBackToCurrentLocation() {
+    var cleanups = new Cleanups(withProperty("lastAdventure", "The Dire Warren"));
+
+    try (cleanups) {
+      assertThat(lookup.getBestEncounterKey("a sabre-toothed lime"), equalTo("the dire warren"));
+    }
+
+    cleanups = new Cleanups(withProperty("lastAdventure", "The Spooky Forest"));
+
+    try (cleanups) {
+      assertThat(lookup.getBestEncounterKey("a sabre-toothed lime"), equalTo("default"));
+    }
+  }
+
+  @Test
+  public void matchesMonsterRegisteredBetweenLookups() {
+    var cleanups = new Cleanups(withProperty("lastAdventure", "The Dire Warren"));
+
+    try (cleanups) {
+      // An unrecognized monster does not match sections for the current location
+      assertThat(lookup.getBestEncounterKey("a zorbulous thing"), equalTo("default"));
+
+      MonsterData monster = MonsterDatabase.registerMonster("zorbulous thing");
+      try {
+        assertThat(lookup.getBestEncounterKey("a zorbulous thing"), equalTo("the dire warren"));
+      } finally {
+        MonsterDatabase.unregisterMonster(monster);
+      }
+
+      assertThat(lookup.getBestEncounterKey("a zorbulous thing"), equalTo("default"));
+    }
+  }
+
+  @Test
+  public void forgetsMatchesWhenSectionsChange() throws IOException {
+    var cleanups = new Cleanups(withProperty("lastAdventure", "The Dire Warren"));
+
+    try (cleanups) {
+      assertThat(lookup.getBestEncounterKey("a fluffy bunny"), equalTo("fluffy"));
+
+      load(
+          """
+          [ fluffy bunny ]
+          skill saucestorm
+          """);
+      assertThat(lookup.getBestEncounterKey("a fluffy bunny"), equalTo("fluffy bunny"));
+
+      lookup.removeAllChildren();
+      lookup.addEncounterKey("default");
+      assertThat(lookup.getBestEncounterKey("a fluffy bunny"), equalTo("default"));
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package net.sourceforge.kolmafia.listener;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import net.sourceforge.kolmafia.StaticEntity;
+import org.junit.jupiter.api.Test;
+
+public class ListenerSchedulerTest {
+  @Test
+  public void firesInlineWithoutGui() {
+    AtomicInteger updates = new AtomicInteger();
+    Listener listener = updates::incrementAndGet;
+    long fires = ListenerScheduler.getFireCount();
+    long deliveries = ListenerScheduler.getDeliveryCount();
+
+    ListenerScheduler.fire(listener);
+    ListenerScheduler.fire(listener);
+    ListenerScheduler.fire(listener);
+
+    assertThat(updates.get(), equalTo(3));
+    assertThat(ListenerScheduler.getFireCount() - fires, equalTo(3L));
+    assertThat(ListenerScheduler.getDeliveryCount() - deliveries, equalTo(3L));
+  }
+
+  @Test
+  public void coalescesFiresOntoEventDispatchThread() throws Exception {
+    assumeFalse(StaticEntity.isHeadless());
+
+    AtomicInteger updates = new AtomicInteger();
+    AtomicInteger offThread = new AtomicInteger();
+    CountDownLatch delivered = new CountDownLatch(1);
+    Listener listener =
+        () -> {
+          if (!SwingUtilities.isEventDispatchThread()) {
+            offThread.incrementAndGet();
+          }
+          updates.incrementAndGet();
+          delivered.countDown();
+        };
+
+    // Keep the event dispatch thread busy until every fire has been made
+    CountDownLatch fired = new CountDownLatch(1);
+    SwingUtilities.invokeLater(
+        () -> {
+          try {
+            fired.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+          }
+        });
+
+    StaticEntity.setGUIRequired(true);
+    try {
+      for (int i = 0; i < 5; ++i) {
+        ListenerScheduler.fire(listener);
+      }
+    } finally {
+      StaticEntity.setGUIRequired(false);
+      fired.countDown();
+    }
+
+    assertThat(delivered.await(5, TimeUnit.SECONDS), equalTo(true));
+    SwingUtilities.invokeAndWait(() -> {});
+
+    assertThat(updates.get(), equalTo(1));
+    assertThat(offThread.get(), equalTo(0));
+  }
+}
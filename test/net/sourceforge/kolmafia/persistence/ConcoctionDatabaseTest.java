@@ -3,10 +3,15 @@ package net.sourceforge.kolmafia.persistence;
 import static internal.helpers.HttpClientWrapper.getRequests;
 import static internal.helpers.HttpClientWrapper.setupFakeClient;
 import static internal.helpers.Player.withItem;
+import static internal.helpers.Player.withProperty;
+import static internal.matchers.Preference.isSetTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import internal.helpers.Cleanups;
 import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.objectpool.ConcoctionPool;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.session.ResultProcessor;
@@ -38,4 +43,26 @@ public class ConcoctionDatabaseTest {
       assertFalse(requests.isEmpty());
     }
   }
+
+  @Test
+  public void refreshAfterItemChangeRecalculatesProducts() {
+    var cleanups =
+        new Cleanups(
+            withItem("bum cheek", 2),
+            withItem(ItemPool.MEAT_PASTE, 2),
+            withProperty("_concoctionDatabaseRefreshes", 0));
+
+    try (cleanups) {
+      var asshat = ConcoctionPool.get(ItemDatabase.getItemId("asshat"));
+      ConcoctionDatabase.refreshConcoctions();
+      assertEquals(1, asshat.getAvailable());
+
+      try (var moreCheeks = withItem("bum cheek", 2)) {
+        ConcoctionDatabase.setRefreshNeeded(ItemDatabase.getItemId("bum cheek"));
+        ConcoctionDatabase.refreshConcoctions(false);
+        assertEquals(2, asshat.getAvailable());
+        assertThat("_concoctionDatabaseRefreshes", isSetTo(2));
+      }
+    }
+  }
 }
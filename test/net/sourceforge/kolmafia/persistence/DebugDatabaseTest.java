@@ -3,6 +3,7 @@ package net.sourceforge.kolmafia.persistence;
 import static internal.helpers.Networking.html;
 import static internal.helpers.Player.withNextResponse;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -12,7 +13,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Set;
+import java.util.TreeSet;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.RequestLogger;
 import org.junit.jupiter.api.Disabled;
@@ -44,6 +48,65 @@ public class DebugDatabaseTest {
     }
   }
 
+  @Nested
+  class CheckAll {
+    private static final Set<Integer> IDS = new TreeSet<>(Set.of(-1, 0, 1, 2, 4, 5, 9, 10, 12));
+
+    private static String fetch(final int id) {
+      return id == 5 ? null : "description " + id;
+    }
+
+    // Later ids are checked sooner, so that checks finish out of order
+    private static void check(final int id, final String rawText, final PrintStream report) {
+      try {
+        Thread.sleep(5L * (12 - id));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (rawText == null) {
+        report.println("# *** " + id + " has no description.");
+        return;
+      }
+      report.println("checked " + id);
+      report.println(rawText);
+    }
+
+    private static String serialReport(final boolean listGaps) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      try (PrintStream report = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+        int lastId = 0;
+        for (int id : IDS) {
+          if (id < 1) {
+            continue;
+          }
+          while (listGaps && ++lastId < id) {
+            report.println(lastId);
+          }
+          check(id, fetch(id), report);
+        }
+      }
+      return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String parallelReport(final boolean listGaps) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      try (PrintStream report = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+        DebugDatabase.checkAll(IDS, listGaps, CheckAll::fetch, CheckAll::check, report);
+      }
+      return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void reportsInIdOrderAsSerialCheckDoes(final boolean listGaps) {
+      String expected = serialReport(listGaps);
+
+      assertThat(expected, containsString("checked 1" + LS + "description 1" + LS));
+      assertThat(expected, containsString("# *** 5 has no description." + LS));
+      assertEquals(expected, parallelReport(listGaps));
+    }
+  }
+
   @Test
   public void checkMuseumPlurals() {
     // The output isn't normally pretty-printed, but this is easier for a human to interpret.
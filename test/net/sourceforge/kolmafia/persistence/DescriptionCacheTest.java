@@ -0,0 +1,122 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DescriptionCacheTest {
+  private static final long DAY = 86_400_000L;
+
+  @TempDir Path directory;
+
+  private DescriptionCache cache() {
+    return new DescriptionCache("test descriptions", this.directory.toFile(), "items");
+  }
+
+  @Test
+  void keepsPagesBetweenSessions() {
+    cache().put("123456789", "<html>seal-clubbing club</html>");
+
+    assertThat(cache().get("123456789", DAY), is("<html>seal-clubbing club</html>"));
+    assertThat(cache().get("987654321", DAY), nullValue());
+  }
+
+  @Test
+  void treatsOldPagesAsMissing() {
+    var cache = cache();
+    cache.put("123456789", "<html>seal-clubbing club</html>");
+
+    assertThat(cache.get("123456789", -1), nullValue());
+  }
+
+  @Test
+  void storesIdenticalPagesOnce() throws IOException {
+    var cache = cache();
+    cache.put("1", "<html>same</html>");
+    cache.put("2", "<html>same</html>");
+    cache.put("3", "<html>different</html>");
+
+    try (Stream<Path> files = Files.walk(this.directory.resolve("objects"))) {
+      assertThat(files.filter(Files::isRegularFile).count(), is(2L));
+    }
+    assertThat(cache.size(), is(3));
+  }
+
+  @Test
+  void laterPagesReplaceEarlierOnes() {
+    var cache = cache();
+    for (int i = 0; i < 10; ++i) {
+      cache.put("1", "<html>" + i + "</html>");
+    }
+
+    assertThat(cache().get("1", DAY), is("<html>9</html>"));
+    assertThat(cache().size(), is(1));
+  }
+
+  @Test
+  void sweepsUnreferencedPagesWhenCompacting() throws IOException {
+    var items = cache();
+    var effects = new DescriptionCache("test effects", this.directory.toFile(), "effects");
+    items.put("1", "<html>old</html>");
+    items.put("2", "<html>kept</html>");
+    items.put("1", "<html>new</html>");
+    effects.put("3", "<html>effect</html>");
+
+    // Only pages which have not been touched for a while are swept
+    try (Stream<Path> files = Files.walk(this.directory.resolve("objects"))) {
+      for (Path file : files.filter(Files::isRegularFile).toList()) {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+      }
+    }
+
+    // One of these compacts the index
+    items.put("1", "<html>newer</html>");
+    items.put("1", "<html>newest</html>");
+
+    try (Stream<Path> files = Files.walk(this.directory.resolve("objects"))) {
+      assertThat(files.filter(Files::isRegularFile).count(), is(4L));
+    }
+    assertThat(cache().get("1", DAY), is("<html>newest</html>"));
+    assertThat(cache().get("2", DAY), is("<html>kept</html>"));
+    assertThat(
+        new DescriptionCache("test effects", this.directory.toFile(), "effects").get("3", DAY),
+        is("<html>effect</html>"));
+  }
+
+  @Test
+  void warmsOnlyPagesItHas() {
+    var cache = cache();
+    cache.put("1", "<html>one</html>");
+    cache.put("2", "<html>two</html>");
+
+    Map<String, String> found = new HashMap<>();
+    int count = cache().warm(List.of("1", "2", "3"), DAY, found::put);
+
+    assertThat(count, is(2));
+    assertThat(found, aMapWithSize(2));
+    assertThat(found, hasEntry("2", "<html>two</html>"));
+  }
+
+  @Test
+  void ignoresIndexFromOtherVersions() throws IOException {
+    File index = this.directory.resolve("items.idx").toFile();
+    Files.writeString(index.toPath(), "descriptions 0\n1\tabcdef\t0\n");
+
+    assertThat(cache().get("1", Long.MAX_VALUE), nullValue());
+    assertThat(Files.readString(index.toPath()), is("descriptions 1" + System.lineSeparator()));
+  }
+}
@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.TreeMap;
 import net.java.dev.spellcast.utilities.DataUtilities;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -729,6 +730,8 @@ class PreferencesTest {
       verboseDelete(userFile);
       File backupFile = new File("settings/" + USER_NAME + "_prefs.bak");
       verboseDelete(backupFile);
+      File journalFile = new File("settings/" + USER_NAME + "_prefs.journal");
+      verboseDelete(journalFile);
     }
 
     @Test
@@ -770,6 +773,64 @@ class PreferencesTest {
         }
       }
     }
+
+    @Test
+    public void journaledSettingsAppendToJournal() {
+      String contents;
+      File userFile = new File("settings/" + USER_NAME + "_prefs.txt");
+      File journalFile = new File("settings/" + USER_NAME + "_prefs.journal");
+      var cleanups =
+          new Cleanups(
+              withSavePreferencesToFile(),
+              withProperty("saveSettingsOnSet", true),
+              withProperty("saveSettingsJournaled", true));
+      try (cleanups) {
+        Preferences.setString("xyz", "abc");
+        contents = streamReadHelper(userFile);
+        assertThat(contents, not(containsString("\nxyz=abc\n")));
+        contents = streamReadHelper(journalFile);
+        assertThat(contents, containsString("xyz=abc\n"));
+
+        Preferences.compactJournals();
+        contents = streamReadHelper(userFile);
+        assertThat(contents, containsString("\nxyz=abc\n"));
+        assertFalse(journalFile.exists());
+      }
+    }
+
+    @Test
+    public void journalIsReplayedOnLoad() throws IOException {
+      File journalFile = new File("settings/" + USER_NAME + "_prefs.journal");
+      var cleanups = withSavePreferencesToFile();
+      try (cleanups) {
+        Preferences.setString("xyz", "abc");
+        Files.writeString(journalFile.toPath(), "xyz=def\nxyz=ghi\nwxy=jk");
+        Preferences.reset(USER_NAME);
+        assertThat("xyz", isSetTo("ghi"));
+        // The last line was never finished
+        assertThat("wxy", isSetTo(""));
+      }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"false, 1000, 0", "true, 0, 1000"})
+    public void countsWritesPerThousandIncrements(
+        boolean journaled, int expectedFileWrites, int expectedJournalWrites) {
+      var cleanups =
+          new Cleanups(
+              withSavePreferencesToFile(),
+              withProperty("saveSettingsOnSet", true),
+              withProperty("saveSettingsJournaled", journaled));
+      try (cleanups) {
+        int fileWrites = Preferences.getFullFileWrites();
+        int journalWrites = Preferences.getJournalWrites();
+        for (int i = 0; i < 1000; ++i) {
+          Preferences.increment("xyz");
+        }
+        assertEquals(expectedFileWrites, Preferences.getFullFileWrites() - fileWrites);
+        assertEquals(expectedJournalWrites, Preferences.getJournalWrites() - journalWrites);
+      }
+    }
   }
 
   @Nested
@@ -2,8 +2,10 @@ package net.sourceforge.kolmafia.request;
 
 import static internal.helpers.Networking.html;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.persistence.AscensionSnapshot.AscensionFilter;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -52,4 +54,21 @@ public class AscensionHistoryRequestTest {
     assertEquals(
         10, Preferences.getInteger("twoCRSPoints"), "Two Crazy Random Summer ascensions mismatch");
   }
+
+  @Test
+  public void comparatorIgnoresSharedComparator() {
+    var history =
+        AscensionHistoryRequest.getInstance(
+            "the Tristero", "177122", html("request/test_ascensionhistory.html"));
+    var empty = AscensionHistoryRequest.getInstance("nobody", "1", null);
+
+    AscensionHistoryRequest.setComparator(AscensionFilter.CASUAL);
+    try {
+      var hardcore = AscensionHistoryRequest.comparator(AscensionFilter.HARDCORE);
+      assertTrue(hardcore.compare(history, empty) < 0);
+      assertTrue(hardcore.compare(empty, history) > 0);
+    } finally {
+      AscensionHistoryRequest.setComparator(AscensionFilter.NORMAL);
+    }
+  }
 }
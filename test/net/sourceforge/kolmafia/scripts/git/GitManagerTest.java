@@ -14,8 +14,13 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import net.sourceforge.kolmafia.KoLConstants.MafiaState;
 import net.sourceforge.kolmafia.StaticEntity;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.transport.RefSpec;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -23,6 +28,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 
 @DisabledOnOs(
     value = {OS.WINDOWS},
@@ -329,6 +335,90 @@ public class GitManagerTest {
     }
   }
 
+  @Nested
+  class LocalRepositoryTests {
+    @TempDir Path remotes;
+
+    private final List<String> ids = new ArrayList<>();
+
+    @AfterEach
+    public void removeRepos() {
+      ids.forEach(GitManagerTest::removeGitIfExists);
+    }
+
+    private void commit(String name, String script) throws IOException, GitAPIException {
+      Path work = remotes.resolve(name);
+      try (Git git = Git.init().setInitialBranch("main").setDirectory(work.toFile()).call()) {
+        Files.createDirectories(work.resolve("scripts"));
+        Files.writeString(work.resolve("scripts").resolve(script), "print(\"" + script + "\");");
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage(script).setAuthor("test", "test@localhost").call();
+      }
+    }
+
+    private String checkout(String name) throws IOException, GitAPIException {
+      commit(name, name + "_1.ash");
+      Path bare = remotes.resolve(name + ".git");
+      Git.cloneRepository()
+          .setBare(true)
+          .setURI(remotes.resolve(name).toUri().toString())
+          .setDirectory(bare.toFile())
+          .call()
+          .close();
+
+      String url = "file://" + bare.toAbsolutePath();
+      String id = GitManager.getRepoId(url, null);
+      ids.add(id);
+      installGit(id, url, false);
+      return id;
+    }
+
+    private void push(String name, String script) throws IOException, GitAPIException {
+      commit(name, script);
+      try (Git git = Git.open(remotes.resolve(name).toFile())) {
+        git.push()
+            .setRemote(remotes.resolve(name + ".git").toUri().toString())
+            .setRefSpecs(new RefSpec("main:main"))
+            .call();
+      }
+    }
+
+    @Test
+    public void updatesAllProjectsFromFetchedRemotes() throws IOException, GitAPIException {
+      var first = checkout("gitlocal_a");
+      var second = checkout("gitlocal_b");
+      assertTrue(Files.exists(Paths.get("scripts", "gitlocal_a_1.ash")));
+
+      push("gitlocal_a", "gitlocal_a_2.ash");
+      push("gitlocal_b", "gitlocal_b_2.ash");
+
+      String output = CliCaller.callCli("git", "update");
+
+      assertThat(output, containsString("Fetched project " + first));
+      assertThat(output, containsString("Fetched project " + second));
+      assertThat(output, containsString("Updating project " + first));
+      assertThat(output, containsString("Updating project " + second));
+      assertTrue(Files.exists(Paths.get("scripts", "gitlocal_a_2.ash")));
+      assertTrue(Files.exists(Paths.get("scripts", "gitlocal_b_2.ash")));
+      assertEquals(MafiaState.CONTINUE, StaticEntity.getContinuationState());
+    }
+
+    @Test
+    public void updatesProjectsInOrder() throws IOException, GitAPIException {
+      var first = checkout("gitlocal_c");
+      var second = checkout("gitlocal_d");
+
+      push("gitlocal_c", "gitlocal_c_2.ash");
+
+      String output = CliCaller.callCli("git", "update");
+
+      var firstUpdate = output.indexOf("Updating project " + first);
+      var secondUpdate = output.indexOf("Updating project " + second);
+      assertTrue(firstUpdate != -1 && firstUpdate < secondUpdate);
+      assertTrue(Files.exists(Paths.get("scripts", "gitlocal_c_2.ash")));
+    }
+  }
+
   private static void installGit(String id, String params, boolean hasDeps) {
     String output = CliCaller.callCli("git", "checkout " + params);
     if (hasDeps) {
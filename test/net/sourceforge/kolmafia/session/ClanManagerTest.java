@@ -0,0 +1,104 @@
+package net.sourceforge.kolmafia.session;
+
+import static internal.helpers.Networking.html;
+import static internal.helpers.Player.withHttpClientBuilder;
+import static internal.helpers.Player.withProperty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.mockStatic;
+
+import internal.helpers.Cleanups;
+import internal.network.FakeHttpClientBuilder;
+import java.io.File;
+import java.time.Clock;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.persistence.DescriptionCache;
+import net.sourceforge.kolmafia.persistence.ProfileSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class ClanManagerTest {
+  private static final String NAME = "cachedmember";
+  private static final String ID = "3141592";
+  private static final long HOUR = 3_600_000L;
+  private static final long FETCHED = 2_000_000_000_000L;
+
+  private static final Clock clock = Mockito.mock(Clock.class);
+
+  @BeforeEach
+  public void beforeEach() {
+    KoLCharacter.reset("ClanManagerTest");
+    ClanManager.clearCache(true);
+    ContactManager.registerPlayerId(NAME, ID);
+  }
+
+  private static Cleanups withDescriptionClock() {
+    var mocked = mockStatic(DescriptionCache.class, Mockito.CALLS_REAL_METHODS);
+    mocked.when(DescriptionCache::getSystemClock).thenReturn(clock);
+    return new Cleanups(mocked::close);
+  }
+
+  // Fetches the member's profile, so that it is in the member cache as of FETCHED, and then
+  // forgets it, as a later snapshot in another week would not have it
+  private static void fetchProfile(final FakeHttpClientBuilder builder) {
+    Mockito.when(clock.millis()).thenReturn(FETCHED);
+    builder.client.addResponse(200, html("request/test_profile_in_ronin.html"));
+    ClanManager.registerMember(NAME, "10", "Member");
+    ClanManager.retrieveMemberData(true, false);
+    assertThat(builder.client.getRequests(), hasSize(1));
+
+    new File(KoLConstants.ROOT_LOCATION, "clan/profiles/" + ClanManager.getFileName(NAME))
+        .delete();
+    builder.client.clear();
+    ClanManager.registerMember(NAME, "10", "Member");
+  }
+
+  @Test
+  public void reusesCachedProfileYoungerThanCacheHours() {
+    var builder = new FakeHttpClientBuilder();
+    var cleanups =
+        new Cleanups(
+            withHttpClientBuilder(builder),
+            withDescriptionClock(),
+            withProperty("clanSnapshotThreads", 1),
+            withProperty("clanSnapshotRequestDelay", 0),
+            withProperty("clanSnapshotCacheHours", 24));
+
+    try (cleanups) {
+      fetchProfile(builder);
+
+      Mockito.when(clock.millis()).thenReturn(FETCHED + 23 * HOUR);
+      ClanManager.retrieveMemberData(true, false);
+
+      assertThat(builder.client.getRequests(), empty());
+      assertThat(ProfileSnapshot.getProfileMap().get(NAME), containsString("In Ronin"));
+    }
+  }
+
+  @Test
+  public void fetchesCachedProfileOlderThanCacheHours() {
+    var builder = new FakeHttpClientBuilder();
+    var cleanups =
+        new Cleanups(
+            withHttpClientBuilder(builder),
+            withDescriptionClock(),
+            withProperty("clanSnapshotThreads", 1),
+            withProperty("clanSnapshotRequestDelay", 0),
+            withProperty("clanSnapshotCacheHours", 24));
+
+    try (cleanups) {
+      fetchProfile(builder);
+
+      Mockito.when(clock.millis()).thenReturn(FETCHED + 25 * HOUR);
+      builder.client.addResponse(200, html("request/test_profile_in_ronin.html"));
+      ClanManager.retrieveMemberData(true, false);
+
+      assertThat(builder.client.getRequests(), hasSize(1));
+      assertThat(ProfileSnapshot.getProfileMap().get(NAME), containsString("In Ronin"));
+    }
+  }
+}
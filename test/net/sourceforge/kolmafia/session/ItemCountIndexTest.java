@@ -0,0 +1,98 @@
+package net.sourceforge.kolmafia.session;
+
+import static internal.helpers.Player.withItem;
+import static internal.helpers.Player.withItemInCloset;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import internal.helpers.Cleanups;
+import java.util.List;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ItemCountIndexTest {
+  @BeforeEach
+  void beforeEach() {
+    KoLCharacter.reset("ItemCountIndexTest");
+  }
+
+  @Test
+  void countsItemsAddedAndRemoved() {
+    var cleanups = new Cleanups(withItem(ItemPool.SEAL_TOOTH, 3));
+
+    try (cleanups) {
+      assertThat(ItemCountIndex.INVENTORY.getCount(ItemPool.SEAL_TOOTH), is(3));
+      assertThat(InventoryManager.getCount(ItemPool.SEAL_TOOTH), is(3));
+
+      AdventureResult.addResultToList(
+          KoLConstants.inventory, ItemPool.get(ItemPool.SEAL_TOOTH, -1));
+      assertThat(ItemCountIndex.INVENTORY.getCount(ItemPool.SEAL_TOOTH), is(2));
+
+      AdventureResult.addResultToList(
+          KoLConstants.inventory, ItemPool.get(ItemPool.SEAL_TOOTH, -2));
+      assertThat(ItemCountIndex.INVENTORY.getCount(ItemPool.SEAL_TOOTH), is(0));
+      assertThat(InventoryManager.getCount(ItemPool.SEAL_TOOTH), is(0));
+    }
+  }
+
+  @Test
+  void keepsListsApart() {
+    var cleanups =
+        new Cleanups(withItem(ItemPool.SEAL_TOOTH, 1), withItemInCloset(ItemPool.SEAL_TOOTH, 5));
+
+    try (cleanups) {
+      assertThat(ItemCountIndex.getCount(ItemPool.SEAL_TOOTH, KoLConstants.inventory), is(1));
+      assertThat(ItemCountIndex.getCount(ItemPool.SEAL_TOOTH, KoLConstants.closet), is(5));
+      assertThat(ItemCountIndex.getCount(ItemPool.SEAL_TOOTH, KoLConstants.storage), is(0));
+    }
+  }
+
+  @Test
+  void rebuildsWhenListChangesBehindItsBack() {
+    var cleanups = new Cleanups(withItem(ItemPool.SEAL_TOOTH, 2));
+
+    try (cleanups) {
+      assertThat(InventoryManager.getCount(ItemPool.SEAL_TOOTH), is(2));
+
+      KoLConstants.inventory.clear();
+      assertThat(InventoryManager.getCount(ItemPool.SEAL_TOOTH), is(0));
+
+      KoLConstants.inventory.add(ItemPool.get(ItemPool.SEAL_TOOTH, 4));
+      assertThat(InventoryManager.getCount(ItemPool.SEAL_TOOTH), is(4));
+    }
+  }
+
+  @Test
+  void seesReplacedContentsOnceInvalidated() {
+    var cleanups = new Cleanups(withItem(ItemPool.SEAL_TOOTH, 2));
+
+    try (cleanups) {
+      assertThat(InventoryManager.getCount(ItemPool.SEAL_TOOTH), is(2));
+
+      KoLConstants.inventory.clear();
+      KoLConstants.inventory.addAll(List.of(ItemPool.get(ItemPool.SEAL_TOOTH, 7)));
+      ItemCountIndex.INVENTORY.invalidate();
+
+      assertThat(InventoryManager.getCount(ItemPool.SEAL_TOOTH), is(7));
+    }
+  }
+
+  @Test
+  void defersToListForItemsUnderOtherNames() {
+    var renamed = new AdventureResult("Seal Tooth", ItemPool.SEAL_TOOTH, 2, false);
+    AdventureResult.addResultToList(KoLConstants.inventory, renamed);
+
+    assertThat(ItemCountIndex.INVENTORY.getCount(ItemPool.SEAL_TOOTH), is(ItemCountIndex.UNKNOWN));
+    assertThat(renamed.getCount(KoLConstants.inventory), is(2));
+
+    // Whatever searching the list says
+    var probe = ItemPool.get(ItemPool.SEAL_TOOTH);
+    int index = KoLConstants.inventory.indexOf(probe);
+    int expected = index == -1 ? 0 : KoLConstants.inventory.get(index).getCount();
+    assertThat(probe.getCount(KoLConstants.inventory), is(expected));
+  }
+}
@@ -5,6 +5,7 @@ import static internal.helpers.Player.withHttpClientBuilder;
 import static internal.helpers.Player.withMeat;
 import static internal.helpers.Player.withProperty;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -23,6 +24,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -36,6 +38,7 @@ import net.sourceforge.kolmafia.request.GenericRequest;
 import net.sourceforge.kolmafia.request.MallPurchaseRequest;
 import net.sourceforge.kolmafia.request.MallSearchRequest;
 import net.sourceforge.kolmafia.request.PurchaseRequest;
+import net.sourceforge.kolmafia.utilities.RateLimitedFetch;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -772,6 +775,95 @@ public class MallPriceManagerTest {
     }
   }
 
+  @Test
+  public void canGetMallPricesForItemsOnce() {
+    MallSearchRequest request = new MockMallSearchRequest("", 0);
+
+    try (var cleanups = mockMallSearchRequest(request)) {
+      long timestamp = 2_000_000_000;
+      Mockito.when(clock.millis()).thenReturn(timestamp);
+
+      AdventureResult tooth = ItemPool.get(ItemPool.SEAL_TOOTH, 1);
+      int count = MallPriceManager.getMallPrices(new AdventureResult[] {tooth, tooth}, 0.0f);
+      assertEquals(1, count);
+    }
+  }
+
+  // Paces searches with a clock which stands still, recording how long each one waits
+  private static Cleanups withPacer(final List<Long> sleeps) {
+    RateLimitedFetch.setPacer(
+        new RateLimitedFetch.Pacer() {
+          @Override
+          public long currentTimeMillis() {
+            return 0;
+          }
+
+          @Override
+          public void sleep(final long millis) {
+            sleeps.add(millis);
+          }
+        });
+    return new Cleanups(() -> RateLimitedFetch.setPacer(RateLimitedFetch.SYSTEM));
+  }
+
+  @Test
+  public void getMallPricesSearchesOnPoolAtLimitedRate() {
+    Set<Thread> searchThreads = ConcurrentHashMap.newKeySet();
+    List<Long> sleeps = Collections.synchronizedList(new ArrayList<>());
+    MallSearchRequest request =
+        new MockMallSearchRequest("", 0) {
+          @Override
+          public void run() {
+            searchThreads.add(Thread.currentThread());
+          }
+        };
+
+    var cleanups =
+        new Cleanups(
+            mockMallSearchRequest(request),
+            withProperty("mallPriceThreads", 3),
+            withProperty("mallPriceRequestsPerSecond", 10),
+            withPacer(sleeps));
+
+    try (cleanups) {
+      long timestamp = 2_000_000_000;
+      Mockito.when(clock.millis()).thenReturn(timestamp);
+
+      AdventureResult[] items = {
+        ItemPool.get(ItemPool.SEAL_TOOTH, 1),
+        ItemPool.get(ItemPool.HELL_RAMEN, 1),
+        ItemPool.get(ItemPool.REAGENT, 1),
+        ItemPool.get(ItemPool.SEAL_TOOTH, 1)
+      };
+
+      int count = MallPriceManager.getMallPrices(items, 0.0f);
+
+      assertEquals(3, count);
+      assertFalse(searchThreads.isEmpty());
+      assertFalse(searchThreads.contains(Thread.currentThread()));
+      // With no time passing, the second and third searches wait 100 and 200 ms for their turn
+      Collections.sort(sleeps);
+      assertThat(sleeps, contains(100L, 200L));
+    }
+  }
+
+  @Test
+  public void getMallPricesSkipsFreshSharedPrices() {
+    MallSearchRequest request = new MockMallSearchRequest("", 0);
+
+    try (var cleanups = mockMallSearchRequest(request)) {
+      // Price recorded two days ago
+      long timestamp = 1_000_000_000;
+      Mockito.when(clock.millis()).thenReturn(timestamp);
+      MallPriceDatabase.recordPrice(ItemPool.SEAL_TOOTH, 10, true);
+      Mockito.when(clock.millis()).thenReturn(timestamp + 2 * 86_400_000L);
+
+      AdventureResult[] items = {ItemPool.get(ItemPool.SEAL_TOOTH, 1)};
+      assertEquals(0, MallPriceManager.getMallPrices(items, 7.0f));
+      assertEquals(1, MallPriceManager.getMallPrices(items, 1.0f));
+    }
+  }
+
   @Test
   public void canSearchMallStore() {
     // Not actually used in MallPriceManager, but may as well test the fourth
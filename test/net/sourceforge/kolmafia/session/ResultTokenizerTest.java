@@ -0,0 +1,89 @@
+package net.sourceforge.kolmafia.session;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.utilities.PhraseMatcher;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ResultTokenizerTest {
+  private static List<String> tokenize(final String text, final String lineBreak) {
+    ResultTokenizer tokenizer = new ResultTokenizer(text, lineBreak);
+    List<String> tokens = new ArrayList<>();
+    while (tokenizer.hasNext()) {
+      tokens.add(tokenizer.next());
+    }
+    return tokens;
+  }
+
+  private static List<String> split(final String text, final String lineBreak) {
+    String plainText = KoLConstants.ANYTAG_BUT_ITALIC_PATTERN.matcher(text).replaceAll(lineBreak);
+    return Arrays.asList(plainText.split(lineBreak));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"\n", "\r\n"})
+  void splitsOnTagsAndLineBreaks(final String lineBreak) {
+    String text = "You acquire an item: <b>seal-clubbing club</b>" + lineBreak + "<i>italic</i>";
+
+    assertThat(
+        tokenize(text, lineBreak),
+        contains("You acquire an item: ", "seal-clubbing club", "", "<i>italic</i>"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "\n", "a\n", "\na", "<b></b>", "<b>a</b></td>", "a<\nb>c", "x<"})
+  void matchesSplittingEdgeCases(final String text) {
+    assertThat(tokenize(text, "\n"), equalTo(split(text, "\n")));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"\n", "\r\n"})
+  void dropsOnlyTrailingEmptyTokens(final String lineBreak) {
+    assertThat(tokenize("<b></b>", lineBreak), empty());
+    assertThat(tokenize("", lineBreak), contains(""));
+  }
+
+  private static Stream<Path> recordedPages() throws IOException {
+    return Files.walk(Path.of("request")).filter(path -> path.toString().endsWith(".html"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("recordedPages")
+  void matchesSplittingRecordedPages(final Path page) throws IOException {
+    String text = Files.readString(page, StandardCharsets.UTF_8);
+
+    assertThat(tokenize(text, "\n"), equalTo(split(text, "\n")));
+    assertThat(tokenize(text, "\r\n"), equalTo(split(text, "\r\n")));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"<b>Fluffy gains a pound!</b>", "Fluffy<br>just got heavier"})
+  void findsPhrasesInTokens(final String text) {
+    PhraseMatcher phrases = new PhraseMatcher("gains a pound", "just got heavier");
+
+    assertThat(new ResultTokenizer(text, "\n").anyContains(phrases), is(true));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"<img title=\"gains a pound\">", "gains a<br>pound"})
+  void ignoresPhrasesOutsideTokens(final String text) {
+    PhraseMatcher phrases = new PhraseMatcher("gains a pound");
+
+    assertThat(new ResultTokenizer(text, "\n").anyContains(phrases), is(false));
+  }
+}
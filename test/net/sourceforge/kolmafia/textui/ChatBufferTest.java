@@ -1,9 +1,22 @@
 package net.sourceforge.kolmafia.textui;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.swing.JEditorPane;
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+import net.java.dev.spellcast.utilities.ChatBuffer;
 import net.sourceforge.kolmafia.chat.ChatFormatter;
 import net.sourceforge.kolmafia.chat.ChatManager;
 import net.sourceforge.kolmafia.chat.InternalMessage;
@@ -64,4 +77,175 @@ public class ChatBufferTest {
     // it, it should remain unchanged.
     assertTrue(builder.toString().contains(displayHTML));
   }
+
+  // A message 100 characters long, so that 500 of them fill the buffer
+  private static String message(final int i) {
+    return String.format("<p>%04d%s</p>", i, "x".repeat(89));
+  }
+
+  private static String messages(final int from, final int to) {
+    return IntStream.range(from, to)
+        .mapToObj(ChatBufferTest::message)
+        .collect(Collectors.joining());
+  }
+
+  private static class CountingChatBuffer extends ChatBuffer {
+    private final AtomicInteger updates = new AtomicInteger();
+
+    public CountingChatBuffer() {
+      super("test");
+    }
+
+    @Override
+    protected void updateDisplays() {
+      super.updateDisplays();
+      this.updates.incrementAndGet();
+    }
+
+    // Waits for the displays to have been updated the given number of times in all
+    public void awaitUpdates(final int count) throws Exception {
+      long deadline = System.currentTimeMillis() + 5000;
+      while (this.updates.get() < count && System.currentTimeMillis() < deadline) {
+        Thread.sleep(5);
+      }
+      assertThat(this.updates.get(), equalTo(count));
+    }
+  }
+
+  private static String text(final JEditorPane pane) throws Exception {
+    String[] text = new String[1];
+    SwingUtilities.invokeAndWait(
+        () -> {
+          try {
+            text[0] = pane.getDocument().getText(0, pane.getDocument().getLength());
+          } catch (BadLocationException e) {
+            throw new RuntimeException(e);
+          }
+        });
+    return text[0];
+  }
+
+  // Appends on the event dispatch thread, so that no update can run between the appends
+  private static void appendAll(final ChatBuffer buffer, final int from, final int to)
+      throws Exception {
+    SwingUtilities.invokeAndWait(
+        () -> IntStream.range(from, to).forEach(i -> buffer.append(message(i))));
+  }
+
+  @Test
+  public void trimsOldestMessagesOnceFull() {
+    ChatBuffer buffer = new ChatBuffer("test");
+
+    try {
+      for (int i = 0; i < 499; ++i) {
+        buffer.append(message(i));
+      }
+
+      // 49,900 characters is not yet full
+      assertThat(buffer.getContent(), equalTo(messages(0, 499)));
+
+      // 50,000 is, and the oldest messages go until no more than 45,000 are left
+      buffer.append(message(499));
+
+      assertThat(buffer.getContent(), equalTo(messages(50, 500)));
+      assertThat(buffer.getHTMLContent(), containsString("<main>" + messages(50, 500) + "</main>"));
+      assertThat(buffer.getHTMLContent(), not(containsString(message(49))));
+    } finally {
+      buffer.dispose();
+    }
+  }
+
+  @Test
+  public void trimmedMessagesAreRemovedFromDisplay() throws Exception {
+    CountingChatBuffer buffer = new CountingChatBuffer();
+    JEditorPane pane = new JEditorPane();
+
+    try {
+      buffer.addDisplay(pane);
+      buffer.awaitUpdates(1);
+
+      for (int batch = 0; batch < 10; ++batch) {
+        appendAll(buffer, batch * 50, batch * 50 + 50);
+        buffer.awaitUpdates(batch + 2);
+      }
+
+      String text = text(pane);
+      assertThat(text, not(containsString("0049x")));
+      assertThat(text, containsString("0050x"));
+      assertThat(text, containsString("0499x"));
+    } finally {
+      buffer.dispose();
+    }
+  }
+
+  @Test
+  public void clearEmptiesBufferAndDisplay() throws Exception {
+    CountingChatBuffer buffer = new CountingChatBuffer();
+    JEditorPane pane = new JEditorPane();
+
+    try {
+      buffer.addDisplay(pane);
+      appendAll(buffer, 0, 3);
+      buffer.awaitUpdates(1);
+      assertThat(text(pane), containsString("0002x"));
+
+      buffer.clear();
+      buffer.awaitUpdates(2);
+
+      assertThat(buffer.getContent(), emptyString());
+      assertThat(buffer.getHTMLContent(), containsString("<main></main>"));
+      assertThat(text(pane), not(containsString("0000x")));
+    } finally {
+      buffer.dispose();
+    }
+  }
+
+  @Test
+  public void appendingNullResetsDisplay() throws Exception {
+    CountingChatBuffer buffer = new CountingChatBuffer();
+    JEditorPane pane = new JEditorPane();
+
+    try {
+      buffer.addDisplay(pane);
+      appendAll(buffer, 0, 3);
+      buffer.awaitUpdates(1);
+
+      SwingUtilities.invokeAndWait(() -> pane.setText(""));
+      assertThat(text(pane), not(containsString("0000x")));
+
+      buffer.append(null);
+      buffer.awaitUpdates(2);
+
+      assertThat(buffer.getContent(), equalTo(messages(0, 3)));
+      String text = text(pane);
+      assertThat(text, containsString("0000x"));
+      assertThat(text, containsString("0002x"));
+    } finally {
+      buffer.dispose();
+    }
+  }
+
+  @Test
+  public void rapidAppendsReachDisplayTogether() throws Exception {
+    CountingChatBuffer buffer = new CountingChatBuffer();
+    JEditorPane pane = new JEditorPane();
+
+    try {
+      buffer.addDisplay(pane);
+      buffer.awaitUpdates(1);
+
+      appendAll(buffer, 0, 20);
+      buffer.awaitUpdates(2);
+
+      // Nothing is left over for a further update
+      Thread.sleep(100);
+      buffer.awaitUpdates(2);
+
+      String text = text(pane);
+      assertThat(text.trim(), startsWith("0000x"));
+      assertThat(text, containsString("0019x"));
+    } finally {
+      buffer.dispose();
+    }
+  }
 }
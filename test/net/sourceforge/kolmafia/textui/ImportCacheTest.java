@@ -0,0 +1,86 @@
+package net.sourceforge.kolmafia.textui;
+
+import static internal.helpers.Utilities.verboseDelete;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.textui.parsetree.Function;
+import net.sourceforge.kolmafia.textui.parsetree.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ImportCacheTest {
+  private static final String LIBRARY =
+      "int counter; int bump() { counter += 1; return counter; }";
+  private static final String SCRIPT = "import <import_cache_library.ash>\nbump();\n";
+
+  private final File libraryFile =
+      new File(KoLConstants.SCRIPT_LOCATION, "import_cache_library.ash");
+
+  @AfterEach
+  void deleteLibrary() {
+    verboseDelete(libraryFile);
+    ImportCache.clear();
+  }
+
+  private void writeLibrary(String contents, long modified) throws IOException {
+    Files.writeString(libraryFile.toPath(), contents);
+    Files.setLastModifiedTime(libraryFile.toPath(), FileTime.fromMillis(modified));
+  }
+
+  private static Function parseBump() throws InterruptedException {
+    var stream = new ByteArrayInputStream(SCRIPT.getBytes(StandardCharsets.UTF_8));
+    Scope scope = new Parser(null, stream, null).parse();
+    return scope.getFunctions().findFunctions("bump")[0];
+  }
+
+  private static AshRuntime runScript() {
+    var runtime = new AshRuntime();
+    runtime.validate(null, new ByteArrayInputStream(SCRIPT.getBytes(StandardCharsets.UTF_8)));
+    runtime.execute(null, null, true);
+    return runtime;
+  }
+
+  @Test
+  void sharesLibraryUntilModified() throws IOException, InterruptedException {
+    long now = System.currentTimeMillis();
+    writeLibrary(LIBRARY, now - 10_000);
+
+    Function first = parseBump();
+    assertThat(parseBump(), sameInstance(first));
+
+    writeLibrary(LIBRARY, now);
+    assertThat(parseBump(), not(sameInstance(first)));
+  }
+
+  @Test
+  void eachRuntimeKeepsItsOwnVariables() throws IOException {
+    writeLibrary(LIBRARY, System.currentTimeMillis() - 10_000);
+
+    AshRuntime first = runScript();
+    assertThat(first.execute("bump", null, false).intValue(), is(2L));
+
+    AshRuntime second = runScript();
+    assertThat(second.execute("bump", null, false).intValue(), is(2L));
+
+    assertThat(first.execute("bump", null, false).intValue(), is(3L));
+  }
+
+  @Test
+  void doesNotShareLibraryWithDynamicCalls() throws IOException, InterruptedException {
+    writeLibrary(
+        LIBRARY + " int call_bump() { return call int (\"bump\")(); }",
+        System.currentTimeMillis() - 10_000);
+
+    assertThat(parseBump(), not(sameInstance(parseBump())));
+  }
+}
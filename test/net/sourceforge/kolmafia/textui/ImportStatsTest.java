@@ -0,0 +1,23 @@
+package net.sourceforge.kolmafia.textui;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImportStatsTest {
+  @BeforeEach
+  void clearStats() {
+    ImportStats.clear();
+  }
+
+  @Test
+  void countsParseTime() {
+    ImportStats.recordParse(3_000_000L);
+    ImportStats.recordParse(2_000_000L);
+
+    assertThat(ImportStats.getParses(), is(2L));
+    assertThat(ImportStats.getParseMillis(), is(5L));
+  }
+}
@@ -0,0 +1,43 @@
+package net.sourceforge.kolmafia.textui.javascript;
+
+import static internal.helpers.Utilities.verboseDelete;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import net.sourceforge.kolmafia.KoLConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SafeRequireTest {
+  private final File scriptFile = new File(KoLConstants.SCRIPT_LOCATION, "safe_require_test.js");
+
+  @AfterEach
+  void deleteScript() {
+    verboseDelete(scriptFile);
+  }
+
+  private void writeScript(String contents, long modified) throws IOException {
+    Files.writeString(scriptFile.toPath(), contents);
+    Files.setLastModifiedTime(scriptFile.toPath(), FileTime.fromMillis(modified));
+  }
+
+  private String runScript() {
+    var js = new JavascriptRuntime(scriptFile);
+    return js.execute("main", null, true).toString();
+  }
+
+  @Test
+  void reusesModuleUntilModified() throws IOException {
+    long now = System.currentTimeMillis();
+    writeScript("module.exports.main = () => \"first\";", now - 10_000);
+    assertThat(runScript(), is("first"));
+    assertThat(runScript(), is("first"));
+
+    writeScript("module.exports.main = () => \"second\";", now);
+    assertThat(runScript(), is("second"));
+  }
+}
@@ -0,0 +1,55 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+class DataSnapshotTest {
+  private static final String TEXT =
+      """
+      # a comment
+      seal-clubbing club\t1\tweapon
+
+      # another comment
+      seal tooth\t2\t
+      turtle totem\t4\tweapon, offhand
+      """;
+
+  private static byte[] snapshot(final String text, final int version) throws IOException {
+    ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+    DataSnapshot.write(new BufferedReader(new StringReader(text)), version, ostream);
+    return ostream.toByteArray();
+  }
+
+  @Test
+  void snapshotHasSameRowsAsText() throws IOException {
+    var reader = DataSnapshot.read(new ByteArrayInputStream(snapshot(TEXT, 3)), 3);
+
+    assertThat(
+        FileUtilities.readData(reader), arrayContaining("seal-clubbing club", "1", "weapon"));
+    assertThat(FileUtilities.readData(reader), arrayContaining("seal tooth", "2", ""));
+    assertThat(FileUtilities.readLine(reader), equalTo("turtle totem\t4\tweapon, offhand"));
+    assertThat(FileUtilities.readData(reader), nullValue());
+  }
+
+  @Test
+  void repeatedFieldsAreShared() throws IOException {
+    var reader = DataSnapshot.read(new ByteArrayInputStream(snapshot("a\tx\nb\tx\n", 1)), 1);
+
+    assertThat(reader.readData()[1], sameInstance(reader.readData()[1]));
+  }
+
+  @Test
+  void snapshotOfOtherVersionIsIgnored() throws IOException {
+    assertThat(DataSnapshot.read(new ByteArrayInputStream(snapshot(TEXT, 3)), 4), nullValue());
+  }
+}
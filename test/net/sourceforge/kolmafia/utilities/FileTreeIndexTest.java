@@ -0,0 +1,80 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileTreeIndexTest {
+  @TempDir Path root;
+
+  private FileTreeIndex index;
+
+  private File file(final String name) {
+    return new File(this.root.toFile(), name);
+  }
+
+  private void create(final String name) throws IOException {
+    Path path = this.root.resolve(name);
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, "");
+  }
+
+  private List<File> find(final String filename) {
+    List<File> matches = new ArrayList<>();
+    assertThat(this.index.find(filename, matches), is(true));
+    return matches;
+  }
+
+  @BeforeEach
+  void createTree() throws IOException {
+    create("a.ash");
+    create("x/a.ash");
+    create("x/y/a.ash");
+    create("x/sub/b.ash");
+    create("z/sub/b.ash");
+    this.index = FileTreeIndex.of(this.root.toFile());
+  }
+
+  @Test
+  void findsFilesInWalkOrder() {
+    assertThat(find("a.ash"), contains(file("a.ash"), file("x/a.ash"), file("x/y/a.ash")));
+  }
+
+  @Test
+  void findsRelativePaths() {
+    assertThat(find("sub/b.ash"), contains(file("x/sub/b.ash"), file("z/sub/b.ash")));
+    assertThat(find("y/a.ash"), contains(file("x/y/a.ash")));
+  }
+
+  @Test
+  void findsNothingForMissingFiles() {
+    assertThat(find("c.ash"), empty());
+    assertThat(find("sub"), empty());
+  }
+
+  @Test
+  void declinesPathsItCannotAnswer() {
+    assertThat(this.index.find("./a.ash", new ArrayList<>()), is(false));
+  }
+
+  @Test
+  void seesNewFilesOnceInvalidated() throws IOException {
+    assertThat(find("c.ash"), empty());
+
+    create("x/y/c.ash");
+    this.index.invalidate();
+
+    assertThat(find("c.ash"), contains(file("x/y/c.ash")));
+  }
+}
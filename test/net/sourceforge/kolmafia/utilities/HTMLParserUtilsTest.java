@@ -0,0 +1,90 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.util.Arrays;
+import javax.xml.xpath.XPathConstants;
+import org.htmlcleaner.TagNode;
+import org.htmlcleaner.XPatherException;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.NodeList;
+
+class HTMLParserUtilsTest {
+  private static final String PAGE =
+      "<html><body><ul><li>first</li><li>second</li></ul><p id=x>text</p></body></html>";
+
+  @Test
+  void cleansEachPageOnce() {
+    TagNode doc = HTMLParserUtils.clean(PAGE);
+
+    assertThat(HTMLParserUtils.clean(PAGE), sameInstance(doc));
+    assertThat(HTMLParserUtils.clean(new String(PAGE)), sameInstance(doc));
+    assertThat(HTMLParserUtils.clean(PAGE + " "), not(sameInstance(doc)));
+  }
+
+  @Test
+  void forgetsLeastRecentlyCleanedPages() {
+    TagNode doc = HTMLParserUtils.clean(PAGE);
+    for (int i = 0; i < 4; ++i) {
+      HTMLParserUtils.clean("<p>" + i + "</p>");
+    }
+
+    assertThat(HTMLParserUtils.clean(PAGE), not(sameInstance(doc)));
+  }
+
+  @Test
+  void keepsPagesAndExpressionsPerThread() throws Exception {
+    TagNode doc = HTMLParserUtils.clean(PAGE);
+    TagNode[] otherDoc = new TagNode[1];
+    Object[][] otherResult = new Object[1][];
+
+    Thread thread =
+        new Thread(
+            () -> {
+              otherDoc[0] = HTMLParserUtils.clean(PAGE);
+              try {
+                otherResult[0] = HTMLParserUtils.evaluateXPath(otherDoc[0], "//ul/li/text()");
+              } catch (XPatherException e) {
+                otherResult[0] = new Object[0];
+              }
+            });
+    thread.start();
+    thread.join();
+
+    assertThat(otherDoc[0], not(sameInstance(doc)));
+    assertThat(otherResult[0].length, is(2));
+  }
+
+  @Test
+  void evaluatesXPath() throws Exception {
+    TagNode doc = HTMLParserUtils.clean(PAGE);
+
+    Object[] result = HTMLParserUtils.evaluateXPath(doc, "//ul/li/text()");
+    assertThat(
+        Arrays.stream(result).map(Object::toString).toArray(), arrayContaining("first", "second"));
+
+    result = HTMLParserUtils.evaluateXPath(doc, "//p[@id='x']");
+    assertThat(
+        HTMLParserUtils.getAsXml((TagNode) result[0]),
+        allOf(startsWith("<p id=\"x\">"), containsString("text</p>")));
+  }
+
+  @Test
+  void createsDOMOncePerPage() throws Exception {
+    var dom = HTMLParserUtils.createDOM(PAGE);
+    assertThat(HTMLParserUtils.createDOM(PAGE), sameInstance(dom));
+
+    var expression = HTMLParserUtils.compileXPath("//li");
+    assertThat(HTMLParserUtils.compileXPath("//li"), sameInstance(expression));
+
+    NodeList items = (NodeList) expression.evaluate(dom, XPathConstants.NODESET);
+    assertThat(items.getLength(), is(2));
+  }
+}
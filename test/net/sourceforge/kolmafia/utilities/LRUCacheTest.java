@@ -0,0 +1,57 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.jupiter.api.Test;
+
+public class LRUCacheTest {
+  @Test
+  public void evictsLeastRecentlyUsed() {
+    var cache = new LRUCache<String, Integer>("test", 2, 1);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.get("a");
+    cache.put("c", 3);
+
+    assertThat(cache.get("a"), equalTo(1));
+    assertThat(cache.get("b"), nullValue());
+    assertThat(cache.get("c"), equalTo(3));
+  }
+
+  @Test
+  public void staysWithinCapacity() {
+    var cache = new LRUCache<Integer, Integer>("test", 100);
+    for (int i = 0; i < 1000; ++i) {
+      cache.put(i, i);
+    }
+
+    assertThat(cache.size(), lessThanOrEqualTo(100));
+  }
+
+  @Test
+  public void countsHitsAndMisses() {
+    var cache = new LRUCache<String, String>("test", 10);
+    cache.put("a", "A");
+    cache.get("a");
+    cache.get("a");
+    cache.get("b");
+
+    assertThat(cache.getHits(), equalTo(2L));
+    assertThat(cache.getMisses(), equalTo(1L));
+
+    cache.clear();
+    assertThat(cache.size(), equalTo(0));
+    assertThat(cache.getHits(), equalTo(0L));
+  }
+
+  @Test
+  public void registersByName() {
+    var cache = new LRUCache<String, String>("registered", 10);
+
+    assertThat(LRUCache.getCaches(), hasItem(cache));
+  }
+}
@@ -0,0 +1,30 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.api.Test;
+
+class PhraseMatcherTest {
+  private final PhraseMatcher matcher = new PhraseMatcher("he", "she", "his", "hers");
+
+  @Test
+  void findsEachPhrase() {
+    assertThat(matcher.find("ushers"), is(true));
+    assertThat(matcher.find("this"), is(true));
+    assertThat(matcher.find("ahe"), is(true));
+  }
+
+  @Test
+  void findsNothingWithoutAPhrase() {
+    assertThat(matcher.find("hi sh"), is(false));
+    assertThat(matcher.find(""), is(false));
+  }
+
+  @Test
+  void findsOnlyWithinRange() {
+    assertThat(matcher.find("she sells", 1, 3), is(true));
+    assertThat(matcher.find("she sells", 0, 2), is(false));
+    assertThat(matcher.find("she sells", 2, 9), is(false));
+  }
+}
@@ -0,0 +1,106 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import net.sourceforge.kolmafia.KoLConstants.MafiaState;
+import net.sourceforge.kolmafia.KoLmafia;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RateLimitedFetchTest {
+  private final List<Long> sleeps = Collections.synchronizedList(new ArrayList<>());
+
+  @BeforeEach
+  public void beforeEach() {
+    KoLmafia.forceContinue();
+
+    // A clock which stands still, so that every fetch but the first waits for its turn
+    RateLimitedFetch.setPacer(
+        new RateLimitedFetch.Pacer() {
+          @Override
+          public long currentTimeMillis() {
+            return 0;
+          }
+
+          @Override
+          public void sleep(final long millis) {
+            sleeps.add(millis);
+          }
+        });
+  }
+
+  @AfterEach
+  public void afterEach() {
+    RateLimitedFetch.setPacer(RateLimitedFetch.SYSTEM);
+    KoLmafia.forceContinue();
+  }
+
+  @Test
+  public void spacesFetchesAndReceivesOnCallingThread() {
+    Thread caller = Thread.currentThread();
+    Map<Integer, String> received = new TreeMap<>();
+
+    RateLimitedFetch.fetchAll(
+        List.of(1, 2, 3, 4),
+        2,
+        50,
+        item -> "page " + item,
+        (item, page) -> {
+          assertThat(Thread.currentThread(), equalTo(caller));
+          received.put(item, page);
+        });
+
+    assertThat(received.values(), contains("page 1", "page 2", "page 3", "page 4"));
+    Collections.sort(this.sleeps);
+    assertThat(this.sleeps, contains(50L, 100L, 150L));
+  }
+
+  @Test
+  public void failedFetchIsReceivedWithoutResult() {
+    Map<Integer, String> received = new TreeMap<>();
+
+    RateLimitedFetch.fetchAll(
+        List.of(1, 2, 3),
+        3,
+        0,
+        item -> {
+          if (item == 2) {
+            throw new IllegalStateException("no page");
+          }
+          return "page " + item;
+        },
+        received::put);
+
+    assertThat(received.keySet(), contains(1, 2, 3));
+    assertThat(received.get(1), equalTo("page 1"));
+    assertThat(received.get(2), equalTo(null));
+    assertThat(received.get(3), equalTo("page 3"));
+  }
+
+  @Test
+  public void abortStopsBatch() {
+    Map<Integer, String> received = new TreeMap<>();
+
+    RateLimitedFetch.fetchAll(
+        List.of(1, 2, 3),
+        1,
+        0,
+        item -> {
+          KoLmafia.updateDisplay(MafiaState.ABORT, "Stop");
+          return "page " + item;
+        },
+        received::put);
+
+    assertThat(received.get(1), equalTo("page 1"));
+    assertThat(received.get(2), equalTo(null));
+    assertThat(received.get(3), equalTo(null));
+  }
+}
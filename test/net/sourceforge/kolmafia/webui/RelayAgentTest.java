@@ -1,16 +1,19 @@
 package net.sourceforge.kolmafia.webui;
 
 import static internal.helpers.Player.withPasswordHash;
+import static internal.helpers.Player.withProperty;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.is;
 
+import internal.helpers.Cleanups;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -41,7 +44,8 @@ class RelayAgentTest {
 
   private OutputStream sendInput(String input) {
     OutputStream outputStream = new ByteArrayOutputStream();
-    agent.setSocket(new MockSocket(new ByteArrayInputStream(input.getBytes()), outputStream));
+    InputStream inputStream = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    agent.setSocket(new MockSocket(inputStream, outputStream));
     return outputStream;
   }
 
@@ -90,4 +94,84 @@ class RelayAgentTest {
       }
     }
   }
+
+  @Test
+  void keepAliveServesPipelinedRequests() throws IOException {
+    var cleanups =
+        new Cleanups(withPasswordHash("xxxx"), withProperty("relayKeepsConnectionsAlive", true));
+    try (cleanups) {
+      String request = "GET /KoLmafia/sideCommand?pwd=xxxx&cmd=echo hi HTTP/1.1\r\n\r\n";
+      try (var outputStream = this.sendInput(request + request)) {
+        agent.serveConnection();
+        assertThat(outputStream.toString().split("302 Found", -1).length, is(3));
+      }
+    }
+  }
+
+  @Test
+  void connectionCloseEndsKeepAlive() throws IOException {
+    var cleanups =
+        new Cleanups(withPasswordHash("xxxx"), withProperty("relayKeepsConnectionsAlive", true));
+    try (cleanups) {
+      String request =
+          "GET /KoLmafia/sideCommand?pwd=xxxx&cmd=echo hi HTTP/1.1\r\nConnection: close\r\n\r\n";
+      try (var outputStream = this.sendInput(request + request)) {
+        agent.serveConnection();
+        assertThat(outputStream.toString().split("302 Found", -1).length, is(2));
+      }
+    }
+  }
+
+  @Test
+  void rejectedRequestEndsKeepAlive() throws IOException {
+    var cleanups =
+        new Cleanups(withPasswordHash("xxxx"), withProperty("relayKeepsConnectionsAlive", true));
+    try (cleanups) {
+      String request = "GET /KoLmafia/sideCommand?cmd=echo hi HTTP/1.1\r\n\r\n";
+      try (var outputStream = this.sendInput(request + request)) {
+        agent.serveConnection();
+        assertThat(outputStream.toString().split("401 Unauthorized", -1).length, is(2));
+      }
+    }
+  }
+
+  @Test
+  void bogusRefererEndsKeepAliveWithoutReadingBody() throws IOException {
+    var cleanups =
+        new Cleanups(withPasswordHash("xxxx"), withProperty("relayKeepsConnectionsAlive", true));
+    try (cleanups) {
+      // The body is a request line, which must not be served as the next request
+      String body = "GET /KoLmafia/sideCommand?pwd=xxxx&cmd=echo hi HTTP/1.1\r\n\r\n";
+      String request =
+          "POST /KoLmafia/sideCommand HTTP/1.1\r\nReferer: ftp://elsewhere/\r\nContent-Length: "
+              + body.length()
+              + "\r\n\r\n"
+              + body;
+      try (var outputStream = this.sendInput(request)) {
+        agent.serveConnection();
+        String output = outputStream.toString();
+        assertThat(output.split("400 Bad Request", -1).length, is(2));
+        assertThat(output.contains("302 Found"), is(false));
+      }
+    }
+  }
+
+  @Test
+  void bodyIsReadToItsLengthInBytes() throws IOException {
+    var cleanups =
+        new Cleanups(withPasswordHash("xxxx"), withProperty("relayKeepsConnectionsAlive", true));
+    try (cleanups) {
+      String body = "pwd=xxxx&cmd=echo h\u00e9llo";
+      String post =
+          "POST /KoLmafia/sideCommand HTTP/1.1\r\nContent-Length: "
+              + body.getBytes(StandardCharsets.UTF_8).length
+              + "\r\n\r\n"
+              + body;
+      String get = "GET /KoLmafia/sideCommand?pwd=xxxx&cmd=echo hi HTTP/1.1\r\n\r\n";
+      try (var outputStream = this.sendInput(post + get)) {
+        agent.serveConnection();
+        assertThat(outputStream.toString().split("302 Found", -1).length, is(3));
+      }
+    }
+  }
 }
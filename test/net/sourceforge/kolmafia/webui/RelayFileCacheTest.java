@@ -0,0 +1,101 @@
+package net.sourceforge.kolmafia.webui;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RelayFileCacheTest {
+  private static final byte[] CSS =
+      "body { color: black; }\n".repeat(50).getBytes(StandardCharsets.UTF_8);
+
+  @AfterEach
+  void clearCache() {
+    RelayFileCache.clear();
+  }
+
+  private static RelayFileCache.CachedFile putImage(
+      final String path, final byte[] bytes, final String contentType, final long lastModified) {
+    return RelayFileCache.putImage(
+        path, bytes, contentType, lastModified, RelayFileCache.generation());
+  }
+
+  @Test
+  void cachesImages() {
+    byte[] bytes = {1, 2, 3};
+    var cached = putImage("images/test.gif", bytes, "image/gif", 1000L);
+
+    assertThat(RelayFileCache.get("images/test.gif"), sameInstance(cached));
+    assertThat(cached.bytes(), sameInstance(bytes));
+    assertThat(cached.lastModified(), is(1000L));
+    assertThat(cached.gzipped(), nullValue());
+  }
+
+  @Test
+  void compressesText() throws IOException {
+    var cached = putImage("images/test.css", CSS, "text/css", 0L);
+
+    assertThat(cached.gzipped(), notNullValue());
+    try (var istream = new GZIPInputStream(new ByteArrayInputStream(cached.gzipped()))) {
+      assertThat(istream.readAllBytes(), equalTo(CSS));
+    }
+  }
+
+  @Test
+  void etagFollowsContents() {
+    var first = putImage("images/a.gif", new byte[] {1}, "image/gif", 0L);
+    var second = putImage("images/b.gif", new byte[] {2}, "image/gif", 0L);
+    var third = putImage("images/c.gif", new byte[] {1}, "image/gif", 0L);
+
+    assertThat(first.etag(), not(equalTo(second.etag())));
+    assertThat(first.etag(), equalTo(third.etag()));
+  }
+
+  @Test
+  void matchesIfNoneMatch() {
+    var cached = putImage("images/test.gif", new byte[] {1}, "image/gif", 0L);
+
+    assertThat(RelayFileCache.matches("images/test.gif", cached.etag()), is(true));
+    assertThat(RelayFileCache.matches("images/test.gif", "\"other\", " + cached.etag()), is(true));
+    assertThat(RelayFileCache.matches("images/test.gif", "*"), is(true));
+    assertThat(RelayFileCache.matches("images/test.gif", "\"other\""), is(false));
+    assertThat(RelayFileCache.matches("images/other.gif", cached.etag()), is(false));
+  }
+
+  @Test
+  void doesNotCacheWhatWasReadBeforeAChange() {
+    long generation = RelayFileCache.generation();
+    RelayFileCache.clear();
+
+    var cached =
+        RelayFileCache.putImage("images/test.gif", new byte[] {1}, "image/gif", 0L, generation);
+    assertThat(cached, nullValue());
+    assertThat(RelayFileCache.get("images/test.gif"), nullValue());
+  }
+
+  @Test
+  void doesNotCacheLargeFiles() {
+    byte[] bytes = new byte[1024 * 1024];
+
+    assertThat(putImage("images/big.gif", bytes, "image/gif", 0L), nullValue());
+    assertThat(RelayFileCache.get("images/big.gif"), nullValue());
+  }
+
+  @Test
+  void doesNotCacheTextWithImageServerLinks() {
+    assertThat(RelayFileCache.isCacheableText("body { color: black; }"), is(true));
+    assertThat(
+        RelayFileCache.isCacheableText("<img src=\"//images.kingdomofloathing.com/x.gif\">"),
+        is(false));
+  }
+}